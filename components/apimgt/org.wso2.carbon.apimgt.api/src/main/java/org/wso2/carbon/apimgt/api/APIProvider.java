@@ -177,6 +177,15 @@ public interface APIProvider extends APIManager {
      */
     List<SubscribedAPI> getAPIProductUsageByAPIProductId(APIProductIdentifier apiProductId) throws APIManagementException;
 
+    /**
+     * Returns the number of subscriptions of an API or API Product, which are not rejected.
+     *
+     * @param identifier API or API Product identifier
+     * @return number of subscriptions of the API or API Product
+     * @throws APIManagementException If failed to count the subscriptions
+     */
+    int getAPIUsageCount(Identifier identifier) throws APIManagementException;
+
     /**
      * Shows how a given consumer uses the given API.
      *
@@ -48,7 +48,10 @@ public abstract class AbstractAPIMgtGatewayJWTGenerator {
     public static final String API_GATEWAY_ID = "wso2.org/products/am";
     public JWTConfigurationDto jwtConfigurationDto;
 
+    private static final ObjectMapper mapper = new ObjectMapper();
     private static volatile long ttl = -1L;
+    private volatile CertificateHeader lastCertificateHeader;
+    private volatile EncodedHeader lastEncodedHeader;
     public String dialectURI;
 
     public String signatureAlgorithm;
@@ -76,7 +79,7 @@ public abstract class AbstractAPIMgtGatewayJWTGenerator {
         String jwtBody = buildBody(jwtInfoDto);
         String base64UrlEncodedHeader = "";
         if (jwtHeader != null) {
-            base64UrlEncodedHeader = encode(jwtHeader.getBytes(Charset.defaultCharset()));
+            base64UrlEncodedHeader = encodeHeader(jwtHeader);
         }
         String base64UrlEncodedBody = "";
         try {
@@ -120,6 +123,24 @@ public abstract class AbstractAPIMgtGatewayJWTGenerator {
         return jwtHeader;
     }
 
+    /**
+     * Returns the base64url encoded header. The header only changes with the signing certificate and the algorithm,
+     * hence the last encoded header is reused while it stays the same.
+     *
+     * @param jwtHeader JWT header
+     * @return base64url encoded header
+     * @throws JWTGeneratorException
+     */
+    private String encodeHeader(String jwtHeader) throws JWTGeneratorException {
+
+        EncodedHeader encodedHeader = lastEncodedHeader;
+        if (encodedHeader == null || !encodedHeader.header.equals(jwtHeader)) {
+            encodedHeader = new EncodedHeader(jwtHeader, encode(jwtHeader.getBytes(Charset.defaultCharset())));
+            lastEncodedHeader = encodedHeader;
+        }
+        return encodedHeader.encodedHeader;
+    }
+
     public byte[] signJWT(String assertion) throws JWTGeneratorException {
 
         try {
@@ -139,7 +160,15 @@ public abstract class AbstractAPIMgtGatewayJWTGenerator {
 
         try {
             Certificate publicCert = jwtConfigurationDto.getPublicCert();
-            return JWTUtil.generateHeader(publicCert, signatureAlgorithm);
+            CertificateHeader certificateHeader = lastCertificateHeader;
+            if (certificateHeader == null || certificateHeader.publicCert != publicCert
+                    || !certificateHeader.signatureAlgorithm.equals(signatureAlgorithm)) {
+                // the thumbprint of the certificate is only computed when the certificate or algorithm changes
+                certificateHeader = new CertificateHeader(publicCert, signatureAlgorithm,
+                        JWTUtil.generateHeader(publicCert, signatureAlgorithm));
+                lastCertificateHeader = certificateHeader;
+            }
+            return certificateHeader.header;
         } catch (Exception e) {
             String error = "Error in obtaining keystore";
             throw new JWTGeneratorException(error, e);
@@ -160,7 +189,6 @@ public abstract class AbstractAPIMgtGatewayJWTGenerator {
                 }
             }
         }
-        ObjectMapper mapper = new ObjectMapper();
         for (Map.Entry<String, Object> claimEntry : claims.entrySet()) {
             Object claimVal = claimEntry.getValue();
             if (claimVal instanceof String && claimEntry.toString().contains("{")) {
@@ -208,5 +236,37 @@ public abstract class AbstractAPIMgtGatewayJWTGenerator {
     public abstract Map<String, Object> populateStandardClaims(JWTInfoDto jwtInfoDto);
 
     public abstract Map<String, Object> populateCustomClaims(JWTInfoDto jwtInfoDto);
+
+    /**
+     * JWT header generated for a signing certificate and a signature algorithm.
+     */
+    private static class CertificateHeader {
+
+        private final Certificate publicCert;
+        private final String signatureAlgorithm;
+        private final String header;
+
+        CertificateHeader(Certificate publicCert, String signatureAlgorithm, String header) {
+
+            this.publicCert = publicCert;
+            this.signatureAlgorithm = signatureAlgorithm;
+            this.header = header;
+        }
+    }
+
+    /**
+     * JWT header along with its base64url encoded value.
+     */
+    private static class EncodedHeader {
+
+        private final String header;
+        private final String encodedHeader;
+
+        EncodedHeader(String header, String encodedHeader) {
+
+            this.header = header;
+            this.encodedHeader = encodedHeader;
+        }
+    }
 }
 
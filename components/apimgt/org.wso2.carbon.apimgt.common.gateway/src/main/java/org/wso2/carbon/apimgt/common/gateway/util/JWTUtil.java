@@ -55,6 +55,7 @@ public final class JWTUtil {
     private static final Log log = LogFactory.getLog(JWTUtil.class);
     private static final String NONE = "NONE";
     private static final String SHA256_WITH_RSA = "SHA256withRSA";
+    private static final ThreadLocal<Map<String, Signature>> SIGNATURES = ThreadLocal.withInitial(HashMap::new);
 
     /**
      * Get the JWS compliant signature algorithm code of the algorithm used to sign the JWT.
@@ -148,7 +149,7 @@ public final class JWTUtil {
 
         try {
             //initialize signature with private key and algorithm
-            Signature signature = Signature.getInstance(signatureAlgorithm);
+            Signature signature = getSignature(signatureAlgorithm);
             signature.initSign(privateKey);
 
             //update signature with data to be signed
@@ -169,6 +170,26 @@ public final class JWTUtil {
         }
     }
 
+    /**
+     * Returns a Signature instance of the given algorithm for the current thread. Signature instances are not
+     * thread-safe, hence they are reused per thread instead of being looked up from the providers for every JWT.
+     * The instance must be initialized with a key before it is used.
+     *
+     * @param signatureAlgorithm signature algorithm
+     * @return Signature instance of the algorithm
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     */
+    private static Signature getSignature(String signatureAlgorithm) throws NoSuchAlgorithmException {
+
+        Map<String, Signature> signatures = SIGNATURES.get();
+        Signature signature = signatures.get(signatureAlgorithm);
+        if (signature == null) {
+            signature = Signature.getInstance(signatureAlgorithm);
+            signatures.put(signatureAlgorithm, signature);
+        }
+        return signature;
+    }
+
     /**
      * Parse a jwt assertion provided in string format and returns set of claims
      * defined in the assertion.
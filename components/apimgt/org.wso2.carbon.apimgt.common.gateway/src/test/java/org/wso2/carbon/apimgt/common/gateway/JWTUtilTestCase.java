@@ -22,6 +22,11 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.wso2.carbon.apimgt.common.gateway.util.JWTUtil;
 
+import java.nio.charset.Charset;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+
 /**
  * Test cases for {@link JWTUtil}
  */
@@ -47,4 +52,21 @@ public class JWTUtilTestCase {
     public void testGetJWTClaimsWhenJWTNotAvailable() {
         Assert.assertNull(JWTUtil.getJWTClaims(null));
     }
+
+    @Test
+    public void testSignJwtWithReusedSignature() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair firstKeyPair = keyPairGenerator.generateKeyPair();
+        KeyPair secondKeyPair = keyPairGenerator.generateKeyPair();
+        String[] assertions = {"header.body1", "header.body2", "header.body1"};
+        KeyPair[] keyPairs = {firstKeyPair, secondKeyPair, firstKeyPair};
+        for (int i = 0; i < assertions.length; i++) {
+            byte[] signedAssertion = JWTUtil.signJwt(assertions[i], keyPairs[i].getPrivate(), "SHA256withRSA");
+            Signature verifier = Signature.getInstance("SHA256withRSA");
+            verifier.initVerify(keyPairs[i].getPublic());
+            verifier.update(assertions[i].getBytes(Charset.defaultCharset()));
+            Assert.assertTrue(verifier.verify(signedAssertion));
+        }
+    }
 }
@@ -159,6 +159,11 @@ public class JMSConstants {
      * "AUTO_ACKNOWLEDGE", "CLIENT_ACKNOWLEDGE", "DUPS_OK_ACKNOWLEDGE" or "SESSION_TRANSACTED"
      */
     public static final String PARAM_SESSION_ACK = "transport.jms.SessionAcknowledgement";
+    /**
+     * The number of messages acknowledged together when the Session acknowledgement is "CLIENT_ACKNOWLEDGE".
+     * A partially filled batch is acknowledged as soon as no more messages are available. Defaults to 1
+     */
+    public static final String PARAM_ACK_BATCH_SIZE = "transport.jms.AcknowledgementBatchSize";
     /**
      * A message selector to be used when messages are sought for this service
      */
@@ -126,6 +126,10 @@ public class JMSTaskManager {
      * Session acknowledgement mode when transacted Sessions (i.e. local transactions) are used
      */
     private int sessionAckMode = Session.AUTO_ACKNOWLEDGE;
+    /**
+     * The number of messages acknowledged together when client acknowledgement is used
+     */
+    private int acknowledgementBatchSize = 1;
 
     /**
      * Is the subscription durable ?
@@ -457,6 +461,14 @@ public class JMSTaskManager {
          * Is this task connected to the JMS provider successfully?
          */
         private volatile boolean connected = false;
+        /**
+         * The last message received with client acknowledgement, which is not acknowledged yet
+         */
+        private Message lastUnacknowledgedMessage = null;
+        /**
+         * The number of messages received since the last acknowledgement
+         */
+        private int unacknowledgedMessageCount = 0;
 
         /**
          * As soon as we create a new polling task, add it to the STM for control later
@@ -557,6 +569,8 @@ public class JMSTaskManager {
                     } else {
                         idle = true;
                         idleExecutionCount++;
+                        // no more messages for now, hence acknowledge the partially filled batch
+                        acknowledgePendingMessages();
                     }
                 }
 
@@ -574,6 +588,7 @@ public class JMSTaskManager {
                             " is stopping after processing : " + messageCount + " messages");
                 }
 
+                acknowledgePendingMessages();
                 // Close the consumer and session before decrementing activeTaskCount.
                 // (If we have a shared connection, Qpid deadlocks if the shared connection
                 //  is closed on another thread while closing the session)
@@ -659,13 +674,13 @@ public class JMSTaskManager {
 
                 // if client acknowledgement is selected, and processing requested ACK
                 if (commitOrAck && getSessionAckMode() == Session.CLIENT_ACKNOWLEDGE) {
-                    try {
-                        message.acknowledge();
-                        if (log.isDebugEnabled()) {
-                            log.debug("Message : " + messageId + " acknowledged");
-                        }
-                    } catch (JMSException e) {
-                        logError("Error acknowledging message : " + messageId, e);
+                    // acknowledging a message acknowledges all the messages consumed by the session, hence
+                    // messages are acknowledged in batches as long as the consumer outlives the message
+                    lastUnacknowledgedMessage = message;
+                    unacknowledgedMessageCount++;
+                    if (unacknowledgedMessageCount >= getAcknowledgementBatchSize()
+                            || cacheLevel < JMSConstants.CACHE_CONSUMER) {
+                        acknowledgePendingMessages();
                     }
                 }
 
@@ -717,6 +732,28 @@ public class JMSTaskManager {
             }
         }
 
+        /**
+         * Acknowledge the messages consumed since the last acknowledgement, if any
+         */
+        private void acknowledgePendingMessages() {
+            if (lastUnacknowledgedMessage == null) {
+                return;
+            }
+            String messageId = null;
+            try {
+                messageId = lastUnacknowledgedMessage.getJMSMessageID();
+                lastUnacknowledgedMessage.acknowledge();
+                if (log.isDebugEnabled()) {
+                    log.debug(unacknowledgedMessageCount + " message(s) up to : " + messageId + " acknowledged");
+                }
+            } catch (JMSException e) {
+                logError("Error acknowledging message : " + messageId, e);
+            } finally {
+                lastUnacknowledgedMessage = null;
+                unacknowledgedMessageCount = 0;
+            }
+        }
+
         /**
          * Handle JMS Connection exceptions by re-initializing. A single connection failure could
          * cause re-initialization of multiple MessageListenerTasks / Connections
@@ -1320,6 +1357,14 @@ public class JMSTaskManager {
         this.maxReconnectDuration = maxReconnectDuration;
     }
 
+    public int getAcknowledgementBatchSize() {
+        return acknowledgementBatchSize;
+    }
+
+    public void setAcknowledgementBatchSize(int acknowledgementBatchSize) {
+        this.acknowledgementBatchSize = Math.max(1, acknowledgementBatchSize);
+    }
+
     public int getMaxMessagesPerTask() {
         return maxMessagesPerTask;
     }
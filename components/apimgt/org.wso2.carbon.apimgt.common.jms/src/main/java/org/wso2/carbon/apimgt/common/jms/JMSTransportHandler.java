@@ -79,10 +79,25 @@ public class JMSTransportHandler {
      */
     public void subscribeForJmsEvents(String topicName, MessageListener messageListener) {
 
+        subscribeForJmsEvents(topicName, messageListener, new HashMap<String, String>());
+    }
+
+    /**
+     * This method is used to subscribe to JMS topics and receive JMS messages, overriding the JMS parameters of the
+     * subscription. e.g. a listener which handles redelivered messages idempotently can use the
+     * "DUPS_OK_ACKNOWLEDGE" session acknowledgement, which lets the provider acknowledge messages lazily.
+     *
+     * @param topicName              name of the topic
+     * @param messageListener        listener of the messages
+     * @param subscriptionParameters JMS parameters of the subscription
+     */
+    public void subscribeForJmsEvents(String topicName, MessageListener messageListener,
+                                      Map<String, String> subscriptionParameters) {
+
         //Listening to throttleData topic
         JMSListener jmsMessageListener =
                 createJMSMessageListener(topicName, minThreadPoolSize, maxThreadPoolSize, keepAliveTimeInMillis,
-                        jobQueueSize, messageListener);
+                        jobQueueSize, messageListener, subscriptionParameters);
         jmsMessageListener.startListener();
         jmsListenerList.add(jmsMessageListener);
         log.info("Starting jms topic consumer thread for the " + topicName + " topic...");
@@ -91,9 +106,10 @@ public class JMSTransportHandler {
 
     private JMSListener createJMSMessageListener(String topicName, int minThreadPoolSize, int maxThreadPoolSize,
                                                  int keepAliveTimeInMillis, int jobQueueSize,
-                                                 MessageListener messageListener) {
+                                                 MessageListener messageListener,
+                                                 Map<String, String> subscriptionParameters) {
 
-        Map<String, String> messageConfig = new HashMap<>();
+        Map<String, String> messageConfig = new HashMap<>(subscriptionParameters);
         messageConfig.put(JMSConstants.PARAM_DESTINATION, topicName);
         JMSTaskManager jmsTaskManager = JMSTaskManagerFactory
                 .createTaskManagerForService(jmsConnectionFactory,
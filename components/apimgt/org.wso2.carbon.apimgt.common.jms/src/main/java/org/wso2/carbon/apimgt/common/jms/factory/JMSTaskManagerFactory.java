@@ -117,6 +117,10 @@ public class JMSTaskManagerFactory {
         if (value != null) {
             stm.setMaxMessagesPerTask(value);
         }
+        value = getOptionalIntProperty(JMSConstants.PARAM_ACK_BATCH_SIZE, svc, cf);
+        if (value != null) {
+            stm.setAcknowledgementBatchSize(value);
+        }
 
         value = getOptionalIntProperty(JMSConstants.PARAM_RECON_INIT_DURATION, svc, cf);
         if (value != null) {
@@ -151,6 +155,7 @@ public class JMSTaskManagerFactory {
         stm.removeJmsProperties(JMSConstants.PARAM_MAX_CONSUMERS);
         stm.removeJmsProperties(JMSConstants.PARAM_IDLE_TASK_LIMIT);
         stm.removeJmsProperties(JMSConstants.PARAM_MAX_MSGS_PER_TASK);
+        stm.removeJmsProperties(JMSConstants.PARAM_ACK_BATCH_SIZE);
         stm.removeJmsProperties(JMSConstants.PARAM_RECON_INIT_DURATION);
         stm.removeJmsProperties(JMSConstants.PARAM_RECON_MAX_DURATION);
         stm.removeJmsProperties(JMSConstants.PARAM_RECON_FACTOR);
@@ -342,7 +347,7 @@ public class JMSTaskManagerFactory {
             return Session.AUTO_ACKNOWLEDGE;
         } else if ("CLIENT_ACKNOWLEDGE".equalsIgnoreCase(val)) {
             return Session.CLIENT_ACKNOWLEDGE;
-        } else if ("DUPS_OK_ACKNOWLEDGE".equals(val)) {
+        } else if ("DUPS_OK_ACKNOWLEDGE".equalsIgnoreCase(val)) {
             return Session.DUPS_OK_ACKNOWLEDGE;
         } else if ("SESSION_TRANSACTED".equals(val)) {
             return 0; //Session.SESSION_TRANSACTED;
@@ -78,6 +78,8 @@ public class APIMgtGatewayConstants {
     public static final String SERVICE_PREFIX = "SERVICE_PREFIX";
     public static final String REGEX_THREAT_PROTECTOR_ENABLED_TENANTS = "regexThreatProtectorEnabledTenants";
     public static final String PAYLOAD_SIZE_LIMIT_FOR_REGEX_TREAT_PROTECTOR = "payloadSizeLimitForRegexThreatProtector";
+    public static final String BUFFERED_PAYLOAD_LENGTH_LIMIT_FOR_REGEX_THREAT_PROTECTOR =
+            "bufferedPayloadLengthLimitForRegexThreatProtector";
 
     /**
      * Constants for handling threat protection exceptions.
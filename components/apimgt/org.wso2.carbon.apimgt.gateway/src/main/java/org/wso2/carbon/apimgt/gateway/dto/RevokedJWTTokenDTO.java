@@ -28,6 +28,8 @@ public class RevokedJWTTokenDTO {
     private String jwtSignature;
     @SerializedName("expiry_time")
     private Long expiryTime;
+    @SerializedName("time_created")
+    private Long timeCreated;
 
     public void setExpiryTime(Long expiryTime) {
         this.expiryTime = expiryTime;
@@ -37,6 +39,14 @@ public class RevokedJWTTokenDTO {
         return expiryTime;
     }
 
+    public Long getTimeCreated() {
+        return timeCreated;
+    }
+
+    public void setTimeCreated(Long timeCreated) {
+        this.timeCreated = timeCreated;
+    }
+
     public String getSignature() {
         return jwtSignature;
     }
@@ -28,7 +28,7 @@ import org.apache.synapse.AbstractSynapseHandler;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.transport.passthru.util.RelayUtils;
-import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 
 import java.io.IOException;
@@ -174,27 +174,15 @@ public class LogsHandler extends AbstractSynapseHandler {
      */
     private long getBackendLatency(org.apache.synapse.MessageContext messageContext) {
         long beTotalLatency = 0;
-        long beStartTime = 0;
-        long beEndTime = 0;
-        long executionStartTime = 0;
         try {
-            if (messageContext.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME) == null) {
-                if (messageContext.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME) != null) {
-                    executionStartTime = Long.parseLong(
-                            (String) messageContext.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME));
-                }
-                messageContext.setProperty(APIMgtGatewayConstants.BACKEND_LATENCY,
-                        System.currentTimeMillis() - executionStartTime);
-                messageContext.setProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME, System.currentTimeMillis());
-            }
-            if (messageContext.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME) != null) {
-                beStartTime = Long.parseLong(
-                        (String) messageContext.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME));
+            RequestTimings requestTimings = RequestTimings.of(messageContext);
+            long beStartTime = requestTimings.getBackendRequestStartTime(messageContext);
+            if (requestTimings.getBackendRequestEndTime() == 0) {
+                long currentTime = System.currentTimeMillis();
+                requestTimings.setBackendLatency(messageContext, currentTime - beStartTime);
+                requestTimings.setBackendRequestEndTime(messageContext, currentTime);
             }
-            if (messageContext.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME) != null) {
-                beEndTime = (Long) messageContext.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME);
-            }
-            beTotalLatency = beEndTime - beStartTime;
+            beTotalLatency = requestTimings.getBackendRequestEndTime() - beStartTime;
 
         } catch (Exception e) {
             log.error("Error getBackendLatency -  " + e.getMessage(), e);
@@ -208,11 +196,7 @@ public class LogsHandler extends AbstractSynapseHandler {
     private long getResponseTime(org.apache.synapse.MessageContext messageContext) {
         long responseTime = 0;
         try {
-            long rtStartTime = 0;
-            if (messageContext.getProperty(APIMgtGatewayConstants.REQUEST_EXECUTION_START_TIME) != null) {
-                Object objRtStartTime = messageContext.getProperty(APIMgtGatewayConstants.REQUEST_EXECUTION_START_TIME);
-                rtStartTime = (objRtStartTime == null ? 0 : Long.parseLong((String) objRtStartTime));
-            }
+            long rtStartTime = RequestTimings.of(messageContext).getRequestExecutionStartTime();
             responseTime = System.currentTimeMillis() - rtStartTime;
         } catch (Exception e) {
             log.error("Error getResponseTime -  " + e.getMessage(), e);
@@ -92,6 +92,8 @@ import static org.wso2.carbon.apimgt.gateway.handlers.streaming.websocket.WebSoc
  */
 public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
     private static final Log log = LogFactory.getLog(WebsocketInboundHandler.class);
+    // Keyed by the deployed synapse API, so that the validators of undeployed or updated APIs are released
+    private static final Map<API, JWTValidator> jwtValidators = new WeakHashMap<>();
     private String tenantDomain;
     private String fullRequestPath;
     private String requestPath; // request path without query param section
@@ -108,6 +110,12 @@ public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
     private AuthenticationContext authContext;
     private WebSocketAnalyticsMetricsHandler metricsHandler;
     private org.wso2.carbon.apimgt.keymgt.model.entity.API electedAPI;
+    private String authorizedUser;
+    private String applicationLevelThrottleKey;
+    private String apiLevelThrottleKey;
+    private String resourceLevelThrottleKey;
+    private String subscriptionLevelThrottleKey;
+    private JSONObject throttleProperties;
 
     public WebsocketInboundHandler() {
         initializeDataPublisher();
@@ -320,7 +328,7 @@ public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
                 if (isJwtToken) {
                     log.debug("The token was identified as a JWT token");
 
-                    AuthenticationContext authenticationContext = new JWTValidator(new APIKeyValidator(), tenantDomain).
+                    AuthenticationContext authenticationContext = getJWTValidator().
                             authenticateForWebSocket(signedJWTInfo, apiContext, version, matchingResource);
                     if (authenticationContext == null || !authenticationContext.isAuthenticated()) {
                         return false;
@@ -380,6 +388,28 @@ public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
+    /**
+     * Returns the JWT validator of the API being invoked. A validator is created once per deployed API and shared
+     * among the handshakes of all connections to it, as an APIKeyValidator must not be shared among multiple APIs.
+     *
+     * @return JWT validator of the API
+     * @throws APIManagementException if the validator could not be initialized
+     */
+    protected JWTValidator getJWTValidator() throws APIManagementException {
+
+        if (api == null) {
+            return new JWTValidator(new APIKeyValidator(), tenantDomain);
+        }
+        synchronized (jwtValidators) {
+            JWTValidator jwtValidator = jwtValidators.get(api);
+            if (jwtValidator == null) {
+                jwtValidator = new JWTValidator(new APIKeyValidator(), tenantDomain);
+                jwtValidators.put(api, jwtValidator);
+            }
+            return jwtValidator;
+        }
+    }
+
     protected String getInboundName(ChannelHandlerContext ctx) {
         return ctx.channel().pipeline().get("ssl") != null ? WS_SECURED_ENDPOINT_NAME : WS_ENDPOINT_NAME;
     }
@@ -415,36 +445,9 @@ public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
      */
     public boolean doThrottle(ChannelHandlerContext ctx, WebSocketFrame msg) {
 
-        String applicationLevelTier = infoDTO.getApplicationTier();
-        String apiLevelTier = infoDTO.getApiTier();
-        String subscriptionLevelTier = infoDTO.getTier();
-        String resourceLevelTier = apiLevelTier;
-        String authorizedUser;
-        if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equalsIgnoreCase(infoDTO.getSubscriberTenantDomain())) {
-            authorizedUser = infoDTO.getSubscriber() + "@" + infoDTO.getSubscriberTenantDomain();
-        } else {
-            authorizedUser = infoDTO.getSubscriber();
+        if (throttleProperties == null) {
+            initThrottleKeys(ctx);
         }
-        String apiName = infoDTO.getApiName();
-        String apiVersion = version;
-        String appTenant = infoDTO.getSubscriberTenantDomain();
-        String apiTenant = tenantDomain;
-        String appId = infoDTO.getApplicationId();
-        String applicationLevelThrottleKey = appId + ":" + authorizedUser;
-        String apiLevelThrottleKey = apiContext + ":" + apiVersion;
-        String resourceLevelThrottleKey = apiLevelThrottleKey;
-        String subscriptionLevelThrottleKey = appId + ":" + apiContext + ":" + apiVersion;
-        String messageId = UIDGenerator.generateURNString();
-        String remoteIP = getRemoteIP(ctx);
-        if (log.isDebugEnabled()) {
-            log.debug("Remote IP address : " + remoteIP);
-        }
-        if (remoteIP.indexOf(":") > 0) {
-            remoteIP = remoteIP.substring(1, remoteIP.indexOf(":"));
-        }
-        JSONObject jsonObMap = new JSONObject();
-        Utils.setRemoteIp(jsonObMap, remoteIP);
-        jsonObMap.put(APIThrottleConstants.MESSAGE_SIZE, msg.content().capacity());
         try {
             PrivilegedCarbonContext.startTenantFlow();
             PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain, true);
@@ -456,22 +459,56 @@ public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
         } finally {
             PrivilegedCarbonContext.endTenantFlow();
         }
-        Object[] objects =
-                new Object[] { messageId, applicationLevelThrottleKey, applicationLevelTier, apiLevelThrottleKey,
-                        apiLevelTier, subscriptionLevelThrottleKey, subscriptionLevelTier, resourceLevelThrottleKey,
-                        resourceLevelTier, authorizedUser, apiContext, apiVersion, appTenant, apiTenant, appId, apiName,
-                        jsonObMap.toString() };
-        org.wso2.carbon.databridge.commons.Event event = new org.wso2.carbon.databridge.commons.Event(
-                "org.wso2.throttle.request.stream:1.0.0", System.currentTimeMillis(), null, null, objects);
         if (ServiceReferenceHolder.getInstance().getThrottleDataPublisher() == null) {
             log.error("Cannot publish events to traffic manager because ThrottleDataPublisher "
                               + "has not been initialised");
             return true;
         }
+        // Frames of a channel are read by a single event loop thread, hence the properties can be reused
+        throttleProperties.put(APIThrottleConstants.MESSAGE_SIZE, msg.content().capacity());
+        String messageId = UIDGenerator.generateURNString();
+        Object[] objects =
+                new Object[] { messageId, applicationLevelThrottleKey, infoDTO.getApplicationTier(),
+                        apiLevelThrottleKey, infoDTO.getApiTier(), subscriptionLevelThrottleKey, infoDTO.getTier(),
+                        resourceLevelThrottleKey, infoDTO.getApiTier(), authorizedUser, apiContext, version,
+                        infoDTO.getSubscriberTenantDomain(), tenantDomain, infoDTO.getApplicationId(),
+                        infoDTO.getApiName(), throttleProperties.toString() };
+        org.wso2.carbon.databridge.commons.Event event = new org.wso2.carbon.databridge.commons.Event(
+                "org.wso2.throttle.request.stream:1.0.0", System.currentTimeMillis(), null, null, objects);
         ServiceReferenceHolder.getInstance().getThrottleDataPublisher().getDataPublisher().tryPublish(event);
         return true;
     }
 
+    /**
+     * Builds the throttle keys and the remote IP properties of the connection once, as they do not change
+     * between the frames of a connection.
+     *
+     * @param ctx ChannelHandlerContext
+     */
+    private void initThrottleKeys(ChannelHandlerContext ctx) {
+
+        if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equalsIgnoreCase(infoDTO.getSubscriberTenantDomain())) {
+            authorizedUser = infoDTO.getSubscriber() + "@" + infoDTO.getSubscriberTenantDomain();
+        } else {
+            authorizedUser = infoDTO.getSubscriber();
+        }
+        String appId = infoDTO.getApplicationId();
+        applicationLevelThrottleKey = appId + ":" + authorizedUser;
+        apiLevelThrottleKey = apiContext + ":" + version;
+        resourceLevelThrottleKey = apiLevelThrottleKey;
+        subscriptionLevelThrottleKey = appId + ":" + apiContext + ":" + version;
+        String remoteIP = getRemoteIP(ctx);
+        if (log.isDebugEnabled()) {
+            log.debug("Remote IP address : " + remoteIP);
+        }
+        if (remoteIP.indexOf(":") > 0) {
+            remoteIP = remoteIP.substring(1, remoteIP.indexOf(":"));
+        }
+        JSONObject jsonObMap = new JSONObject();
+        Utils.setRemoteIp(jsonObMap, remoteIP);
+        throttleProperties = jsonObMap;
+    }
+
     protected String getRemoteIP(ChannelHandlerContext ctx) {
         return ((InetSocketAddress) ctx.channel().remoteAddress()).getAddress().getHostAddress();
     }
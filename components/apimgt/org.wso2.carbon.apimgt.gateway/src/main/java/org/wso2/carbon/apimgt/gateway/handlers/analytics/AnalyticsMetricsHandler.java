@@ -28,6 +28,8 @@ import org.wso2.carbon.apimgt.common.analytics.collectors.impl.GenericRequestDat
 import org.wso2.carbon.apimgt.common.analytics.exceptions.AnalyticsException;
 import org.wso2.carbon.apimgt.gateway.handlers.DataPublisherUtil;
 import org.wso2.carbon.apimgt.gateway.handlers.streaming.AsyncAnalyticsDataProvider;
+import org.wso2.carbon.apimgt.gateway.metrics.GatewayLatencyStats;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.inbound.endpoint.protocol.websocket.InboundWebsocketConstants;
@@ -50,7 +52,7 @@ public class AnalyticsMetricsHandler extends AbstractExtendedSynapseHandler {
     public boolean handleRequestInFlow(MessageContext messageContext) {
 
 
-        messageContext.setProperty(Constants.REQUEST_START_TIME_PROPERTY, System.currentTimeMillis());
+        RequestTimings.of(messageContext).setRequestStartTime(messageContext, System.currentTimeMillis());
         //Set user agent in request flow
         if (!messageContext.getPropertyKeySet().contains(InboundWebsocketConstants.WEBSOCKET_SUBSCRIBER_PATH)) {
             if (GatewayUtils.isAPIStatusPrototype(messageContext)) {
@@ -68,13 +70,13 @@ public class AnalyticsMetricsHandler extends AbstractExtendedSynapseHandler {
 
     @Override
     public boolean handleRequestOutFlow(MessageContext messageContext) {
-        messageContext.setProperty(Constants.BACKEND_START_TIME_PROPERTY, System.currentTimeMillis());
+        RequestTimings.of(messageContext).setBackendStartTime(messageContext, System.currentTimeMillis());
         return true;
     }
 
     @Override
     public boolean handleResponseInFlow(MessageContext messageContext) {
-        messageContext.setProperty(Constants.BACKEND_END_TIME_PROPERTY, System.currentTimeMillis());
+        RequestTimings.of(messageContext).setBackendEndTime(messageContext, System.currentTimeMillis());
         Object responseCode = ((Axis2MessageContext) messageContext).getAxis2MessageContext()
                 .getProperty(SynapseConstants.HTTP_SC);
         messageContext.setProperty(Constants.BACKEND_RESPONSE_CODE, responseCode);
@@ -86,6 +88,7 @@ public class AnalyticsMetricsHandler extends AbstractExtendedSynapseHandler {
         if (messageContext.getPropertyKeySet().contains(InboundWebsocketConstants.WEBSOCKET_SUBSCRIBER_PATH)) {
             return true;
         }
+        long collectionStartTime = System.nanoTime();
         AnalyticsDataProvider provider;
         Object skipPublishMetrics = messageContext.getProperty(Constants.SKIP_DEFAULT_METRICS_PUBLISHING);
         if (skipPublishMetrics != null && (Boolean) skipPublishMetrics) {
@@ -99,6 +102,7 @@ public class AnalyticsMetricsHandler extends AbstractExtendedSynapseHandler {
         } catch (AnalyticsException e) {
             log.error("Error Occurred when collecting data", e);
         }
+        GatewayLatencyStats.getInstance().recordSince(GatewayLatencyStats.Phase.ANALYTICS, collectionStartTime);
         return true;
     }
 
@@ -40,6 +40,7 @@ import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.handlers.security.APISecurityUtils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.keymgt.SubscriptionDataHolder;
 import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataStore;
@@ -273,7 +274,7 @@ public class SynapseAnalyticsDataProvider implements AnalyticsDataProvider {
     @Override
     public long getRequestTime() {
 
-        return (long) messageContext.getProperty(Constants.REQUEST_START_TIME_PROPERTY);
+        return RequestTimings.of(messageContext).getRequestStartTime();
     }
 
     @Override
@@ -346,25 +347,24 @@ public class SynapseAnalyticsDataProvider implements AnalyticsDataProvider {
         if (isCacheHit()) {
             return 0L;
         }
-        long backendStartTime = (long) messageContext.getProperty(Constants.BACKEND_START_TIME_PROPERTY);
-        long backendEndTime = (long) messageContext.getProperty(Constants.BACKEND_END_TIME_PROPERTY);
-        return backendEndTime - backendStartTime;
+        RequestTimings requestTimings = RequestTimings.of(messageContext);
+        return requestTimings.getBackendEndTime() - requestTimings.getBackendStartTime();
     }
 
     public long getResponseLatency() {
 
-        long requestInTime = (long) messageContext.getProperty(Constants.REQUEST_START_TIME_PROPERTY);
+        long requestInTime = RequestTimings.of(messageContext).getRequestStartTime();
         return System.currentTimeMillis() - requestInTime;
     }
 
     public long getRequestMediationLatency() {
 
-        long requestInTime = (long) messageContext.getProperty(Constants.REQUEST_START_TIME_PROPERTY);
+        RequestTimings requestTimings = RequestTimings.of(messageContext);
+        long requestInTime = requestTimings.getRequestStartTime();
         if (isCacheHit()) {
             return System.currentTimeMillis() - requestInTime;
         }
-        long backendStartTime = (long) messageContext.getProperty(Constants.BACKEND_START_TIME_PROPERTY);
-        return backendStartTime - requestInTime;
+        return requestTimings.getBackendStartTime() - requestInTime;
     }
 
     public long getResponseMediationLatency() {
@@ -372,7 +372,7 @@ public class SynapseAnalyticsDataProvider implements AnalyticsDataProvider {
         if (isCacheHit()) {
             return 0;
         }
-        long backendEndTime = (long) messageContext.getProperty(Constants.BACKEND_END_TIME_PROPERTY);
+        long backendEndTime = RequestTimings.of(messageContext).getBackendEndTime();
         return System.currentTimeMillis() - backendEndTime;
     }
 
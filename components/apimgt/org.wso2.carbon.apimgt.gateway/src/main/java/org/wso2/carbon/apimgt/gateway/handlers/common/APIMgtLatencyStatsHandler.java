@@ -27,6 +27,7 @@ import org.apache.synapse.config.Entry;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.rest.AbstractHandler;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 
@@ -53,9 +54,9 @@ public class APIMgtLatencyStatsHandler extends AbstractHandler {
         org.apache.axis2.context.MessageContext axis2MsgContext =
                 ((Axis2MessageContext) messageContext).getAxis2MessageContext();
 
-        if (messageContext.getProperty(APIMgtGatewayConstants.REQUEST_EXECUTION_START_TIME) == null) {
-            messageContext.setProperty(APIMgtGatewayConstants.REQUEST_EXECUTION_START_TIME, Long.toString(System
-                    .currentTimeMillis()));
+        RequestTimings requestTimings = RequestTimings.of(messageContext);
+        if (requestTimings.getRequestExecutionStartTime() == 0) {
+            requestTimings.setRequestExecutionStartTime(messageContext, System.currentTimeMillis());
             String method = (String) (axis2MsgContext.getProperty(
                     Constants.Configuration.HTTP_METHOD));
             messageContext.setProperty(APIMgtGatewayConstants.HTTP_METHOD, method);
@@ -64,8 +65,7 @@ public class APIMgtLatencyStatsHandler extends AbstractHandler {
         * The axis2 message context is set here so that the method level logging can access the transport headers
         */
         org.apache.axis2.context.MessageContext.setCurrentMessageContext(axis2MsgContext);
-        long currentTime = System.currentTimeMillis();
-        messageContext.setProperty("api.ut.requestTime", Long.toString(currentTime));
+        requestTimings.setRequestTime(messageContext, System.currentTimeMillis());
         setSwaggerToMessageContext(messageContext);
         return true;
     }
@@ -78,13 +78,15 @@ public class APIMgtLatencyStatsHandler extends AbstractHandler {
         org.apache.axis2.context.MessageContext axis2MC = ((Axis2MessageContext) messageContext)
                 .getAxis2MessageContext();
         org.apache.axis2.context.MessageContext.setCurrentMessageContext(axis2MC);
-        if (messageContext.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME) == null) {
-            messageContext.setProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME, System.currentTimeMillis());
+        RequestTimings requestTimings = RequestTimings.of(messageContext);
+        if (requestTimings.getBackendRequestEndTime() == 0) {
+            long backendRequestEndTime = System.currentTimeMillis();
+            requestTimings.setBackendRequestEndTime(messageContext, backendRequestEndTime);
             if (APIUtil.isAnalyticsEnabled()) {
-                long executionStartTime = Long.parseLong((String) messageContext.getProperty(APIMgtGatewayConstants
-                        .BACKEND_REQUEST_START_TIME));
-                messageContext.setProperty(APIMgtGatewayConstants.BACKEND_LATENCY, System.currentTimeMillis() -
-                        executionStartTime);
+                long executionStartTime = requestTimings.getBackendRequestStartTime(messageContext);
+                if (executionStartTime != 0) {
+                    requestTimings.setBackendLatency(messageContext, backendRequestEndTime - executionStartTime);
+                }
             }
         }
         return true;
@@ -28,6 +28,7 @@ import org.apache.synapse.rest.AbstractHandler;
 import org.apache.synapse.rest.RESTConstants;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.MethodStats;
+import org.wso2.carbon.apimgt.gateway.metrics.GatewayLatencyStats;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.tracing.TracingSpan;
 import org.wso2.carbon.apimgt.tracing.TracingTracer;
@@ -120,8 +121,11 @@ public class APIManagerExtensionHandler extends AbstractHandler {
             if (Util.tracingEnabled()) {
                 Util.finishSpan(requestMediationSpan);
             }
+            long requestMediationLatency = System.nanoTime() - executionStartTime;
             messageContext.setProperty(APIMgtGatewayConstants.REQUEST_MEDIATION_LATENCY,
-                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - executionStartTime));
+                    TimeUnit.NANOSECONDS.toMillis(requestMediationLatency));
+            GatewayLatencyStats.getInstance().record(GatewayLatencyStats.Phase.REQUEST_MEDIATION,
+                    requestMediationLatency);
             stopMetricTimer(context);
         }
     }
@@ -150,8 +154,11 @@ public class APIManagerExtensionHandler extends AbstractHandler {
             if (Util.tracingEnabled()) {
                 Util.finishSpan(responseMediationSpan);
             }
+            long responseMediationLatency = System.nanoTime() - executionStartTime;
             messageContext.setProperty(APIMgtGatewayConstants.RESPONSE_MEDIATION_LATENCY,
-                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - executionStartTime));
+                    TimeUnit.NANOSECONDS.toMillis(responseMediationLatency));
+            GatewayLatencyStats.getInstance().record(GatewayLatencyStats.Phase.RESPONSE_MEDIATION,
+                    responseMediationLatency);
             stopMetricTimer(context);
         }
     }
@@ -70,10 +70,16 @@ public class GraphQLAPIHandler extends AbstractHandler {
     private static final String GRAPHQL_IDENTIFIER = "_graphQL";
     private static final String CLASS_NAME_AND_METHOD = "_GraphQLAPIHandler_handleRequest";
     private static final Log log = LogFactory.getLog(GraphQLAPIHandler.class);
-    private GraphQLSchema schema = null;
+    private volatile GraphQLSchema schema = null;
     private static Validator validator;
     private String apiUUID;
     private String schemaDefinition;
+    private String schemaHash;
+    private HashMap<String, ArrayList<String>> scopeRoleMappingList = new HashMap<>();
+    private HashMap<String, String> operationScopeMappingList = new HashMap<>();
+    private HashMap<String, String> operationThrottlingMappingList = new HashMap<>();
+    private HashMap<String, Boolean> operationAuthSchemeMappingList = new HashMap<>();
+    private String graphQLAccessControlPolicy;
 
     public GraphQLAPIHandler() {
 
@@ -93,7 +99,6 @@ public class GraphQLAPIHandler extends AbstractHandler {
     public boolean handleRequest(MessageContext messageContext) {
         try {
             String payload;
-            Parser parser = new Parser();
 
             org.apache.axis2.context.MessageContext axis2MC = ((Axis2MessageContext) messageContext).
                     getAxis2MessageContext();
@@ -106,15 +111,17 @@ public class GraphQLAPIHandler extends AbstractHandler {
                 } else {
                     RelayUtils.buildMessage(axis2MC);
                     OMElement body = axis2MC.getEnvelope().getBody().getFirstElement();
-                    if (body != null && body.getChildrenWithName(QName.valueOf(QUERY_PAYLOAD_STRING)) != null){
-                        payload = body.getFirstChildWithName(QName.valueOf(QUERY_PAYLOAD_STRING)).getText();
-                    } else {
+                    if (body == null) {
                         if (log.isDebugEnabled()) {
                             log.debug("Invalid query parameter " + queryParams[0]);
                         }
                         handleFailure(messageContext, "Invalid query parameter");
                         return false;
                     }
+                    payload = getQueryFromBody(messageContext, body);
+                    if (payload == null) {
+                        return false;
+                    }
                 }
                 messageContext.setProperty(APIConstants.GRAPHQL_PAYLOAD, payload);
             } else {
@@ -123,34 +130,33 @@ public class GraphQLAPIHandler extends AbstractHandler {
             }
 
             // Validate payload with graphQLSchema
-            Document document = parser.parseDocument(payload);
-
-            if (validatePayloadWithSchema(messageContext, document)) {
-                supportForBasicAndAuthentication(messageContext);
-
-                // Extract the operation type and operations from the payload
-                for (Definition definition : document.getDefinitions()) {
-                    if (definition instanceof OperationDefinition) {
-                        OperationDefinition operation = (OperationDefinition) definition;
-                        if (operation.getOperation() != null) {
-                            String httpVerb = ((Axis2MessageContext) messageContext).getAxis2MessageContext().
-                                    getProperty(HTTP_METHOD).toString();
-                            messageContext.setProperty(HTTP_VERB, httpVerb);
-                            ((Axis2MessageContext) messageContext).getAxis2MessageContext().setProperty(HTTP_METHOD,
-                                    operation.getOperation().toString());
-                            String operationList = getOperationList(messageContext, operation);
-                            messageContext.setProperty(APIConstants.API_ELECTED_RESOURCE, operationList);
-                            if (log.isDebugEnabled()) {
-                                log.debug("Operation list has been successfully added to elected property");
-                            }
-                            return true;
-                        }
-                    } else {
-                        handleFailure(messageContext, "Operation definition cannot be empty");
-                        return false;
-                    }
+            loadSchema(messageContext);
+            GraphQLQueryAnalysis queryAnalysis = getQueryAnalysis(payload);
+            messageContext.setProperty(GraphQLConstants.GRAPHQL_QUERY_ANALYSIS, queryAnalysis);
+
+            if (queryAnalysis.getValidationErrorMessage() != null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Validation failed for " + queryAnalysis.getDocument());
                 }
-            } else {
+                handleFailure(messageContext, queryAnalysis.getValidationErrorMessage());
+                return false;
+            }
+            supportForBasicAndAuthentication(messageContext);
+
+            // Set the operation type and operations extracted from the payload
+            if (queryAnalysis.getOperationType() != null) {
+                String httpVerb = ((Axis2MessageContext) messageContext).getAxis2MessageContext().
+                        getProperty(HTTP_METHOD).toString();
+                messageContext.setProperty(HTTP_VERB, httpVerb);
+                ((Axis2MessageContext) messageContext).getAxis2MessageContext().setProperty(HTTP_METHOD,
+                        queryAnalysis.getOperationType());
+                messageContext.setProperty(APIConstants.API_ELECTED_RESOURCE, queryAnalysis.getOperationList());
+                if (log.isDebugEnabled()) {
+                    log.debug("Operation list has been successfully added to elected property");
+                }
+                return true;
+            } else if (queryAnalysis.isInvalidDefinition()) {
+                handleFailure(messageContext, "Operation definition cannot be empty");
                 return false;
             }
         } catch (IOException | XMLStreamException | InvalidSyntaxException e) {
@@ -160,14 +166,121 @@ public class GraphQLAPIHandler extends AbstractHandler {
         return false;
     }
 
+    /**
+     * Extracts the query from the request body. Persisted queries are supported, where the client sends the
+     * SHA-256 hash of the query under extensions.persistedQuery.sha256Hash. The query is registered against the
+     * hash when both are sent, and the query is added back to the body when only the hash is sent.
+     *
+     * @param messageContext message context of the request
+     * @param body           first element of the request body
+     * @return the query, or null if the request was failed
+     */
+    private String getQueryFromBody(MessageContext messageContext, OMElement body) {
+
+        OMElement queryElement = body.getFirstChildWithName(QName.valueOf(QUERY_PAYLOAD_STRING));
+        String persistedQueryHash = getPersistedQueryHash(body);
+        if (queryElement != null) {
+            String payload = queryElement.getText();
+            if (persistedQueryHash != null) {
+                if (!persistedQueryHash.equalsIgnoreCase(GraphQLQueryCache.getHash(payload))) {
+                    handleFailure(messageContext, GraphQLConstants.GRAPHQL_PERSISTED_QUERY_HASH_MISMATCH);
+                    return null;
+                }
+                GraphQLQueryCache.getInstance().addPersistedQuery(apiUUID, persistedQueryHash, payload);
+            }
+            return payload;
+        }
+        if (persistedQueryHash != null) {
+            String payload = GraphQLQueryCache.getInstance().getPersistedQuery(apiUUID, persistedQueryHash);
+            if (payload == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Persisted query not found for hash " + persistedQueryHash);
+                }
+                handleFailure(messageContext, GraphQLConstants.GRAPHQL_PERSISTED_QUERY_NOT_FOUND);
+                return null;
+            }
+            // The backend is not expected to know the persisted query, hence sending the query itself
+            OMFactory factory = OMAbstractFactory.getOMFactory();
+            OMElement persistedQueryElement = factory.createOMElement(QUERY_PAYLOAD_STRING, body.getNamespace());
+            persistedQueryElement.setText(payload);
+            body.addChild(persistedQueryElement);
+            return payload;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Query not found in the request body");
+        }
+        handleFailure(messageContext, "Invalid query parameter");
+        return null;
+    }
+
+    private String getPersistedQueryHash(OMElement body) {
+
+        OMElement extensions = body.getFirstChildWithName(QName.valueOf(GraphQLConstants.GRAPHQL_EXTENSIONS));
+        if (extensions == null) {
+            return null;
+        }
+        OMElement persistedQuery =
+                extensions.getFirstChildWithName(QName.valueOf(GraphQLConstants.GRAPHQL_PERSISTED_QUERY));
+        if (persistedQuery == null) {
+            return null;
+        }
+        OMElement hash = persistedQuery.getFirstChildWithName(
+                QName.valueOf(GraphQLConstants.GRAPHQL_PERSISTED_QUERY_HASH));
+        return hash != null ? hash.getText() : null;
+    }
+
+    /**
+     * Returns the analysis of the given query, from the cache if the query has already been analysed against the
+     * schema of this API.
+     *
+     * @param payload GraphQL query
+     * @return analysis of the query
+     */
+    GraphQLQueryAnalysis getQueryAnalysis(String payload) {
+
+        String queryHash = GraphQLQueryCache.getHash(payload);
+        GraphQLQueryAnalysis queryAnalysis =
+                GraphQLQueryCache.getInstance().getQueryAnalysis(apiUUID, schemaHash, queryHash);
+        if (queryAnalysis == null) {
+            queryAnalysis = analyseDocument(new Parser().parseDocument(payload));
+            GraphQLQueryCache.getInstance().addQueryAnalysis(apiUUID, schemaHash, queryHash, queryAnalysis);
+        }
+        return queryAnalysis;
+    }
+
+    /**
+     * Validates the document against the schema and extracts the operation type and the operations.
+     *
+     * @param document parsed GraphQL query
+     * @return analysis of the query
+     */
+    GraphQLQueryAnalysis analyseDocument(Document document) {
+
+        String validationErrorMessage = validatePayloadWithSchema(document);
+        if (validationErrorMessage != null) {
+            return new GraphQLQueryAnalysis(document, validationErrorMessage, null, null, false);
+        }
+        for (Definition definition : document.getDefinitions()) {
+            if (definition instanceof OperationDefinition) {
+                OperationDefinition operation = (OperationDefinition) definition;
+                if (operation.getOperation() != null) {
+                    return new GraphQLQueryAnalysis(document, null, operation.getOperation().toString(),
+                            getOperationList(operation), false);
+                }
+            } else {
+                return new GraphQLQueryAnalysis(document, null, null, null, true);
+            }
+        }
+        return new GraphQLQueryAnalysis(document, null, null, null, false);
+    }
+
     /**
      * This method used to extract operation List
      *
-     * @param messageContext messageContext
      * @param operation      operation
      * @return operationList
      */
-    private String getOperationList(MessageContext messageContext, OperationDefinition operation) {
+    private String getOperationList(OperationDefinition operation) {
         String operationList;
         GraphQLSchemaDefinition graphql = new GraphQLSchemaDefinition();
         ArrayList<String> operationArray = new ArrayList<>();
@@ -223,17 +336,29 @@ public class GraphQLAPIHandler extends AbstractHandler {
     }
 
     /**
-     * Support GraphQL APIs for basic,JWT  authentication, this method extract the scopes and operations from
-     * local Entry and set them to properties. If the operations have scopes, scopes operation mapping and scope
-     * role mappings are added to schema as additional types before adding them to local entry
+     * Support GraphQL APIs for basic,JWT  authentication, this method sets the scopes and operations extracted from
+     * the schema to properties.
      *
      * @param messageContext message context of the request
      */
     private void supportForBasicAndAuthentication(MessageContext messageContext) {
+        messageContext.setProperty(APIConstants.SCOPE_ROLE_MAPPING, scopeRoleMappingList);
+        messageContext.setProperty(APIConstants.SCOPE_OPERATION_MAPPING, operationScopeMappingList);
+        messageContext.setProperty(APIConstants.OPERATION_THROTTLING_MAPPING, operationThrottlingMappingList);
+        messageContext.setProperty(APIConstants.OPERATION_AUTH_SCHEME_MAPPING, operationAuthSchemeMappingList);
+        messageContext.setProperty(APIConstants.GRAPHQL_ACCESS_CONTROL_POLICY, graphQLAccessControlPolicy);
+        messageContext.setProperty(APIConstants.API_TYPE, GRAPHQL_API);
+        messageContext.setProperty(APIConstants.GRAPHQL_SCHEMA, schema);
+    }
+
+    /**
+     * Extracts the scopes and operations from the schema. If the operations have scopes, scopes operation mapping
+     * and scope role mappings are added to schema as additional types before adding them to local entry. The
+     * mappings only depend on the schema, hence they are extracted once when the schema is loaded.
+     */
+    private void extractOperationMappings(GraphQLSchema schema) {
         ArrayList<String> roleArrayList = new ArrayList<>();
-        @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
         HashMap<String, String> operationThrottlingMappingList = new HashMap<>();
-        @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
         HashMap<String, Boolean> operationAuthSchemeMappingList = new HashMap<>();
         HashMap<String, String> operationScopeMappingList = new HashMap<>();
         HashMap<String, ArrayList<String>> scopeRoleMappingList = new HashMap<>();
@@ -297,53 +422,64 @@ public class GraphQLAPIHandler extends AbstractHandler {
             }
         }
 
-        messageContext.setProperty(APIConstants.SCOPE_ROLE_MAPPING, scopeRoleMappingList);
-        messageContext.setProperty(APIConstants.SCOPE_OPERATION_MAPPING, operationScopeMappingList);
-        messageContext.setProperty(APIConstants.OPERATION_THROTTLING_MAPPING, operationThrottlingMappingList);
-        messageContext.setProperty(APIConstants.OPERATION_AUTH_SCHEME_MAPPING, operationAuthSchemeMappingList);
-        messageContext.setProperty(APIConstants.GRAPHQL_ACCESS_CONTROL_POLICY, graphQLAccessControlPolicy);
-        messageContext.setProperty(APIConstants.API_TYPE, GRAPHQL_API);
-        messageContext.setProperty(APIConstants.GRAPHQL_SCHEMA, schema);
+        this.scopeRoleMappingList = scopeRoleMappingList;
+        this.operationScopeMappingList = operationScopeMappingList;
+        this.operationThrottlingMappingList = operationThrottlingMappingList;
+        this.operationAuthSchemeMappingList = operationAuthSchemeMappingList;
+        this.graphQLAccessControlPolicy = graphQLAccessControlPolicy;
     }
 
     /**
-     * This method validate the payload
+     * Loads the schema of the API from the local entry, if it has not been loaded yet.
      *
      * @param messageContext message context of the request
-     * @param document       graphQL schema of the request
-     * @return true or false
      */
-    private boolean validatePayloadWithSchema(MessageContext messageContext, Document document) {
-        ArrayList<String> validationErrorMessageList = new ArrayList<>();
-        List<ValidationError> validationErrors;
-        String validationErrorMessage;
-
+    private void loadSchema(MessageContext messageContext) {
         synchronized (apiUUID + CLASS_NAME_AND_METHOD) {
             if (schema == null) {
                 Entry localEntryObj = (Entry) messageContext.getConfiguration().getLocalRegistry().get(apiUUID +
                         GRAPHQL_IDENTIFIER);
                 if (localEntryObj != null) {
-                    SchemaParser schemaParser = new SchemaParser();
-                    schemaDefinition = localEntryObj.getValue().toString();
-                    TypeDefinitionRegistry registry = schemaParser.parse(schemaDefinition);
-                    schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry);
+                    initSchema(localEntryObj.getValue().toString());
                 }
             }
         }
+    }
+
+    /**
+     * Parses the given schema definition and extracts the operation mappings from it.
+     *
+     * @param schemaDefinition GraphQL schema definition of the API
+     */
+    void initSchema(String schemaDefinition) {
+        SchemaParser schemaParser = new SchemaParser();
+        TypeDefinitionRegistry registry = schemaParser.parse(schemaDefinition);
+        GraphQLSchema graphQLSchema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry);
+        this.schemaDefinition = schemaDefinition;
+        this.schemaHash = GraphQLQueryCache.getHash(schemaDefinition);
+        extractOperationMappings(graphQLSchema);
+        // Assigned last, since a non null schema denotes that the schema has been fully loaded
+        this.schema = graphQLSchema;
+    }
+
+    /**
+     * This method validate the payload
+     *
+     * @param document       graphQL schema of the request
+     * @return validation errors joined by commas, or null if the payload is valid
+     */
+    private String validatePayloadWithSchema(Document document) {
+        ArrayList<String> validationErrorMessageList = new ArrayList<>();
+        List<ValidationError> validationErrors;
 
         validationErrors = validator.validateDocument(schema, document);
         if (validationErrors != null && validationErrors.size() > 0) {
-            if (log.isDebugEnabled()) {
-                log.debug("Validation failed for " + document);
-            }
             for (ValidationError error : validationErrors) {
                 validationErrorMessageList.add(error.getDescription());
             }
-            validationErrorMessage = String.join(",", validationErrorMessageList);
-            handleFailure(messageContext, validationErrorMessage);
-            return false;
+            return String.join(",", validationErrorMessageList);
         }
-        return true;
+        return null;
     }
 
     /**
@@ -33,4 +33,13 @@ public class GraphQLConstants {
     public static final String GRAPHQL_API_FAILURE_HANDLER = "_graphql_failure_handler";
     public static final String GRAPHQL_INVALID_QUERY_MESSAGE= "INVALID QUERY";
 
+    public static final String GRAPHQL_QUERY_ANALYSIS = "GRAPHQL_QUERY_ANALYSIS";
+    public static final int GRAPHQL_QUERY_CACHE_SIZE = 1000;
+    public static final int GRAPHQL_PERSISTED_QUERY_CACHE_SIZE = 1000;
+    public static final String GRAPHQL_EXTENSIONS = "extensions";
+    public static final String GRAPHQL_PERSISTED_QUERY = "persistedQuery";
+    public static final String GRAPHQL_PERSISTED_QUERY_HASH = "sha256Hash";
+    public static final String GRAPHQL_PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+    public static final String GRAPHQL_PERSISTED_QUERY_HASH_MISMATCH = "provided sha does not match query";
+
 }
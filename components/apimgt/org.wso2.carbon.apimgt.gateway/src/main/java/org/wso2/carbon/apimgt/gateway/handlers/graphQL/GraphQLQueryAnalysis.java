@@ -0,0 +1,117 @@
+/*
+ *  Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import graphql.language.Document;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Result of analysing a GraphQL query document against the schema of an API. Instances are cached by
+ * {@link GraphQLQueryCache}, so that queries which are sent repeatedly are parsed, validated and analysed only once.
+ * The depth and complexity outcomes are recorded per limit, since the limits depend on the subscription of the caller.
+ */
+public class GraphQLQueryAnalysis {
+
+    private final Document document;
+    private final String validationErrorMessage;
+    private final String operationType;
+    private final String operationList;
+    private final boolean invalidDefinition;
+    private final Map<Integer, List<String>> depthAnalysisErrors = new ConcurrentHashMap<>();
+    private final Map<Integer, List<String>> complexityAnalysisErrors = new ConcurrentHashMap<>();
+
+    GraphQLQueryAnalysis(Document document, String validationErrorMessage, String operationType,
+                         String operationList, boolean invalidDefinition) {
+
+        this.document = document;
+        this.validationErrorMessage = validationErrorMessage;
+        this.operationType = operationType;
+        this.operationList = operationList;
+        this.invalidDefinition = invalidDefinition;
+    }
+
+    public Document getDocument() {
+
+        return document;
+    }
+
+    /**
+     * @return validation errors of the document joined by commas, or null if the document is valid
+     */
+    public String getValidationErrorMessage() {
+
+        return validationErrorMessage;
+    }
+
+    /**
+     * @return type of the operation (query, mutation or subscription), or null if no operation was found
+     */
+    public String getOperationType() {
+
+        return operationType;
+    }
+
+    /**
+     * @return comma separated operations of the document which are defined in the API
+     */
+    public String getOperationList() {
+
+        return operationList;
+    }
+
+    /**
+     * @return true if a definition other than an operation was found before the operation
+     */
+    public boolean isInvalidDefinition() {
+
+        return invalidDefinition;
+    }
+
+    /**
+     * @param maxQueryDepth maximum allowed depth
+     * @return errors reported by the depth analysis for the given limit, an empty list if the limit is not exceeded,
+     * or null if the document has not been analysed for the limit
+     */
+    public List<String> getDepthAnalysisErrors(int maxQueryDepth) {
+
+        return depthAnalysisErrors.get(maxQueryDepth);
+    }
+
+    public void setDepthAnalysisErrors(int maxQueryDepth, List<String> errors) {
+
+        depthAnalysisErrors.put(maxQueryDepth, Collections.unmodifiableList(errors));
+    }
+
+    /**
+     * @param maxQueryComplexity maximum allowed complexity
+     * @return errors reported by the complexity analysis for the given limit, an empty list if the limit is not
+     * exceeded, or null if the document has not been analysed for the limit
+     */
+    public List<String> getComplexityAnalysisErrors(int maxQueryComplexity) {
+
+        return complexityAnalysisErrors.get(maxQueryComplexity);
+    }
+
+    public void setComplexityAnalysisErrors(int maxQueryComplexity, List<String> errors) {
+
+        complexityAnalysisErrors.put(maxQueryComplexity, Collections.unmodifiableList(errors));
+    }
+}
@@ -52,6 +52,10 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
     private static final Log log = LogFactory.getLog(GraphQLQueryAnalysisHandler.class);
     private GraphQLSchema schema = null;
 
+    void setSchema(GraphQLSchema schema) {
+        this.schema = schema;
+    }
+
     public boolean handleRequest(MessageContext messageContext) {
         schema = (GraphQLSchema) messageContext.getProperty(APIConstants.GRAPHQL_SCHEMA);
         String payload = messageContext.getProperty(APIConstants.GRAPHQL_PAYLOAD).toString();
@@ -137,45 +141,52 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
         int maxQueryDepth = getMaxQueryDepth(messageContext);
 
         if (maxQueryDepth > 0) {
-            MaxQueryDepthInstrumentation maxQueryDepthInstrumentation =
-                    new MaxQueryDepthInstrumentation(maxQueryDepth);
-            GraphQL runtime = GraphQL.newGraphQL(schema).instrumentation(maxQueryDepthInstrumentation).build();
-
-            try {
-                ExecutionResult executionResult = runtime.execute(payload);
-                List<GraphQLError> errors = executionResult.getErrors();
-                if (errors.size() > 0) {
-                    List<String> errorList = new ArrayList<>();
-                    for (GraphQLError error : errors) {
-                        errorList.add(error.getMessage());
-                    }
-
-                    // TODO: https://github.com/wso2/carbon-apimgt/issues/8147
-                    ListIterator<String> iterator = errorList.listIterator();
-                    while (iterator.hasNext()) {
-                        if (iterator.next().contains("non-nullable")) {
-                            iterator.remove();
-                        }
-                    }
-                    if (errorList.size() == 0) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Maximum query depth of " + maxQueryDepth + " was not exceeded");
-                        }
-                        return true;
-                    }
-                    handleFailure(GraphQLConstants.GRAPHQL_QUERY_TOO_DEEP, messageContext,
-                            GraphQLConstants.GRAPHQL_QUERY_TOO_DEEP_MESSAGE, errorList.toString());
-                    log.error(errorList.toString());
+            GraphQLQueryAnalysis queryAnalysis =
+                    (GraphQLQueryAnalysis) messageContext.getProperty(GraphQLConstants.GRAPHQL_QUERY_ANALYSIS);
+            List<String> errorList = queryAnalysis != null ? queryAnalysis.getDepthAnalysisErrors(maxQueryDepth) : null;
+            if (errorList == null) {
+                errorList = findQueryDepthErrors(payload, maxQueryDepth);
+                if (errorList == null) {
                     return false;
                 }
+                if (queryAnalysis != null) {
+                    queryAnalysis.setDepthAnalysisErrors(maxQueryDepth, errorList);
+                }
+            }
+            if (errorList.isEmpty()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Maximum query depth of " + maxQueryDepth + " was not exceeded");
+                }
                 return true;
-            } catch (Throwable e) {
-                log.error(e);
             }
+            handleFailure(GraphQLConstants.GRAPHQL_QUERY_TOO_DEEP, messageContext,
+                    GraphQLConstants.GRAPHQL_QUERY_TOO_DEEP_MESSAGE, errorList.toString());
+            log.error(errorList.toString());
+            return false;
         } else {
             return true; // No depth limitation check
         }
-        return false;
+    }
+
+    /**
+     * This method finds the errors reported when the query is run with the maximum query depth instrumentation
+     *
+     * @param payload       payload of the request
+     * @param maxQueryDepth maximum query depth
+     * @return errors other than non-nullable errors, or null if the query could not be analysed
+     */
+    List<String> findQueryDepthErrors(String payload, int maxQueryDepth) {
+        MaxQueryDepthInstrumentation maxQueryDepthInstrumentation =
+                new MaxQueryDepthInstrumentation(maxQueryDepth);
+        GraphQL runtime = GraphQL.newGraphQL(schema).instrumentation(maxQueryDepthInstrumentation).build();
+
+        try {
+            ExecutionResult executionResult = runtime.execute(payload);
+            return getErrorList(executionResult);
+        } catch (Throwable e) {
+            log.error(e);
+        }
+        return null;
     }
 
     /**
@@ -186,52 +197,84 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
      * @return true, if query complexity does not exceed the maximum or false, if query complexity exceeds the maximum
      */
     private boolean analyseQueryComplexity(MessageContext messageContext, String payload) {
-        FieldComplexityCalculator fieldComplexityCalculator = new FieldComplexityCalculatorImpl(messageContext);
         int maxQueryComplexity = getMaxQueryComplexity(messageContext);
 
         if (maxQueryComplexity > 0) {
-            MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation =
-                    new MaxQueryComplexityInstrumentation(maxQueryComplexity, fieldComplexityCalculator);
-            GraphQL runtime = GraphQL.newGraphQL(schema).instrumentation(maxQueryComplexityInstrumentation).build();
-
-            try {
-                ExecutionResult executionResult = runtime.execute(payload);
-                List<GraphQLError> errors = executionResult.getErrors();
-                if (errors.size() > 0) {
-                    List<String> errorList = new ArrayList<>();
-                    for (GraphQLError error : errors) {
-                        errorList.add(error.getMessage());
-                    }
-
-                    // TODO: https://github.com/wso2/carbon-apimgt/issues/8147
-                    ListIterator<String> iterator = errorList.listIterator();
-                    while (iterator.hasNext()) {
-                        if (iterator.next().contains("non-nullable")) {
-                            iterator.remove();
-                        }
-                    }
-                    if (errorList.size() == 0) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Maximum query complexity was not exceeded");
-                        }
-                        return true;
-                    } else {
-                        log.error(errorList);
-                        errorList.clear();
-                        errorList.add("maximum query complexity exceeded");
-                    }
-                    handleFailure(GraphQLConstants.GRAPHQL_QUERY_TOO_COMPLEX, messageContext,
-                            GraphQLConstants.GRAPHQL_QUERY_TOO_COMPLEX_MESSAGE, errorList.toString());
+            GraphQLQueryAnalysis queryAnalysis =
+                    (GraphQLQueryAnalysis) messageContext.getProperty(GraphQLConstants.GRAPHQL_QUERY_ANALYSIS);
+            List<String> errorList =
+                    queryAnalysis != null ? queryAnalysis.getComplexityAnalysisErrors(maxQueryComplexity) : null;
+            if (errorList == null) {
+                FieldComplexityCalculator fieldComplexityCalculator =
+                        new FieldComplexityCalculatorImpl(messageContext);
+                errorList = findQueryComplexityErrors(payload, maxQueryComplexity, fieldComplexityCalculator);
+                if (errorList == null) {
                     return false;
                 }
+                if (queryAnalysis != null) {
+                    queryAnalysis.setComplexityAnalysisErrors(maxQueryComplexity, errorList);
+                }
+            }
+            if (errorList.isEmpty()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Maximum query complexity was not exceeded");
+                }
                 return true;
-            } catch (Throwable e) {
-                log.error(e);
             }
+            log.error(errorList);
+            List<String> errorDescription = new ArrayList<>();
+            errorDescription.add("maximum query complexity exceeded");
+            handleFailure(GraphQLConstants.GRAPHQL_QUERY_TOO_COMPLEX, messageContext,
+                    GraphQLConstants.GRAPHQL_QUERY_TOO_COMPLEX_MESSAGE, errorDescription.toString());
+            return false;
         } else {
             return true; // No complexity limitation check
         }
-        return false;
+    }
+
+    /**
+     * This method finds the errors reported when the query is run with the maximum query complexity instrumentation
+     *
+     * @param payload                   payload of the request
+     * @param maxQueryComplexity        maximum query complexity
+     * @param fieldComplexityCalculator calculator of the field complexity values
+     * @return errors other than non-nullable errors, or null if the query could not be analysed
+     */
+    List<String> findQueryComplexityErrors(String payload, int maxQueryComplexity,
+                                           FieldComplexityCalculator fieldComplexityCalculator) {
+        MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation =
+                new MaxQueryComplexityInstrumentation(maxQueryComplexity, fieldComplexityCalculator);
+        GraphQL runtime = GraphQL.newGraphQL(schema).instrumentation(maxQueryComplexityInstrumentation).build();
+
+        try {
+            ExecutionResult executionResult = runtime.execute(payload);
+            return getErrorList(executionResult);
+        } catch (Throwable e) {
+            log.error(e);
+        }
+        return null;
+    }
+
+    /**
+     * This method extracts the error messages of the execution result
+     *
+     * @param executionResult result of running the query with an instrumentation
+     * @return error messages other than non-nullable errors
+     */
+    private List<String> getErrorList(ExecutionResult executionResult) {
+        List<String> errorList = new ArrayList<>();
+        for (GraphQLError error : executionResult.getErrors()) {
+            errorList.add(error.getMessage());
+        }
+
+        // TODO: https://github.com/wso2/carbon-apimgt/issues/8147
+        ListIterator<String> iterator = errorList.listIterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().contains("non-nullable")) {
+                iterator.remove();
+            }
+        }
+        return errorList;
     }
 
     /**
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.wso2.carbon.apimgt.impl.utils.LRUCache;
+
+import java.util.Map;
+
+/**
+ * Bounded cache of analysed GraphQL queries and persisted queries. Analyses are keyed by the API, a hash of the
+ * schema of the deployed API revision and the SHA-256 hash of the query, hence redeploying an API with a
+ * different schema never returns a stale analysis.
+ */
+public class GraphQLQueryCache {
+
+    private static final GraphQLQueryCache instance = new GraphQLQueryCache(GraphQLConstants.GRAPHQL_QUERY_CACHE_SIZE,
+            GraphQLConstants.GRAPHQL_PERSISTED_QUERY_CACHE_SIZE);
+    private static final String KEY_SEPARATOR = ":";
+
+    private final Map<String, GraphQLQueryAnalysis> queryAnalysisCache;
+    private final Map<String, String> persistedQueryCache;
+
+    GraphQLQueryCache(int maxQueryAnalyses, int maxPersistedQueries) {
+
+        queryAnalysisCache = new LRUCache<>(maxQueryAnalyses);
+        persistedQueryCache = new LRUCache<>(maxPersistedQueries);
+    }
+
+    public static GraphQLQueryCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * @param query GraphQL query or schema
+     * @return hex encoded SHA-256 hash of the given text, as used by persisted queries
+     */
+    public static String getHash(String query) {
+
+        return DigestUtils.sha256Hex(query);
+    }
+
+    public GraphQLQueryAnalysis getQueryAnalysis(String apiUUID, String schemaHash, String queryHash) {
+
+        return queryAnalysisCache.get(apiUUID + KEY_SEPARATOR + schemaHash + KEY_SEPARATOR + queryHash);
+    }
+
+    public void addQueryAnalysis(String apiUUID, String schemaHash, String queryHash, GraphQLQueryAnalysis analysis) {
+
+        queryAnalysisCache.put(apiUUID + KEY_SEPARATOR + schemaHash + KEY_SEPARATOR + queryHash, analysis);
+    }
+
+    /**
+     * @param apiUUID   UUID of the API
+     * @param queryHash SHA-256 hash of the persisted query
+     * @return the persisted query, or null if it was not registered for the API
+     */
+    public String getPersistedQuery(String apiUUID, String queryHash) {
+
+        return persistedQueryCache.get(apiUUID + KEY_SEPARATOR + queryHash);
+    }
+
+    public void addPersistedQuery(String apiUUID, String queryHash, String query) {
+
+        persistedQueryCache.put(apiUUID + KEY_SEPARATOR + queryHash, query);
+    }
+}
@@ -51,6 +51,8 @@ import org.wso2.carbon.apimgt.gateway.handlers.security.authenticator.InternalAP
 import org.wso2.carbon.apimgt.gateway.handlers.security.basicauth.BasicAuthAuthenticator;
 import org.wso2.carbon.apimgt.gateway.handlers.security.oauth.OAuthAuthenticator;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.metrics.GatewayLatencyStats;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.APIManagerConfigurationService;
@@ -339,8 +341,7 @@ public class APIAuthenticationHandler extends AbstractHandler implements Managed
 
         try {
             if (isAnalyticsEnabled()) {
-                long currentTime = System.currentTimeMillis();
-                messageContext.setProperty("api.ut.requestTime", Long.toString(currentTime));
+                RequestTimings.of(messageContext).setRequestTime(messageContext, System.currentTimeMillis());
             }
 
             messageContext.setProperty(APIMgtGatewayConstants.API_TYPE, apiType);
@@ -394,8 +395,10 @@ public class APIAuthenticationHandler extends AbstractHandler implements Managed
             if (Util.tracingEnabled()) {
                 Util.finishSpan(keySpan);
             }
-            messageContext.setProperty(APIMgtGatewayConstants.SECURITY_LATENCY,
-                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            long securityLatency = System.nanoTime() - startTime;
+            RequestTimings.of(messageContext).setSecurityLatency(messageContext,
+                    TimeUnit.NANOSECONDS.toMillis(securityLatency));
+            GatewayLatencyStats.getInstance().record(GatewayLatencyStats.Phase.AUTHENTICATION, securityLatency);
             stopMetricTimer(context);
 
         }
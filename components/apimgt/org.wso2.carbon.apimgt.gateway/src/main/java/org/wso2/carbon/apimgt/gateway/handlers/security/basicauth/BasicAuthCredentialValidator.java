@@ -48,11 +48,13 @@ import org.wso2.carbon.utils.CarbonUtils;
 
 import java.nio.charset.StandardCharsets;
 import java.rmi.RemoteException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 import javax.cache.Cache;
 import javax.cache.Caching;
@@ -62,11 +64,19 @@ import javax.cache.Caching;
  */
 public class BasicAuthCredentialValidator {
 
+    private static final ConcurrentMap<String, CompletableFuture<BasicAuthValidationInfoDTO>> inFlightValidations =
+            new ConcurrentHashMap<>();
+
     private boolean gatewayKeyCacheEnabled;
 
     protected Log log = LogFactory.getLog(getClass());
     private APIKeyMgtRemoteUserStoreMgtServiceStub apiKeyMgtRemoteUserStoreMgtServiceStub;
     private APIKeyValidator apiKeyValidator;
+
+    BasicAuthCredentialValidator(boolean gatewayKeyCacheEnabled) {
+        this.gatewayKeyCacheEnabled = gatewayKeyCacheEnabled;
+    }
+
     /**
      * Initialize the validator with the synapse environment.
      *
@@ -110,63 +120,99 @@ public class BasicAuthCredentialValidator {
      */
     @MethodStats
     public BasicAuthValidationInfoDTO validate(String username, String password) throws APISecurityException {
-        boolean isAuthenticated;
-        String cachedPasswordHash = null;
-        String providedPasswordHash = null;
-        String invalidCachedPasswordHash;
         if (gatewayKeyCacheEnabled) {
-            providedPasswordHash = GatewayUtils.hashString(password.getBytes(StandardCharsets.UTF_8));
             BasicAuthValidationInfoDTO cachedValidationInfoObj = (BasicAuthValidationInfoDTO) getGatewayUsernameCache()
                     .get(username);
-            if (cachedValidationInfoObj != null) {
-                cachedPasswordHash = cachedValidationInfoObj.getHashedPassword();
+            if (cachedValidationInfoObj != null
+                    && BasicAuthCredentialVerifier.verify(password, cachedValidationInfoObj.getHashedPassword())) {
                 cachedValidationInfoObj.setCached(true);
-            }
-            if (cachedPasswordHash != null && cachedPasswordHash.equals(providedPasswordHash)) {
                 log.debug("Basic Authentication: <Valid Username Cache> Username & password authenticated");
                 return cachedValidationInfoObj;
-            } else {
-                BasicAuthValidationInfoDTO invalidCacheValidationInfoObj = (BasicAuthValidationInfoDTO) getInvalidUsernameCache()
-                        .get(username);
-                if (invalidCacheValidationInfoObj != null) {
-                    invalidCacheValidationInfoObj.setCached(true);
-                    invalidCachedPasswordHash = invalidCacheValidationInfoObj.getHashedPassword();
-                    if (invalidCachedPasswordHash != null && invalidCachedPasswordHash.equals(providedPasswordHash)) {
-                        log.debug(
-                                "Basic Authentication: <Invalid Username Cache> Username & password authentication failed");
-                        invalidCacheValidationInfoObj
-                                .setAuthenticated(false); //If (username->password) is in the invalid cache
-                        return invalidCacheValidationInfoObj;
-                    }
+            }
+            BasicAuthValidationInfoDTO invalidCacheValidationInfoObj = (BasicAuthValidationInfoDTO)
+                    getInvalidUsernameCache().get(username);
+            if (invalidCacheValidationInfoObj != null
+                    && BasicAuthCredentialVerifier.verify(password, invalidCacheValidationInfoObj.getHashedPassword())) {
+                log.debug("Basic Authentication: <Invalid Username Cache> Username & password authentication failed");
+                invalidCacheValidationInfoObj.setCached(true);
+                //If (username->password) is in the invalid cache
+                invalidCacheValidationInfoObj.setAuthenticated(false);
+                return invalidCacheValidationInfoObj;
+            }
+        }
+
+        // Concurrent requests with the same credentials share a single call to the user store. The key holds a
+        // digest of the password only for the duration of the call.
+        String validationKey = username + ':' + GatewayUtils.hashString(password.getBytes(StandardCharsets.UTF_8));
+        CompletableFuture<BasicAuthValidationInfoDTO> validation = new CompletableFuture<>();
+        CompletableFuture<BasicAuthValidationInfoDTO> inFlightValidation =
+                inFlightValidations.putIfAbsent(validationKey, validation);
+        if (inFlightValidation != null) {
+            return awaitValidation(username, inFlightValidation);
+        }
+        try {
+            BasicAuthValidationInfoDTO basicAuthValidationInfoDTO = getUserAuthenticationInfo(username, password);
+            if (gatewayKeyCacheEnabled) {
+                basicAuthValidationInfoDTO.setHashedPassword(BasicAuthCredentialVerifier.createVerifier(password));
+                if (basicAuthValidationInfoDTO.isAuthenticated()) {
+                    // put (username->password) into the valid cache
+                    getGatewayUsernameCache().put(username, basicAuthValidationInfoDTO);
+                } else {
+                    // put (username->password) into the invalid cache
+                    getInvalidUsernameCache().put(username, basicAuthValidationInfoDTO);
                 }
             }
+            validation.complete(basicAuthValidationInfoDTO);
+            return basicAuthValidationInfoDTO;
+        } catch (APISecurityException | RuntimeException e) {
+            validation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightValidations.remove(validationKey, validation);
         }
+    }
 
-        BasicAuthValidationInfoDTO basicAuthValidationInfoDTO;
+    /**
+     * Authenticates the given user against the user store of the key manager.
+     *
+     * @param username given username
+     * @param password given password
+     * @return the authentication result along with the roles of the user
+     * @throws APISecurityException If the user store could not be reached
+     */
+    protected BasicAuthValidationInfoDTO getUserAuthenticationInfo(String username, String password)
+            throws APISecurityException {
         try {
-            org.wso2.carbon.apimgt.impl.dto.xsd.BasicAuthValidationInfoDTO generatedInfoDTO = apiKeyMgtRemoteUserStoreMgtServiceStub
-                    .getUserAuthenticationInfo(username, password);
-            basicAuthValidationInfoDTO = convertToDTO(generatedInfoDTO);
-            isAuthenticated = basicAuthValidationInfoDTO.isAuthenticated();
+            org.wso2.carbon.apimgt.impl.dto.xsd.BasicAuthValidationInfoDTO generatedInfoDTO =
+                    apiKeyMgtRemoteUserStoreMgtServiceStub.getUserAuthenticationInfo(username, password);
+            return convertToDTO(generatedInfoDTO);
         } catch (APIKeyMgtRemoteUserStoreMgtServiceAPIManagementException | RemoteException e) {
             log.error(
                     "Basic Authentication: Error while accessing backend services to validate user authentication for user : "
                             + username);
             throw new APISecurityException(APISecurityConstants.API_AUTH_GENERAL_ERROR, e.getMessage(), e);
         }
+    }
 
-        if (gatewayKeyCacheEnabled) {
-            basicAuthValidationInfoDTO.setHashedPassword(providedPasswordHash);
-            if (isAuthenticated) {
-                // put (username->password) into the valid cache
-                getGatewayUsernameCache().put(username, basicAuthValidationInfoDTO);
-            } else {
-                // put (username->password) into the invalid cache
-                getInvalidUsernameCache().put(username, basicAuthValidationInfoDTO);
+    private BasicAuthValidationInfoDTO awaitValidation(String username,
+                                                       CompletableFuture<BasicAuthValidationInfoDTO> validation)
+            throws APISecurityException {
+        if (log.isDebugEnabled()) {
+            log.debug("Basic Authentication: Waiting for an in-flight validation of user : " + username);
+        }
+        try {
+            return validation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APISecurityException(APISecurityConstants.API_AUTH_GENERAL_ERROR,
+                    APISecurityConstants.API_AUTH_GENERAL_ERROR_MESSAGE, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof APISecurityException) {
+                throw (APISecurityException) e.getCause();
             }
+            throw new APISecurityException(APISecurityConstants.API_AUTH_GENERAL_ERROR,
+                    APISecurityConstants.API_AUTH_GENERAL_ERROR_MESSAGE, e.getCause());
         }
-
-        return basicAuthValidationInfoDTO;
     }
 
     private BasicAuthValidationInfoDTO convertToDTO(
@@ -339,14 +385,14 @@ public class BasicAuthCredentialValidator {
     /**
      * @return the valid username cache
      */
-    private Cache getGatewayUsernameCache() {
+    protected Cache getGatewayUsernameCache() {
         return CacheProvider.getGatewayUsernameCache();
     }
 
     /**
      * @return the invalid username cache
      */
-    private Cache getInvalidUsernameCache() {
+    protected Cache getInvalidUsernameCache() {
         return CacheProvider.getInvalidUsernameCache();
     }
 
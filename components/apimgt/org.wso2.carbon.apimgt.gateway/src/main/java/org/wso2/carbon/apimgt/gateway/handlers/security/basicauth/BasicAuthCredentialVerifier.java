@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.security.basicauth;
+
+import org.wso2.carbon.apimgt.impl.utils.LRUCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Creates and checks the verifiers of the passwords kept in the gateway basic auth caches. A verifier is a salted
+ * PBKDF2 hash of the password, hence a leaked cache entry can not be matched against precomputed hashes of common
+ * passwords, unlike a plain SHA-256 hash.
+ * <p>
+ * A verifier is encoded as {@code iterations:salt:hash}. The number of iterations of new verifiers is configured with
+ * the system property 'basicAuthVerifierIterations'.
+ * <p>
+ * Deriving the key on every cache hit is expensive, hence once a password has been checked against a verifier, an
+ * HMAC of the password under a random key of this process is kept for the verifier. Further checks of the verifier
+ * compare that digest instead of deriving the key again.
+ */
+public final class BasicAuthCredentialVerifier {
+
+    public static final String ITERATIONS_PROPERTY = "basicAuthVerifierIterations";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int DEFAULT_ITERATIONS = 1000;
+    private static final int SALT_LENGTH = 16;
+    private static final int KEY_LENGTH = 256;
+    private static final String SEPARATOR = ":";
+    public static final String VERIFIED_CREDENTIALS_CACHE_SIZE_PROPERTY = "basicAuthVerifiedCredentialsCacheSize";
+    private static final int DEFAULT_VERIFIED_CREDENTIALS_CACHE_SIZE = 10000;
+    private static final String DIGEST_ALGORITHM = "HmacSHA256";
+    private static final SecureRandom secureRandom = new SecureRandom();
+    private static final int iterations = Math.max(1, Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS));
+    private static final byte[] digestKey = createDigestKey();
+    private static final ThreadLocal<Mac> digests = ThreadLocal.withInitial(BasicAuthCredentialVerifier::createMac);
+    // keyed digests of the passwords which were checked against a verifier, by verifier
+    private static final Map<String, byte[]> verifiedCredentials = new LRUCache<>(Math.max(1,
+            Integer.getInteger(VERIFIED_CREDENTIALS_CACHE_SIZE_PROPERTY, DEFAULT_VERIFIED_CREDENTIALS_CACHE_SIZE)));
+
+    private BasicAuthCredentialVerifier() {
+    }
+
+    /**
+     * Creates a verifier of the given password with a random salt.
+     *
+     * @param password password
+     * @return encoded verifier
+     */
+    public static String createVerifier(String password) {
+
+        byte[] salt = new byte[SALT_LENGTH];
+        secureRandom.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        String verifier = iterations + SEPARATOR + encoder.encodeToString(salt) + SEPARATOR
+                + encoder.encodeToString(deriveKey(password, salt, iterations));
+        verifiedCredentials.put(verifier, getDigest(password));
+        return verifier;
+    }
+
+    /**
+     * Checks whether the given password matches the given verifier.
+     *
+     * @param password password
+     * @param verifier encoded verifier
+     * @return true if the password matches the verifier, false if it does not or the verifier is malformed
+     */
+    public static boolean verify(String password, String verifier) {
+
+        if (password == null || verifier == null) {
+            return false;
+        }
+        byte[] digest = getDigest(password);
+        byte[] verifiedDigest = verifiedCredentials.get(verifier);
+        if (verifiedDigest != null && MessageDigest.isEqual(verifiedDigest, digest)) {
+            return true;
+        }
+        String[] parts = verifier.split(SEPARATOR);
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            int verifierIterations = Integer.parseInt(parts[0]);
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[1]);
+            byte[] expectedKey = decoder.decode(parts[2]);
+            if (verifierIterations > 0
+                    && MessageDigest.isEqual(expectedKey, deriveKey(password, salt, verifierIterations))) {
+                verifiedCredentials.put(verifier, digest);
+                return true;
+            }
+            return false;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] getDigest(String password) {
+
+        return digests.get().doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] createDigestKey() {
+
+        byte[] key = new byte[32];
+        secureRandom.nextBytes(key);
+        return key;
+    }
+
+    private static Mac createMac() {
+
+        try {
+            Mac mac = Mac.getInstance(DIGEST_ALGORITHM);
+            mac.init(new SecretKeySpec(digestKey, DIGEST_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error while initializing the password digest using " + DIGEST_ALGORITHM,
+                    e);
+        }
+    }
+
+    private static byte[] deriveKey(String password, byte[] salt, int iterationCount) {
+
+        PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), salt, iterationCount, KEY_LENGTH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(keySpec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error while deriving the password verifier using " + ALGORITHM, e);
+        } finally {
+            keySpec.clearPassword();
+        }
+    }
+}
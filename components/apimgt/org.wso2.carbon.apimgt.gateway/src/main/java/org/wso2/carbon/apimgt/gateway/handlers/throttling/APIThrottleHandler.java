@@ -57,6 +57,7 @@ import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.handlers.Utils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.APISecurityUtils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.VerbInfoDTO;
@@ -183,7 +184,7 @@ public class APIThrottleHandler extends AbstractHandler {
             }
             throw e;
         } finally {
-            messageContext.setProperty(APIMgtGatewayConstants.THROTTLING_LATENCY,
+            RequestTimings.of(messageContext).setThrottlingLatency(messageContext,
                     TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - executionStartTime));
             context.stop();
             if (Util.tracingEnabled()) {
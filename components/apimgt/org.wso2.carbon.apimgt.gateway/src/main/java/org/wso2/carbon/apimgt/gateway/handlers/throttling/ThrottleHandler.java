@@ -58,6 +58,8 @@ import org.wso2.carbon.apimgt.gateway.handlers.ext.listener.ExtensionListenerUti
 import org.wso2.carbon.apimgt.gateway.handlers.security.APISecurityUtils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.metrics.GatewayLatencyStats;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import org.wso2.carbon.apimgt.gateway.throttling.ThrottleDataHolder;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
@@ -78,6 +80,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import javax.xml.stream.XMLStreamException;
 
 
@@ -529,7 +532,7 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
             TracingTracer tracer = Util.getGlobalTracer();
             throttleLatencySpan = Util.startSpan(APIMgtGatewayConstants.THROTTLE_LATENCY, responseLatencySpan, tracer);
         }
-        long executionStartTime = System.currentTimeMillis();
+        long executionStartTime = System.nanoTime();
         if (!ExtensionListenerUtil.preProcessRequest(messageContext, type)) {
             return false;
         }
@@ -546,8 +549,10 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
             }
             throw e;
         } finally {
-            messageContext.setProperty(APIMgtGatewayConstants.THROTTLING_LATENCY,
-                    System.currentTimeMillis() - executionStartTime);
+            long throttlingLatency = System.nanoTime() - executionStartTime;
+            RequestTimings.of(messageContext).setThrottlingLatency(messageContext,
+                    TimeUnit.NANOSECONDS.toMillis(throttlingLatency));
+            GatewayLatencyStats.getInstance().record(GatewayLatencyStats.Phase.THROTTLING, throttlingLatency);
             context3.stop();
             if (Util.tracingEnabled()) {
                 Util.finishSpan(throttleLatencySpan);
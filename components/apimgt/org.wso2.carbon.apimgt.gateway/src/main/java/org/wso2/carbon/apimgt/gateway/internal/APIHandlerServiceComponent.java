@@ -36,6 +36,7 @@ import org.wso2.carbon.apimgt.gateway.handlers.security.keys.APIKeyValidatorClie
 import org.wso2.carbon.apimgt.gateway.jwt.RevokedJWTMapCleaner;
 import org.wso2.carbon.apimgt.gateway.listeners.GatewayStartupListener;
 import org.wso2.carbon.apimgt.gateway.listeners.ServerStartupListener;
+import org.wso2.carbon.apimgt.gateway.metrics.GatewayLatencyStats;
 import org.wso2.carbon.apimgt.gateway.utils.redis.RedisCacheUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
@@ -131,6 +132,7 @@ public class APIHandlerServiceComponent {
         CacheProvider.createGatewayInternalKeyCache();
         CacheProvider.createGatewayInternalKeyDataCache();
         CacheProvider.createInvalidInternalKeyCache();
+        GatewayLatencyStats.getInstance().start();
     }
 
     @Deactivate
@@ -148,6 +150,7 @@ public class APIHandlerServiceComponent {
         if (redisCacheUtils != null) {
             redisCacheUtils.stopRedisCacheSession();
         }
+        GatewayLatencyStats.getInstance().stop();
     }
 
     @Reference(
@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter used to answer "not revoked" for the vast majority of JWT signatures without touching the revoked
+ * JWT map. Bits are never cleared, so the filter has to be rebuilt once enough entries have expired. Lookups are
+ * lock free, while additions are expected to be serialized by the caller.
+ */
+class RevokedJWTBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int numberOfBits;
+    private final int numberOfHashes;
+    private final int capacity;
+
+    /**
+     * @param capacity                 expected number of entries
+     * @param falsePositiveProbability expected false positive probability once the filter holds capacity entries
+     */
+    RevokedJWTBloomFilter(int capacity, double falsePositiveProbability) {
+
+        this.capacity = Math.max(capacity, 1);
+        long optimalBits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveProbability)
+                / (Math.log(2) * Math.log(2)));
+        this.numberOfBits = (int) Math.min(Math.max(optimalBits, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.numberOfHashes = Math.max(1, (int) Math.round((double) numberOfBits / this.capacity * Math.log(2)));
+        this.bits = new AtomicLongArray((numberOfBits + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    void put(String value) {
+
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 0; i < numberOfHashes; i++) {
+            int bitIndex = ((hash1 + i * hash2) & Integer.MAX_VALUE) % numberOfBits;
+            int wordIndex = bitIndex >>> 6;
+            long mask = 1L << bitIndex;
+            long word;
+            do {
+                word = bits.get(wordIndex);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(wordIndex, word, word | mask));
+        }
+    }
+
+    boolean mightContain(String value) {
+
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 0; i < numberOfHashes; i++) {
+            int bitIndex = ((hash1 + i * hash2) & Integer.MAX_VALUE) % numberOfBits;
+            if ((bits.get(bitIndex >>> 6) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int getCapacity() {
+
+        return capacity;
+    }
+
+    int getNumberOfBits() {
+
+        return numberOfBits;
+    }
+
+    /**
+     * 64 bit FNV-1a hash of the characters, mixed with the MurmurHash3 finalizer. The two halves are used as the
+     * independent hashes for double hashing.
+     */
+    private static long hash(String value) {
+
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
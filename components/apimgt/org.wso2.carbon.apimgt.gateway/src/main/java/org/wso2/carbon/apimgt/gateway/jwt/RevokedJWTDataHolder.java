@@ -20,16 +20,28 @@ package org.wso2.carbon.apimgt.gateway.jwt;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- *  Singleton which stores the revoked JWT map
+ *  Singleton which stores the revoked JWT map.
+ *  Lookups are first answered by a Bloom filter, so that signatures which were never revoked do not hit the map.
+ *  Revoked entries are indexed by their expiry time, so that expired entries can be evicted without scanning the map.
  */
 public class RevokedJWTDataHolder {
 
     private static final Log log = LogFactory.getLog(RevokedJWTDataHolder.class);
+    private static final int MIN_BLOOM_FILTER_CAPACITY = 10000;
+    private static final double BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY = 0.01;
     private static Map<String, Long> revokedJWTMap = new ConcurrentHashMap<>();
+    private static PriorityQueue<ExpiryIndexEntry> expiryIndex = new PriorityQueue<>();
+    private static volatile RevokedJWTBloomFilter bloomFilter =
+            new RevokedJWTBloomFilter(MIN_BLOOM_FILTER_CAPACITY, BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY);
+    private static int removedSinceBloomFilterRebuild;
+    private static volatile long revokedJWTRetrievalWatermark;
+    private static final Object lock = new Object();
     private static RevokedJWTDataHolder instance = new RevokedJWTDataHolder();
 
     /**
@@ -39,8 +51,21 @@ public class RevokedJWTDataHolder {
      */
     public void addRevokedJWTToMap(String key, Long value) {
         if (key != null && value != null) {
-            log.debug("Adding revoked JWT key, value pair to the revoked map :" + key + " , " + value);
-            revokedJWTMap.put(key, value);
+            if (log.isDebugEnabled()) {
+                log.debug("Adding revoked JWT key, value pair to the revoked map :" + key + " , " + value);
+            }
+            synchronized (lock) {
+                if (value.equals(revokedJWTMap.get(key))) {
+                    return;
+                }
+                if (revokedJWTMap.size() >= bloomFilter.getCapacity()) {
+                    rebuildBloomFilter(bloomFilter.getCapacity() * 2);
+                }
+                // The filter has to be updated before the map, so that a lookup never misses a revoked entry
+                bloomFilter.put(key);
+                revokedJWTMap.put(key, value);
+                expiryIndex.add(new ExpiryIndexEntry(key, value));
+            }
         }
     }
 
@@ -50,7 +75,75 @@ public class RevokedJWTDataHolder {
      * @return true if it exists and false otherwise.
      */
     public static boolean isJWTTokenSignatureExistsInRevokedMap(String jwtSignature) {
-        return revokedJWTMap.containsKey(jwtSignature);
+        return jwtSignature != null && bloomFilter.mightContain(jwtSignature)
+                && revokedJWTMap.containsKey(jwtSignature);
+    }
+
+    /**
+     * Removes the revoked JWTs which have expired at the given time. Only the expired entries at the head of the
+     * expiry index are visited.
+     * @param currentTimeMillis current time in milliseconds.
+     * @return number of removed entries.
+     */
+    int removeExpiredEntries(long currentTimeMillis) {
+        int count = 0;
+        synchronized (lock) {
+            ExpiryIndexEntry entry = expiryIndex.peek();
+            // Expiry times of revoked JWTs are in seconds
+            while (entry != null && currentTimeMillis > entry.expiryTime * 1000) {
+                expiryIndex.poll();
+                if (revokedJWTMap.remove(entry.signature, entry.expiryTime)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Removed entry : " + entry.signature);
+                    }
+                    count++;
+                }
+                entry = expiryIndex.peek();
+            }
+            removedSinceBloomFilterRebuild += count;
+            if (removedSinceBloomFilterRebuild > MIN_BLOOM_FILTER_CAPACITY
+                    && removedSinceBloomFilterRebuild > revokedJWTMap.size()) {
+                rebuildBloomFilter(revokedJWTMap.size() * 2);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rebuilds the Bloom filter from the current map. Expected to be called while holding the lock.
+     */
+    private static void rebuildBloomFilter(int capacity) {
+        RevokedJWTBloomFilter newBloomFilter = new RevokedJWTBloomFilter(
+                Math.max(capacity, MIN_BLOOM_FILTER_CAPACITY), BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY);
+        for (String signature : revokedJWTMap.keySet()) {
+            newBloomFilter.put(signature);
+        }
+        bloomFilter = newBloomFilter;
+        removedSinceBloomFilterRebuild = 0;
+        if (log.isDebugEnabled()) {
+            log.debug("Rebuilt revoked JWT Bloom filter with capacity " + newBloomFilter.getCapacity() + " for "
+                    + revokedJWTMap.size() + " entries");
+        }
+    }
+
+    /**
+     * Returns the timestamp in milliseconds up to which revoked JWTs have been retrieved from the web service.
+     * @return the retrieval watermark, or 0 if nothing has been retrieved yet.
+     */
+    public long getRevokedJWTRetrievalWatermark() {
+        return revokedJWTRetrievalWatermark;
+    }
+
+    /**
+     * Advances the timestamp up to which revoked JWTs have been retrieved from the web service.
+     * @param watermark timestamp in milliseconds.
+     */
+    public void updateRevokedJWTRetrievalWatermark(long watermark) {
+        synchronized (lock) {
+            if (watermark > revokedJWTRetrievalWatermark) {
+                revokedJWTRetrievalWatermark = watermark;
+            }
+        }
     }
 
     private RevokedJWTDataHolder() {
@@ -62,7 +155,11 @@ public class RevokedJWTDataHolder {
      * @return
      */
     Map<String, Long> getRevokedJWTMap() {
-        return revokedJWTMap;
+        return Collections.unmodifiableMap(revokedJWTMap);
+    }
+
+    RevokedJWTBloomFilter getBloomFilter() {
+        return bloomFilter;
     }
 
     /**
@@ -72,4 +169,20 @@ public class RevokedJWTDataHolder {
     public static RevokedJWTDataHolder getInstance() {
         return instance;
     }
-}
\ No newline at end of file
+
+    private static class ExpiryIndexEntry implements Comparable<ExpiryIndexEntry> {
+
+        private final String signature;
+        private final long expiryTime;
+
+        private ExpiryIndexEntry(String signature, long expiryTime) {
+            this.signature = signature;
+            this.expiryTime = expiryTime;
+        }
+
+        @Override
+        public int compareTo(ExpiryIndexEntry other) {
+            return Long.compare(expiryTime, other.expiryTime);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.util.EntityUtils;
@@ -30,7 +31,6 @@ import org.wso2.carbon.apimgt.gateway.dto.RevokedJWTTokenDTO;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.EventHubConfigurationDto;
-import org.wso2.carbon.apimgt.impl.dto.ThrottleProperties;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 
 import java.io.IOException;
@@ -38,96 +38,166 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Class which is responsible to fetch the revoked JWT signatures via webservice database during startup
+ * Class which is responsible to fetch the revoked JWT signatures via webservice database during startup, and
+ * periodically afterwards to pick up revocations missed by the gateway. Only the revocations newer than the last
+ * retrieval watermark are fetched, and failed retrievals are retried with an exponential backoff without blocking the
+ * timer thread.
  */
 public class RevokedJWTTokensRetriever extends TimerTask {
 
     private static final Log log = LogFactory.getLog(RevokedJWTTokensRetriever.class);
     private static final int revokedJWTTokensRetrievalTimeoutInSeconds = 15;
     private static final int revokedJWTTokensRetrievalRetries = 15;
+    private static final long initialRetryDelayInMillis = 1000;
+    // Revocations committed slightly out of order are covered by re-fetching this window on the next retrieval
+    private static final long watermarkOverlapInMillis = 60000;
+    /**
+     * System property to configure the interval in seconds between the incremental revoked JWT retrievals.
+     */
+    public static final String REVOKED_JWT_TOKENS_RETRIEVAL_INTERVAL_PROPERTY = "revokedJWTTokensRetrievalInterval";
+    private static final long defaultRetrievalIntervalInSeconds = 300;
+    private final Timer timer = new Timer("RevokedJWTTokensRetriever", true);
+    // Only accessed from the timer thread
+    private int retryCount;
+    private TimerTask pendingRetry;
 
     @Override
     public void run() {
 
+        if (pendingRetry != null) {
+            log.debug("Skipping revoked JWT tokens retrieval as a retry is already scheduled.");
+            return;
+        }
         log.debug("Starting web service based revoked JWT tokens retrieving process.");
-        loadRevokedJWTTokensFromWebService();
+        retrieveRevokedJWTTokens();
     }
 
     /**
      * This method will retrieve revoked JWT tokens by calling a web service.
      *
-     * @return List of RevokedJWTTokensDTOs.
+     * @param since timestamp in milliseconds from which the revocations should be fetched, or 0 to fetch all
+     * @return List of RevokedJWTsDTOs.
+     * @throws IOException if the web service could not be reached or did not return the revoked JWT tokens
      */
-    private RevokedJWTTokenDTO[] retrieveRevokedJWTTokensData() {
-
-        try {
-            // The resource resides in the throttle web app. Hence reading throttle configs
-            String url = getEventHubConfiguration().getServiceUrl().concat(APIConstants.INTERNAL_WEB_APP_EP).concat(
-                    "/revokedjwt");
-            HttpGet method = new HttpGet(url);
-            byte[] credentials = Base64.encodeBase64((getEventHubConfiguration().getUsername() + ":" +
-                    getEventHubConfiguration().getPassword()).getBytes(StandardCharsets.UTF_8));
-            method.setHeader("Authorization", "Basic " + new String(credentials, StandardCharsets.UTF_8));
-            URL keyMgtURL = new URL(url);
-            int keyMgtPort = keyMgtURL.getPort();
-            String keyMgtProtocol = keyMgtURL.getProtocol();
-            HttpClient httpClient = APIUtil.getHttpClient(keyMgtPort, keyMgtProtocol);
-            HttpResponse httpResponse = null;
-            int retryCount = 0;
-            boolean retry;
-            do {
-                try {
-                    httpResponse = httpClient.execute(method);
-                    retry = false;
-                } catch (IOException ex) {
-                    retryCount++;
-                    if (retryCount < revokedJWTTokensRetrievalRetries) {
-                        retry = true;
-                        log.warn("Failed retrieving revoked JWT token signatures from remote endpoint: " +
-                                ex.getMessage() + ". Retrying after " + revokedJWTTokensRetrievalTimeoutInSeconds +
-                                " seconds...");
-                        Thread.sleep(revokedJWTTokensRetrievalTimeoutInSeconds * 1000);
-                    } else {
-                        throw ex;
-                    }
-                }
-            } while (retry);
+    private RevokedJWTTokenDTO[] retrieveRevokedJWTTokensData(long since) throws IOException {
 
-            String responseString = EntityUtils.toString(httpResponse.getEntity(), "UTF-8");
-            if (responseString != null && !responseString.isEmpty()) {
-                return new Gson().fromJson(responseString, RevokedJWTTokenDTO[].class);
-            }
-        } catch (IOException | InterruptedException e) {
-            log.error("Exception when retrieving revoked JWT tokens from remote endpoint ", e);
+        // The resource resides in the throttle web app. Hence reading throttle configs
+        String url = getEventHubConfiguration().getServiceUrl().concat(APIConstants.INTERNAL_WEB_APP_EP).concat(
+                "/revokedjwt");
+        if (since > 0) {
+            url = url.concat("?since=").concat(String.valueOf(since));
+        }
+        HttpGet method = new HttpGet(url);
+        byte[] credentials = Base64.encodeBase64((getEventHubConfiguration().getUsername() + ":" +
+                getEventHubConfiguration().getPassword()).getBytes(StandardCharsets.UTF_8));
+        method.setHeader("Authorization", "Basic " + new String(credentials, StandardCharsets.UTF_8));
+        URL keyMgtURL = new URL(url);
+        int keyMgtPort = keyMgtURL.getPort();
+        String keyMgtProtocol = keyMgtURL.getProtocol();
+        HttpClient httpClient = APIUtil.getHttpClient(keyMgtPort, keyMgtProtocol);
+        HttpResponse httpResponse = httpClient.execute(method);
+        int statusCode = httpResponse.getStatusLine().getStatusCode();
+        if (statusCode != HttpStatus.SC_OK) {
+            EntityUtils.consume(httpResponse.getEntity());
+            throw new IOException("Revoked JWT tokens retrieval failed with HTTP status " + statusCode);
+        }
+        String responseString = EntityUtils.toString(httpResponse.getEntity(), "UTF-8");
+        if (responseString != null && !responseString.isEmpty()) {
+            return new Gson().fromJson(responseString, RevokedJWTTokenDTO[].class);
         }
         return null;
     }
 
+    /**
+     * Loads the revoked JWT tokens, so that an unexpected failure such as a malformed response schedules a retry
+     * instead of terminating the timer thread and stopping all later retrievals.
+     */
+    private void retrieveRevokedJWTTokens() {
+
+        try {
+            loadRevokedJWTTokensFromWebService();
+        } catch (RuntimeException ex) {
+            scheduleRetry(ex);
+        }
+    }
+
     private void loadRevokedJWTTokensFromWebService() {
 
-        RevokedJWTTokenDTO[] revokedJWTTokenDTOS = retrieveRevokedJWTTokensData();
-        if(revokedJWTTokenDTOS != null) {
+        RevokedJWTDataHolder revokedJWTDataHolder = RevokedJWTDataHolder.getInstance();
+        RevokedJWTTokenDTO[] revokedJWTTokenDTOS;
+        try {
+            revokedJWTTokenDTOS = retrieveRevokedJWTTokensData(
+                    revokedJWTDataHolder.getRevokedJWTRetrievalWatermark());
+        } catch (IOException ex) {
+            scheduleRetry(ex);
+            return;
+        }
+        retryCount = 0;
+        if (revokedJWTTokenDTOS != null) {
+            long latestRevocationTime = 0;
             for (RevokedJWTTokenDTO revokedJWTToken : revokedJWTTokenDTOS) {
-                RevokedJWTDataHolder.getInstance().addRevokedJWTToMap(revokedJWTToken.getSignature(),
+                revokedJWTDataHolder.addRevokedJWTToMap(revokedJWTToken.getSignature(),
                         revokedJWTToken.getExpiryTime());
-                if(log.isDebugEnabled()) {
+                if (revokedJWTToken.getTimeCreated() != null) {
+                    latestRevocationTime = Math.max(latestRevocationTime, revokedJWTToken.getTimeCreated());
+                }
+                if (log.isDebugEnabled()) {
                     log.debug("JWT signature : " + revokedJWTToken.getSignature() + " added to the revoke map.");
                 }
             }
+            if (latestRevocationTime > watermarkOverlapInMillis) {
+                revokedJWTDataHolder.updateRevokedJWTRetrievalWatermark(
+                        latestRevocationTime - watermarkOverlapInMillis);
+            }
         } else {
             log.debug("No revoked JWT tokens are retrieved via web service");
         }
     }
 
+    private void scheduleRetry(Exception ex) {
+
+        retryCount++;
+        if (retryCount < revokedJWTTokensRetrievalRetries) {
+            long delay = Math.min(initialRetryDelayInMillis << Math.min(retryCount - 1, 30),
+                    revokedJWTTokensRetrievalTimeoutInSeconds * 1000L);
+            log.warn("Failed retrieving revoked JWT token signatures from remote endpoint: " + ex.getMessage()
+                    + ". Retrying after " + delay + " milliseconds...");
+            pendingRetry = new TimerTask() {
+                @Override
+                public void run() {
+
+                    pendingRetry = null;
+                    retrieveRevokedJWTTokens();
+                }
+            };
+            timer.schedule(pendingRetry, delay);
+        } else {
+            // The next periodic retrieval starts over with a fresh set of retries
+            retryCount = 0;
+            log.error("Exception when retrieving revoked JWT tokens from remote endpoint ", ex);
+        }
+    }
+
     /**
-     *  Initiates the timer task to fetch data from the web service.
-     *  Timer task will not run after the retry count is completed.
+     *  Initiates the timer task to fetch data from the web service, and to fetch the revocations newer than the
+     *  watermark periodically afterwards.
      */
     public void startRevokedJWTTokensRetriever() {
         //using same initDelay as in keytemplates,blocking conditions retriever
-        new Timer().schedule(this, getEventHubConfiguration().getInitDelay());
+        long interval = TimeUnit.SECONDS.toMillis(
+                Long.getLong(REVOKED_JWT_TOKENS_RETRIEVAL_INTERVAL_PROPERTY, defaultRetrievalIntervalInSeconds));
+        timer.schedule(this, getEventHubConfiguration().getInitDelay(), interval);
+    }
+
+    /**
+     * Stops the periodic retrieval and any scheduled retry.
+     */
+    public void stopRevokedJWTTokensRetriever() {
+
+        timer.cancel();
     }
 
     protected EventHubConfigurationDto getEventHubConfiguration() {
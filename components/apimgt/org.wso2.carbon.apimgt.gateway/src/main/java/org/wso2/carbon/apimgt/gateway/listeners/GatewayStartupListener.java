@@ -39,6 +39,7 @@ import org.wso2.carbon.apimgt.impl.dto.GatewayArtifactSynchronizerProperties;
 import org.wso2.carbon.apimgt.impl.dto.ThrottleProperties;
 import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.exception.ArtifactSynchronizerException;
 import org.wso2.carbon.apimgt.impl.utils.CertificateMgtUtils;
+import org.wso2.carbon.apimgt.common.jms.JMSConstants;
 import org.wso2.carbon.apimgt.common.jms.JMSTransportHandler;
 import org.wso2.carbon.apimgt.keymgt.SubscriptionDataHolder;
 import org.wso2.carbon.base.CarbonBaseUtils;
@@ -54,6 +55,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * Class for loading synapse artifacts to memory on initial server startup
@@ -66,6 +69,7 @@ public class GatewayStartupListener extends AbstractAxis2ConfigurationContextObs
     private boolean debugEnabled = log.isDebugEnabled();
     private JMSTransportHandler jmsTransportHandlerForTrafficManager;
     private JMSTransportHandler jmsTransportHandlerForEventHub;
+    private RevokedJWTTokensRetriever revokedJWTTokensRetriever;
     private ThrottleProperties throttleProperties;
     private GatewayArtifactSynchronizerProperties gatewayArtifactSynchronizerProperties;
     private boolean isAPIsDeployedInSyncMode = false;
@@ -149,12 +153,16 @@ public class GatewayStartupListener extends AbstractAxis2ConfigurationContextObs
         retrieveAndDeployArtifacts(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
         retrieveBlockConditionsAndKeyTemplates();
         WebhooksDataHolder.getInstance().registerTenantSubscriptionStore(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
-        jmsTransportHandlerForTrafficManager
-                .subscribeForJmsEvents(APIConstants.TopicNames.TOPIC_THROTTLE_DATA, new JMSMessageListener());
+        // Throttle decisions, token revocations and cache invalidations can be applied more than once, hence the
+        // provider is allowed to acknowledge them lazily
+        Map<String, String> idempotentSubscriptionParameters =
+                Collections.singletonMap(JMSConstants.PARAM_SESSION_ACK, "DUPS_OK_ACKNOWLEDGE");
+        jmsTransportHandlerForTrafficManager.subscribeForJmsEvents(APIConstants.TopicNames.TOPIC_THROTTLE_DATA,
+                new JMSMessageListener(), idempotentSubscriptionParameters);
         jmsTransportHandlerForEventHub.subscribeForJmsEvents(APIConstants.TopicNames.TOPIC_TOKEN_REVOCATION,
-                new GatewayTokenRevocationMessageListener());
+                new GatewayTokenRevocationMessageListener(), idempotentSubscriptionParameters);
         jmsTransportHandlerForEventHub.subscribeForJmsEvents(APIConstants.TopicNames.TOPIC_CACHE_INVALIDATION,
-                new APIMgtGatewayCacheMessageListener());
+                new APIMgtGatewayCacheMessageListener(), idempotentSubscriptionParameters);
         jmsTransportHandlerForEventHub
                 .subscribeForJmsEvents(APIConstants.TopicNames.TOPIC_NOTIFICATION, new GatewayJMSMessageListener());
         jmsTransportHandlerForEventHub.subscribeForJmsEvents(APIConstants.TopicNames.TOPIC_ASYNC_WEBHOOKS_DATA,
@@ -225,6 +233,9 @@ public class GatewayStartupListener extends AbstractAxis2ConfigurationContextObs
     public void invoke() {
 
         CertificateReLoaderUtil.shutDownCertificateReLoader();
+        if (revokedJWTTokensRetriever != null) {
+            revokedJWTTokensRetriever.stopRevokedJWTTokensRetriever();
+        }
         if (jmsTransportHandlerForTrafficManager != null) {
             // This method will make shutdown the Listener.
             log.debug("Unsubscribe from JMS Events...");
@@ -282,8 +293,8 @@ public class GatewayStartupListener extends AbstractAxis2ConfigurationContextObs
             // Start web service based revoked JWT tokens retriever.
             // Advanced throttle properties & blocking conditions have to be enabled for JWT token
             // retrieval due to the throttle config dependency for this feature.
-            RevokedJWTTokensRetriever webServiceRevokedJWTTokensRetriever = new RevokedJWTTokensRetriever();
-            webServiceRevokedJWTTokensRetriever.startRevokedJWTTokensRetriever();
+            revokedJWTTokensRetriever = new RevokedJWTTokensRetriever();
+            revokedJWTTokensRetriever.startRevokedJWTTokensRetriever();
         }
     }
 
@@ -47,7 +47,7 @@ public class ServerStartupListener implements ServerStartupObserver {
         ThrottleDataHolder throttleDataHolder = new ThrottleDataHolder();
         APIThrottleDataServiceImpl throttleDataServiceImpl =
                 new APIThrottleDataServiceImpl(throttleDataHolder);
-        CacheInvalidationService cacheInvalidationService = new CacheInvalidationServiceImpl();
+        CacheInvalidationService cacheInvalidationService = CacheInvalidationServiceImpl.getInstance();
         // Register APIThrottleDataService so that ThrottleData maps are available to other components.
         ServiceReferenceHolder.getInstance().setCacheInvalidationService(cacheInvalidationService);
         ServiceReferenceHolder.getInstance().setAPIThrottleDataService(throttleDataServiceImpl);
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.mediators;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.InstanceProfileCredentialsProvider;
+import com.amazonaws.services.lambda.AWSLambda;
+import com.amazonaws.services.lambda.AWSLambdaClientBuilder;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the AWS Lambda clients used by {@link AWSLambdaMediator}. AWS clients are thread-safe and each of them owns
+ * an HTTP connection pool, hence a client is created once per region and credentials and shared by all the
+ * invocations, instead of being built per request.
+ * <p>
+ * Clients are keyed by the region and the full credentials, so a rotated secret gets its own client instead of
+ * replacing the client of the previous secret. The number of clients is bounded and the least recently used client
+ * is evicted when the bound is exceeded. Invocations lease a client, and an evicted client is shut down only once
+ * all its leases are closed.
+ * <p>
+ * All the concurrent invocations with the same region and credentials share the connection pool of one client, so the
+ * pool is sized for the concurrency of the gateway rather than the SDK default of 50 connections. The pool size and
+ * the connection timeouts can be set with the system properties 'awsLambdaClientMaxConnections',
+ * 'awsLambdaClientConnectionTimeout' and 'awsLambdaClientSocketTimeout', with the timeouts in milliseconds.
+ */
+public class AWSLambdaClientCache {
+
+    private static final String INSTANCE_PROFILE = "InstanceProfile";
+    private static final int DEFAULT_MAX_CLIENTS = 100;
+    public static final String MAX_CONNECTIONS_PROPERTY = "awsLambdaClientMaxConnections";
+    // Matches the default size of the pass-through worker pool, which runs the lambda invocations
+    private static final int DEFAULT_MAX_CONNECTIONS = 400;
+    public static final String CONNECTION_TIMEOUT_PROPERTY = "awsLambdaClientConnectionTimeout";
+    public static final String SOCKET_TIMEOUT_PROPERTY = "awsLambdaClientSocketTimeout";
+    private static final AWSLambdaClientCache instance = new AWSLambdaClientCache(DEFAULT_MAX_CLIENTS);
+
+    private final int maxClients;
+    private final ClientConfiguration clientConfiguration;
+    private final Map<String, CachedClient> clients = new LinkedHashMap<>(16, 0.75f, true);
+
+    AWSLambdaClientCache(int maxClients) {
+
+        this.maxClients = maxClients;
+        this.clientConfiguration = createClientConfiguration();
+    }
+
+    public static AWSLambdaClientCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Leases the client of the given region and credentials. If both the access key and the secret key are empty,
+     * the temporary credentials supplied by the IAM role attached to the EC2 instance are used. The lease must be
+     * closed once the invocation is complete.
+     *
+     * @param region    AWS region of the lambda function
+     * @param accessKey AWS access key
+     * @param secretKey AWS secret key
+     * @return lease of the AWS Lambda client
+     */
+    public ClientLease leaseClient(String region, String accessKey, String secretKey) {
+
+        boolean useInstanceProfile = StringUtils.isEmpty(accessKey) && StringUtils.isEmpty(secretKey);
+        String key = region + ':' + (useInstanceProfile ? INSTANCE_PROFILE
+                : DigestUtils.sha256Hex(accessKey + '\0' + secretKey));
+        synchronized (clients) {
+            CachedClient cachedClient = clients.get(key);
+            if (cachedClient != null) {
+                cachedClient.retain();
+                return new ClientLease(cachedClient);
+            }
+        }
+        // The client is built outside the lock, as building it sets up its HTTP connection pool
+        AWSCredentialsProvider credentialsProvider;
+        if (useInstanceProfile) {
+            credentialsProvider = InstanceProfileCredentialsProvider.getInstance();
+        } else {
+            credentialsProvider = new AWSStaticCredentialsProvider(new BasicAWSCredentials(accessKey, secretKey));
+        }
+        CachedClient newClient = new CachedClient(createClient(credentialsProvider, region));
+        CachedClient cachedClient;
+        List<CachedClient> evictedClients = new ArrayList<>();
+        synchronized (clients) {
+            cachedClient = clients.get(key);
+            if (cachedClient == null) {
+                cachedClient = newClient;
+                clients.put(key, cachedClient);
+                Iterator<CachedClient> iterator = clients.values().iterator();
+                while (clients.size() > maxClients && iterator.hasNext()) {
+                    evictedClients.add(iterator.next());
+                    iterator.remove();
+                }
+            }
+            cachedClient.retain();
+        }
+        if (cachedClient != newClient) {
+            // Another invocation built the client of the same credentials first
+            newClient.client.shutdown();
+        }
+        for (CachedClient evictedClient : evictedClients) {
+            if (evictedClient.retire()) {
+                evictedClient.client.shutdown();
+            }
+        }
+        return new ClientLease(cachedClient);
+    }
+
+    protected AWSLambda createClient(AWSCredentialsProvider credentialsProvider, String region) {
+
+        return AWSLambdaClientBuilder.standard()
+                .withCredentials(credentialsProvider)
+                .withRegion(region)
+                .withClientConfiguration(clientConfiguration)
+                .build();
+    }
+
+    ClientConfiguration getClientConfiguration() {
+
+        return clientConfiguration;
+    }
+
+    private static ClientConfiguration createClientConfiguration() {
+
+        return new ClientConfiguration()
+                .withMaxConnections(Math.max(1, Integer.getInteger(MAX_CONNECTIONS_PROPERTY,
+                        DEFAULT_MAX_CONNECTIONS)))
+                .withConnectionTimeout(Integer.getInteger(CONNECTION_TIMEOUT_PROPERTY,
+                        ClientConfiguration.DEFAULT_CONNECTION_TIMEOUT))
+                .withSocketTimeout(Integer.getInteger(SOCKET_TIMEOUT_PROPERTY,
+                        ClientConfiguration.DEFAULT_SOCKET_TIMEOUT));
+    }
+
+    /**
+     * Lease of a cached client, which keeps the client from being shut down until the lease is closed.
+     */
+    public static final class ClientLease implements AutoCloseable {
+
+        private final CachedClient cachedClient;
+        private boolean closed;
+
+        private ClientLease(CachedClient cachedClient) {
+
+            this.cachedClient = cachedClient;
+        }
+
+        public AWSLambda getClient() {
+
+            return cachedClient.client;
+        }
+
+        @Override
+        public void close() {
+
+            if (!closed) {
+                closed = true;
+                if (cachedClient.release()) {
+                    cachedClient.client.shutdown();
+                }
+            }
+        }
+    }
+
+    private static class CachedClient {
+
+        private final AWSLambda client;
+        private int leases;
+        private boolean retired;
+
+        CachedClient(AWSLambda client) {
+
+            this.client = client;
+        }
+
+        synchronized void retain() {
+
+            leases++;
+        }
+
+        /**
+         * @return true if the client was evicted and this was its last lease, hence it should be shut down
+         */
+        synchronized boolean release() {
+
+            leases--;
+            return retired && leases == 0;
+        }
+
+        /**
+         * @return true if the evicted client has no leases, hence it should be shut down
+         */
+        synchronized boolean retire() {
+
+            retired = true;
+            return leases == 0;
+        }
+    }
+}
@@ -17,13 +17,7 @@
  */
 package org.wso2.carbon.apimgt.gateway.mediators;
 
-import com.amazonaws.auth.AWSCredentialsProvider;
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
-import com.amazonaws.auth.BasicAWSCredentials;
-import com.amazonaws.auth.InstanceProfileCredentialsProvider;
 import com.amazonaws.SdkClientException;
-import com.amazonaws.services.lambda.AWSLambda;
-import com.amazonaws.services.lambda.AWSLambdaClientBuilder;
 import com.amazonaws.services.lambda.model.InvocationType;
 import com.amazonaws.services.lambda.model.InvokeRequest;
 import com.amazonaws.services.lambda.model.InvokeResult;
@@ -36,7 +30,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.impl.APIConstants;
-import org.wso2.carbon.apimgt.gateway.handlers.analytics.Constants;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import java.io.ByteArrayInputStream;
 
 /**
@@ -47,7 +41,6 @@ public class AWSLambdaMediator extends AbstractMediator {
     private static final Log log = LogFactory.getLog(AWSLambdaMediator.class);
     private String accessKey = "";
     private String secretKey = "";
-    private String region = "";
     private String resourceName = "";
     private int resourceTimeout = APIConstants.AWS_DEFAULT_CONNECTION_TIMEOUT;
 
@@ -66,7 +59,7 @@ public class AWSLambdaMediator extends AbstractMediator {
                 .getAxis2MessageContext();
 
         // Set lambda backend invocation start time for analytics
-        messageContext.setProperty(Constants.BACKEND_START_TIME_PROPERTY, System.currentTimeMillis());
+        RequestTimings.of(messageContext).setBackendStartTime(messageContext, System.currentTimeMillis());
 
         String payload;
         if (JsonUtil.hasAJsonPayload(axis2MessageContext)) {
@@ -106,20 +99,15 @@ public class AWSLambdaMediator extends AbstractMediator {
     private InvokeResult invokeLambda(String payload) {
         try {
             String[] resourceNameSplit = resourceName.split(":");
-            region = resourceNameSplit[3];
-            // set credential provider
-            AWSCredentialsProvider credentialsProvider;
+            String region = resourceNameSplit[3];
             if (StringUtils.isEmpty(accessKey) && StringUtils.isEmpty(secretKey)) {
                 if (log.isDebugEnabled()) {
                     log.debug("Using temporary credentials supplied by the IAM role attached to the EC2 instance");
                 }
-                credentialsProvider = InstanceProfileCredentialsProvider.getInstance();
             } else if (!StringUtils.isEmpty(accessKey) && !StringUtils.isEmpty(secretKey)) {
                 if (log.isDebugEnabled()) {
                     log.debug("Using user given stored credentials");
                 }
-                BasicAWSCredentials awsCredentials = new BasicAWSCredentials(accessKey, secretKey);
-                credentialsProvider = new AWSStaticCredentialsProvider(awsCredentials);
             } else {
                 log.error("Missing AWS Credentials");
                 return null;
@@ -133,12 +121,11 @@ public class AWSLambdaMediator extends AbstractMediator {
                     .withPayload(payload)
                     .withInvocationType(InvocationType.RequestResponse)
                     .withSdkClientExecutionTimeout(resourceTimeout);
-            // set aws lambda client
-            AWSLambda awsLambda = AWSLambdaClientBuilder.standard()
-                    .withCredentials(credentialsProvider)
-                    .withRegion(region)
-                    .build();
-            return awsLambda.invoke(invokeRequest);
+            // lease the shared aws lambda client of the region and credentials for this invocation
+            try (AWSLambdaClientCache.ClientLease clientLease =
+                         AWSLambdaClientCache.getInstance().leaseClient(region, accessKey, secretKey)) {
+                return clientLease.getClient().invoke(invokeRequest);
+            }
         } catch (SdkClientException e) {
             log.error("Error while invoking the lambda function", e);
         }
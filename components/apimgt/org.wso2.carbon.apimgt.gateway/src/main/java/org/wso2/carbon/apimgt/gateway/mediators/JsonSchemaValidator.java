@@ -28,7 +28,6 @@ import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.threatprotection.APIMThreatAnalyzerException;
 import org.wso2.carbon.apimgt.gateway.threatprotection.AnalyzerHolder;
 import org.wso2.carbon.apimgt.gateway.threatprotection.analyzer.APIMThreatAnalyzer;
-import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.ConfigurationHolder;
 import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.JSONConfig;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatExceptionHandler;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatProtectorConstants;
@@ -48,6 +47,7 @@ import java.util.Map;
 public class JsonSchemaValidator extends AbstractMediator {
 
     private static final Log logger = LogFactory.getLog(JsonSchemaValidator.class);
+    private volatile JSONConfig jsonConfig;
 
     /**
      * This mediate method validates the message body.
@@ -79,9 +79,14 @@ public class JsonSchemaValidator extends AbstractMediator {
         if (!APIConstants.SupportedHTTPVerbs.GET.name().equalsIgnoreCase(requestMethod) &&
                 (ThreatProtectorConstants.APPLICATION_JSON.equals(contentType) ||
                         ThreatProtectorConstants.TEXT_JSON.equals(contentType))) {
-            JSONConfig jsonConfig = configureSchemaProperties(messageContext);
-            ConfigurationHolder.addJsonConfig(jsonConfig);
             APIMThreatAnalyzer apimThreatAnalyzer = AnalyzerHolder.getAnalyzer(contentType);
+            if (apimThreatAnalyzer == null) {
+                String message = "Request is failed as a JSON analyzer could not be obtained";
+                logger.error(message);
+                return GatewayUtils.handleThreat(messageContext, ThreatProtectorConstants.HTTP_SC_CODE, message);
+            }
+            // configure the borrowed analyzer with the limits of this API
+            apimThreatAnalyzer.configure(getJsonConfig(messageContext));
             try {
                 inputStreams = GatewayUtils.cloneRequestMessage(messageContext);
                 if (inputStreams != null) {
@@ -120,6 +125,21 @@ public class JsonSchemaValidator extends AbstractMediator {
         return isValid;
     }
 
+    /**
+     * Returns the JSON threat protection limits of the API. The limits are set by the validator sequence of the API
+     * which this mediator belongs to, hence they are bound once and reused for the subsequent requests.
+     *
+     * @param messageContext This message context contains the request message properties of the relevant
+     *                       API which was enabled the JSON_Validator message mediation in flow.
+     * @return JSONConfig contains the json schema properties need to be validated.
+     */
+    private JSONConfig getJsonConfig(MessageContext messageContext) {
+        if (jsonConfig == null) {
+            jsonConfig = configureSchemaProperties(messageContext);
+        }
+        return jsonConfig;
+    }
+
     /**
      * This method binds the properties of the json validator sequence with the JsonConfig object.
      *
@@ -18,8 +18,10 @@
 
 package org.wso2.carbon.apimgt.gateway.mediators;
 
+import com.google.re2j.Matcher;
 import com.google.re2j.Pattern;
 import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.OMException;
 import org.apache.axiom.soap.SOAPBody;
 import org.apache.axiom.soap.SOAPEnvelope;
 import org.apache.commons.lang3.StringUtils;
@@ -32,17 +34,22 @@ import org.apache.synapse.mediators.AbstractMediator;
 import org.apache.synapse.rest.RESTUtils;
 import org.apache.synapse.transport.nhttp.NhttpConstants;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+import org.wso2.carbon.apimgt.gateway.threatprotection.utils.RegexMatchLength;
+import org.wso2.carbon.apimgt.gateway.threatprotection.utils.RegexMatchingWriter;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatProtectorConstants;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import javax.xml.stream.XMLStreamException;
 
 /**
  * This mediator would protect the backend resources from the threat vulnerabilities by matching the
@@ -51,9 +58,13 @@ import java.util.Map;
 public class RegularExpressionProtector extends AbstractMediator {
 
     private static final Log logger = LogFactory.getLog(RegularExpressionProtector.class);
+    // Longest match length for which the request body is matched in overlapping windows
+    private static final int MAX_STREAMED_MATCH_LENGTH = 4096;
+    private static final int DEFAULT_BUFFERED_PAYLOAD_LENGTH_LIMIT = 10 * 1024 * 1024;
     private Boolean enabledCheckBody = true;
     private String threatType = null;
-    private Pattern pattern = null;
+    private volatile Pattern pattern = null;
+    private int maxMatchLength = RegexMatchLength.UNBOUNDED;
     private Boolean enabledCheckHeaders;
     private Boolean enabledCheckPathParam;
 
@@ -83,6 +94,7 @@ public class RegularExpressionProtector extends AbstractMediator {
         messageProperty = messageContext.getProperty(APIMgtGatewayConstants.REGEX_PATTERN);
         if (messageProperty != null) {
             if (pattern == null) {
+                maxMatchLength = RegexMatchLength.getMaxMatchLength(messageProperty.toString());
                 pattern = Pattern.compile(messageProperty.toString(), Pattern.CASE_INSENSITIVE);
             }
         } else {
@@ -206,20 +218,88 @@ public class RegularExpressionProtector extends AbstractMediator {
             if (omElement == null) {
                 return false;
             }
-            String payload = omElement.toString();
-            if (pattern != null && payload != null && pattern.matcher(payload).find()) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug(String.format("Threat detected in request payload [ %s ] by regex [ %s ]))",
-                            payload, pattern));
-                }
+            if (pattern == null) {
+                return false;
+            }
+            if (maxMatchLength != RegexMatchLength.UNBOUNDED && maxMatchLength <= MAX_STREAMED_MATCH_LENGTH) {
+                return isStreamedBodyVulnerable(messageContext, omElement);
+            }
+            return isBufferedBodyVulnerable(messageContext, omElement);
+        }
+        return false;
+    }
+
+    /**
+     * Matches the pattern while the request body is serialized, in overlapping windows of a fixed size, and stops
+     * the serialization at the first match. This is only used when every match of the pattern can be found within a
+     * window, as computed by {@link RegexMatchLength}.
+     */
+    private boolean isStreamedBodyVulnerable(MessageContext messageContext, OMElement omElement) {
+
+        RegexMatchingWriter matchingWriter = new RegexMatchingWriter(pattern, Math.max(maxMatchLength - 1, 0));
+        try {
+            omElement.serialize(matchingWriter);
+            matchingWriter.close();
+        } catch (XMLStreamException | IOException | OMException e) {
+            if (!matchingWriter.isMatched()) {
+                return handlePayloadReadError(messageContext, e);
+            }
+        }
+        if (matchingWriter.isMatched()) {
+            handleBodyThreat(messageContext, matchingWriter.getMatchedContent());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Matches the pattern over the whole request body at once, for the patterns whose matches are not bounded in
+     * length or which contain anchors. The body held in memory is limited by the system property
+     * 'bufferedPayloadLengthLimitForRegexThreatProtector', in characters, and a larger body is rejected.
+     */
+    private boolean isBufferedBodyVulnerable(MessageContext messageContext, OMElement omElement) {
+
+        int lengthLimit = Integer.getInteger(
+                APIMgtGatewayConstants.BUFFERED_PAYLOAD_LENGTH_LIMIT_FOR_REGEX_THREAT_PROTECTOR,
+                DEFAULT_BUFFERED_PAYLOAD_LENGTH_LIMIT);
+        LengthLimitedWriter writer = new LengthLimitedWriter(lengthLimit);
+        try {
+            omElement.serialize(writer);
+        } catch (XMLStreamException | OMException e) {
+            if (writer.isLimitExceeded()) {
                 GatewayUtils.handleThreat(messageContext, APIMgtGatewayConstants.HTTP_SC_CODE,
-                        threatType + " " + APIMgtGatewayConstants.PAYLOAD_THREAT_MSG);
+                        "Exceeded Request Payload size limit allowed to be matched by the Regular Expression "
+                                + "Threat Protector mediator");
                 return true;
             }
+            return handlePayloadReadError(messageContext, e);
+        }
+        Matcher matcher = pattern.matcher(writer.getContent());
+        if (matcher.find()) {
+            handleBodyThreat(messageContext, matcher.group());
+            return true;
         }
         return false;
     }
 
+    private void handleBodyThreat(MessageContext messageContext, String matchedContent) {
+
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Threat detected in request payload [ %s ] by regex [ %s ]))",
+                    matchedContent, pattern));
+        }
+        GatewayUtils.handleThreat(messageContext, APIMgtGatewayConstants.HTTP_SC_CODE,
+                threatType + " " + APIMgtGatewayConstants.PAYLOAD_THREAT_MSG);
+    }
+
+    private boolean handlePayloadReadError(MessageContext messageContext, Exception e) {
+
+        String message = "Error occurred while reading the request payload";
+        logger.error(message, e);
+        GatewayUtils.handleThreat(messageContext, ThreatProtectorConstants.HTTP_SC_CODE, message + e.getMessage());
+        return true;
+    }
+
     /**
      * This method checks whether the request path contains matching vulnerable keywords.
      *
@@ -258,6 +338,77 @@ public class RegularExpressionProtector extends AbstractMediator {
         return false;
     }
 
+    /**
+     * Matches the pattern while the request body is serialized, in overlapping windows of a fixed size, and stops
+     * the serialization at the first match. This is only used when every match of the pattern can be found within a
+     * window, as computed by {@link RegexMatchLength}.
+     */
+    private boolean isStreamedBodyVulnerable(MessageContext messageContext, OMElement omElement) {
+
+        RegexMatchingWriter matchingWriter = new RegexMatchingWriter(pattern, Math.max(maxMatchLength - 1, 0));
+        try {
+            omElement.serialize(matchingWriter);
+            matchingWriter.close();
+        } catch (XMLStreamException | IOException | OMException e) {
+            if (!matchingWriter.isMatched()) {
+                return handlePayloadReadError(messageContext, e);
+            }
+        }
+        if (matchingWriter.isMatched()) {
+            handleBodyThreat(messageContext, matchingWriter.getMatchedContent());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Matches the pattern over the whole request body at once, for the patterns whose matches are not bounded in
+     * length or which contain anchors. The body held in memory is limited by the system property
+     * 'bufferedPayloadLengthLimitForRegexThreatProtector', in characters, and a larger body is rejected.
+     */
+    private boolean isBufferedBodyVulnerable(MessageContext messageContext, OMElement omElement) {
+
+        int lengthLimit = Integer.getInteger(
+                APIMgtGatewayConstants.BUFFERED_PAYLOAD_LENGTH_LIMIT_FOR_REGEX_THREAT_PROTECTOR,
+                DEFAULT_BUFFERED_PAYLOAD_LENGTH_LIMIT);
+        LengthLimitedWriter writer = new LengthLimitedWriter(lengthLimit);
+        try {
+            omElement.serialize(writer);
+        } catch (XMLStreamException | OMException e) {
+            if (writer.isLimitExceeded()) {
+                GatewayUtils.handleThreat(messageContext, APIMgtGatewayConstants.HTTP_SC_CODE,
+                        "Exceeded Request Payload size limit allowed to be matched by the Regular Expression "
+                                + "Threat Protector mediator");
+                return true;
+            }
+            return handlePayloadReadError(messageContext, e);
+        }
+        Matcher matcher = pattern.matcher(writer.getContent());
+        if (matcher.find()) {
+            handleBodyThreat(messageContext, matcher.group());
+            return true;
+        }
+        return false;
+    }
+
+    private void handleBodyThreat(MessageContext messageContext, String matchedContent) {
+
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Threat detected in request payload [ %s ] by regex [ %s ]))",
+                    matchedContent, pattern));
+        }
+        GatewayUtils.handleThreat(messageContext, APIMgtGatewayConstants.HTTP_SC_CODE,
+                threatType + " " + APIMgtGatewayConstants.PAYLOAD_THREAT_MSG);
+    }
+
+    private boolean handlePayloadReadError(MessageContext messageContext, Exception e) {
+
+        String message = "Error occurred while reading the request payload";
+        logger.error(message, e);
+        GatewayUtils.handleThreat(messageContext, ThreatProtectorConstants.HTTP_SC_CODE, message + e.getMessage());
+        return true;
+    }
+
     /**
      * This method checks whether the request path contains matching vulnerable keywords.
      *
@@ -296,5 +447,59 @@ public class RegularExpressionProtector extends AbstractMediator {
         return enabledCheckBody;
     }
 
-}
 
+    /**
+     * Collects the characters written to it, and fails once more than the given number of characters is written.
+     */
+    private static class LengthLimitedWriter extends Writer {
+
+        private final StringBuilder content = new StringBuilder();
+        private final int lengthLimit;
+        private boolean limitExceeded;
+
+        LengthLimitedWriter(int lengthLimit) {
+
+            this.lengthLimit = lengthLimit;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int len) throws IOException {
+
+            if (content.length() + len > lengthLimit) {
+                limitExceeded = true;
+                throw new IOException("Request payload is longer than " + lengthLimit + " characters");
+            }
+            content.append(chars, offset, len);
+        }
+
+        @Override
+        public void write(String str, int offset, int len) throws IOException {
+
+            if (content.length() + len > lengthLimit) {
+                limitExceeded = true;
+                throw new IOException("Request payload is longer than " + lengthLimit + " characters");
+            }
+            content.append(str, offset, offset + len);
+        }
+
+        @Override
+        public void flush() {
+            // Content is kept in memory, hence nothing to flush.
+        }
+
+        @Override
+        public void close() {
+            // Content is kept in memory, hence nothing to close.
+        }
+
+        boolean isLimitExceeded() {
+
+            return limitExceeded;
+        }
+
+        CharSequence getContent() {
+
+            return content;
+        }
+    }
+}
@@ -28,25 +28,20 @@ import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.threatprotection.APIMThreatAnalyzerException;
 import org.wso2.carbon.apimgt.gateway.threatprotection.AnalyzerHolder;
 import org.wso2.carbon.apimgt.gateway.threatprotection.analyzer.APIMThreatAnalyzer;
-import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.ConfigurationHolder;
 import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.XMLConfig;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatExceptionHandler;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatProtectorConstants;
+import org.wso2.carbon.apimgt.gateway.threatprotection.utils.XMLSchemaCache;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.xml.sax.SAXException;
 
-import javax.xml.XMLConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
-import javax.xml.validation.Validator;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
 import java.util.Map;
 
 /**
@@ -55,6 +50,7 @@ import java.util.Map;
  */
 public class XMLSchemaValidator extends AbstractMediator {
     private static final Log logger = LogFactory.getLog(XMLSchemaValidator.class);
+    private volatile XMLConfig xmlConfig;
 
     /**
      * This mediate method validates the xml request message.
@@ -97,9 +93,13 @@ public class XMLSchemaValidator extends AbstractMediator {
                     if (messageProperty != null) {
                         xmlValidationStatus = Boolean.valueOf(messageProperty.toString());
                         if (xmlValidationStatus.equals(true)) {
-                            XMLConfig xmlConfig = configureSchemaProperties(messageContext);
-                            ConfigurationHolder.addXmlConfig(xmlConfig);
                             apimThreatAnalyzer = AnalyzerHolder.getAnalyzer(contentType);
+                            if (apimThreatAnalyzer == null) {
+                                throw new APIMThreatAnalyzerException(
+                                        "Request is failed as an XML analyzer could not be obtained");
+                            }
+                            // configure the borrowed analyzer with the limits of this API
+                            apimThreatAnalyzer.configure(getXmlConfig(messageContext));
                             inputStreamXml = inputStreams.get(ThreatProtectorConstants.XML);
                             apimThreatAnalyzer.analyze(inputStreamXml, apiContext);
                         }
@@ -142,6 +142,21 @@ public class XMLSchemaValidator extends AbstractMediator {
         return true;
     }
 
+    /**
+     * Returns the XML threat protection limits of the API. The limits are set by the validator sequence of the API
+     * which this mediator belongs to, hence they are bound once and reused for the subsequent requests.
+     *
+     * @param messageContext This message context contains the request message properties of the relevant
+     *                       API which was enabled the XML_Validator message mediation in flow.
+     * @return XMLConfig contains the xml schema properties need to be validated.
+     */
+    private XMLConfig getXmlConfig(MessageContext messageContext) {
+        if (xmlConfig == null) {
+            xmlConfig = configureSchemaProperties(messageContext);
+        }
+        return xmlConfig;
+    }
+
     /**
      * This method binds the properties of the json validator sequence with the XMLConfig object.
      *
@@ -264,8 +279,6 @@ public class XMLSchemaValidator extends AbstractMediator {
     private boolean validateSchema(MessageContext messageContext, BufferedInputStream bufferedInputStream)
             throws APIMThreatAnalyzerException {
         String xsdURL;
-        Schema schema;
-        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
         try {
             Object messageProperty = messageContext.getProperty(APIMgtGatewayConstants.XSD_URL);
             if (messageProperty == null) {
@@ -275,11 +288,8 @@ public class XMLSchemaValidator extends AbstractMediator {
                     return true;
                 } else {
                     xsdURL = String.valueOf(messageProperty);
-                    URL schemaFile = new URL(xsdURL);
-                    schema = schemaFactory.newSchema(schemaFile);
                     Source xmlFile = new StreamSource(bufferedInputStream);
-                    Validator validator = schema.newValidator();
-                    validator.validate(xmlFile);
+                    XMLSchemaCache.getInstance().validate(xsdURL, xmlFile);
                 }
             }
         } catch (SAXException | IOException e) {
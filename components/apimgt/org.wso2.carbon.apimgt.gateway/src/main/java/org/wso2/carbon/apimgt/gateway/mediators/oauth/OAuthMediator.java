@@ -31,15 +31,12 @@ import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.handlers.security.APISecurityException;
-import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.gateway.mediators.oauth.client.TokenResponse;
 import org.wso2.carbon.apimgt.gateway.mediators.oauth.conf.OAuthEndpoint;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
-import org.wso2.carbon.apimgt.gateway.utils.redis.RedisCacheUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
 
 /**
  * OAuth Mediator for generating OAuth tokens for invoking service endpoints secured with OAuth.
@@ -84,11 +81,15 @@ public class OAuthMediator extends AbstractMediator implements ManagedLifecycle
                 oAuthEndpoint.setUsername(username);
             }
         }
+        OAuthTokenRefresher.getInstance().register(oAuthEndpoint);
     }
 
     @Override
     public void destroy() {
 
+        if (oAuthEndpoint != null) {
+            OAuthTokenRefresher.getInstance().unregister(oAuthEndpoint);
+        }
     }
 
     @Override
@@ -98,25 +99,14 @@ public class OAuthMediator extends AbstractMediator implements ManagedLifecycle
             log.debug("OAuth Mediator is invoked...");
         }
 
-        CountDownLatch latch = new CountDownLatch(1);
-
+        TokenResponse tokenResponse = null;
         if (oAuthEndpoint != null) {
             try {
-                OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
-                latch.await();
-            } catch (InterruptedException | APISecurityException e) {
+                tokenResponse = OAuthTokenGenerator.getToken(oAuthEndpoint);
+            } catch (APISecurityException e) {
                 log.error("Could not generate access token...", e);
             }
         }
-
-        TokenResponse tokenResponse;
-        if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
-            assert oAuthEndpoint != null;
-            tokenResponse = (TokenResponse) ServiceReferenceHolder.getInstance().getRedisCacheUtils()
-                    .getObject(oAuthEndpoint.getId(), TokenResponse.class);
-        } else {
-            tokenResponse = TokenCache.getInstance().getTokenMap().get(oAuthEndpoint.getId());
-        }
         if (tokenResponse != null) {
             String accessToken = tokenResponse.getAccessToken();
             Map<String, Object> transportHeaders = (Map<String, Object>) ((Axis2MessageContext) messageContext)
@@ -30,15 +30,28 @@ import org.wso2.carbon.apimgt.gateway.mediators.oauth.client.TokenResponse;
 import org.wso2.carbon.apimgt.gateway.mediators.oauth.conf.OAuthEndpoint;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 
 /**
  * OAuthTokenGenerator class to check validity of tokens, request for tokens
- * and add tokens to in-memory cache or redis cache
+ * and add tokens to in-memory cache or redis cache.
+ * <p>
+ * Concurrent requests for the token of the same endpoint are collapsed into a single call to the token endpoint, and
+ * the other callers wait for its result. Tokens of the endpoints in use are renewed before they expire by the
+ * {@link OAuthTokenRefresher}.
  */
 public class OAuthTokenGenerator {
 
     private static final Log log = LogFactory.getLog(OAuthTokenGenerator.class);
+    private static final ConcurrentMap<String, CompletableFuture<TokenResponse>> inFlightRequests =
+            new ConcurrentHashMap<>();
 
     /**
      * Method to check for and refresh expired/generate new access tokens
@@ -50,33 +63,28 @@ public class OAuthTokenGenerator {
     public static void generateToken(OAuthEndpoint oAuthEndpoint, CountDownLatch latch)
             throws APISecurityException {
 
+        getToken(oAuthEndpoint);
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Returns a valid access token of the given endpoint, requesting a new token if the cached token has expired.
+     *
+     * @param oAuthEndpoint OAuthEndpoint object for token endpoint properties
+     * @return token response
+     * @throws APISecurityException In the event of errors when generating new token
+     */
+    public static TokenResponse getToken(OAuthEndpoint oAuthEndpoint) throws APISecurityException {
+
+        OAuthTokenRefresher.getInstance().markUsed(oAuthEndpoint.getId());
         try {
-            TokenResponse previousResponse = null;
-            if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
-                Object previousResponseObject =
-                        ServiceReferenceHolder.getInstance().getRedisCacheUtils().getObject(oAuthEndpoint.getId(),
-                        TokenResponse.class);
-                if (previousResponseObject != null) {
-                    previousResponse = (TokenResponse) previousResponseObject;
-                }
-            } else {
-                previousResponse = TokenCache.getInstance().getTokenMap().get(oAuthEndpoint.getId());
-            }
-            if (previousResponse != null) {
-                long validTill = previousResponse.getValidTill();
-                long currentTimeInSeconds = System.currentTimeMillis() / 1000;
-                long timeDifference = validTill - currentTimeInSeconds;
-
-                if (timeDifference <= 1) {
-                    if (previousResponse.getRefreshToken() != null) {
-                        addTokenToCache(oAuthEndpoint, previousResponse.getRefreshToken());
-                    } else {
-                        addTokenToCache(oAuthEndpoint, null);
-                    }
-                }
-            } else {
-                addTokenToCache(oAuthEndpoint, null);
+            TokenResponse previousResponse = getCachedToken(oAuthEndpoint.getId());
+            if (previousResponse != null && !isExpired(previousResponse)) {
+                return previousResponse;
             }
+            return requestToken(oAuthEndpoint, previousResponse, true);
         } catch (IOException e) {
             log.error("Error while generating OAuth Token" + getEndpointId(oAuthEndpoint));
             throw new APISecurityException(APISecurityConstants.API_AUTH_INVALID_CREDENTIALS,
@@ -90,33 +98,138 @@ public class OAuthTokenGenerator {
             throw new APISecurityException(APISecurityConstants.API_AUTH_GENERAL_ERROR,
                     "Error while parsing OAuth Token endpoint response", e);
         }
-        if (latch != null) {
-            latch.countDown();
-        }
     }
 
     /**
-     * Method to request for access token and add the generated token into
-     * in-memory cache or redis cache
+     * Requests a new access token from the token endpoint. If a request for the same endpoint is already in
+     * progress, its result is returned instead of sending another request.
      *
-     * @param oAuthEndpoint OAuthEndpoint object for token endpoint properties
-     * @param refreshToken  Refresh token if exists
+     * @param oAuthEndpoint    OAuthEndpoint object for token endpoint properties
+     * @param previousResponse Previous token response of the endpoint, used to refresh the token if it has a
+     *                         refresh token
+     * @param addToCache       Whether to add the new token to the cache
+     * @return token response
      * @throws IOException            In the event of errors with HttpClient connections
      * @throws APIManagementException In the event of errors when accessing the token endpoint url
+     * @throws ParseException         In the event of errors when parsing the token endpoint response
      */
-    private static void addTokenToCache(OAuthEndpoint oAuthEndpoint, String refreshToken)
+    static TokenResponse requestToken(OAuthEndpoint oAuthEndpoint, TokenResponse previousResponse,
+                                      boolean addToCache) throws IOException, APIManagementException, ParseException {
+
+        CompletableFuture<TokenResponse> future = new CompletableFuture<>();
+        CompletableFuture<TokenResponse> inFlightRequest = inFlightRequests.putIfAbsent(oAuthEndpoint.getId(), future);
+        if (inFlightRequest != null) {
+            return awaitToken(inFlightRequest);
+        }
+        try {
+            String refreshToken = previousResponse != null ? previousResponse.getRefreshToken() : null;
+            TokenResponse tokenResponse = OAuthClient.generateToken(oAuthEndpoint.getTokenApiUrl(),
+                    oAuthEndpoint.getClientId(), oAuthEndpoint.getClientSecret(), oAuthEndpoint.getUsername(),
+                    oAuthEndpoint.getPassword(), oAuthEndpoint.getGrantType(), oAuthEndpoint.getCustomParameters(),
+                    refreshToken);
+            if (tokenResponse == null) {
+                throw new APIManagementException("Token endpoint did not return an access token");
+            }
+            if (addToCache) {
+                addTokenToCache(oAuthEndpoint.getId(), tokenResponse);
+            }
+            future.complete(tokenResponse);
+            return tokenResponse;
+        } catch (IOException | APIManagementException | ParseException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(oAuthEndpoint.getId(), future);
+        }
+    }
+
+    private static TokenResponse awaitToken(CompletableFuture<TokenResponse> inFlightRequest)
             throws IOException, APIManagementException, ParseException {
 
-        TokenResponse tokenResponse = OAuthClient.generateToken(oAuthEndpoint.getTokenApiUrl(),
-                oAuthEndpoint.getClientId(), oAuthEndpoint.getClientSecret(), oAuthEndpoint.getUsername(),
-                oAuthEndpoint.getPassword(), oAuthEndpoint.getGrantType(), oAuthEndpoint.getCustomParameters(),
-                refreshToken);
+        try {
+            return inFlightRequest.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIManagementException("Interrupted while waiting for the OAuth token", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof APIManagementException) {
+                throw (APIManagementException) cause;
+            } else if (cause instanceof ParseException) {
+                throw (ParseException) cause;
+            }
+            throw new APIManagementException("Error while generating the OAuth token", cause);
+        }
+    }
+
+    static boolean isExpired(TokenResponse tokenResponse) {
+
+        return tokenResponse.getValidTill() == null
+                || tokenResponse.getValidTill() - System.currentTimeMillis() / 1000 <= 1;
+    }
+
+    static TokenResponse getCachedToken(String endpointId) {
+
+        if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
+            return (TokenResponse) ServiceReferenceHolder.getInstance().getRedisCacheUtils()
+                    .getObject(endpointId, TokenResponse.class);
+        }
+        return TokenCache.getInstance().getTokenMap().get(endpointId);
+    }
+
+    /**
+     * Returns the cached tokens of the given endpoints. Tokens kept in Redis are read in a single round trip.
+     *
+     * @param endpointIds IDs of the endpoints
+     * @return cached tokens keyed by the endpoint ID
+     */
+    static Map<String, TokenResponse> getCachedTokens(List<String> endpointIds) {
+
+        Map<String, TokenResponse> tokenResponses = new HashMap<>();
+        if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
+            List<Object> objects = ServiceReferenceHolder.getInstance().getRedisCacheUtils()
+                    .getObjects(endpointIds, TokenResponse.class);
+            for (int i = 0; i < endpointIds.size(); i++) {
+                if (objects.get(i) != null) {
+                    tokenResponses.put(endpointIds.get(i), (TokenResponse) objects.get(i));
+                }
+            }
+        } else {
+            for (String endpointId : endpointIds) {
+                TokenResponse tokenResponse = TokenCache.getInstance().getTokenMap().get(endpointId);
+                if (tokenResponse != null) {
+                    tokenResponses.put(endpointId, tokenResponse);
+                }
+            }
+        }
+        return tokenResponses;
+    }
+
+    /**
+     * Adds the given tokens to the cache. Tokens kept in Redis are written in a single pipeline.
+     *
+     * @param tokenResponses tokens keyed by the endpoint ID
+     */
+    static void addTokensToCache(Map<String, TokenResponse> tokenResponses) {
+
+        if (tokenResponses.isEmpty()) {
+            return;
+        }
+        if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
+            ServiceReferenceHolder.getInstance().getRedisCacheUtils().addObjects(new HashMap<>(tokenResponses));
+        } else {
+            TokenCache.getInstance().getTokenMap().putAll(tokenResponses);
+        }
+    }
+
+    private static void addTokenToCache(String endpointId, TokenResponse tokenResponse) {
 
-        assert tokenResponse != null;
         if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
-            ServiceReferenceHolder.getInstance().getRedisCacheUtils().addObject(oAuthEndpoint.getId(), tokenResponse);
+            ServiceReferenceHolder.getInstance().getRedisCacheUtils().addObject(endpointId, tokenResponse);
         } else {
-            TokenCache.getInstance().getTokenMap().put(oAuthEndpoint.getId(), tokenResponse);
+            TokenCache.getInstance().getTokenMap().put(endpointId, tokenResponse);
         }
     }
 
@@ -126,7 +239,7 @@ public class OAuthTokenGenerator {
      * @param oAuthEndpoint OAuthEndpoint object for token endpoint properties
      * @return string containing token endpoint url for logging errors
      */
-    private static String getEndpointId(OAuthEndpoint oAuthEndpoint) {
+    static String getEndpointId(OAuthEndpoint oAuthEndpoint) {
 
         return "[url] " + oAuthEndpoint.getTokenApiUrl();
     }
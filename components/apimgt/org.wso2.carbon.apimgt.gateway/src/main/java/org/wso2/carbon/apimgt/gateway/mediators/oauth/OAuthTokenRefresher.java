@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.mediators.oauth;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.simple.parser.ParseException;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.client.TokenResponse;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.conf.OAuthEndpoint;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renews the access tokens of the OAuth endpoints before they expire, so that requests do not wait for the token
+ * endpoint when a token expires. The tokens of the registered endpoints are checked periodically, and a token is
+ * renewed once its remaining lifetime is within the refresh-ahead time, if the endpoint has been used since the
+ * token was last renewed. The tokens renewed in a check are written to Redis in a single pipeline.
+ * <p>
+ * A failed renewal is retried with an exponential back-off and random jitter, while requests keep using the current
+ * token until it expires. The refresh-ahead time and the check interval are configured in seconds with the system
+ * properties 'oauthTokenRefreshAheadTime' and 'oauthTokenRefreshCheckInterval'. Tokens are only renewed by requests
+ * when the check interval is zero.
+ */
+public class OAuthTokenRefresher {
+
+    public static final String REFRESH_AHEAD_TIME_PROPERTY = "oauthTokenRefreshAheadTime";
+    public static final String REFRESH_CHECK_INTERVAL_PROPERTY = "oauthTokenRefreshCheckInterval";
+    private static final long DEFAULT_REFRESH_AHEAD_TIME_SECONDS = 60;
+    private static final long DEFAULT_REFRESH_CHECK_INTERVAL_SECONDS = 5;
+    private static final long INITIAL_RETRY_DELAY_MILLIS = 1000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60000;
+    private static final Log log = LogFactory.getLog(OAuthTokenRefresher.class);
+    private static final OAuthTokenRefresher instance = new OAuthTokenRefresher(
+            Long.getLong(REFRESH_AHEAD_TIME_PROPERTY, DEFAULT_REFRESH_AHEAD_TIME_SECONDS),
+            Long.getLong(REFRESH_CHECK_INTERVAL_PROPERTY, DEFAULT_REFRESH_CHECK_INTERVAL_SECONDS));
+
+    private final long refreshAheadSeconds;
+    private final long checkIntervalSeconds;
+    private final ConcurrentMap<String, EndpointState> endpoints = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    OAuthTokenRefresher(long refreshAheadSeconds, long checkIntervalSeconds) {
+
+        this.refreshAheadSeconds = Math.max(0, refreshAheadSeconds);
+        this.checkIntervalSeconds = Math.max(0, checkIntervalSeconds);
+    }
+
+    public static OAuthTokenRefresher getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Registers an endpoint of which the token should be renewed before it expires.
+     *
+     * @param oAuthEndpoint OAuthEndpoint object for token endpoint properties
+     */
+    public void register(OAuthEndpoint oAuthEndpoint) {
+
+        endpoints.put(oAuthEndpoint.getId(), new EndpointState(oAuthEndpoint));
+        start();
+    }
+
+    /**
+     * Stops renewing the token of the given endpoint.
+     *
+     * @param oAuthEndpoint OAuthEndpoint object for token endpoint properties
+     */
+    public void unregister(OAuthEndpoint oAuthEndpoint) {
+
+        EndpointState endpointState = endpoints.get(oAuthEndpoint.getId());
+        if (endpointState != null && endpointState.oAuthEndpoint == oAuthEndpoint) {
+            endpoints.remove(oAuthEndpoint.getId(), endpointState);
+        }
+    }
+
+    void markUsed(String endpointId) {
+
+        EndpointState endpointState = endpoints.get(endpointId);
+        if (endpointState != null) {
+            endpointState.used = true;
+        }
+    }
+
+    private synchronized void start() {
+
+        if (scheduler != null || checkIntervalSeconds == 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "OAuthTokenRefresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshTokens, checkIntervalSeconds, checkIntervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Renews the tokens of the registered endpoints which are about to expire.
+     */
+    void refreshTokens() {
+
+        try {
+            long currentTimeMillis = System.currentTimeMillis();
+            List<EndpointState> candidates = new ArrayList<>();
+            List<String> endpointIds = new ArrayList<>();
+            for (EndpointState endpointState : endpoints.values()) {
+                if (endpointState.used && endpointState.nextAttemptTime <= currentTimeMillis) {
+                    candidates.add(endpointState);
+                    endpointIds.add(endpointState.oAuthEndpoint.getId());
+                }
+            }
+            if (candidates.isEmpty()) {
+                return;
+            }
+            Map<String, TokenResponse> cachedTokens = OAuthTokenGenerator.getCachedTokens(endpointIds);
+            Map<String, TokenResponse> renewedTokens = new HashMap<>();
+            for (EndpointState endpointState : candidates) {
+                OAuthEndpoint oAuthEndpoint = endpointState.oAuthEndpoint;
+                TokenResponse cachedToken = cachedTokens.get(oAuthEndpoint.getId());
+                // Endpoints without a token get one when they are next invoked
+                if (cachedToken == null || !isDueForRefresh(cachedToken, currentTimeMillis)) {
+                    continue;
+                }
+                try {
+                    renewedTokens.put(oAuthEndpoint.getId(),
+                            OAuthTokenGenerator.requestToken(oAuthEndpoint, cachedToken, false));
+                    endpointState.used = false;
+                    endpointState.failedAttempts = 0;
+                } catch (IOException | APIManagementException | ParseException e) {
+                    endpointState.failedAttempts++;
+                    long retryDelay = getRetryDelay(endpointState.failedAttempts);
+                    endpointState.nextAttemptTime = currentTimeMillis + retryDelay;
+                    log.warn("Error while renewing OAuth token" + OAuthTokenGenerator.getEndpointId(oAuthEndpoint)
+                            + ". Retrying in " + retryDelay + "ms", e);
+                }
+            }
+            OAuthTokenGenerator.addTokensToCache(renewedTokens);
+            if (log.isDebugEnabled() && !renewedTokens.isEmpty()) {
+                log.debug("Renewed " + renewedTokens.size() + " OAuth token(s) before expiry");
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while renewing OAuth tokens", e);
+        }
+    }
+
+    boolean isDueForRefresh(TokenResponse tokenResponse, long currentTimeMillis) {
+
+        if (tokenResponse.getValidTill() == null) {
+            return true;
+        }
+        long refreshAheadTime = refreshAheadSeconds;
+        try {
+            // Short lived tokens are renewed once half of their lifetime has passed
+            refreshAheadTime = Math.min(refreshAheadTime, Long.parseLong(tokenResponse.getExpiresIn()) / 2);
+        } catch (NumberFormatException e) {
+            // Use the configured refresh-ahead time
+        }
+        return tokenResponse.getValidTill() - currentTimeMillis / 1000 <= refreshAheadTime;
+    }
+
+    static long getRetryDelay(int failedAttempts) {
+
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS,
+                INITIAL_RETRY_DELAY_MILLIS << Math.min(Math.max(failedAttempts - 1, 0), 16));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Refresh state of a registered endpoint.
+     */
+    private static class EndpointState {
+
+        private final OAuthEndpoint oAuthEndpoint;
+        private volatile boolean used;
+        private int failedAttempts;
+        private long nextAttemptTime;
+
+        EndpointState(OAuthEndpoint oAuthEndpoint) {
+
+            this.oAuthEndpoint = oAuthEndpoint;
+        }
+    }
+}
@@ -20,6 +20,8 @@ package org.wso2.carbon.apimgt.gateway.mediators.webhooks;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.HttpResponse;
+import org.apache.http.util.EntityUtils;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.SynapseConstants;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
@@ -76,7 +78,9 @@ public class DeliveryStatusUpdater extends AbstractMediator {
             if (APIUtil.isAnalyticsEnabled() && !isSubscribeRequest) {
                 WebhooksUtils.publishAnalyticsData(messageContext);
             }
-            WebhooksUtils.persistData(requestBody, deliveryDataPersisRetries, APIConstants.Webhooks.DELIVERY_EVENT_TYPE);
+            HttpResponse httpResponse = WebhooksUtils.persistData(requestBody, deliveryDataPersisRetries,
+                    APIConstants.Webhooks.DELIVERY_EVENT_TYPE);
+            EntityUtils.consume(httpResponse.getEntity());
         } catch (InterruptedException | IOException e) {
             log.error("Error while persisting delivery status", e);
         }
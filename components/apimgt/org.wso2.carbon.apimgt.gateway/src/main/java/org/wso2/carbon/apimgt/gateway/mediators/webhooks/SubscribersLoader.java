@@ -21,6 +21,7 @@ import org.apache.synapse.MessageContext;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.mediators.AbstractMediator;
 import org.wso2.carbon.apimgt.gateway.handlers.analytics.Constants;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import org.wso2.carbon.apimgt.gateway.utils.WebhooksUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.WebhooksDTO;
@@ -36,7 +37,7 @@ public class SubscribersLoader extends AbstractMediator {
 
     @Override
     public boolean mediate(MessageContext messageContext) {
-        messageContext.setProperty(Constants.REQUEST_START_TIME_PROPERTY, System.currentTimeMillis());
+        RequestTimings.of(messageContext).setRequestStartTime(messageContext, System.currentTimeMillis());
         //Set user agent in request flow
         String userAgent = getUserAgent(messageContext);
         messageContext.setProperty(Constants.USER_AGENT_PROPERTY, userAgent);
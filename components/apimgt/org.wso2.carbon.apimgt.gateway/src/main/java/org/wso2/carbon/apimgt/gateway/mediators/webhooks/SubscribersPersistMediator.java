@@ -128,6 +128,7 @@ public class SubscribersPersistMediator extends AbstractMediator {
         ((Axis2MessageContext) messageContext).getAxis2MessageContext().
                 setProperty(SynapseConstants.HTTP_SC, statusCode);
         if (statusCode == HttpStatus.SC_OK || statusCode == HttpStatus.SC_CREATED) {
+            EntityUtils.consume(httpResponse.getEntity());
             if (log.isDebugEnabled()) {
                 log.debug("Successfully submitted the request for persist subscription with status code: "
                         + statusCode);
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Always-on latency statistics of the main phases of the gateway request flow. The handlers record the time spent
+ * in each phase into a {@link LatencyRecorder}, and a snapshot of each phase is taken once per reporting interval.
+ * The snapshots are logged by this class's logger at DEBUG level and exposed through JMX as
+ * {@value #MBEAN_NAME}.
+ * <p>
+ * The reporting interval is configured in seconds with the system property 'gatewayLatencyStatsReportingInterval'.
+ * Latencies are still recorded when the interval is zero, but they are neither reported nor exposed.
+ */
+public final class GatewayLatencyStats implements GatewayLatencyStatsMXBean {
+
+    public static final String REPORTING_INTERVAL_PROPERTY = "gatewayLatencyStatsReportingInterval";
+    public static final String MBEAN_NAME = "org.wso2.carbon.apimgt:type=GatewayLatencyStats";
+    private static final long DEFAULT_REPORTING_INTERVAL_SECONDS = 60;
+    private static final Log log = LogFactory.getLog(GatewayLatencyStats.class);
+    private static final GatewayLatencyStats instance = new GatewayLatencyStats(
+            Long.getLong(REPORTING_INTERVAL_PROPERTY, DEFAULT_REPORTING_INTERVAL_SECONDS));
+
+    /**
+     * Phases of the gateway request flow of which the latencies are recorded.
+     */
+    public enum Phase {
+        AUTHENTICATION, THROTTLING, REQUEST_MEDIATION, RESPONSE_MEDIATION, ANALYTICS
+    }
+
+    private final long reportingIntervalSeconds;
+    private final Map<Phase, LatencyRecorder> recorders = new EnumMap<>(Phase.class);
+    private volatile Map<Phase, LatencyRecorder.Snapshot> lastSnapshots = new EnumMap<>(Phase.class);
+    private ScheduledExecutorService reporter;
+
+    GatewayLatencyStats(long reportingIntervalSeconds) {
+
+        this.reportingIntervalSeconds = Math.max(0, reportingIntervalSeconds);
+        for (Phase phase : Phase.values()) {
+            recorders.put(phase, new LatencyRecorder());
+        }
+    }
+
+    public static GatewayLatencyStats getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Records the latency of a phase which started at the given time.
+     *
+     * @param phase      phase of the request flow
+     * @param startNanos start time of the phase as returned by {@link System#nanoTime()}
+     */
+    public void recordSince(Phase phase, long startNanos) {
+
+        recorders.get(phase).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records the latency of a phase.
+     *
+     * @param phase        phase of the request flow
+     * @param latencyNanos latency in nanoseconds
+     */
+    public void record(Phase phase, long latencyNanos) {
+
+        recorders.get(phase).record(latencyNanos);
+    }
+
+    /**
+     * Starts reporting the latencies and registers the MBean.
+     */
+    public synchronized void start() {
+
+        if (reportingIntervalSeconds == 0 || reporter != null) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GatewayLatencyStatsReporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(this::report, reportingIntervalSeconds, reportingIntervalSeconds,
+                TimeUnit.SECONDS);
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Error while registering the gateway latency statistics MBean " + MBEAN_NAME, e);
+        }
+    }
+
+    /**
+     * Stops reporting the latencies and unregisters the MBean.
+     */
+    public synchronized void stop() {
+
+        if (reporter == null) {
+            return;
+        }
+        reporter.shutdownNow();
+        reporter = null;
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Error while unregistering the gateway latency statistics MBean " + MBEAN_NAME, e);
+        }
+    }
+
+    /**
+     * Takes the interval snapshots of all the phases and logs them.
+     */
+    void report() {
+
+        Map<Phase, LatencyRecorder.Snapshot> snapshots = new EnumMap<>(Phase.class);
+        for (Map.Entry<Phase, LatencyRecorder> entry : recorders.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().getIntervalSnapshot());
+        }
+        lastSnapshots = snapshots;
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        for (Map.Entry<Phase, LatencyRecorder.Snapshot> entry : snapshots.entrySet()) {
+            LatencyRecorder.Snapshot snapshot = entry.getValue();
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            log.debug(String.format("Latency of %s over the last %ds: count=%d, mean=%.3fms, p50=%.3fms, "
+                            + "p90=%.3fms, p99=%.3fms, max=%.3fms", entry.getKey(), reportingIntervalSeconds,
+                    snapshot.getCount(), toMillis(snapshot.getMean()), toMillis(snapshot.getValueAtPercentile(50)),
+                    toMillis(snapshot.getValueAtPercentile(90)), toMillis(snapshot.getValueAtPercentile(99)),
+                    toMillis(snapshot.getMax())));
+        }
+    }
+
+    LatencyRecorder.Snapshot getLastSnapshot(Phase phase) {
+
+        return lastSnapshots.get(phase);
+    }
+
+    @Override
+    public long getReportingIntervalSeconds() {
+
+        return reportingIntervalSeconds;
+    }
+
+    @Override
+    public Map<String, Long> getRequestCounts() {
+
+        return collect(LatencyRecorder.Snapshot::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getMeanLatencies() {
+
+        return collect(snapshot -> TimeUnit.NANOSECONDS.toMicros(snapshot.getMean()));
+    }
+
+    @Override
+    public Map<String, Long> getMedianLatencies() {
+
+        return collect(snapshot -> TimeUnit.NANOSECONDS.toMicros(snapshot.getValueAtPercentile(50)));
+    }
+
+    @Override
+    public Map<String, Long> getP99Latencies() {
+
+        return collect(snapshot -> TimeUnit.NANOSECONDS.toMicros(snapshot.getValueAtPercentile(99)));
+    }
+
+    @Override
+    public Map<String, Long> getMaxLatencies() {
+
+        return collect(snapshot -> TimeUnit.NANOSECONDS.toMicros(snapshot.getMax()));
+    }
+
+    private Map<String, Long> collect(ToLongFunction<LatencyRecorder.Snapshot> valueFunction) {
+
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Map.Entry<Phase, LatencyRecorder.Snapshot> entry : lastSnapshots.entrySet()) {
+            values.put(entry.getKey().name(), valueFunction.applyAsLong(entry.getValue()));
+        }
+        return values;
+    }
+
+    private static double toMillis(long nanos) {
+
+        return nanos / 1000000.0;
+    }
+}
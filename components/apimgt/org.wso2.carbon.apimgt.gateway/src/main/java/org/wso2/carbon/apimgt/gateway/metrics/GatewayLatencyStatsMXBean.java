@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the latencies of the gateway handler phases. The values are of the last completed reporting interval,
+ * keyed by the name of the phase, and the latencies are in microseconds.
+ */
+public interface GatewayLatencyStatsMXBean {
+
+    long getReportingIntervalSeconds();
+
+    Map<String, Long> getRequestCounts();
+
+    Map<String, Long> getMeanLatencies();
+
+    Map<String, Long> getMedianLatencies();
+
+    Map<String, Long> getP99Latencies();
+
+    Map<String, Long> getMaxLatencies();
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies into a histogram of logarithmic buckets, each of which is split into linear sub-buckets, in the
+ * same way as HdrHistogram. The value reported for a bucket is within 1/16 of the recorded latencies, and latencies
+ * up to about two minutes are tracked. Longer latencies are counted in the highest bucket.
+ * <p>
+ * The counters are {@link LongAdder}s, which spread contended increments over a number of cells bounded by the number
+ * of processors, hence recording takes no lock and the memory used does not grow with the number of recording threads.
+ * Interval snapshots are taken by summing the counters and subtracting the totals of the previous snapshot, so the
+ * counters are never reset while threads record into them.
+ */
+public class LatencyRecorder {
+
+    private static final int SUB_BUCKET_COUNT = 32;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int SUB_BUCKET_HALF_COUNT_MAGNITUDE = 4;
+    private static final int MAX_SHIFT = 32;
+    static final int BUCKET_COUNT = SUB_BUCKET_HALF_COUNT * MAX_SHIFT + SUB_BUCKET_COUNT;
+    static final long MAX_TRACKABLE_VALUE = ((long) SUB_BUCKET_COUNT << MAX_SHIFT) - 1;
+    private static final int SUM_INDEX = BUCKET_COUNT;
+
+    private final LongAdder[] counters = new LongAdder[BUCKET_COUNT + 1];
+    private long[] previousTotals = new long[BUCKET_COUNT + 1];
+
+    public LatencyRecorder() {
+
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param latencyNanos latency in nanoseconds
+     */
+    public void record(long latencyNanos) {
+
+        long value = Math.min(Math.max(latencyNanos, 0), MAX_TRACKABLE_VALUE);
+        counters[bucketIndex(value)].increment();
+        counters[SUM_INDEX].add(value);
+    }
+
+    /**
+     * Returns the latencies recorded since the previous call of this method.
+     *
+     * @return snapshot of the latencies recorded in the interval
+     */
+    public synchronized Snapshot getIntervalSnapshot() {
+
+        long[] totals = new long[BUCKET_COUNT + 1];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = counters[i].sum();
+        }
+        long[] intervalCounts = new long[BUCKET_COUNT + 1];
+        for (int i = 0; i < totals.length; i++) {
+            intervalCounts[i] = totals[i] - previousTotals[i];
+        }
+        previousTotals = totals;
+        return new Snapshot(intervalCounts);
+    }
+
+    static int bucketIndex(long value) {
+
+        int shift = Math.max(0, 63 - SUB_BUCKET_HALF_COUNT_MAGNITUDE - Long.numberOfLeadingZeros(value));
+        return SUB_BUCKET_HALF_COUNT * shift + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(int index) {
+
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index - (long) SUB_BUCKET_HALF_COUNT * shift;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Immutable histogram of the latencies recorded within an interval.
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long totalCount;
+
+        Snapshot(long[] counts) {
+
+            this.counts = counts;
+            long count = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                count += counts[i];
+            }
+            this.totalCount = count;
+        }
+
+        public long getCount() {
+
+            return totalCount;
+        }
+
+        /**
+         * Returns the mean latency in nanoseconds.
+         *
+         * @return mean latency, or 0 if no latency was recorded
+         */
+        public long getMean() {
+
+            return totalCount == 0 ? 0 : counts[SUM_INDEX] / totalCount;
+        }
+
+        /**
+         * Returns the latency below which the given percentage of the recorded latencies fall.
+         *
+         * @param percentile percentile in the range 0 to 100
+         * @return latency in nanoseconds, or 0 if no latency was recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+
+            if (totalCount == 0) {
+                return 0;
+            }
+            long targetCount = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * totalCount));
+            long count = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                count += counts[i];
+                if (count >= targetCount) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return MAX_TRACKABLE_VALUE;
+        }
+
+        /**
+         * Returns the maximum latency in nanoseconds.
+         *
+         * @return maximum latency, or 0 if no latency was recorded
+         */
+        public long getMax() {
+
+            for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.synapse.MessageContext;
+import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+import org.wso2.carbon.apimgt.gateway.handlers.analytics.Constants;
+
+/**
+ * Timestamps and latencies of a request, which the gateway handlers and the analytics data providers read and write
+ * directly. The record is kept in a single message context property, instead of a string or boxed property per
+ * value. Timestamps are in milliseconds since the epoch and a value of 0 means that it has not been recorded.
+ * <p>
+ * The record remembers the message context it belongs to. A message context which received the record by copying the
+ * properties of another one, such as a clone of the request, gets its own copy of the record on first access, so that
+ * the timings of the clones do not overwrite each other.
+ * <p>
+ * Mediation sequences and extensions which read the message context properties in which the timings were kept
+ * before, such as 'api.ut.requestTime' and 'security_latency', can set the system property
+ * 'requestTimingsLegacyPropertiesEnabled' to true. The setters which take the message context then also set those
+ * properties, with the same values and types as before.
+ */
+public class RequestTimings {
+
+    public static final String PROPERTY = "api.ut.requestTimings";
+    public static final String LEGACY_PROPERTIES_PROPERTY = "requestTimingsLegacyPropertiesEnabled";
+    private static final Log log = LogFactory.getLog(RequestTimings.class);
+    private static final boolean legacyPropertiesEnabled = Boolean.getBoolean(LEGACY_PROPERTIES_PROPERTY);
+
+    private MessageContext messageContext;
+
+    private long requestStartTime;
+    private long backendStartTime;
+    private long backendEndTime;
+    private long requestExecutionStartTime;
+    private long requestTime;
+    private long backendRequestStartTime;
+    private long backendRequestEndTime;
+    private long backendLatency;
+    private long securityLatency;
+    private long throttlingLatency;
+    // Property value from which the backend request start time was parsed
+    private Object backendRequestStartTimeProperty;
+
+    public RequestTimings() {
+
+    }
+
+    private RequestTimings(RequestTimings requestTimings, MessageContext messageContext) {
+
+        this.messageContext = messageContext;
+        this.requestStartTime = requestTimings.requestStartTime;
+        this.backendStartTime = requestTimings.backendStartTime;
+        this.backendEndTime = requestTimings.backendEndTime;
+        this.requestExecutionStartTime = requestTimings.requestExecutionStartTime;
+        this.requestTime = requestTimings.requestTime;
+        this.backendRequestStartTime = requestTimings.backendRequestStartTime;
+        this.backendRequestEndTime = requestTimings.backendRequestEndTime;
+        this.backendLatency = requestTimings.backendLatency;
+        this.securityLatency = requestTimings.securityLatency;
+        this.throttlingLatency = requestTimings.throttlingLatency;
+        this.backendRequestStartTimeProperty = requestTimings.backendRequestStartTimeProperty;
+    }
+
+    /**
+     * Returns the record of the given message context, attaching a new record if it has none. If the record was
+     * copied over from another message context, such as the one the given message context was cloned from, a copy
+     * of the record is attached to the given message context.
+     *
+     * @param messageContext message context of the request
+     * @return timing record of the request
+     */
+    public static RequestTimings of(MessageContext messageContext) {
+
+        Object timings = messageContext.getProperty(PROPERTY);
+        RequestTimings requestTimings;
+        if (timings instanceof RequestTimings) {
+            requestTimings = (RequestTimings) timings;
+            if (requestTimings.messageContext == messageContext) {
+                return requestTimings;
+            }
+            if (requestTimings.messageContext == null) {
+                requestTimings.messageContext = messageContext;
+                return requestTimings;
+            }
+            requestTimings = new RequestTimings(requestTimings, messageContext);
+        } else {
+            requestTimings = new RequestTimings();
+            requestTimings.messageContext = messageContext;
+        }
+        messageContext.setProperty(PROPERTY, requestTimings);
+        return requestTimings;
+    }
+
+    /**
+     * Returns the time at which the request was received by the analytics handler.
+     *
+     * @return request start time
+     */
+    public long getRequestStartTime() {
+
+        return requestStartTime;
+    }
+
+    public void setRequestStartTime(long requestStartTime) {
+
+        this.requestStartTime = requestStartTime;
+    }
+
+    public void setRequestStartTime(MessageContext messageContext, long requestStartTime) {
+
+        this.requestStartTime = requestStartTime;
+        if (legacyPropertiesEnabled) {
+            messageContext.setProperty(Constants.REQUEST_START_TIME_PROPERTY, requestStartTime);
+        }
+    }
+
+    /**
+     * Returns the time at which the request was sent to the backend, as recorded for analytics.
+     *
+     * @return backend start time
+     */
+    public long getBackendStartTime() {
+
+        return backendStartTime;
+    }
+
+    public void setBackendStartTime(long backendStartTime) {
+
+        this.backendStartTime = backendStartTime;
+    }
+
+    public void setBackendStartTime(MessageContext messageContext, long backendStartTime) {
+
+        this.backendStartTime = backendStartTime;
+        if (legacyPropertiesEnabled) {
+            messageContext.setProperty(Constants.BACKEND_START_TIME_PROPERTY, backendStartTime);
+        }
+    }
+
+    /**
+     * Returns the time at which the response of the backend was received, as recorded for analytics.
+     *
+     * @return backend end time
+     */
+    public long getBackendEndTime() {
+
+        return backendEndTime;
+    }
+
+    public void setBackendEndTime(long backendEndTime) {
+
+        this.backendEndTime = backendEndTime;
+    }
+
+    public void setBackendEndTime(MessageContext messageContext, long backendEndTime) {
+
+        this.backendEndTime = backendEndTime;
+        if (legacyPropertiesEnabled) {
+            messageContext.setProperty(Constants.BACKEND_END_TIME_PROPERTY, backendEndTime);
+        }
+    }
+
+    /**
+     * Returns the time at which the API handlers started executing the request.
+     *
+     * @return request execution start time
+     */
+    public long getRequestExecutionStartTime() {
+
+        return requestExecutionStartTime;
+    }
+
+    public void setRequestExecutionStartTime(long requestExecutionStartTime) {
+
+        this.requestExecutionStartTime = requestExecutionStartTime;
+    }
+
+    public void setRequestExecutionStartTime(MessageContext messageContext, long requestExecutionStartTime) {
+
+        this.requestExecutionStartTime = requestExecutionStartTime;
+        if (legacyPropertiesEnabled) {
+            messageContext.setProperty(APIMgtGatewayConstants.REQUEST_EXECUTION_START_TIME,
+                    Long.toString(requestExecutionStartTime));
+        }
+    }
+
+    public long getRequestTime() {
+
+        return requestTime;
+    }
+
+    public void setRequestTime(long requestTime) {
+
+        this.requestTime = requestTime;
+    }
+
+    public void setRequestTime(MessageContext messageContext, long requestTime) {
+
+        this.requestTime = requestTime;
+        if (legacyPropertiesEnabled) {
+            messageContext.setProperty("api.ut.requestTime", Long.toString(requestTime));
+        }
+    }
+
+    /**
+     * Returns the backend request start time. The API sequences set it as a string property, which is parsed and
+     * kept in the record. The property is parsed again when the sequences set a new value, such as when the backend
+     * call is retried or fails over to another endpoint.
+     *
+     * @param messageContext message context of the request
+     * @return backend request start time, or 0 if it has not been set or is not a valid timestamp
+     */
+    public long getBackendRequestStartTime(MessageContext messageContext) {
+
+        Object startTime = messageContext.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME);
+        if (startTime != null && startTime != backendRequestStartTimeProperty) {
+            backendRequestStartTimeProperty = startTime;
+            try {
+                backendRequestStartTime = Long.parseLong(startTime.toString());
+            } catch (NumberFormatException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Invalid backend request start time: " + startTime);
+                }
+                backendRequestStartTime = 0;
+            }
+        }
+        return backendRequestStartTime;
+    }
+
+    public void setBackendRequestStartTime(long backendRequestStartTime) {
+
+        this.backendRequestStartTime = backendRequestStartTime;
+    }
+
+    /**
+     * Returns the time at which the API handlers received the response of the backend.
+     *
+     * @return backend request end time
+     */
+    public long getBackendRequestEndTime() {
+
+        return backendRequestEndTime;
+    }
+
+    public void setBackendRequestEndTime(long backendRequestEndTime) {
+
+        this.backendRequestEndTime = backendRequestEndTime;
+    }
+
+    public void setBackendRequestEndTime(MessageContext messageContext, long backendRequestEndTime) {
+
+        this.backendRequestEndTime = backendRequestEndTime;
+        if (legacyPropertiesEnabled) {
+            messageContext.setProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME, backendRequestEndTime);
+        }
+    }
+
+    public long getBackendLatency() {
+
+        return backendLatency;
+    }
+
+    public void setBackendLatency(long backendLatency) {
+
+        this.backendLatency = backendLatency;
+    }
+
+    public void setBackendLatency(MessageContext messageContext, long backendLatency) {
+
+        this.backendLatency = backendLatency;
+        if (legacyPropertiesEnabled) {
+            messageContext.setProperty(APIMgtGatewayConstants.BACKEND_LATENCY, backendLatency);
+        }
+    }
+
+    public long getSecurityLatency() {
+
+        return securityLatency;
+    }
+
+    public void setSecurityLatency(long securityLatency) {
+
+        this.securityLatency = securityLatency;
+    }
+
+    public void setSecurityLatency(MessageContext messageContext, long securityLatency) {
+
+        this.securityLatency = securityLatency;
+        if (legacyPropertiesEnabled) {
+            messageContext.setProperty(APIMgtGatewayConstants.SECURITY_LATENCY, securityLatency);
+        }
+    }
+
+    public long getThrottlingLatency() {
+
+        return throttlingLatency;
+    }
+
+    public void setThrottlingLatency(long throttlingLatency) {
+
+        this.throttlingLatency = throttlingLatency;
+    }
+
+    public void setThrottlingLatency(MessageContext messageContext, long throttlingLatency) {
+
+        this.throttlingLatency = throttlingLatency;
+        if (legacyPropertiesEnabled) {
+            messageContext.setProperty(APIMgtGatewayConstants.THROTTLING_LATENCY, throttlingLatency);
+        }
+    }
+}
@@ -24,9 +24,6 @@ import org.slf4j.LoggerFactory;
 import org.wso2.carbon.apimgt.gateway.threatprotection.analyzer.APIMThreatAnalyzer;
 import org.wso2.carbon.apimgt.gateway.threatprotection.analyzer.JSONAnalyzer;
 import org.wso2.carbon.apimgt.gateway.threatprotection.analyzer.XMLAnalyzer;
-import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.ConfigurationHolder;
-import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.JSONConfig;
-import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.XMLConfig;
 import org.wso2.carbon.apimgt.gateway.threatprotection.pool.AnalyzerPool;
 import org.wso2.carbon.apimgt.gateway.threatprotection.pool.JSONAnalyzerFactory;
 import org.wso2.carbon.apimgt.gateway.threatprotection.pool.XMLAnalyzerFactory;
@@ -62,10 +59,11 @@ public class AnalyzerHolder {
     }
 
     /**
-     * Borrows an object from pools (xml or json) for threat analysis
+     * Borrows an object from pools (xml or json) for threat analysis. The caller configures the borrowed analyzer
+     * with the limits of its API before using it.
      *
      * @param contentType Content-Type of the payload
-     * @return Instance of APIMThreatAnalyzer based on content type
+     * @return Instance of APIMThreatAnalyzer based on content type, or null if an analyzer could not be borrowed
      */
     public static APIMThreatAnalyzer getAnalyzer(String contentType) {
         APIMThreatAnalyzer analyzer = null;
@@ -73,8 +71,6 @@ public class AnalyzerHolder {
                 ThreatProtectorConstants.APPLICATION_XML.equalsIgnoreCase(contentType)) {
             try {
                 analyzer = xmlAnalyzerAnalyzerPool.borrowObject();
-                XMLConfig xmlConfig = ConfigurationHolder.getXmlConfig();
-                analyzer.configure(xmlConfig);
             } catch (Exception e) {
                 // here apache.commons GenericObjectPool's borrow object method throws generic exception.
                 // here log the stacktrace along with the message.
@@ -84,8 +80,6 @@ public class AnalyzerHolder {
                 ThreatProtectorConstants.APPLICATION_JSON.equalsIgnoreCase(contentType)) {
             try {
                 analyzer = jsonAnalyzerAnalyzerPool.borrowObject();
-                JSONConfig jsonConfig = ConfigurationHolder.getJsonConfig();
-                analyzer.configure(jsonConfig);
             } catch (Exception e) {
                 log.error("Threat Protection: Error occurred while getting an object from the pool.", e);
             }
@@ -20,7 +20,10 @@ package org.wso2.carbon.apimgt.gateway.threatprotection.configuration;
 
 /**
  * Holds the threat protection configuration objects for apis
+ *
+ * @deprecated the schema validation mediators configure each borrowed analyzer with the limits of their own API
  */
+@Deprecated
 public class ConfigurationHolder {
 
     private static JSONConfig jsonConfig;
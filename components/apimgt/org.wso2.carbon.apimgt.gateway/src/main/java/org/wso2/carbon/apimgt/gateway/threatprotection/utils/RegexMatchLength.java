@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes an upper bound of the length, in characters, of the shortest match that a regular expression in the re2j
+ * syntax needs in order to be found in a text. A text contains a match of the expression if and only if it contains
+ * a match of at most that length, hence the expression can be searched for in overlapping windows of the text.
+ * <p>
+ * Only the presence of a match matters to the threat protectors, so a leading or trailing {@code .*} of a top level
+ * alternative is not counted, as it may match the empty string, and a leading or trailing {@code .+} is counted as a
+ * single character. The analysis is conservative: {@link #UNBOUNDED} is returned for any expression which contains
+ * another unbounded repetition, an anchor or a word boundary (which match differently at the boundary of a window),
+ * or a construct which is not understood.
+ */
+public final class RegexMatchLength {
+
+    public static final int UNBOUNDED = -1;
+    // A single character of the pattern may match a supplementary code point, which takes two chars
+    private static final int MAX_ATOM_LENGTH = 2;
+
+    private final String regex;
+    private int position;
+
+    private RegexMatchLength(String regex) {
+
+        this.regex = regex;
+    }
+
+    /**
+     * Returns the maximum length of the match needed to find the given expression in a text.
+     *
+     * @param regex regular expression in the re2j syntax
+     * @return maximum length of the match in characters, or {@link #UNBOUNDED} if it is not bounded or unknown
+     */
+    public static int getMaxMatchLength(String regex) {
+
+        try {
+            return new RegexMatchLength(regex).parseTopLevel();
+        } catch (UnsupportedPatternException e) {
+            return UNBOUNDED;
+        }
+    }
+
+    private int parseTopLevel() throws UnsupportedPatternException {
+
+        long max = 0;
+        while (true) {
+            List<Piece> pieces = parseSequence();
+            max = Math.max(max, getMaxLengthIgnoringDotStars(pieces));
+            if (position >= regex.length()) {
+                break;
+            }
+            // parseSequence stops at the end of the pattern or at '|', as there is no enclosing group
+            if (regex.charAt(position) != '|') {
+                throw new UnsupportedPatternException();
+            }
+            position++;
+        }
+        if (max > Integer.MAX_VALUE) {
+            throw new UnsupportedPatternException();
+        }
+        return (int) max;
+    }
+
+    private static long getMaxLengthIgnoringDotStars(List<Piece> pieces) throws UnsupportedPatternException {
+
+        int start = 0;
+        int end = pieces.size();
+        long length = 0;
+        while (start < end && (pieces.get(start).zeroWidth || pieces.get(start).dotStar)) {
+            start++;
+        }
+        if (start < end && pieces.get(start).dotPlus) {
+            length += MAX_ATOM_LENGTH;
+            start++;
+        }
+        while (end > start && (pieces.get(end - 1).zeroWidth || pieces.get(end - 1).dotStar)) {
+            end--;
+        }
+        if (end > start && pieces.get(end - 1).dotPlus) {
+            length += MAX_ATOM_LENGTH;
+            end--;
+        }
+        for (int i = start; i < end; i++) {
+            length = add(length, pieces.get(i).maxLength);
+        }
+        return length;
+    }
+
+    /**
+     * Parses a concatenation up to the end of the pattern, a '|' or a ')'.
+     */
+    private List<Piece> parseSequence() throws UnsupportedPatternException {
+
+        List<Piece> pieces = new ArrayList<>();
+        while (position < regex.length()) {
+            char c = regex.charAt(position);
+            if (c == '|' || c == ')') {
+                break;
+            }
+            pieces.add(parsePiece());
+        }
+        return pieces;
+    }
+
+    private long parseAlternation() throws UnsupportedPatternException {
+
+        long max = 0;
+        while (true) {
+            long length = 0;
+            for (Piece piece : parseSequence()) {
+                length = add(length, piece.maxLength);
+            }
+            max = Math.max(max, length);
+            if (position < regex.length() && regex.charAt(position) == '|') {
+                position++;
+            } else {
+                return max;
+            }
+        }
+    }
+
+    private Piece parsePiece() throws UnsupportedPatternException {
+
+        char c = regex.charAt(position);
+        Piece piece = new Piece();
+        boolean any = false;
+        if (c == '(') {
+            position++;
+            if (regex.startsWith("?", position)) {
+                position++;
+                if (regex.startsWith("P<", position)) {
+                    skipPast('>');
+                } else {
+                    // Flags, such as (?i) or (?i:...)
+                    while (position < regex.length() && (Character.isLetter(regex.charAt(position))
+                            || regex.charAt(position) == '-')) {
+                        position++;
+                    }
+                    if (regex.startsWith(")", position)) {
+                        position++;
+                        piece.zeroWidth = true;
+                        return piece;
+                    }
+                    expect(':');
+                }
+            }
+            piece.maxLength = parseAlternation();
+            expect(')');
+        } else if (c == '[') {
+            skipCharacterClass();
+            piece.maxLength = MAX_ATOM_LENGTH;
+        } else if (c == '\\') {
+            piece.maxLength = parseEscape();
+        } else if (c == '^' || c == '$') {
+            throw new UnsupportedPatternException();
+        } else if (c == '*' || c == '+' || c == '?' || c == '{') {
+            if (c != '{' || parseRepeat(false) != null) {
+                throw new UnsupportedPatternException();
+            }
+            // A '{' which does not start a repetition is a literal
+            position++;
+            piece.maxLength = MAX_ATOM_LENGTH;
+        } else {
+            any = c == '.';
+            position++;
+            piece.maxLength = MAX_ATOM_LENGTH;
+        }
+        parseQuantifiers(piece, any);
+        return piece;
+    }
+
+    private void parseQuantifiers(Piece piece, boolean any) throws UnsupportedPatternException {
+
+        boolean first = true;
+        while (position < regex.length()) {
+            char c = regex.charAt(position);
+            if (c == '*' || c == '+') {
+                position++;
+                if (first && any) {
+                    piece.dotStar = c == '*';
+                    piece.dotPlus = c == '+';
+                }
+                piece.maxLength = piece.maxLength == 0 ? 0 : Long.MAX_VALUE;
+            } else if (c == '?') {
+                position++;
+            } else if (c == '{') {
+                long[] repeat = parseRepeat(true);
+                if (repeat == null) {
+                    return;
+                }
+                piece.maxLength = repeat[1] < 0 ? (piece.maxLength == 0 ? 0 : Long.MAX_VALUE)
+                        : multiply(piece.maxLength, repeat[1]);
+                piece.dotStar = false;
+                piece.dotPlus = false;
+            } else {
+                return;
+            }
+            // A lazy quantifier, such as '*?', matches the same texts
+            if (position < regex.length() && regex.charAt(position) == '?') {
+                position++;
+            }
+            first = false;
+            if (piece.maxLength == Long.MAX_VALUE && !piece.dotStar && !piece.dotPlus) {
+                throw new UnsupportedPatternException();
+            }
+        }
+    }
+
+    /**
+     * Parses a repetition such as {n}, {n,} or {n,m} at the current position.
+     *
+     * @param consume whether to move past the repetition
+     * @return the minimum and maximum count, with -1 as the maximum of {n,}, or null if there is no repetition
+     */
+    private long[] parseRepeat(boolean consume) {
+
+        int end = regex.indexOf('}', position);
+        if (end < 0) {
+            return null;
+        }
+        String repeat = regex.substring(position + 1, end);
+        if (!repeat.matches("\\d{1,4}(,\\d{0,4})?")) {
+            return null;
+        }
+        int comma = repeat.indexOf(',');
+        long min = Long.parseLong(comma < 0 ? repeat : repeat.substring(0, comma));
+        long max = comma < 0 ? min : comma == repeat.length() - 1 ? -1 : Long.parseLong(repeat.substring(comma + 1));
+        if (consume) {
+            position = end + 1;
+        }
+        return new long[]{min, max};
+    }
+
+    private long parseEscape() throws UnsupportedPatternException {
+
+        position++;
+        if (position >= regex.length()) {
+            throw new UnsupportedPatternException();
+        }
+        char c = regex.charAt(position++);
+        switch (c) {
+            case 'b':
+            case 'B':
+            case 'A':
+            case 'z':
+                throw new UnsupportedPatternException();
+            case 'Q':
+                int end = regex.indexOf("\\E", position);
+                int literalEnd = end < 0 ? regex.length() : end;
+                long length = (long) (literalEnd - position) * MAX_ATOM_LENGTH;
+                position = end < 0 ? regex.length() : end + 2;
+                return length;
+            case 'p':
+            case 'P':
+                if (regex.startsWith("{", position)) {
+                    skipPast('}');
+                } else {
+                    position++;
+                }
+                return MAX_ATOM_LENGTH;
+            case 'x':
+                if (regex.startsWith("{", position)) {
+                    skipPast('}');
+                } else {
+                    position = Math.min(position + 2, regex.length());
+                }
+                return MAX_ATOM_LENGTH;
+            default:
+                if (c >= '0' && c <= '7') {
+                    while (position < regex.length() && regex.charAt(position) >= '0'
+                            && regex.charAt(position) <= '7') {
+                        position++;
+                    }
+                }
+                return MAX_ATOM_LENGTH;
+        }
+    }
+
+    private void skipCharacterClass() throws UnsupportedPatternException {
+
+        position++;
+        if (regex.startsWith("^", position)) {
+            position++;
+        }
+        // A ']' right after the opening bracket is a literal
+        if (regex.startsWith("]", position)) {
+            position++;
+        }
+        while (position < regex.length()) {
+            char c = regex.charAt(position);
+            if (c == '\\') {
+                position += 2;
+            } else if (regex.startsWith("[:", position)) {
+                int end = regex.indexOf(":]", position + 2);
+                position = end < 0 ? position + 1 : end + 2;
+            } else if (c == ']') {
+                position++;
+                return;
+            } else {
+                position++;
+            }
+        }
+        throw new UnsupportedPatternException();
+    }
+
+    private void skipPast(char c) throws UnsupportedPatternException {
+
+        int end = regex.indexOf(c, position);
+        if (end < 0) {
+            throw new UnsupportedPatternException();
+        }
+        position = end + 1;
+    }
+
+    private void expect(char c) throws UnsupportedPatternException {
+
+        if (position >= regex.length() || regex.charAt(position) != c) {
+            throw new UnsupportedPatternException();
+        }
+        position++;
+    }
+
+    private static long add(long a, long b) throws UnsupportedPatternException {
+
+        if (a == Long.MAX_VALUE || b == Long.MAX_VALUE || a + b > Integer.MAX_VALUE) {
+            throw new UnsupportedPatternException();
+        }
+        return a + b;
+    }
+
+    private static long multiply(long a, long b) throws UnsupportedPatternException {
+
+        if (a == Long.MAX_VALUE || (b != 0 && a > Integer.MAX_VALUE / b)) {
+            throw new UnsupportedPatternException();
+        }
+        return a * b;
+    }
+
+    private static final class Piece {
+
+        private long maxLength;
+        private boolean zeroWidth;
+        private boolean dotStar;
+        private boolean dotPlus;
+    }
+
+    private static final class UnsupportedPatternException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
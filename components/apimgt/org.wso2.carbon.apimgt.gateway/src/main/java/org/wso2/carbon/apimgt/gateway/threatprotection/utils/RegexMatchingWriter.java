@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import com.google.re2j.Matcher;
+import com.google.re2j.Pattern;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * A {@link Writer} which matches a regular expression against the characters written to it, without holding the
+ * whole content in memory. Characters are collected into a fixed size window which is matched each time it fills up.
+ * The last {@code overlap} characters of a window are carried over to the next one, hence any match which is at
+ * most one character longer than the overlap is found even when it spans two windows. The overlap should be derived
+ * from {@link RegexMatchLength#getMaxMatchLength(String)}, and patterns without a bounded match length should be
+ * matched against the whole content instead.
+ * <p>
+ * Once a match is found, further writes fail with an {@link IOException}, so that the producer (e.g. the serializer
+ * of an OMElement) stops early. Callers should check {@link #isMatched()} to distinguish this from a real failure.
+ */
+public class RegexMatchingWriter extends Writer {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final Pattern pattern;
+    private final int overlap;
+    private final char[] window;
+    private int length;
+    private boolean scannedSinceLastWrite;
+    private String matchedContent;
+
+    public RegexMatchingWriter(Pattern pattern, int overlap) {
+
+        this(pattern, DEFAULT_CHUNK_SIZE, overlap);
+    }
+
+    public RegexMatchingWriter(Pattern pattern, int chunkSize, int overlap) {
+
+        if (chunkSize <= 0 || overlap < 0) {
+            throw new IllegalArgumentException("Invalid chunk size " + chunkSize + " or overlap " + overlap);
+        }
+        this.pattern = pattern;
+        this.overlap = overlap;
+        this.window = new char[chunkSize + overlap];
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int len) throws IOException {
+
+        checkNotMatched();
+        while (len > 0) {
+            int count = Math.min(len, window.length - length);
+            System.arraycopy(chars, offset, window, length, count);
+            length += count;
+            offset += count;
+            len -= count;
+            scanIfWindowFull();
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+
+        write(new char[]{(char) c}, 0, 1);
+    }
+
+    @Override
+    public void write(String str, int offset, int len) throws IOException {
+
+        checkNotMatched();
+        while (len > 0) {
+            int count = Math.min(len, window.length - length);
+            str.getChars(offset, offset + count, window, length);
+            length += count;
+            offset += count;
+            len -= count;
+            scanIfWindowFull();
+        }
+    }
+
+    @Override
+    public void flush() {
+        // Matching is done on full windows and on close, hence nothing to flush.
+    }
+
+    /**
+     * Matches the characters remaining in the window. Must be called once all the content has been written.
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (matchedContent == null && !scannedSinceLastWrite) {
+            scanWindow();
+        }
+    }
+
+    /**
+     * @return true if the pattern matched the content written so far
+     */
+    public boolean isMatched() {
+
+        return matchedContent != null;
+    }
+
+    /**
+     * @return the content which matched the pattern, or null if there was no match
+     */
+    public String getMatchedContent() {
+
+        return matchedContent;
+    }
+
+    private void scanIfWindowFull() throws IOException {
+
+        scannedSinceLastWrite = false;
+        if (length == window.length) {
+            scanWindow();
+            System.arraycopy(window, length - overlap, window, 0, overlap);
+            length = overlap;
+        }
+    }
+
+    private void scanWindow() throws IOException {
+
+        scannedSinceLastWrite = true;
+        Matcher matcher = pattern.matcher(CharBuffer.wrap(window, 0, length));
+        if (matcher.find()) {
+            matchedContent = matcher.group();
+            throw new IOException("Content matched the pattern " + pattern);
+        }
+    }
+
+    private void checkNotMatched() throws IOException {
+
+        if (matchedContent != null) {
+            throw new IOException("Content already matched the pattern " + pattern);
+        }
+    }
+}
@@ -73,5 +73,12 @@ public class ThreatProtectorConstants {
     public static final String MAX_ATTRIBUTE_LENGTH = "maxAttributeLength";
     public static final String ENTITY_EXPANSION_LIMIT = "entityExpansionLimit";
     public static final String CHILDREN_PER_ELEMENT = "maxChildrenPerElement";
+
+    /**
+     * System properties for the compiled XML schema cache
+     */
+    public static final String XML_SCHEMA_CACHE_SIZE = "xmlSchemaCacheSize";
+    public static final String XML_SCHEMA_CACHE_EXPIRY_TIME = "xmlSchemaCacheExpiryTime";
+    public static final String XML_SCHEMA_VALIDATOR_POOL_SIZE = "xmlSchemaValidatorPoolSize";
     
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+/**
+ * Bounded cache of compiled XML schemas keyed by the URL of the XSD. A compiled {@link Schema} is thread-safe and is
+ * shared by all the requests, while the {@link Validator}s created from it are not, hence they are pooled per
+ * schema. A schema is fetched and compiled again once it is older than the configured expiry time. If the refresh
+ * fails, the previously compiled schema is used until the next expiry.
+ * <p>
+ * The cache is configured with the system properties 'xmlSchemaCacheSize', 'xmlSchemaCacheExpiryTime' (in seconds)
+ * and 'xmlSchemaValidatorPoolSize'.
+ */
+public class XMLSchemaCache {
+
+    private static final Log log = LogFactory.getLog(XMLSchemaCache.class);
+    private static final int DEFAULT_CACHE_SIZE = 100;
+    private static final long DEFAULT_EXPIRY_TIME_SECONDS = 900;
+    private static final int DEFAULT_VALIDATOR_POOL_SIZE = 50;
+    private static final XMLSchemaCache instance = new XMLSchemaCache(
+            Integer.getInteger(ThreatProtectorConstants.XML_SCHEMA_CACHE_SIZE, DEFAULT_CACHE_SIZE),
+            Long.getLong(ThreatProtectorConstants.XML_SCHEMA_CACHE_EXPIRY_TIME, DEFAULT_EXPIRY_TIME_SECONDS) * 1000,
+            Integer.getInteger(ThreatProtectorConstants.XML_SCHEMA_VALIDATOR_POOL_SIZE,
+                    DEFAULT_VALIDATOR_POOL_SIZE));
+
+    private final Map<String, SchemaHolder> schemaHolders;
+    private final long expiryTimeMillis;
+    private final int validatorPoolSize;
+
+    XMLSchemaCache(final int maxSchemas, long expiryTimeMillis, int validatorPoolSize) {
+
+        this.expiryTimeMillis = expiryTimeMillis;
+        this.validatorPoolSize = validatorPoolSize;
+        this.schemaHolders = new LinkedHashMap<String, SchemaHolder>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SchemaHolder> eldest) {
+                return size() > maxSchemas;
+            }
+        };
+    }
+
+    public static XMLSchemaCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Validates the given source against the XSD in the given URL.
+     *
+     * @param xsdURL URL of the XSD
+     * @param source Source to be validated
+     * @throws SAXException if the source is not valid or the XSD could not be compiled
+     * @throws IOException  if the source or the XSD could not be read
+     */
+    public void validate(String xsdURL, Source source) throws SAXException, IOException {
+
+        CompiledSchema compiledSchema = getCompiledSchema(xsdURL);
+        Validator validator = compiledSchema.borrowValidator();
+        try {
+            validator.validate(source);
+        } finally {
+            compiledSchema.returnValidator(validator);
+        }
+    }
+
+    CompiledSchema getCompiledSchema(String xsdURL) throws SAXException, IOException {
+
+        SchemaHolder schemaHolder;
+        synchronized (schemaHolders) {
+            schemaHolder = schemaHolders.get(xsdURL);
+            if (schemaHolder == null) {
+                schemaHolder = new SchemaHolder(xsdURL);
+                schemaHolders.put(xsdURL, schemaHolder);
+            }
+        }
+        return schemaHolder.getCompiledSchema();
+    }
+
+    /**
+     * Holds the latest compiled schema of a URL. Compiling is synchronized per URL, so that concurrent requests do
+     * not fetch the same XSD while requests to other schemas are not blocked.
+     */
+    private class SchemaHolder {
+
+        private final String xsdURL;
+        private CompiledSchema compiledSchema;
+        private long expiryTime;
+
+        SchemaHolder(String xsdURL) {
+
+            this.xsdURL = xsdURL;
+        }
+
+        synchronized CompiledSchema getCompiledSchema() throws SAXException, IOException {
+
+            long currentTime = System.currentTimeMillis();
+            if (compiledSchema == null || currentTime >= expiryTime) {
+                try {
+                    SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+                    compiledSchema = new CompiledSchema(schemaFactory.newSchema(new URL(xsdURL)), validatorPoolSize);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Compiled XML schema " + xsdURL);
+                    }
+                } catch (SAXException | IOException e) {
+                    if (compiledSchema == null) {
+                        throw e;
+                    }
+                    log.warn("Error while refreshing XML schema " + xsdURL + ". Previously compiled schema is used.",
+                            e);
+                }
+                expiryTime = currentTime + expiryTimeMillis;
+            }
+            return compiledSchema;
+        }
+    }
+
+    /**
+     * A compiled schema along with a pool of validators created from it.
+     */
+    static class CompiledSchema {
+
+        private final Schema schema;
+        private final BlockingQueue<Validator> validators;
+
+        CompiledSchema(Schema schema, int validatorPoolSize) {
+
+            this.schema = schema;
+            this.validators = new ArrayBlockingQueue<>(Math.max(1, validatorPoolSize));
+        }
+
+        Schema getSchema() {
+
+            return schema;
+        }
+
+        Validator borrowValidator() {
+
+            Validator validator = validators.poll();
+            return validator != null ? validator : schema.newValidator();
+        }
+
+        void returnValidator(Validator validator) {
+
+            validator.reset();
+            validators.offer(validator);
+        }
+    }
+}
@@ -27,8 +27,11 @@ import org.apache.commons.logging.LogFactory;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -267,6 +270,60 @@ public class RedisCacheUtils {
         return null;
     }
 
+    /**
+     * Add objects into Redis in a single pipeline
+     *
+     * @param objects objects to be saved, keyed by the key each object should be associated with
+     */
+    public void addObjects(Map<String, Object> objects) {
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            ObjectMapper objectMapper = new ObjectMapper();
+            Pipeline pipeline = jedis.pipelined();
+            for (Map.Entry<String, Object> entry : objects.entrySet()) {
+                pipeline.set(entry.getKey().getBytes(), objectMapper.writeValueAsBytes(entry.getValue()));
+            }
+            pipeline.sync();
+        } catch (JsonProcessingException e) {
+            log.error("Error while converting object to byte array", e);
+        }
+    }
+
+    /**
+     * Get objects from Redis in a single round trip
+     *
+     * @param keys       Keys at which the objects are saved
+     * @param objectType Type of the objects
+     * @return objects associated with the keys, in the order of the keys. An object is null if the key does not
+     * exist or the value could not be read
+     */
+    public List<Object> getObjects(List<String> keys, Class objectType) {
+
+        List<Object> objects = new ArrayList<>(keys.size());
+        if (keys.isEmpty()) {
+            return objects;
+        }
+        byte[][] keyBytes = new byte[keys.size()][];
+        for (int i = 0; i < keys.size(); i++) {
+            keyBytes[i] = keys.get(i).getBytes();
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            ObjectMapper objectMapper = new ObjectMapper();
+            for (byte[] objectBytes : jedis.mget(keyBytes)) {
+                Object object = null;
+                if (objectBytes != null) {
+                    try {
+                        object = objectMapper.readValue(objectBytes, objectType);
+                    } catch (IOException e) {
+                        log.error("Error while reading value from Redis Cache", e);
+                    }
+                }
+                objects.add(object);
+            }
+        }
+        return objects;
+    }
+
     /**
      * Drop the Redis Server connection
      */
@@ -640,4 +640,28 @@ public class WebsocketInboundHandlerTestCase {
             Assert.assertTrue(e instanceof NumberFormatException);
         }
     }
+
+    /*
+    *  Test that the throttle keys of a connection are built once and reused for the subsequent frames
+    *
+    * */
+    @Test
+    public void testDoThrottleReusesThrottleKeys() {
+        ChannelHandlerContext channelHandlerContext = Mockito.mock(ChannelHandlerContext.class);
+        WebSocketFrame webSocketFrame = Mockito.mock(WebSocketFrame.class);
+        ByteBuf content = Mockito.mock(ByteBuf.class);
+        Mockito.when(webSocketFrame.content()).thenReturn(content);
+        final int[] remoteIPLookups = {0};
+        WebsocketInboundHandler websocketInboundHandler = new WebsocketInboundHandler() {
+            @Override
+            protected String getRemoteIP(ChannelHandlerContext ctx) {
+                remoteIPLookups[0]++;
+                return "192.168.0.100";
+            }
+        };
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(websocketInboundHandler.doThrottle(channelHandlerContext, webSocketFrame));
+        }
+        Assert.assertEquals(1, remoteIPLookups[0]);
+    }
 }
@@ -31,6 +31,7 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+import org.wso2.carbon.apimgt.gateway.metrics.RequestTimings;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 
@@ -49,8 +50,9 @@ public class APIMgtLatencyStatsHandlerTest {
         synCtx.setProperty(APIMgtGatewayConstants.API_STATUS, APIConstants.PUBLISHED);
         APIMgtLatencyStatsHandler apiMgtLatencyStatsHandler = new APIMgtLatencyStatsHandler();
         apiMgtLatencyStatsHandler.handleRequest(synCtx);
-        long requestTime = Long.parseLong(String.valueOf(synCtx.getProperty("api.ut.requestTime")));
-        Assert.assertTrue(requestTime <= System.currentTimeMillis());
+        long requestTime = RequestTimings.of(synCtx).getRequestTime();
+        Assert.assertTrue(requestTime > 0 && requestTime <= System.currentTimeMillis());
+        Assert.assertEquals(Long.toString(requestTime), synCtx.getProperty("api.ut.requestTime"));
     }
 
     @Test
@@ -64,10 +66,12 @@ public class APIMgtLatencyStatsHandlerTest {
         synCtx.setProperty(APIMgtGatewayConstants.API_STATUS, APIConstants.PUBLISHED);
         APIMgtLatencyStatsHandler apiMgtLatencyStatsHandler = new APIMgtLatencyStatsHandler();
         apiMgtLatencyStatsHandler.handleRequest(synCtx);
-        long requestTime = Long.parseLong(String.valueOf(synCtx.getProperty("api.ut.requestTime")));
-        Assert.assertTrue(requestTime <= System.currentTimeMillis());
-        Assert.assertTrue(Long.parseLong((String) synCtx.getProperty(APIMgtGatewayConstants
-                .REQUEST_EXECUTION_START_TIME)) <= System.currentTimeMillis());
+        RequestTimings requestTimings = RequestTimings.of(synCtx);
+        Assert.assertTrue(requestTimings.getRequestTime() <= System.currentTimeMillis());
+        Assert.assertTrue(requestTimings.getRequestExecutionStartTime() > 0);
+        Assert.assertTrue(requestTimings.getRequestExecutionStartTime() <= requestTimings.getRequestTime());
+        Assert.assertEquals(Long.toString(requestTimings.getRequestExecutionStartTime()),
+                synCtx.getProperty(APIMgtGatewayConstants.REQUEST_EXECUTION_START_TIME));
     }
 
     @Test
@@ -83,11 +87,18 @@ public class APIMgtLatencyStatsHandlerTest {
         synCtx.setProperty(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME, "123456789");
         APIMgtLatencyStatsHandler apiMgtLatencyStatsHandler = new APIMgtLatencyStatsHandler();
         apiMgtLatencyStatsHandler.handleResponse(synCtx);
-        long backeEndLatencyTime = Long.parseLong(String.valueOf(synCtx.getProperty(APIMgtGatewayConstants
-                .BACKEND_LATENCY)));
-        Assert.assertTrue(backeEndLatencyTime <= System.currentTimeMillis());
-        Assert.assertTrue(Long.valueOf((Long) synCtx.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME)) <=
-                System.currentTimeMillis());
+        RequestTimings requestTimings = RequestTimings.of(synCtx);
+        Assert.assertTrue(requestTimings.getBackendRequestEndTime() <= System.currentTimeMillis());
+        Assert.assertEquals(requestTimings.getBackendRequestEndTime() - 123456789L,
+                requestTimings.getBackendLatency());
+        Assert.assertEquals(requestTimings.getBackendRequestEndTime(),
+                synCtx.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME));
+        Assert.assertEquals(requestTimings.getBackendLatency(),
+                synCtx.getProperty(APIMgtGatewayConstants.BACKEND_LATENCY));
+        // Subsequent responses do not change the recorded backend latency
+        long backendRequestEndTime = requestTimings.getBackendRequestEndTime();
+        apiMgtLatencyStatsHandler.handleResponse(synCtx);
+        Assert.assertEquals(backendRequestEndTime, RequestTimings.of(synCtx).getBackendRequestEndTime());
     }
     @Test
     public void handleResponseWhileAnalyticDisable() throws Exception {
@@ -101,6 +112,7 @@ public class APIMgtLatencyStatsHandlerTest {
                 new Axis2SynapseEnvironment(cfgCtx, synCfg));
         APIMgtLatencyStatsHandler apiMgtLatencyStatsHandler = new APIMgtLatencyStatsHandler();
         apiMgtLatencyStatsHandler.handleResponse(synCtx);
+        Assert.assertEquals(0, RequestTimings.of(synCtx).getBackendLatency());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.language.AstPrinter;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+import org.apache.synapse.Mediator;
+import org.apache.synapse.MessageContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit test cases which verify that cached GraphQL query analyses match a fresh analysis.
+ */
+public class GraphQLQueryCacheTest {
+
+    private static final String SCHEMA = "schema { query: Query mutation: Mutation }\n"
+            + "type Query { hero(episode: Int): Character  search(text: String, first: Int): [Character] }\n"
+            + "type Mutation { addReview(episode: Int, stars: Int): Review }\n"
+            + "type Character { id: ID  name: String  friends(first: Int): [Character] }\n"
+            + "type Review { stars: Int  commentary: String }\n";
+
+    private static final List<String> QUERIES = Arrays.asList(
+            "query { hero { name } }",
+            "{ hero(episode: 4) { name friends { name friends { name friends { name } } } } }",
+            "query { search(text: \"a\", first: 50) { id name friends(first: 10) { name } } }",
+            "mutation { addReview(episode: 1, stars: 5) { stars commentary } }",
+            "query { villain { name } }",
+            "fragment names on Character { name } query { hero { ...names } }");
+
+    @Test
+    public void testCachedDocumentAnalysisMatchesFreshAnalysis() {
+        GraphQLAPIHandler handler = new GraphQLAPIHandler();
+        handler.setApiUUID("cache-test-" + System.nanoTime());
+        handler.initSchema(SCHEMA);
+        GraphQLAPIHandler freshHandler = new GraphQLAPIHandler();
+        freshHandler.initSchema(SCHEMA);
+
+        for (String query : QUERIES) {
+            GraphQLQueryAnalysis fresh = freshHandler.analyseDocument(new Parser().parseDocument(query));
+            GraphQLQueryAnalysis first = handler.getQueryAnalysis(query);
+            GraphQLQueryAnalysis cached = handler.getQueryAnalysis(query);
+            Assert.assertSame("Analysis should be served from the cache", first, cached);
+            Assert.assertEquals(AstPrinter.printAst(fresh.getDocument()), AstPrinter.printAst(cached.getDocument()));
+            Assert.assertEquals(fresh.getValidationErrorMessage(), cached.getValidationErrorMessage());
+            Assert.assertEquals(fresh.getOperationType(), cached.getOperationType());
+            Assert.assertEquals(fresh.getOperationList(), cached.getOperationList());
+            Assert.assertEquals(fresh.isInvalidDefinition(), cached.isInvalidDefinition());
+        }
+    }
+
+    @Test
+    public void testCacheIsScopedToSchemaRevision() {
+        String apiUUID = "revision-test-" + System.nanoTime();
+        GraphQLAPIHandler handler = new GraphQLAPIHandler();
+        handler.setApiUUID(apiUUID);
+        handler.initSchema(SCHEMA);
+        GraphQLQueryAnalysis analysis = handler.getQueryAnalysis("query { hero { name } }");
+        Assert.assertNull(analysis.getValidationErrorMessage());
+
+        GraphQLAPIHandler newRevisionHandler = new GraphQLAPIHandler();
+        newRevisionHandler.setApiUUID(apiUUID);
+        newRevisionHandler.initSchema(SCHEMA.replace("hero(episode: Int)", "champion(episode: Int)"));
+        GraphQLQueryAnalysis newRevisionAnalysis = newRevisionHandler.getQueryAnalysis("query { hero { name } }");
+        Assert.assertNotSame(analysis, newRevisionAnalysis);
+        Assert.assertNotNull(newRevisionAnalysis.getValidationErrorMessage());
+    }
+
+    @Test
+    public void testCachedDepthAndComplexityMatchFreshAnalysis() {
+        GraphQLAPIHandler apiHandler = new GraphQLAPIHandler();
+        apiHandler.setApiUUID("analysis-test-" + System.nanoTime());
+        apiHandler.initSchema(SCHEMA);
+        GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(new SchemaParser().parse(SCHEMA));
+        GraphQLQueryAnalysisHandler freshHandler = new GraphQLQueryAnalysisHandler();
+        freshHandler.setSchema(schema);
+
+        for (String query : QUERIES) {
+            for (int maxDepth : new int[]{2, 10}) {
+                int maxComplexity = maxDepth * 10;
+                GraphQLQueryAnalysisHandler handler = Mockito.spy(new GraphQLQueryAnalysisHandler());
+                boolean allowed = handler.handleRequest(
+                        createMessageContext(apiHandler, schema, query, maxDepth, maxComplexity));
+                Assert.assertEquals("Cached analysis should give the same decision", allowed, handler.handleRequest(
+                        createMessageContext(apiHandler, schema, query, maxDepth, maxComplexity)));
+
+                // The second request is served from the query analysis cached for the query
+                GraphQLQueryAnalysis analysis = apiHandler.getQueryAnalysis(query);
+                List<String> complexityErrors = analysis.getComplexityAnalysisErrors(maxComplexity);
+                Mockito.verify(handler, Mockito.times(1)).findQueryDepthErrors(query, maxDepth);
+                Mockito.verify(handler, Mockito.times(complexityErrors != null ? 1 : 0))
+                        .findQueryComplexityErrors(Mockito.eq(query), Mockito.eq(maxComplexity),
+                                Mockito.any(FieldComplexityCalculator.class));
+
+                Assert.assertEquals(freshHandler.findQueryDepthErrors(query, maxDepth),
+                        analysis.getDepthAnalysisErrors(maxDepth));
+                if (complexityErrors != null) {
+                    FieldComplexityCalculator calculator = new FieldComplexityCalculatorImpl(
+                            createMessageContext(apiHandler, schema, query, maxDepth, maxComplexity));
+                    Assert.assertEquals(freshHandler.findQueryComplexityErrors(query, maxComplexity, calculator),
+                            complexityErrors);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPersistedQueries() {
+        GraphQLQueryCache cache = new GraphQLQueryCache(10, 2);
+        String query = "query { hero { name } }";
+        String hash = GraphQLQueryCache.getHash(query);
+        Assert.assertNull(cache.getPersistedQuery("api1", hash));
+        cache.addPersistedQuery("api1", hash, query);
+        Assert.assertEquals(query, cache.getPersistedQuery("api1", hash));
+        Assert.assertNull("Persisted queries are registered per API", cache.getPersistedQuery("api2", hash));
+        cache.addPersistedQuery("api1", "hash2", "query2");
+        cache.addPersistedQuery("api1", "hash3", "query3");
+        Assert.assertNull("Cache should be bounded", cache.getPersistedQuery("api1", hash));
+    }
+
+    private static MessageContext createMessageContext(GraphQLAPIHandler apiHandler, GraphQLSchema schema,
+                                                       String query, int maxDepth, int maxComplexity) {
+        MessageContext messageContext = Mockito.mock(MessageContext.class);
+        Mockito.when(messageContext.getProperty(APIConstants.GRAPHQL_SCHEMA)).thenReturn(schema);
+        Mockito.when(messageContext.getProperty(APIConstants.GRAPHQL_PAYLOAD)).thenReturn(query);
+        Mockito.when(messageContext.getProperty(APIConstants.MAXIMUM_QUERY_DEPTH)).thenReturn(maxDepth);
+        Mockito.when(messageContext.getProperty(APIConstants.MAXIMUM_QUERY_COMPLEXITY)).thenReturn(maxComplexity);
+        Mockito.when(messageContext.getProperty(GraphQLConstants.GRAPHQL_QUERY_ANALYSIS))
+                .thenReturn(apiHandler.getQueryAnalysis(query));
+        // Blocked queries are handled by the failure sequence instead of sending a fault
+        Mediator failureSequence = Mockito.mock(Mediator.class);
+        Mockito.when(messageContext.getSequence(GraphQLConstants.GRAPHQL_API_FAILURE_HANDLER))
+                .thenReturn(failureSequence);
+        return messageContext;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.security.basicauth;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.apimgt.gateway.handlers.security.APISecurityException;
+import org.wso2.carbon.apimgt.impl.dto.BasicAuthValidationInfoDTO;
+import org.wso2.carbon.apimgt.impl.utils.GatewayUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.cache.Cache;
+
+public class BasicAuthCredentialValidatorTest {
+
+    private static final String USERNAME = "admin@carbon.super";
+    private static final String PASSWORD = "admin_password";
+
+    @Test
+    public void testValidCredentialsAreCachedAsSaltedVerifier() throws Exception {
+
+        FakeUserStoreValidator validator = new FakeUserStoreValidator(true);
+        BasicAuthValidationInfoDTO first = validator.validate(USERNAME, PASSWORD);
+        BasicAuthValidationInfoDTO second = validator.validate(USERNAME, PASSWORD);
+
+        Assert.assertTrue(first.isAuthenticated());
+        Assert.assertTrue(second.isAuthenticated());
+        Assert.assertTrue(second.isCached());
+        Assert.assertArrayEquals(new String[]{"admin", "Internal/subscriber"}, second.getUserRoleList());
+        Assert.assertEquals(1, validator.userStoreCalls.get());
+        String verifier = second.getHashedPassword();
+        Assert.assertNotEquals(PASSWORD, verifier);
+        Assert.assertNotEquals(GatewayUtils.hashString(PASSWORD.getBytes(StandardCharsets.UTF_8)), verifier);
+        Assert.assertTrue(BasicAuthCredentialVerifier.verify(PASSWORD, verifier));
+    }
+
+    @Test
+    public void testInvalidCredentialsAreNegativelyCached() throws Exception {
+
+        FakeUserStoreValidator validator = new FakeUserStoreValidator(true);
+        Assert.assertFalse(validator.validate(USERNAME, "wrong_password").isAuthenticated());
+        BasicAuthValidationInfoDTO cached = validator.validate(USERNAME, "wrong_password");
+        Assert.assertFalse(cached.isAuthenticated());
+        Assert.assertTrue(cached.isCached());
+        Assert.assertEquals(1, validator.userStoreCalls.get());
+
+        // A different password is not answered from the invalid cache
+        Assert.assertTrue(validator.validate(USERNAME, PASSWORD).isAuthenticated());
+        Assert.assertEquals(2, validator.userStoreCalls.get());
+    }
+
+    @Test
+    public void testDifferentPasswordIsValidatedAgainstUserStore() throws Exception {
+
+        FakeUserStoreValidator validator = new FakeUserStoreValidator(true);
+        Assert.assertTrue(validator.validate(USERNAME, PASSWORD).isAuthenticated());
+        validator.userStore.put(USERNAME, "new_password");
+        Assert.assertFalse(validator.validate(USERNAME, PASSWORD + "x").isAuthenticated());
+        Assert.assertTrue(validator.validate(USERNAME, "new_password").isAuthenticated());
+        Assert.assertEquals(3, validator.userStoreCalls.get());
+    }
+
+    @Test
+    public void testConcurrentIdenticalValidationsShareUserStoreCall() throws Exception {
+
+        FakeUserStoreValidator validator = new FakeUserStoreValidator(false);
+        validator.blockUserStore = new CountDownLatch(1);
+        AtomicReference<BasicAuthValidationInfoDTO> firstResult = new AtomicReference<>();
+        AtomicReference<BasicAuthValidationInfoDTO> secondResult = new AtomicReference<>();
+        Thread first = new Thread(() -> firstResult.set(validateQuietly(validator)));
+        first.start();
+        Assert.assertTrue(validator.userStoreEntered.await(10, TimeUnit.SECONDS));
+
+        Thread second = new Thread(() -> secondResult.set(validateQuietly(validator)));
+        second.start();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (second.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        validator.blockUserStore.countDown();
+        first.join(10000);
+        second.join(10000);
+
+        Assert.assertEquals(1, validator.userStoreCalls.get());
+        Assert.assertNotNull(firstResult.get());
+        Assert.assertSame(firstResult.get(), secondResult.get());
+        Assert.assertTrue(secondResult.get().isAuthenticated());
+    }
+
+    @Test
+    public void testVerifier() {
+
+        String verifier = BasicAuthCredentialVerifier.createVerifier(PASSWORD);
+        Assert.assertTrue(BasicAuthCredentialVerifier.verify(PASSWORD, verifier));
+        Assert.assertFalse(BasicAuthCredentialVerifier.verify("wrong_password", verifier));
+        // a verified password is matched with its keyed digest, which must not match other passwords
+        Assert.assertTrue(BasicAuthCredentialVerifier.verify(PASSWORD, verifier));
+        Assert.assertFalse(BasicAuthCredentialVerifier.verify("wrong_password", verifier));
+        String otherVerifier = BasicAuthCredentialVerifier.createVerifier("other_password");
+        String tamperedVerifier = verifier.substring(0, verifier.lastIndexOf(':'))
+                + otherVerifier.substring(otherVerifier.lastIndexOf(':'));
+        Assert.assertFalse(BasicAuthCredentialVerifier.verify(PASSWORD, tamperedVerifier));
+        Assert.assertNotEquals(verifier, BasicAuthCredentialVerifier.createVerifier(PASSWORD));
+        Assert.assertFalse(BasicAuthCredentialVerifier.verify(PASSWORD, null));
+        Assert.assertFalse(BasicAuthCredentialVerifier.verify(PASSWORD,
+                GatewayUtils.hashString(PASSWORD.getBytes(StandardCharsets.UTF_8))));
+        Assert.assertFalse(BasicAuthCredentialVerifier.verify(PASSWORD, "1000:not-base64!:abc"));
+    }
+
+    private static BasicAuthValidationInfoDTO validateQuietly(BasicAuthCredentialValidator validator) {
+
+        try {
+            return validator.validate(USERNAME, PASSWORD);
+        } catch (APISecurityException e) {
+            return null;
+        }
+    }
+
+    private static Cache createCache() {
+
+        Map<Object, Object> entries = new HashMap<>();
+        Cache cache = Mockito.mock(Cache.class);
+        Mockito.when(cache.get(Mockito.any())).thenAnswer(invocation -> entries.get(invocation.getArguments()[0]));
+        Mockito.doAnswer(invocation -> entries.put(invocation.getArguments()[0], invocation.getArguments()[1]))
+                .when(cache).put(Mockito.any(), Mockito.any());
+        return cache;
+    }
+
+    /**
+     * Validator backed by an in-memory user store instead of the key manager.
+     */
+    private static class FakeUserStoreValidator extends BasicAuthCredentialValidator {
+
+        private final Map<String, String> userStore = new HashMap<>();
+        private final Cache validCache = createCache();
+        private final Cache invalidCache = createCache();
+        private final AtomicInteger userStoreCalls = new AtomicInteger();
+        private final CountDownLatch userStoreEntered = new CountDownLatch(1);
+        private volatile CountDownLatch blockUserStore;
+
+        FakeUserStoreValidator(boolean gatewayKeyCacheEnabled) {
+
+            super(gatewayKeyCacheEnabled);
+            userStore.put(USERNAME, PASSWORD);
+        }
+
+        @Override
+        protected BasicAuthValidationInfoDTO getUserAuthenticationInfo(String username, String password)
+                throws APISecurityException {
+
+            userStoreCalls.incrementAndGet();
+            userStoreEntered.countDown();
+            if (blockUserStore != null) {
+                try {
+                    blockUserStore.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            BasicAuthValidationInfoDTO dto = new BasicAuthValidationInfoDTO();
+            dto.setDomainQualifiedUsername(username);
+            if (password.equals(userStore.get(username))) {
+                dto.setAuthenticated(true);
+                dto.setUserRoleList(new String[]{"admin", "Internal/subscriber"});
+            }
+            return dto;
+        }
+
+        @Override
+        protected Cache getGatewayUsernameCache() {
+
+            return validCache;
+        }
+
+        @Override
+        protected Cache getInvalidUsernameCache() {
+
+            return invalidCache;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.jwt;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class RevokedJWTDataHolderTest {
+
+    private static final Log log = LogFactory.getLog(RevokedJWTDataHolderTest.class);
+    private static final long ONE_HOUR_IN_SECONDS = 3600;
+
+    @Test
+    public void testRevokedSignatureLookup() {
+
+        String revoked = signature();
+        String notRevoked = signature();
+        RevokedJWTDataHolder.getInstance().addRevokedJWTToMap(revoked, nowInSeconds() + ONE_HOUR_IN_SECONDS);
+        Assert.assertTrue(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(revoked));
+        Assert.assertFalse(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(notRevoked));
+        Assert.assertFalse(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(null));
+    }
+
+    @Test
+    public void testExpiredEntriesAreEvicted() {
+
+        RevokedJWTDataHolder holder = RevokedJWTDataHolder.getInstance();
+        long now = nowInSeconds();
+        String expired = signature();
+        String live = signature();
+        String reRevoked = signature();
+        holder.addRevokedJWTToMap(expired, now - 10);
+        holder.addRevokedJWTToMap(live, now + ONE_HOUR_IN_SECONDS);
+        holder.addRevokedJWTToMap(reRevoked, now - 10);
+        holder.addRevokedJWTToMap(reRevoked, now + ONE_HOUR_IN_SECONDS);
+
+        holder.removeExpiredEntries(System.currentTimeMillis());
+        Assert.assertFalse(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(expired));
+        Assert.assertTrue(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(live));
+        Assert.assertTrue(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(reRevoked));
+
+        holder.removeExpiredEntries((now + ONE_HOUR_IN_SECONDS + 1) * 1000);
+        Assert.assertFalse(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(live));
+        Assert.assertFalse(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(reRevoked));
+    }
+
+    @Test
+    public void testNoFalseNegativesWhileBloomFilterGrows() {
+
+        RevokedJWTDataHolder holder = RevokedJWTDataHolder.getInstance();
+        int count = 100000;
+        String[] signatures = new String[count];
+        long expiry = nowInSeconds() + ONE_HOUR_IN_SECONDS;
+        for (int i = 0; i < count; i++) {
+            signatures[i] = signature();
+            holder.addRevokedJWTToMap(signatures[i], expiry);
+        }
+        Assert.assertTrue(holder.getBloomFilter().getCapacity() >= holder.getRevokedJWTMap().size());
+        for (String signature : signatures) {
+            Assert.assertTrue(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(signature));
+        }
+        holder.removeExpiredEntries((expiry + 1) * 1000);
+        Assert.assertFalse(RevokedJWTDataHolder.isJWTTokenSignatureExistsInRevokedMap(signatures[0]));
+    }
+
+    @Test
+    public void testLookupCostAndMemoryPerMillionRevocations() {
+
+        int revocations = 1000000;
+        RevokedJWTBloomFilter bloomFilter = new RevokedJWTBloomFilter(revocations, 0.01);
+        for (int i = 0; i < revocations; i++) {
+            bloomFilter.put("revoked-" + i);
+        }
+        for (int i = 0; i < revocations; i += 997) {
+            Assert.assertTrue(bloomFilter.mightContain("revoked-" + i));
+        }
+        String[] lookups = new String[100000];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = signature();
+        }
+        int falsePositives = 0;
+        long start = System.nanoTime();
+        for (String lookup : lookups) {
+            if (bloomFilter.mightContain(lookup)) {
+                falsePositives++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        double falsePositiveRate = (double) falsePositives / lookups.length;
+        long filterBytes = bloomFilter.getNumberOfBits() / 8;
+        Assert.assertTrue("False positive rate too high : " + falsePositiveRate, falsePositiveRate < 0.02);
+        Assert.assertTrue("Bloom filter too large : " + filterBytes, filterBytes < 2 * 1024 * 1024);
+        log.info("Bloom filter for " + revocations + " revocations uses " + filterBytes + " bytes, "
+                + "negative lookup cost " + elapsedNanos / lookups.length + " ns, false positive rate "
+                + falsePositiveRate);
+    }
+
+    @Test
+    public void testRetrievalWatermarkOnlyMovesForward() {
+
+        RevokedJWTDataHolder holder = RevokedJWTDataHolder.getInstance();
+        long watermark = holder.getRevokedJWTRetrievalWatermark() + 1000;
+        holder.updateRevokedJWTRetrievalWatermark(watermark);
+        holder.updateRevokedJWTRetrievalWatermark(watermark - 500);
+        Assert.assertEquals(watermark, holder.getRevokedJWTRetrievalWatermark());
+    }
+
+    private static String signature() {
+
+        return UUID.randomUUID().toString() + UUID.randomUUID().toString();
+    }
+
+    private static long nowInSeconds() {
+
+        return System.currentTimeMillis() / 1000;
+    }
+}
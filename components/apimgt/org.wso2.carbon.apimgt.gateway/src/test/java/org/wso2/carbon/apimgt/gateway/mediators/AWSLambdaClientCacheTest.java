@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.mediators;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.InstanceProfileCredentialsProvider;
+import com.amazonaws.services.lambda.AWSLambda;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for {@link AWSLambdaClientCache}.
+ */
+public class AWSLambdaClientCacheTest {
+
+    @Test
+    public void testClientIsReused() {
+
+        TestClientCache clientCache = new TestClientCache(10);
+        AWSLambda client = getClient(clientCache, "us-east-1", "accessKey", "secretKey");
+        Assert.assertSame(client, getClient(clientCache, "us-east-1", "accessKey", "secretKey"));
+        Assert.assertNotSame(client, getClient(clientCache, "us-west-2", "accessKey", "secretKey"));
+        Assert.assertNotSame(client, getClient(clientCache, "us-east-1", "otherAccessKey", "secretKey"));
+        Assert.assertEquals(3, clientCache.createdClients.size());
+        Mockito.verify(client, Mockito.never()).shutdown();
+    }
+
+    @Test
+    public void testInstanceProfileCredentials() {
+
+        TestClientCache clientCache = new TestClientCache(10);
+        AWSLambda client = getClient(clientCache, "us-east-1", "", "");
+        Assert.assertSame(client, getClient(clientCache, "us-east-1", null, null));
+        Assert.assertTrue(clientCache.credentialsProviders.get(0) instanceof InstanceProfileCredentialsProvider);
+    }
+
+    @Test
+    public void testClientsAreKeyedByFullCredentials() {
+
+        TestClientCache clientCache = new TestClientCache(10);
+        AWSLambda client = getClient(clientCache, "us-east-1", "accessKey", "secretKey");
+        AWSLambda rotatedClient = getClient(clientCache, "us-east-1", "accessKey", "rotatedSecretKey");
+        Assert.assertNotSame(client, rotatedClient);
+        // Alternating secrets of the same access key do not replace each other's client
+        Assert.assertSame(client, getClient(clientCache, "us-east-1", "accessKey", "secretKey"));
+        Assert.assertSame(rotatedClient, getClient(clientCache, "us-east-1", "accessKey", "rotatedSecretKey"));
+        Mockito.verify(client, Mockito.never()).shutdown();
+        Assert.assertEquals(2, clientCache.createdClients.size());
+        Assert.assertEquals("rotatedSecretKey",
+                clientCache.credentialsProviders.get(1).getCredentials().getAWSSecretKey());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedClientIsShutdown() {
+
+        TestClientCache clientCache = new TestClientCache(2);
+        AWSLambda first = getClient(clientCache, "region-1", "accessKey", "secretKey");
+        AWSLambda second = getClient(clientCache, "region-2", "accessKey", "secretKey");
+        getClient(clientCache, "region-1", "accessKey", "secretKey");
+        getClient(clientCache, "region-3", "accessKey", "secretKey");
+        Mockito.verify(second).shutdown();
+        Mockito.verify(first, Mockito.never()).shutdown();
+        Assert.assertSame(first, getClient(clientCache, "region-1", "accessKey", "secretKey"));
+    }
+
+    @Test
+    public void testEvictedClientIsShutdownAfterInFlightInvocations() {
+
+        TestClientCache clientCache = new TestClientCache(1);
+        AWSLambdaClientCache.ClientLease firstLease = clientCache.leaseClient("region-1", "accessKey", "secretKey");
+        AWSLambdaClientCache.ClientLease secondLease = clientCache.leaseClient("region-1", "accessKey", "secretKey");
+        AWSLambda client = firstLease.getClient();
+        getClient(clientCache, "region-2", "accessKey", "secretKey");
+
+        firstLease.close();
+        firstLease.close();
+        Mockito.verify(client, Mockito.never()).shutdown();
+        secondLease.close();
+        Mockito.verify(client).shutdown();
+        Assert.assertNotSame(client, getClient(clientCache, "region-1", "accessKey", "secretKey"));
+    }
+
+    @Test
+    public void testConcurrentLeasesShareOneClient() throws Exception {
+
+        TestClientCache clientCache = new TestClientCache(10);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AWSLambda>> leasedClients = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                leasedClients.add(executorService.submit(
+                        () -> getClient(clientCache, "us-east-1", "accessKey", "secretKey")));
+            }
+            AWSLambda client = leasedClients.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<AWSLambda> leasedClient : leasedClients) {
+                Assert.assertSame(client, leasedClient.get(10, TimeUnit.SECONDS));
+            }
+            // Clients built concurrently for the same credentials, other than the cached one, are shut down
+            for (AWSLambda createdClient : clientCache.createdClients) {
+                Mockito.verify(createdClient, Mockito.times(createdClient == client ? 0 : 1)).shutdown();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClientConfiguration() {
+
+        Assert.assertEquals(400, new TestClientCache(10).getClientConfiguration().getMaxConnections());
+        System.setProperty(AWSLambdaClientCache.MAX_CONNECTIONS_PROPERTY, "1000");
+        System.setProperty(AWSLambdaClientCache.CONNECTION_TIMEOUT_PROPERTY, "2000");
+        try {
+            ClientConfiguration clientConfiguration = new TestClientCache(10).getClientConfiguration();
+            Assert.assertEquals(1000, clientConfiguration.getMaxConnections());
+            Assert.assertEquals(2000, clientConfiguration.getConnectionTimeout());
+            Assert.assertEquals(ClientConfiguration.DEFAULT_SOCKET_TIMEOUT, clientConfiguration.getSocketTimeout());
+        } finally {
+            System.clearProperty(AWSLambdaClientCache.MAX_CONNECTIONS_PROPERTY);
+            System.clearProperty(AWSLambdaClientCache.CONNECTION_TIMEOUT_PROPERTY);
+        }
+    }
+
+    private static AWSLambda getClient(AWSLambdaClientCache clientCache, String region, String accessKey,
+                                       String secretKey) {
+
+        try (AWSLambdaClientCache.ClientLease clientLease = clientCache.leaseClient(region, accessKey, secretKey)) {
+            return clientLease.getClient();
+        }
+    }
+
+    private static class TestClientCache extends AWSLambdaClientCache {
+
+        private final List<AWSLambda> createdClients = new CopyOnWriteArrayList<>();
+        private final List<AWSCredentialsProvider> credentialsProviders = new CopyOnWriteArrayList<>();
+
+        TestClientCache(int maxClients) {
+
+            super(maxClients);
+        }
+
+        @Override
+        protected AWSLambda createClient(AWSCredentialsProvider credentialsProvider, String region) {
+
+            AWSLambda client = Mockito.mock(AWSLambda.class);
+            createdClients.add(client);
+            credentialsProviders.add(credentialsProvider);
+            return client;
+        }
+    }
+}
@@ -20,6 +20,8 @@
 package org.wso2.carbon.apimgt.gateway.mediators;
 
 import org.apache.axiom.om.OMAbstractFactory;
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.OMFactory;
 import org.apache.axiom.soap.SOAPEnvelope;
 import org.apache.axiom.soap.SOAPFactory;
 import org.apache.axis2.AxisFault;
@@ -131,6 +133,104 @@ public class RegularExpressionProtectorTest {
         regularExpressionProtector.mediate(messageContext);
     }
 
+    /**
+     * This is the test case to validate that a match longer than any chunk of the request body is detected.
+     */
+    @Test
+    public void testLongMatchInBody() {
+        log.info("Running the test case to validate the request body against a match spanning a large payload.");
+        StringBuilder script = new StringBuilder();
+        while (script.length() < 20000) {
+            script.append("var padding = 'padding';");
+        }
+        OMFactory factory = OMAbstractFactory.getOMFactory();
+        OMElement payload = factory.createOMElement("test", null);
+        factory.createOMElement("script", null, payload).setText(script.toString());
+        Mockito.when(messageContext.getProperty(APIMgtGatewayConstants.REGEX_PATTERN))
+                .thenReturn("<\\s*script\\b[^>]*>[^<]+<\\s*/\\s*script\\s*>");
+        mediateBody(payload);
+        Mockito.verify(messageContext).setProperty(APIMgtGatewayConstants.THREAT_FOUND, true);
+    }
+
+    /**
+     * This is the test case to validate that anchors of the pattern match the boundaries of the request body.
+     */
+    @Test
+    public void testAnchoredPatternInBody() {
+        log.info("Running the test case to validate the request body against an anchored pattern.");
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 20000) {
+            content.append('a');
+        }
+        OMElement payload = OMAbstractFactory.getOMFactory().createOMElement("test", null);
+        payload.setText(content.toString());
+        Mockito.when(messageContext.getProperty(APIMgtGatewayConstants.REGEX_PATTERN)).thenReturn("^a");
+        mediateBody(payload);
+        Mockito.verify(messageContext, Mockito.never()).setProperty(APIMgtGatewayConstants.THREAT_FOUND, true);
+    }
+
+    /**
+     * This is the test case to validate that a pattern with a bounded match length is found in a large request body.
+     */
+    @Test
+    public void testBoundedPatternInLargeBody() {
+        log.info("Running the test case to validate a large request body against a bounded pattern.");
+        OMFactory factory = OMAbstractFactory.getOMFactory();
+        OMElement payload = factory.createOMElement("test", null);
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 1000) {
+            content.append("payload content ");
+        }
+        for (int i = 0; i < 100; i++) {
+            factory.createOMElement("item", null, payload).setText(content.toString());
+        }
+        factory.createOMElement("query", null, payload).setText("DROP TABLE users");
+        Mockito.when(messageContext.getProperty(APIMgtGatewayConstants.REGEX_PATTERN))
+                .thenReturn(".*ALTER.*|.*DROP.*");
+        mediateBody(payload);
+        Mockito.verify(messageContext).setProperty(APIMgtGatewayConstants.THREAT_FOUND, true);
+    }
+
+    /**
+     * This is the test case to validate that a request body longer than the limit is rejected when the whole body
+     * has to be matched at once.
+     */
+    @Test
+    public void testBufferedPayloadLengthLimit() {
+        log.info("Running the test case to validate the length limit of a request body matched at once.");
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 2000) {
+            content.append('a');
+        }
+        OMElement payload = OMAbstractFactory.getOMFactory().createOMElement("test", null);
+        payload.setText(content.toString());
+        Mockito.when(messageContext.getProperty(APIMgtGatewayConstants.REGEX_PATTERN)).thenReturn("^b");
+        System.setProperty(APIMgtGatewayConstants.BUFFERED_PAYLOAD_LENGTH_LIMIT_FOR_REGEX_THREAT_PROTECTOR, "1000");
+        try {
+            mediateBody(payload);
+        } finally {
+            System.clearProperty(APIMgtGatewayConstants.BUFFERED_PAYLOAD_LENGTH_LIMIT_FOR_REGEX_THREAT_PROTECTOR);
+        }
+        Mockito.verify(messageContext).setProperty(APIMgtGatewayConstants.THREAT_FOUND, true);
+    }
+
+    private void mediateBody(OMElement payload) {
+        SOAPFactory fac = OMAbstractFactory.getSOAP12Factory();
+        SOAPEnvelope env = fac.createSOAPEnvelope();
+        fac.createSOAPBody(env);
+        env.getBody().addChild(payload);
+        Mockito.when(messageContext.getProperty(APIMgtGatewayConstants.ENABLED_CHECK_BODY)).thenReturn
+                (String.valueOf(enabledStatus));
+        Mockito.when(messageContext.getProperty(APIMgtGatewayConstants.ENABLED_CHECK_HEADERS)).thenReturn
+                (String.valueOf("false"));
+        Mockito.when(messageContext.getProperty(APIMgtGatewayConstants.ENABLED_CHECK_PATHPARAM)).thenReturn
+                (String.valueOf("false"));
+        Mockito.when(((Axis2MessageContext) messageContext).getAxis2MessageContext()).thenReturn(axis2MsgContext);
+        Mockito.doReturn(env).when(axis2MsgContext).getEnvelope();
+        regularExpressionProtector = new RegularExpressionProtector();
+        regularExpressionProtector.mediate(messageContext);
+    }
+
     /**
      * This is the test case to check the return value of the isContentAware method.
      */
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.mediators.oauth;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.client.TokenResponse;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.conf.OAuthEndpoint;
+import org.wso2.carbon.apimgt.gateway.utils.redis.RedisCacheUtils;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.utils.APIUtil;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({APIUtil.class, ServiceReferenceHolder.class})
+@PowerMockIgnore({"javax.net.ssl.*", "javax.management.*", "com.sun.net.httpserver.*"})
+public class OAuthTokenGeneratorTest {
+
+    private HttpServer tokenServer;
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final List<String> tokenRequestPayloads = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch releaseTokenRequests;
+    private volatile int tokenResponseStatus = 200;
+    private final Map<String, Object> redisStore = new ConcurrentHashMap<>();
+    private final AtomicInteger redisBatchReads = new AtomicInteger();
+    private final AtomicInteger redisBatchWrites = new AtomicInteger();
+    private ServiceReferenceHolder serviceReferenceHolder;
+
+    @Before
+    public void setUp() throws Exception {
+
+        tokenServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        tokenServer.setExecutor(Executors.newCachedThreadPool());
+        tokenServer.createContext("/token", exchange -> {
+            int requestNumber = tokenRequests.incrementAndGet();
+            tokenRequestPayloads.add(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            if (releaseTokenRequests != null) {
+                try {
+                    releaseTokenRequests.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] response = ("{\"access_token\":\"token-" + requestNumber + "\",\"refresh_token\":\"refresh-"
+                    + requestNumber + "\",\"token_type\":\"Bearer\",\"expires_in\":3600}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(tokenResponseStatus, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        tokenServer.start();
+
+        PowerMockito.mockStatic(APIUtil.class);
+        PowerMockito.when(APIUtil.getHttpClient(Mockito.anyInt(), Mockito.anyString()))
+                .thenAnswer(invocation -> HttpClients.createDefault());
+        PowerMockito.mockStatic(ServiceReferenceHolder.class);
+        serviceReferenceHolder = Mockito.mock(ServiceReferenceHolder.class);
+        PowerMockito.when(ServiceReferenceHolder.getInstance()).thenReturn(serviceReferenceHolder);
+        Mockito.when(serviceReferenceHolder.getRedisCacheUtils()).thenReturn(createRedisStandIn());
+    }
+
+    @After
+    public void tearDown() {
+
+        tokenServer.stop(0);
+    }
+
+    @Test
+    public void testValidTokenIsServedFromCache() throws Exception {
+
+        OAuthEndpoint oAuthEndpoint = createEndpoint("cached");
+        TokenResponse first = OAuthTokenGenerator.getToken(oAuthEndpoint);
+        TokenResponse second = OAuthTokenGenerator.getToken(oAuthEndpoint);
+
+        Assert.assertEquals(1, tokenRequests.get());
+        Assert.assertEquals("token-1", first.getAccessToken());
+        Assert.assertEquals(first.getAccessToken(), second.getAccessToken());
+        Assert.assertSame(first, TokenCache.getInstance().getTokenMap().get(oAuthEndpoint.getId()));
+    }
+
+    @Test
+    public void testConcurrentRequestsShareTokenRequest() throws Exception {
+
+        OAuthEndpoint oAuthEndpoint = createEndpoint("concurrent");
+        releaseTokenRequests = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TokenResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> OAuthTokenGenerator.getToken(oAuthEndpoint)));
+            }
+            long deadline = System.currentTimeMillis() + 10000;
+            while (tokenRequests.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            // Give the other callers time to join the in-flight request
+            Thread.sleep(200);
+            releaseTokenRequests.countDown();
+            for (Future<TokenResponse> future : futures) {
+                Assert.assertEquals("token-1", future.get(10, TimeUnit.SECONDS).getAccessToken());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(1, tokenRequests.get());
+    }
+
+    @Test
+    public void testExpiredTokenIsRefreshed() throws Exception {
+
+        OAuthEndpoint oAuthEndpoint = createEndpoint("expired");
+        TokenCache.getInstance().getTokenMap().put(oAuthEndpoint.getId(), createToken("old", 0));
+
+        Assert.assertEquals("token-1", OAuthTokenGenerator.getToken(oAuthEndpoint).getAccessToken());
+        Assert.assertTrue(tokenRequestPayloads.get(0).contains("refresh_token=refresh-old"));
+    }
+
+    @Test
+    public void testRefresherRenewsUsedTokenBeforeExpiry() throws Exception {
+
+        OAuthTokenRefresher refresher = new OAuthTokenRefresher(60, 0);
+        OAuthEndpoint oAuthEndpoint = createEndpoint("renew");
+        refresher.register(oAuthEndpoint);
+        TokenCache.getInstance().getTokenMap().put(oAuthEndpoint.getId(), createToken("old", 20));
+
+        refresher.refreshTokens();
+        Assert.assertEquals("Unused endpoints are not renewed", 0, tokenRequests.get());
+
+        refresher.markUsed(oAuthEndpoint.getId());
+        refresher.refreshTokens();
+        Assert.assertEquals(1, tokenRequests.get());
+        Assert.assertTrue(tokenRequestPayloads.get(0).contains("refresh_token=refresh-old"));
+        Assert.assertEquals("token-1",
+                TokenCache.getInstance().getTokenMap().get(oAuthEndpoint.getId()).getAccessToken());
+
+        // The renewed token is valid beyond the refresh-ahead time
+        refresher.markUsed(oAuthEndpoint.getId());
+        refresher.refreshTokens();
+        Assert.assertEquals(1, tokenRequests.get());
+    }
+
+    @Test
+    public void testFailedRenewalIsRetriedAfterBackOff() throws Exception {
+
+        OAuthTokenRefresher refresher = new OAuthTokenRefresher(60, 0);
+        OAuthEndpoint oAuthEndpoint = createEndpoint("retry");
+        refresher.register(oAuthEndpoint);
+        TokenResponse currentToken = createToken("current", 20);
+        TokenCache.getInstance().getTokenMap().put(oAuthEndpoint.getId(), currentToken);
+        refresher.markUsed(oAuthEndpoint.getId());
+        tokenResponseStatus = 500;
+
+        refresher.refreshTokens();
+        refresher.refreshTokens();
+        Assert.assertEquals(1, tokenRequests.get());
+        Assert.assertSame(currentToken, TokenCache.getInstance().getTokenMap().get(oAuthEndpoint.getId()));
+    }
+
+    @Test
+    public void testRedisTokensAreRenewedInBatch() throws Exception {
+
+        Mockito.when(serviceReferenceHolder.isRedisEnabled()).thenReturn(true);
+        OAuthTokenRefresher refresher = new OAuthTokenRefresher(60, 0);
+        OAuthEndpoint first = createEndpoint("redis-1");
+        OAuthEndpoint second = createEndpoint("redis-2");
+        refresher.register(first);
+        refresher.register(second);
+        redisStore.put(first.getId(), createToken("first", 20));
+        redisStore.put(second.getId(), createToken("second", 20));
+        refresher.markUsed(first.getId());
+        refresher.markUsed(second.getId());
+
+        refresher.refreshTokens();
+        Assert.assertEquals(2, tokenRequests.get());
+        Assert.assertEquals(1, redisBatchReads.get());
+        Assert.assertEquals(1, redisBatchWrites.get());
+        Assert.assertTrue(((TokenResponse) redisStore.get(first.getId())).getAccessToken().startsWith("token-"));
+        Assert.assertTrue(((TokenResponse) redisStore.get(second.getId())).getAccessToken().startsWith("token-"));
+    }
+
+    @Test
+    public void testRetryDelayIsJitteredAndBounded() {
+
+        for (int i = 0; i < 100; i++) {
+            long firstDelay = OAuthTokenRefresher.getRetryDelay(1);
+            Assert.assertTrue(firstDelay >= 500 && firstDelay <= 1000);
+            long delay = OAuthTokenRefresher.getRetryDelay(50);
+            Assert.assertTrue(delay >= 30000 && delay <= 60000);
+        }
+    }
+
+    private OAuthEndpoint createEndpoint(String id) {
+
+        OAuthEndpoint oAuthEndpoint = new OAuthEndpoint();
+        oAuthEndpoint.setId(id + "-" + System.nanoTime());
+        oAuthEndpoint.setTokenApiUrl("http://127.0.0.1:" + tokenServer.getAddress().getPort() + "/token");
+        oAuthEndpoint.setClientId("client");
+        oAuthEndpoint.setClientSecret("secret");
+        oAuthEndpoint.setGrantType(APIConstants.OAuthConstants.CLIENT_CREDENTIALS);
+        return oAuthEndpoint;
+    }
+
+    private static TokenResponse createToken(String name, long validitySeconds) {
+
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken("token-" + name);
+        tokenResponse.setRefreshToken("refresh-" + name);
+        tokenResponse.setExpiresIn("3600");
+        tokenResponse.setValidTill(System.currentTimeMillis() / 1000 + validitySeconds);
+        return tokenResponse;
+    }
+
+    private RedisCacheUtils createRedisStandIn() {
+
+        RedisCacheUtils redisCacheUtils = Mockito.mock(RedisCacheUtils.class);
+        Mockito.when(redisCacheUtils.getObject(Mockito.anyString(), Mockito.any()))
+                .thenAnswer(invocation -> redisStore.get((String) invocation.getArguments()[0]));
+        Mockito.doAnswer(invocation -> redisStore.put((String) invocation.getArguments()[0],
+                invocation.getArguments()[1])).when(redisCacheUtils).addObject(Mockito.anyString(), Mockito.any());
+        Mockito.when(redisCacheUtils.getObjects(Mockito.anyList(), Mockito.any())).thenAnswer(invocation -> {
+            redisBatchReads.incrementAndGet();
+            List<Object> objects = new ArrayList<>();
+            for (Object key : (List<?>) invocation.getArguments()[0]) {
+                objects.add(redisStore.get(key));
+            }
+            return objects;
+        });
+        Mockito.doAnswer(invocation -> {
+            redisBatchWrites.incrementAndGet();
+            redisStore.putAll((Map<String, Object>) invocation.getArguments()[0]);
+            return null;
+        }).when(redisCacheUtils).addObjects(Mockito.anyMap());
+        return redisCacheUtils;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class LatencyRecorderTest {
+
+    private static final Log log = LogFactory.getLog(LatencyRecorderTest.class);
+
+    @Test
+    public void testBucketsCoverRecordedValues() {
+
+        for (long value = 0; value < LatencyRecorder.MAX_TRACKABLE_VALUE; value = value * 3 / 2 + 1) {
+            int index = LatencyRecorder.bucketIndex(value);
+            Assert.assertTrue(index < LatencyRecorder.BUCKET_COUNT);
+            long highestEquivalentValue = LatencyRecorder.highestEquivalentValue(index);
+            Assert.assertTrue(highestEquivalentValue >= value);
+            Assert.assertTrue(highestEquivalentValue - value <= value / 16);
+            Assert.assertEquals(index + 1, LatencyRecorder.bucketIndex(highestEquivalentValue + 1));
+        }
+        Assert.assertEquals(LatencyRecorder.BUCKET_COUNT - 1,
+                LatencyRecorder.bucketIndex(LatencyRecorder.MAX_TRACKABLE_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1; i <= 1000; i++) {
+            recorder.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        LatencyRecorder.Snapshot snapshot = recorder.getIntervalSnapshot();
+        Assert.assertEquals(1000, snapshot.getCount());
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(500), snapshot.getValueAtPercentile(50));
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(990), snapshot.getValueAtPercentile(99));
+        assertWithinPrecision(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.getMax());
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(1001) / 2, snapshot.getMean());
+    }
+
+    @Test
+    public void testIntervalSnapshotsOnlyContainLatenciesOfTheInterval() {
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(100));
+        Assert.assertEquals(1, recorder.getIntervalSnapshot().getCount());
+
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(1));
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(2));
+        LatencyRecorder.Snapshot snapshot = recorder.getIntervalSnapshot();
+        Assert.assertEquals(2, snapshot.getCount());
+        assertWithinPrecision(TimeUnit.MILLISECONDS.toNanos(2), snapshot.getMax());
+
+        LatencyRecorder.Snapshot emptySnapshot = recorder.getIntervalSnapshot();
+        Assert.assertEquals(0, emptySnapshot.getCount());
+        Assert.assertEquals(0, emptySnapshot.getMax());
+        Assert.assertEquals(0, emptySnapshot.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        int threadCount = 4;
+        int recordsPerThread = 100000;
+        Thread[] threads = new Thread[threadCount];
+        long snapshotCount = 0;
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < recordsPerThread; j++) {
+                    recorder.record(j);
+                }
+            });
+            threads[i].start();
+        }
+        // Snapshots taken while recording must not lose or double count latencies
+        while (isAlive(threads)) {
+            snapshotCount += recorder.getIntervalSnapshot().getCount();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        snapshotCount += recorder.getIntervalSnapshot().getCount();
+        Assert.assertEquals((long) threadCount * recordsPerThread, snapshotCount);
+    }
+
+    @Test
+    public void testRecordingOverhead() {
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        int iterations = 5000000;
+        // Warm up so that the measured loop is compiled
+        for (int i = 0; i < iterations; i++) {
+            recorder.record(i);
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            recorder.record(i);
+        }
+        long nanosPerRecord = (System.nanoTime() - startTime) / iterations;
+        log.info("Latency recording overhead: " + nanosPerRecord + "ns per record");
+        Assert.assertEquals(2L * iterations, recorder.getIntervalSnapshot().getCount());
+        // Generous bound, so that the test does not fail on slow build machines
+        Assert.assertTrue(nanosPerRecord < TimeUnit.MICROSECONDS.toNanos(10));
+    }
+
+    @Test
+    public void testGatewayLatencyStatsReport() {
+
+        GatewayLatencyStats stats = new GatewayLatencyStats(60);
+        stats.record(GatewayLatencyStats.Phase.AUTHENTICATION, TimeUnit.MILLISECONDS.toNanos(3));
+        stats.recordSince(GatewayLatencyStats.Phase.THROTTLING, System.nanoTime());
+        Assert.assertTrue(stats.getRequestCounts().isEmpty());
+
+        stats.report();
+        Assert.assertEquals(1, stats.getLastSnapshot(GatewayLatencyStats.Phase.AUTHENTICATION).getCount());
+        Assert.assertEquals(Long.valueOf(1), stats.getRequestCounts().get("THROTTLING"));
+        Assert.assertEquals(Long.valueOf(0), stats.getRequestCounts().get("REQUEST_MEDIATION"));
+        long medianMicros = stats.getMedianLatencies().get("AUTHENTICATION");
+        Assert.assertTrue(medianMicros >= 3000 && medianMicros <= 3000 + 3000 / 16);
+    }
+
+    private static boolean isAlive(Thread[] threads) {
+
+        for (Thread thread : threads) {
+            if (thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+
+        Assert.assertTrue("Expected " + expected + " but was " + actual,
+                actual >= expected && actual - expected <= expected / 16);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.engine.AxisConfiguration;
+import org.apache.synapse.MessageContext;
+import org.apache.synapse.config.SynapseConfiguration;
+import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.core.axis2.Axis2SynapseEnvironment;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+import org.wso2.carbon.apimgt.gateway.handlers.analytics.AnalyticsMetricsHandler;
+import org.wso2.carbon.apimgt.gateway.handlers.analytics.Constants;
+import org.wso2.carbon.apimgt.gateway.handlers.analytics.SynapseAnalyticsDataProvider;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RequestTimingsTest {
+
+    private static final Log log = LogFactory.getLog(RequestTimingsTest.class);
+    private static final long REQUEST_START_TIME = 1000000L;
+    private static final long BACKEND_START_TIME = 1000012L;
+    private static final long BACKEND_END_TIME = 1000250L;
+    private static final long RESPONSE_TIME = 1000263L;
+
+    @Test
+    public void testRecordIsAttachedOnce() {
+
+        MessageContext messageContext = createMessageContext(new HashMap<>());
+        RequestTimings requestTimings = RequestTimings.of(messageContext);
+        requestTimings.setRequestStartTime(REQUEST_START_TIME);
+        Assert.assertSame(requestTimings, RequestTimings.of(messageContext));
+        Assert.assertEquals(REQUEST_START_TIME, RequestTimings.of(messageContext).getRequestStartTime());
+    }
+
+    @Test
+    public void testBackendRequestStartTimeIsReadFromSequenceProperty() {
+
+        Map<String, Object> properties = new HashMap<>();
+        MessageContext messageContext = createMessageContext(properties);
+        RequestTimings requestTimings = RequestTimings.of(messageContext);
+        Assert.assertEquals(0, requestTimings.getBackendRequestStartTime(messageContext));
+
+        properties.put(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME, Long.toString(BACKEND_START_TIME));
+        Assert.assertEquals(BACKEND_START_TIME, requestTimings.getBackendRequestStartTime(messageContext));
+        properties.remove(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME);
+        Assert.assertEquals(BACKEND_START_TIME, requestTimings.getBackendRequestStartTime(messageContext));
+
+        // A retried backend call sets the property again
+        properties.put(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME, Long.toString(BACKEND_END_TIME));
+        Assert.assertEquals(BACKEND_END_TIME, requestTimings.getBackendRequestStartTime(messageContext));
+        properties.put(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME, "invalid");
+        Assert.assertEquals(0, requestTimings.getBackendRequestStartTime(messageContext));
+    }
+
+    @Test
+    public void testClonedMessageContextGetsCopyOfRecord() {
+
+        Map<String, Object> properties = new HashMap<>();
+        MessageContext messageContext = createMessageContext(properties);
+        RequestTimings requestTimings = RequestTimings.of(messageContext);
+        requestTimings.setRequestStartTime(messageContext, REQUEST_START_TIME);
+        // A clone of the message context gets the same property values
+        MessageContext clonedMessageContext = createMessageContext(new HashMap<>(properties));
+
+        RequestTimings clonedRequestTimings = RequestTimings.of(clonedMessageContext);
+        Assert.assertNotSame(requestTimings, clonedRequestTimings);
+        Assert.assertSame(clonedRequestTimings, RequestTimings.of(clonedMessageContext));
+        Assert.assertEquals(REQUEST_START_TIME, clonedRequestTimings.getRequestStartTime());
+        clonedRequestTimings.setBackendStartTime(clonedMessageContext, BACKEND_START_TIME);
+        requestTimings.setBackendStartTime(messageContext, BACKEND_END_TIME);
+        Assert.assertEquals(BACKEND_START_TIME, RequestTimings.of(clonedMessageContext).getBackendStartTime());
+        Assert.assertEquals(BACKEND_END_TIME, RequestTimings.of(messageContext).getBackendStartTime());
+    }
+
+    @Test
+    public void testAnalyticsLatenciesOfHandlerTimestamps() throws Exception {
+
+        MessageContext synCtx = createSynapseMessageContext();
+        RequestTimings.of(synCtx).setRequestStartTime(synCtx, System.currentTimeMillis() - 5);
+        AnalyticsMetricsHandler analyticsMetricsHandler = new AnalyticsMetricsHandler();
+        analyticsMetricsHandler.handleRequestOutFlow(synCtx);
+        analyticsMetricsHandler.handleResponseInFlow(synCtx);
+
+        // The timings are only kept in the record unless the legacy properties are enabled
+        Assert.assertNull(synCtx.getProperty(Constants.REQUEST_START_TIME_PROPERTY));
+        Assert.assertNull(synCtx.getProperty(Constants.BACKEND_END_TIME_PROPERTY));
+        RequestTimings requestTimings = RequestTimings.of(synCtx);
+        long requestStartTime = requestTimings.getRequestStartTime();
+        long backendStartTime = requestTimings.getBackendStartTime();
+        long backendEndTime = requestTimings.getBackendEndTime();
+        Assert.assertTrue(requestStartTime < backendStartTime && backendStartTime <= backendEndTime);
+
+        SynapseAnalyticsDataProvider provider = new SynapseAnalyticsDataProvider(synCtx);
+        Assert.assertEquals(requestStartTime, provider.getRequestTime());
+        Assert.assertEquals(backendEndTime - backendStartTime, provider.getBackendLatency());
+        Assert.assertEquals(backendStartTime - requestStartTime, provider.getRequestMediationLatency());
+        long responseMediationLatency = provider.getResponseMediationLatency();
+        Assert.assertTrue(responseMediationLatency >= 0
+                && responseMediationLatency <= System.currentTimeMillis() - backendEndTime);
+    }
+
+    @Test
+    public void testRecordAllocatesLessThanProperties() throws Exception {
+
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported());
+        allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        int requests = 100000;
+        long threadId = Thread.currentThread().getId();
+        MessageContext synCtx = createSynapseMessageContext();
+        // Warm up both paths, so that the measured loops are compiled
+        long propertyBytes = measure(allocationMXBean, threadId, requests, synCtx, false);
+        long recordBytes = measure(allocationMXBean, threadId, requests, synCtx, true);
+        propertyBytes = measure(allocationMXBean, threadId, requests, synCtx, false);
+        recordBytes = measure(allocationMXBean, threadId, requests, synCtx, true);
+        log.info("Bytes allocated per request for timing bookkeeping: properties=" + propertyBytes / requests
+                + ", record=" + recordBytes / requests);
+        Assert.assertTrue(recordBytes < propertyBytes);
+    }
+
+    private static long measure(com.sun.management.ThreadMXBean allocationMXBean, long threadId, int requests,
+                                MessageContext synCtx, boolean record) {
+
+        long start = allocationMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < requests; i++) {
+            // Start every request with an empty set of properties, as a new message context would
+            synCtx.getPropertyKeySet().clear();
+            if (record) {
+                recordWithTimings(synCtx);
+            } else {
+                recordWithProperties(synCtx);
+            }
+        }
+        return allocationMXBean.getThreadAllocatedBytes(threadId) - start;
+    }
+
+    /**
+     * Records the timings of a request as string and boxed message context properties, as the handlers did before
+     * the timing record was introduced.
+     */
+    private static void recordWithProperties(MessageContext synCtx) {
+
+        synCtx.setProperty(Constants.REQUEST_START_TIME_PROPERTY, System.currentTimeMillis());
+        synCtx.setProperty(APIMgtGatewayConstants.REQUEST_EXECUTION_START_TIME,
+                Long.toString(System.currentTimeMillis()));
+        synCtx.setProperty(APIMgtGatewayConstants.REQUEST_START_TIME, Long.toString(System.currentTimeMillis()));
+        synCtx.setProperty(APIMgtGatewayConstants.SECURITY_LATENCY, System.currentTimeMillis() - REQUEST_START_TIME);
+        synCtx.setProperty(APIMgtGatewayConstants.THROTTLING_LATENCY,
+                System.currentTimeMillis() - REQUEST_START_TIME);
+        synCtx.setProperty(Constants.BACKEND_START_TIME_PROPERTY, System.currentTimeMillis());
+        synCtx.setProperty(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME, Long.toString(BACKEND_START_TIME));
+        synCtx.setProperty(Constants.BACKEND_END_TIME_PROPERTY, System.currentTimeMillis());
+        long backendRequestEndTime = System.currentTimeMillis();
+        synCtx.setProperty(APIMgtGatewayConstants.BACKEND_REQUEST_END_TIME, backendRequestEndTime);
+        synCtx.setProperty(APIMgtGatewayConstants.BACKEND_LATENCY, backendRequestEndTime - Long.parseLong(
+                (String) synCtx.getProperty(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME)));
+    }
+
+    /**
+     * Records the timings of a request through the setters the handlers use.
+     */
+    private static void recordWithTimings(MessageContext synCtx) {
+
+        RequestTimings.of(synCtx).setRequestStartTime(synCtx, System.currentTimeMillis());
+        RequestTimings.of(synCtx).setRequestExecutionStartTime(synCtx, System.currentTimeMillis());
+        RequestTimings.of(synCtx).setRequestTime(synCtx, System.currentTimeMillis());
+        RequestTimings.of(synCtx).setSecurityLatency(synCtx, System.currentTimeMillis() - REQUEST_START_TIME);
+        RequestTimings.of(synCtx).setThrottlingLatency(synCtx, System.currentTimeMillis() - REQUEST_START_TIME);
+        RequestTimings.of(synCtx).setBackendStartTime(synCtx, System.currentTimeMillis());
+        synCtx.setProperty(APIMgtGatewayConstants.BACKEND_REQUEST_START_TIME, Long.toString(BACKEND_START_TIME));
+        RequestTimings.of(synCtx).setBackendEndTime(synCtx, System.currentTimeMillis());
+        RequestTimings requestTimings = RequestTimings.of(synCtx);
+        long backendRequestEndTime = System.currentTimeMillis();
+        requestTimings.setBackendRequestEndTime(synCtx, backendRequestEndTime);
+        requestTimings.setBackendLatency(synCtx,
+                backendRequestEndTime - requestTimings.getBackendRequestStartTime(synCtx));
+    }
+
+    private static MessageContext createSynapseMessageContext() throws Exception {
+
+        SynapseConfiguration synCfg = new SynapseConfiguration();
+        org.apache.axis2.context.MessageContext axisMsgCtx = new org.apache.axis2.context.MessageContext();
+        ConfigurationContext cfgCtx = new ConfigurationContext(new AxisConfiguration());
+        return new Axis2MessageContext(axisMsgCtx, synCfg, new Axis2SynapseEnvironment(cfgCtx, synCfg));
+    }
+
+    private static MessageContext createMessageContext(Map<String, Object> properties) {
+
+        MessageContext messageContext = Mockito.mock(MessageContext.class);
+        Mockito.when(messageContext.getProperty(Mockito.anyString()))
+                .thenAnswer(invocation -> properties.get((String) invocation.getArguments()[0]));
+        Mockito.doAnswer(invocation -> properties.put((String) invocation.getArguments()[0],
+                invocation.getArguments()[1])).when(messageContext).setProperty(Mockito.anyString(), Mockito.any());
+        return messageContext;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import com.google.re2j.Pattern;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Test cases for {@link RegexMatchLength}.
+ */
+public class RegexMatchLengthTest {
+
+    @Test
+    public void testBoundedPatterns() {
+
+        Assert.assertEquals(10, RegexMatchLength.getMaxMatchLength(".*'.*|.*ALTER.*|.*DROP.*"));
+        Assert.assertEquals(6, RegexMatchLength.getMaxMatchLength("abc"));
+        Assert.assertEquals(6, RegexMatchLength.getMaxMatchLength("a{2,3}"));
+        Assert.assertEquals(20, RegexMatchLength.getMaxMatchLength("(?i).*drop table.*?"));
+        Assert.assertEquals(14, RegexMatchLength.getMaxMatchLength("(foo|barbaz)x?"));
+        Assert.assertEquals(10, RegexMatchLength.getMaxMatchLength(".+drop"));
+        Assert.assertEquals(14, RegexMatchLength.getMaxMatchLength("\\d{4}-[0-9]{2}"));
+        Assert.assertEquals(6, RegexMatchLength.getMaxMatchLength("\\Qa.b\\E"));
+        Assert.assertEquals(8, RegexMatchLength.getMaxMatchLength("(?:[^]a]|\\pL)[[:alpha:]]x{2}"));
+        Assert.assertEquals(0, RegexMatchLength.getMaxMatchLength(".*"));
+    }
+
+    @Test
+    public void testUnboundedPatterns() {
+
+        String[] patterns = {"a*b", "a+", "a{3,}", ".*a.*b.*", "^a", "a$", "\\bword", "\\Aa", "<\\s*script",
+                "(a", "a)", "*a", "(?=a)"};
+        for (String pattern : patterns) {
+            Assert.assertEquals(pattern, RegexMatchLength.UNBOUNDED, RegexMatchLength.getMaxMatchLength(pattern));
+        }
+    }
+
+    @Test
+    public void testWindowedMatchingFindsSameMatches() throws IOException {
+
+        String[] patterns = {".*'.*|.*ALTER.*|.*DROP TABLE.*", ".+<script", "(?i)se(l|x)ect.*", "[<>]{2}.*",
+                "\\d{3}-\\d{2}"};
+        Random random = new Random(1);
+        String alphabet = "abcdeilorstxDLPOTA '<>0123456789-\n";
+        for (String regex : patterns) {
+            Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+            int overlap = RegexMatchLength.getMaxMatchLength(regex) - 1;
+            Assert.assertTrue(regex, overlap >= 0);
+            for (int i = 0; i < 300; i++) {
+                StringBuilder content = new StringBuilder();
+                int size = random.nextInt(400);
+                for (int j = 0; j < size; j++) {
+                    content.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                String payload = content.toString();
+                RegexMatchingWriter writer = new RegexMatchingWriter(pattern, random.nextInt(16) + 1, overlap);
+                try {
+                    writer.write(payload);
+                    writer.close();
+                } catch (IOException e) {
+                    Assert.assertTrue(writer.isMatched());
+                }
+                Assert.assertEquals(regex + " on " + payload, pattern.matcher(payload).find(), writer.isMatched());
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import com.google.re2j.Pattern;
+import org.apache.axiom.om.OMAbstractFactory;
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.OMFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Test cases for {@link RegexMatchingWriter}.
+ */
+public class RegexMatchingWriterTest {
+
+    private static final Log log = LogFactory.getLog(RegexMatchingWriterTest.class);
+    private static final String SQL_KEYWORDS = ".*'.*|.*ALTER.*|.*ALTER TABLE.*|.*ALTER VIEW.*|.*CREATE DATABASE.*|"
+            + ".*CREATE PROCEDURE.*|.*CREATE SCHEMA.*|.*create table.*|.*CREATE VIEW.*|.*DELETE.*|.*DROP DATABASE.*|"
+            + ".*DROP PROCEDURE.*|.*DROP.*|.*SELECT.*";
+
+    private static final Pattern PATTERN = Pattern.compile(".*'.*|.*ALTER.*|.*DROP.*|.*<script.*",
+            Pattern.CASE_INSENSITIVE);
+
+    @Test
+    public void testMatchesSameAsWholeContent() throws IOException {
+
+        Random random = new Random(1);
+        String alphabet = "abcdefghijklmnopqrstuvwxyz <>/\n";
+        for (int i = 0; i < 200; i++) {
+            StringBuilder content = new StringBuilder();
+            int size = random.nextInt(300);
+            for (int j = 0; j < size; j++) {
+                content.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            if (random.nextBoolean()) {
+                content.insert(random.nextInt(content.length() + 1), "dRoP");
+            }
+            String payload = content.toString();
+            for (int chunkSize = 1; chunkSize < 20; chunkSize += 3) {
+                RegexMatchingWriter writer = new RegexMatchingWriter(PATTERN, chunkSize, 8);
+                boolean expected = PATTERN.matcher(payload).find();
+                Assert.assertEquals(payload, expected, write(writer, payload, random));
+            }
+        }
+    }
+
+    @Test
+    public void testMatchAcrossChunkBoundary() throws IOException {
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("<item>value</item>");
+        }
+        String payload = content.toString() + "<script>" + content;
+        for (int chunkSize = 1; chunkSize < 64; chunkSize++) {
+            RegexMatchingWriter writer = new RegexMatchingWriter(PATTERN, chunkSize, 7);
+            Assert.assertTrue(write(writer, payload, new Random(chunkSize)));
+            Assert.assertTrue(writer.getMatchedContent().toLowerCase().contains("<script"));
+        }
+        RegexMatchingWriter writer = new RegexMatchingWriter(PATTERN,
+                RegexMatchLength.getMaxMatchLength(PATTERN.pattern()) - 1);
+        Assert.assertFalse(write(writer, content.toString(), new Random(1)));
+        Assert.assertNull(writer.getMatchedContent());
+    }
+
+    @Test
+    public void testStopsWritingAfterMatch() throws IOException {
+
+        RegexMatchingWriter writer = new RegexMatchingWriter(PATTERN, 4, 4);
+        try {
+            writer.write("drop table");
+            Assert.fail("Writing should be stopped once the content matches");
+        } catch (IOException e) {
+            Assert.assertTrue(writer.isMatched());
+        }
+        try {
+            writer.write("more content");
+            Assert.fail("Writing should be stopped once the content matches");
+        } catch (IOException e) {
+            Assert.assertTrue(writer.isMatched());
+        }
+    }
+
+    @Test
+    public void testScanCostByPayloadSize() throws Exception {
+
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported());
+        allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        Pattern pattern = Pattern.compile(SQL_KEYWORDS, Pattern.CASE_INSENSITIVE);
+        int overlap = RegexMatchLength.getMaxMatchLength(SQL_KEYWORDS) - 1;
+        long threadId = Thread.currentThread().getId();
+        // Warm up both paths, so that the measured runs are compiled
+        OMElement warmUpPayload = createPayload(10 * 1024);
+        scanWhole(pattern, warmUpPayload);
+        scanStreamed(pattern, overlap, warmUpPayload);
+        for (int size : new int[]{10 * 1024, 1024 * 1024, 10 * 1024 * 1024}) {
+            OMElement payload = createPayload(size);
+            long start = allocationMXBean.getThreadAllocatedBytes(threadId);
+            long startNanos = System.nanoTime();
+            Assert.assertFalse(scanWhole(pattern, payload));
+            long wholeNanos = System.nanoTime() - startNanos;
+            long wholeBytes = allocationMXBean.getThreadAllocatedBytes(threadId) - start;
+            start = allocationMXBean.getThreadAllocatedBytes(threadId);
+            startNanos = System.nanoTime();
+            Assert.assertFalse(scanStreamed(pattern, overlap, payload));
+            long streamedNanos = System.nanoTime() - startNanos;
+            long streamedBytes = allocationMXBean.getThreadAllocatedBytes(threadId) - start;
+            log.info("Regex scan of a " + size / 1024 + " KB payload - whole payload: " + wholeBytes / 1024
+                    + " KB allocated in " + wholeNanos / 1000000 + " ms, streamed: " + streamedBytes / 1024
+                    + " KB allocated in " + streamedNanos / 1000000 + " ms");
+            if (size >= 1024 * 1024) {
+                Assert.assertTrue(streamedBytes < wholeBytes);
+            }
+        }
+    }
+
+    @Test
+    public void testStreamedScanStopsAtFirstMatch() throws Exception {
+
+        Pattern pattern = Pattern.compile(SQL_KEYWORDS, Pattern.CASE_INSENSITIVE);
+        OMFactory factory = OMAbstractFactory.getOMFactory();
+        OMElement payload = createPayload(1024 * 1024);
+        OMElement threat = factory.createOMElement("query", null);
+        threat.setText("drop table users");
+        payload.getFirstElement().insertSiblingBefore(threat);
+        RegexMatchingWriter writer = new RegexMatchingWriter(pattern,
+                RegexMatchLength.getMaxMatchLength(SQL_KEYWORDS) - 1);
+        try {
+            payload.serialize(writer);
+            writer.close();
+        } catch (Exception e) {
+            Assert.assertTrue(writer.isMatched());
+        }
+        Assert.assertTrue(writer.isMatched());
+        Assert.assertTrue(writer.getMatchedContent().toLowerCase().contains("drop"));
+    }
+
+    private static boolean scanWhole(Pattern pattern, OMElement payload) {
+
+        return pattern.matcher(payload.toString()).find();
+    }
+
+    private static boolean scanStreamed(Pattern pattern, int overlap, OMElement payload) throws Exception {
+
+        RegexMatchingWriter writer = new RegexMatchingWriter(pattern, overlap);
+        try {
+            payload.serialize(writer);
+            writer.close();
+        } catch (Exception e) {
+            Assert.assertTrue(writer.isMatched());
+        }
+        return writer.isMatched();
+    }
+
+    private static OMElement createPayload(int size) {
+
+        OMFactory factory = OMAbstractFactory.getOMFactory();
+        OMElement payload = factory.createOMElement("payload", null);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 1000) {
+            text.append("payload content 0123456789 ");
+        }
+        int length = 0;
+        while (length < size) {
+            factory.createOMElement("item", null, payload).setText(text.toString());
+            length += text.length() + "<item></item>".length();
+        }
+        return payload;
+    }
+
+    private boolean write(RegexMatchingWriter writer, String payload, Random random) throws IOException {
+
+        int offset = 0;
+        try {
+            while (offset < payload.length()) {
+                int len = Math.min(payload.length() - offset, random.nextInt(10) + 1);
+                if (random.nextBoolean()) {
+                    writer.write(payload, offset, len);
+                } else {
+                    writer.write(payload.toCharArray(), offset, len);
+                }
+                offset += len;
+            }
+            writer.close();
+        } catch (IOException e) {
+            Assert.assertTrue(writer.isMatched());
+        }
+        return writer.isMatched();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.SAXException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Test cases for {@link XMLSchemaCache}.
+ */
+public class XMLSchemaCacheTest {
+
+    private static final String SCHEMA = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+            + "<xs:element name=\"order\"><xs:complexType><xs:sequence>"
+            + "<xs:element name=\"%s\" type=\"xs:int\"/>"
+            + "</xs:sequence></xs:complexType></xs:element></xs:schema>";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testValidate() throws Exception {
+
+        String xsdURL = writeSchema("quantity").toURI().toURL().toString();
+        XMLSchemaCache schemaCache = new XMLSchemaCache(10, 60000, 2);
+        schemaCache.validate(xsdURL, source("<order><quantity>2</quantity></order>"));
+        try {
+            schemaCache.validate(xsdURL, source("<order><quantity>two</quantity></order>"));
+            Assert.fail("Payload which does not match the schema should be rejected");
+        } catch (SAXException e) {
+            // expected
+        }
+        // validators are reset before they are reused
+        for (int i = 0; i < 5; i++) {
+            schemaCache.validate(xsdURL, source("<order><quantity>" + i + "</quantity></order>"));
+        }
+        Assert.assertSame(schemaCache.getCompiledSchema(xsdURL), schemaCache.getCompiledSchema(xsdURL));
+    }
+
+    @Test
+    public void testRefreshAfterExpiry() throws Exception {
+
+        File xsd = writeSchema("quantity");
+        String xsdURL = xsd.toURI().toURL().toString();
+        XMLSchemaCache schemaCache = new XMLSchemaCache(10, 0, 2);
+        XMLSchemaCache.CompiledSchema compiledSchema = schemaCache.getCompiledSchema(xsdURL);
+
+        Files.write(xsd.toPath(), String.format(SCHEMA, "count").getBytes(StandardCharsets.UTF_8));
+        Assert.assertNotSame(compiledSchema, schemaCache.getCompiledSchema(xsdURL));
+        schemaCache.validate(xsdURL, source("<order><count>2</count></order>"));
+
+        // a failed refresh keeps the last compiled schema
+        compiledSchema = schemaCache.getCompiledSchema(xsdURL);
+        Files.write(xsd.toPath(), "<broken".getBytes(StandardCharsets.UTF_8));
+        Assert.assertSame(compiledSchema, schemaCache.getCompiledSchema(xsdURL));
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+
+        XMLSchemaCache schemaCache = new XMLSchemaCache(1, 60000, 2);
+        String firstURL = writeSchema("quantity").toURI().toURL().toString();
+        String secondURL = writeSchema("count").toURI().toURL().toString();
+        XMLSchemaCache.CompiledSchema compiledSchema = schemaCache.getCompiledSchema(firstURL);
+        schemaCache.getCompiledSchema(secondURL);
+        Assert.assertNotSame(compiledSchema, schemaCache.getCompiledSchema(firstURL));
+    }
+
+    @Test(expected = SAXException.class)
+    public void testMissingSchema() throws Exception {
+
+        String xsdURL = new File(temporaryFolder.getRoot(), "missing.xsd").toURI().toURL().toString();
+        new XMLSchemaCache(10, 60000, 2).validate(xsdURL, source("<order/>"));
+    }
+
+    private File writeSchema(String elementName) throws IOException {
+
+        File xsd = temporaryFolder.newFile();
+        Files.write(xsd.toPath(), String.format(SCHEMA, elementName).getBytes(StandardCharsets.UTF_8));
+        return xsd;
+    }
+
+    private StreamSource source(String xml) {
+
+        return new StreamSource(new StringReader(xml));
+    }
+}
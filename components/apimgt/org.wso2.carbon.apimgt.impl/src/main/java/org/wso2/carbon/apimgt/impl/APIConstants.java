@@ -2443,6 +2443,9 @@ public final class APIConstants {
         public static final String CERTIFICATE_TYPE_JWKS_ENDPOINT = "JWKS";
         public static final String CERTIFICATE_TYPE_PEM_FILE = "PEM";
         public static final String EVENT_PUBLISHER_CONFIGURATIONS = "EventPublisherConfiguration";
+        public static final String EVENT_PUBLISHER_ASYNC_PUBLISHING = "AsyncPublishing";
+        public static final String EVENT_PUBLISHER_ASYNC_QUEUE_SIZE = "QueueSize";
+        public static final String EVENT_PUBLISHER_ASYNC_BATCH_SIZE = "BatchSize";
         public static final String KEY_MANAGER_TYPE_HEADER = "X-WSO2-KEY-MANAGER";
         public static final String ACCESS_TOKEN = "accessToken";
         public static final String AUTH_CODE = "authCode";
@@ -1755,6 +1755,28 @@ public class APIManagerConfiguration {
                 if (eventTypeElement != null) {
                     eventHubPublisherConfiguration.setType(eventTypeElement.getText().trim());
                 }
+                OMElement asyncPublishingElement = eventPublisherElement.getFirstChildWithName(
+                        new QName(APIConstants.KeyManager.EVENT_PUBLISHER_ASYNC_PUBLISHING));
+                if (asyncPublishingElement != null) {
+                    OMElement asyncEnableElement =
+                            asyncPublishingElement.getFirstChildWithName(new QName(APIConstants.KeyManager.ENABLE));
+                    if (asyncEnableElement != null) {
+                        eventHubPublisherConfiguration
+                                .setAsyncPublishingEnabled(Boolean.parseBoolean(asyncEnableElement.getText().trim()));
+                    }
+                    OMElement queueSizeElement = asyncPublishingElement.getFirstChildWithName(
+                            new QName(APIConstants.KeyManager.EVENT_PUBLISHER_ASYNC_QUEUE_SIZE));
+                    if (queueSizeElement != null) {
+                        eventHubPublisherConfiguration
+                                .setAsyncQueueSize(Integer.parseInt(queueSizeElement.getText().trim()));
+                    }
+                    OMElement batchSizeElement = asyncPublishingElement.getFirstChildWithName(
+                            new QName(APIConstants.KeyManager.EVENT_PUBLISHER_ASYNC_BATCH_SIZE));
+                    if (batchSizeElement != null) {
+                        eventHubPublisherConfiguration
+                                .setAsyncBatchSize(Integer.parseInt(batchSizeElement.getText().trim()));
+                    }
+                }
                 eventHubConfigurationDto.setEventHubPublisherConfiguration(eventHubPublisherConfiguration);
             }
         }
@@ -504,7 +504,8 @@ class APIProviderImpl extends AbstractAPIManager implements APIProvider {
     public List<SubscribedAPI> getAPIProductUsageByAPIProductId(APIProductIdentifier apiProductId) throws APIManagementException {
         APIProductIdentifier apiIdEmailReplaced = new APIProductIdentifier(APIUtil.replaceEmailDomain(apiProductId.getProviderName()),
                 apiProductId.getName(), apiProductId.getVersion());
-        UserApplicationAPIUsage[] allApiProductResult = apiMgtDAO.getAllAPIProductUsageByProvider(apiProductId.getProviderName());
+        UserApplicationAPIUsage[] allApiProductResult = apiMgtDAO.getAllAPIProductUsageByProviderAndProductId(
+                apiProductId.getProviderName(), apiProductId);
         List<SubscribedAPI> subscribedAPIs = new ArrayList<>();
         for (UserApplicationAPIUsage usage : allApiProductResult) {
             for (SubscribedAPI apiSubscription : usage.getApiSubscriptions()) {
@@ -520,6 +521,18 @@ class APIProviderImpl extends AbstractAPIManager implements APIProvider {
         return subscribedAPIs;
     }
 
+    /**
+     * Returns the number of subscriptions of an API or API Product, without loading the subscriptions
+     *
+     * @param identifier API or API Product identifier
+     * @return number of subscriptions of the API or API Product
+     * @throws APIManagementException If failed to count the subscriptions
+     */
+    @Override
+    public int getAPIUsageCount(Identifier identifier) throws APIManagementException {
+        return apiMgtDAO.getAPIUsageCount(identifier);
+    }
+
     /**
      * Shows how a given consumer uses the given API.
      *
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.caching;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Buffers the keys to be invalidated from a cache for a short window, so that the keys of the invalidation events
+ * which arrive within the window are de-duplicated and invalidated together. A key is invalidated at most one window
+ * after it is submitted, which bounds how long a stale entry can be served.
+ * <p>
+ * The window is configured in milliseconds with the system property 'cacheInvalidationCoalescingWindow'. Keys are
+ * invalidated synchronously when the window is zero.
+ *
+ * @param <K> type of the keys
+ */
+public class CacheInvalidationCoalescer<K> {
+
+    public static final String COALESCING_WINDOW_PROPERTY = "cacheInvalidationCoalescingWindow";
+    private static final long DEFAULT_COALESCING_WINDOW_MILLIS = 100;
+    private static final Log log = LogFactory.getLog(CacheInvalidationCoalescer.class);
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CacheInvalidationCoalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long windowMillis;
+    private final Consumer<Set<K>> invalidator;
+    private Set<K> pendingKeys = new LinkedHashSet<>();
+    private boolean flushScheduled;
+
+    public CacheInvalidationCoalescer(Consumer<Set<K>> invalidator) {
+
+        this(Long.getLong(COALESCING_WINDOW_PROPERTY, DEFAULT_COALESCING_WINDOW_MILLIS), invalidator);
+    }
+
+    public CacheInvalidationCoalescer(long windowMillis, Consumer<Set<K>> invalidator) {
+
+        this.windowMillis = Math.max(0, windowMillis);
+        this.invalidator = invalidator;
+    }
+
+    /**
+     * Submits the given keys to be invalidated within the window.
+     *
+     * @param keys keys to be invalidated
+     */
+    public void invalidate(Collection<K> keys) {
+
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        if (windowMillis == 0) {
+            invalidator.accept(new LinkedHashSet<>(keys));
+            return;
+        }
+        synchronized (this) {
+            pendingKeys.addAll(keys);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the keys submitted so far.
+     */
+    public void flush() {
+
+        Set<K> keys;
+        synchronized (this) {
+            keys = pendingKeys;
+            pendingKeys = new LinkedHashSet<>();
+            flushScheduled = false;
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Invalidating " + keys.size() + " coalesced cache key(s)");
+        }
+        try {
+            invalidator.accept(keys);
+        } catch (RuntimeException e) {
+            log.error("Error while invalidating " + keys.size() + " cache key(s)", e);
+        }
+    }
+}
@@ -31,8 +31,11 @@ import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
+import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,6 +48,23 @@ import javax.cache.Caching;
 public class CacheInvalidationServiceImpl implements CacheInvalidationService {
 
     private static final Log log = LogFactory.getLog(CacheInvalidationServiceImpl.class);
+    private static final CacheInvalidationServiceImpl instance = new CacheInvalidationServiceImpl();
+    private final CacheInvalidationCoalescer<Map.Entry<String, String>> resourceCacheInvalidationCoalescer =
+            new CacheInvalidationCoalescer<>(this::removeResourceCacheKeys);
+    private final CacheInvalidationCoalescer<String> usernameCacheInvalidationCoalescer =
+            new CacheInvalidationCoalescer<>(this::removeCachedUsernames);
+    private final CacheInvalidationCoalescer<String> tokenCacheInvalidationCoalescer =
+            new CacheInvalidationCoalescer<>(this::removeCachedTokens);
+
+    /**
+     * Returns the shared instance, so that the invalidations of all its callers are coalesced together.
+     *
+     * @return shared cache invalidation service
+     */
+    public static CacheInvalidationServiceImpl getInstance() {
+
+        return instance;
+    }
 
     public void invalidateResourceCache(String apiContext, String apiVersion, String resourceURLContext,
                                         String httpVerb) {
@@ -67,31 +87,57 @@ public class CacheInvalidationServiceImpl implements CacheInvalidationService {
             tenantDomain = temp.substring(0, temp.indexOf('/'));
         }
 
-        try {
-            isTenantFlowStarted = startTenantFlow(tenantDomain);
-            Cache cache = CacheProvider.getResourceCache();
-            if (apiContext.contains(APIConstants.POLICY_CACHE_CONTEXT)) {
+        if (apiContext.contains(APIConstants.POLICY_CACHE_CONTEXT)) {
+            try {
+                isTenantFlowStarted = startTenantFlow(tenantDomain);
                 if (log.isDebugEnabled()) {
                     log.debug("Cleaning cache for policy update for tenant " + tenantDomain);
                 }
-                cache.removeAll();
-            } else {
-                String apiCacheKey = APIUtil.getAPIInfoDTOCacheKey(apiContext, apiVersion);
-                if (cache.containsKey(apiCacheKey)) {
-                    cache.remove(apiCacheKey);
-                }
-                for (ResourceCacheInvalidationDto uriTemplate : uriTemplates) {
-                    String resourceVerbCacheKey = APIUtil.getResourceInfoDTOCacheKey(apiContext, apiVersion,
-                            uriTemplate.getResourceURLContext(), uriTemplate.getHttpVerb());
-                    if (cache.containsKey(resourceVerbCacheKey)) {
-                        cache.remove(resourceVerbCacheKey);
-                    }
+                CacheProvider.getResourceCache().removeAll();
+            } finally {
+                if (isTenantFlowStarted) {
+                    endTenantFlow();
                 }
             }
+        } else {
+            Set<Map.Entry<String, String>> cacheKeys = new LinkedHashSet<>();
+            cacheKeys.add(new AbstractMap.SimpleImmutableEntry<>(tenantDomain,
+                    APIUtil.getAPIInfoDTOCacheKey(apiContext, apiVersion)));
+            for (ResourceCacheInvalidationDto uriTemplate : uriTemplates) {
+                cacheKeys.add(new AbstractMap.SimpleImmutableEntry<>(tenantDomain,
+                        APIUtil.getResourceInfoDTOCacheKey(apiContext, apiVersion,
+                                uriTemplate.getResourceURLContext(), uriTemplate.getHttpVerb())));
+            }
+            resourceCacheInvalidationCoalescer.invalidate(cacheKeys);
+        }
+    }
 
-        } finally {
-            if (isTenantFlowStarted) {
-                endTenantFlow();
+    /**
+     * Removes the given keys from the resource caches of their tenants.
+     *
+     * @param cacheKeys pairs of tenant domain and resource cache key
+     */
+    private void removeResourceCacheKeys(Set<Map.Entry<String, String>> cacheKeys) {
+
+        Map<String, Set<String>> tenantCacheKeys = new HashMap<>();
+        for (Map.Entry<String, String> cacheKey : cacheKeys) {
+            tenantCacheKeys.computeIfAbsent(cacheKey.getKey(), tenantDomain -> new HashSet<>())
+                    .add(cacheKey.getValue());
+        }
+        for (Map.Entry<String, Set<String>> tenantEntry : tenantCacheKeys.entrySet()) {
+            boolean isTenantFlowStarted = false;
+            try {
+                isTenantFlowStarted = startTenantFlow(tenantEntry.getKey());
+                Cache cache = CacheProvider.getResourceCache();
+                for (String cacheKey : tenantEntry.getValue()) {
+                    if (cache.containsKey(cacheKey)) {
+                        cache.remove(cacheKey);
+                    }
+                }
+            } finally {
+                if (isTenantFlowStarted) {
+                    endTenantFlow();
+                }
             }
         }
     }
@@ -103,6 +149,11 @@ public class CacheInvalidationServiceImpl implements CacheInvalidationService {
             log.debug("No username received to invalidate Gateway Username Cache.");
             return;
         }
+        usernameCacheInvalidationCoalescer.invalidate(Arrays.asList(usernameList));
+    }
+
+    private void removeCachedUsernames(Set<String> usernameList) {
+
         Map<String, Set<String>> tenantDomainMap = new HashMap<>();
         for (String username : usernameList) {
             String tenantDomain = MultitenantUtils.getTenantDomain(username);
@@ -147,6 +198,11 @@ public class CacheInvalidationServiceImpl implements CacheInvalidationService {
             log.debug("No access tokens received to invalidate Gateway Token Cache.");
             return;
         }
+        tokenCacheInvalidationCoalescer.invalidate(Arrays.asList(accessTokens));
+    }
+
+    private void removeCachedTokens(Set<String> accessTokens) {
+
         Cache gatewayCache;
         boolean isSuperTenantFlowStarted = false;
         Map<String, String> cachedObjects = new HashMap<String, String>();
@@ -240,28 +296,15 @@ public class CacheInvalidationServiceImpl implements CacheInvalidationService {
     public void invalidateResourceCache(String context, String version, String organization,
                                         List<URLMapping> urlMappings) {
 
-        boolean isTenantFlowStarted = false;
-        try {
-            isTenantFlowStarted = startTenantFlow(organization);
-            Cache cache = CacheProvider.getResourceCache();
-            String apiCacheKey = APIUtil.getAPIInfoDTOCacheKey(context, version);
-            if (cache.containsKey(apiCacheKey)) {
-                cache.remove(apiCacheKey);
-            }
-            for (URLMapping uriTemplate : urlMappings) {
-                String resourceVerbCacheKey =
-                        APIUtil.getResourceInfoDTOCacheKey(context, version, uriTemplate.getUrlPattern(),
-                                uriTemplate.getHttpMethod());
-                if (cache.containsKey(resourceVerbCacheKey)) {
-                    cache.remove(resourceVerbCacheKey);
-                }
-            }
-
-        } finally {
-            if (isTenantFlowStarted) {
-                endTenantFlow();
-            }
+        Set<Map.Entry<String, String>> cacheKeys = new LinkedHashSet<>();
+        cacheKeys.add(new AbstractMap.SimpleImmutableEntry<>(organization,
+                APIUtil.getAPIInfoDTOCacheKey(context, version)));
+        for (URLMapping uriTemplate : urlMappings) {
+            cacheKeys.add(new AbstractMap.SimpleImmutableEntry<>(organization,
+                    APIUtil.getResourceInfoDTOCacheKey(context, version, uriTemplate.getUrlPattern(),
+                            uriTemplate.getHttpMethod())));
         }
+        resourceCacheInvalidationCoalescer.invalidate(cacheKeys);
     }
 
     protected void endTenantFlow() {
@@ -158,6 +158,7 @@ import java.util.regex.Pattern;
 public class ApiMgtDAO {
 
     private static final Log log = LogFactory.getLog(ApiMgtDAO.class);
+    private static final int API_USAGE_BATCH_SIZE = 1000;
     private static ApiMgtDAO INSTANCE = null;
     private final Object scopeMutex = new Object();
     private boolean forceCaseInsensitiveComparisons = false;
@@ -1548,40 +1549,22 @@ public class ApiMgtDAO {
             throws APIManagementException {
 
         Set<SubscribedAPI> subscribedAPIs = new LinkedHashSet<>();
+        if (endSubIndex <= startSubIndex) {
+            return subscribedAPIs;
+        }
         String sqlQuery =
-                appendSubscriptionQueryWhereClause(groupingId, SQLConstants.GET_PAGINATED_SUBSCRIBED_APIS_SQL);
+                appendSubscriptionQueryWhereClause(groupingId, SQLConstants.GET_PAGINATED_SUBSCRIBED_APIS_SQL)
+                        + SQLConstantManagerFactory.getSQlString("GET_SUBSCRIPTIONS_OFFSET_PAGINATION_SQL");
 
         try (Connection connection = APIMgtDBUtil.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sqlQuery);
-             ResultSet result = getSubscriptionResultSet(groupingId, subscriber, applicationName, ps)) {
-            int index = 0;
-            while (result.next()) {
-                if (index >= startSubIndex && index < endSubIndex) {
-                    String apiType = result.getString("TYPE");
-
-                    if (APIConstants.API_PRODUCT.toString().equals(apiType)) {
-                        APIProductIdentifier identifier = new APIProductIdentifier(
-                                APIUtil.replaceEmailDomain(result.getString("API_PROVIDER")),
-                                result.getString("API_NAME"), result.getString("API_VERSION"));
-
-                        SubscribedAPI subscribedAPI = new SubscribedAPI(subscriber, identifier);
-                        initSubscribedAPI(subscribedAPI, subscriber, result);
-                        subscribedAPIs.add(subscribedAPI);
-                    } else {
-                        APIIdentifier identifier = new APIIdentifier(APIUtil.replaceEmailDomain(result.getString
-                                ("API_PROVIDER")), result.getString("API_NAME"),
-                                result.getString("API_VERSION"));
-
-                        SubscribedAPI subscribedAPI = new SubscribedAPI(subscriber, identifier);
-                        initSubscribedAPI(subscribedAPI, subscriber, result);
-                        subscribedAPIs.add(subscribedAPI);
-                    }
-
-                    if (index == endSubIndex - 1) {
-                        break;
-                    }
+             PreparedStatement ps = connection.prepareStatement(sqlQuery)) {
+            int paramIndex = setSubscriptionQueryParams(groupingId, subscriber, applicationName, ps);
+            ps.setInt(++paramIndex, startSubIndex);
+            ps.setInt(++paramIndex, endSubIndex - startSubIndex);
+            try (ResultSet result = ps.executeQuery()) {
+                while (result.next()) {
+                    subscribedAPIs.add(createSubscribedAPI(subscriber, result));
                 }
-                index++;
             }
         } catch (SQLException e) {
             handleException("Failed to get SubscribedAPI of :" + subscriber.getName(), e);
@@ -1590,6 +1573,25 @@ public class ApiMgtDAO {
         return subscribedAPIs;
     }
 
+    private SubscribedAPI createSubscribedAPI(Subscriber subscriber, ResultSet result) throws SQLException {
+
+        SubscribedAPI subscribedAPI;
+        if (APIConstants.API_PRODUCT.toString().equals(result.getString("TYPE"))) {
+            APIProductIdentifier identifier = new APIProductIdentifier(
+                    APIUtil.replaceEmailDomain(result.getString("API_PROVIDER")),
+                    result.getString("API_NAME"), result.getString("API_VERSION"));
+            subscribedAPI = new SubscribedAPI(subscriber, identifier);
+        } else {
+            APIIdentifier identifier = new APIIdentifier(APIUtil.replaceEmailDomain(result.getString
+                    ("API_PROVIDER")), result.getString("API_NAME"),
+                    result.getString("API_VERSION"));
+            subscribedAPI = new SubscribedAPI(subscriber, identifier);
+        }
+        subscribedAPI.setSubscriptionId(result.getInt("SUBSCRIPTION_ID"));
+        initSubscribedAPI(subscribedAPI, subscriber, result);
+        return subscribedAPI;
+    }
+
     private String appendSubscriptionQueryWhereClause(final String groupingId, String sqlQuery) {
 
         if (groupingId != null && !"null".equals(groupingId) && !groupingId.isEmpty()) {
@@ -1628,8 +1630,8 @@ public class ApiMgtDAO {
         return sqlQuery;
     }
 
-    private ResultSet getSubscriptionResultSet(String groupingId, Subscriber subscriber, String applicationName,
-                                               PreparedStatement statement) throws SQLException {
+    private int setSubscriptionQueryParams(String groupingId, Subscriber subscriber, String applicationName,
+                                           PreparedStatement statement) throws SQLException {
 
         int tenantId = APIUtil.getTenantId(subscriber.getName());
         int paramIndex = 0;
@@ -1659,7 +1661,7 @@ public class ApiMgtDAO {
             statement.setString(++paramIndex, subscriber.getName());
         }
 
-        return statement.executeQuery();
+        return paramIndex;
     }
 
     private void initSubscribedAPI(SubscribedAPI subscribedAPI, Subscriber subscriber, ResultSet resultSet)
@@ -1692,6 +1694,9 @@ public class ApiMgtDAO {
             throws APIManagementException {
 
         Set<SubscribedAPI> subscribedAPIs = new LinkedHashSet<SubscribedAPI>();
+        if (endSubIndex <= startSubIndex) {
+            return subscribedAPIs;
+        }
         Connection connection = null;
         PreparedStatement ps = null;
         ResultSet result = null;
@@ -1708,9 +1713,11 @@ public class ApiMgtDAO {
                 "FROM AM_APPLICATION_GROUP_MAPPING  WHERE GROUP_ID IN ($params) AND TENANT = ?))  OR  ( LOWER(SUB" +
                 ".USER_ID) = LOWER" +
                 "(?) ))";
+        String paginationClause = SQLConstantManagerFactory.getSQlString("GET_SUBSCRIPTIONS_OFFSET_PAGINATION_SQL");
         try {
             connection = APIMgtDBUtil.getConnection();
             int tenantId = APIUtil.getTenantId(subscriber.getName());
+            int paramIndex;
             if (groupingId != null && !"null".equals(groupingId) && !groupingId.isEmpty()) {
                 if (multiGroupAppSharingEnabled) {
                     String tenantDomain = MultitenantUtils.getTenantDomain(subscriber.getName());
@@ -1719,12 +1726,13 @@ public class ApiMgtDAO {
                     } else {
                         sqlQuery += whereClauseWithMultiGroupId;
                     }
+                    sqlQuery += paginationClause;
                     String groupIDArray[] = groupingId.split(",");
                     ps = fillQueryParams(connection, sqlQuery, groupIDArray, 3);
                     ps.setInt(1, tenantId);
                     ps.setInt(2, applicationId);
                     // dynamically seeting the parameter index
-                    int paramIndex = groupIDArray.length + 2;
+                    paramIndex = groupIDArray.length + 2;
                     ps.setString(++paramIndex, tenantDomain);
                     ps.setString(++paramIndex, subscriber.getName());
                 } else {
@@ -1733,11 +1741,13 @@ public class ApiMgtDAO {
                     } else {
                         sqlQuery += whereClauseWithGroupId;
                     }
+                    sqlQuery += paginationClause;
                     ps = connection.prepareStatement(sqlQuery);
                     ps.setInt(1, tenantId);
                     ps.setInt(2, applicationId);
                     ps.setString(3, groupingId);
                     ps.setString(4, subscriber.getName());
+                    paramIndex = 4;
                 }
             } else {
                 if (forceCaseInsensitiveComparisons) {
@@ -1745,29 +1755,27 @@ public class ApiMgtDAO {
                 } else {
                     sqlQuery += whereClause;
                 }
+                sqlQuery += paginationClause;
                 ps = connection.prepareStatement(sqlQuery);
                 ps.setInt(1, tenantId);
                 ps.setInt(2, applicationId);
                 ps.setString(3, subscriber.getName());
+                paramIndex = 3;
             }
+            ps.setInt(++paramIndex, startSubIndex);
+            ps.setInt(++paramIndex, endSubIndex - startSubIndex);
             result = ps.executeQuery();
-            int index = 0;
             while (result.next()) {
-                if (index >= startSubIndex && index < endSubIndex) {
-                    APIIdentifier apiIdentifier = new APIIdentifier(APIUtil.replaceEmailDomain(result.getString
-                            ("API_PROVIDER")), result.getString("API_NAME"), result.getString("API_VERSION"));
-                    SubscribedAPI subscribedAPI = new SubscribedAPI(subscriber, apiIdentifier);
-                    subscribedAPI.setSubStatus(result.getString("SUB_STATUS"));
-                    subscribedAPI.setSubCreatedStatus(result.getString("SUBS_CREATE_STATE"));
-                    subscribedAPI.setTier(new Tier(result.getString(APIConstants.SUBSCRIPTION_FIELD_TIER_ID)));
-                    Application application = new Application(result.getString("APP_NAME"), subscriber);
-                    subscribedAPI.setApplication(application);
-                    subscribedAPIs.add(subscribedAPI);
-                    if (index == endSubIndex - 1) {
-                        break;
-                    }
-                }
-                index++;
+                APIIdentifier apiIdentifier = new APIIdentifier(APIUtil.replaceEmailDomain(result.getString
+                        ("API_PROVIDER")), result.getString("API_NAME"), result.getString("API_VERSION"));
+                SubscribedAPI subscribedAPI = new SubscribedAPI(subscriber, apiIdentifier);
+                subscribedAPI.setSubscriptionId(result.getInt("SUBSCRIPTION_ID"));
+                subscribedAPI.setSubStatus(result.getString("SUB_STATUS"));
+                subscribedAPI.setSubCreatedStatus(result.getString("SUBS_CREATE_STATE"));
+                subscribedAPI.setTier(new Tier(result.getString(APIConstants.SUBSCRIPTION_FIELD_TIER_ID)));
+                Application application = new Application(result.getString("APP_NAME"), subscriber);
+                subscribedAPI.setApplication(application);
+                subscribedAPIs.add(subscribedAPI);
             }
         } catch (SQLException e) {
             handleException("Failed to get SubscribedAPI of :" + subscriber.getName(), e);
@@ -2771,52 +2779,11 @@ public class ApiMgtDAO {
      */
     public UserApplicationAPIUsage[] getAllAPIUsageByProvider(String providerName) throws APIManagementException {
 
-        Connection connection = null;
-        PreparedStatement ps = null;
-        ResultSet result = null;
-
         try {
-            String sqlQuery = SQLConstants.GET_APP_API_USAGE_BY_PROVIDER_SQL;
-            connection = APIMgtDBUtil.getConnection();
-
-            ps = connection.prepareStatement(sqlQuery);
-            ps.setString(1, APIUtil.replaceEmailDomainBack(providerName));
-            result = ps.executeQuery();
-
-            Map<String, UserApplicationAPIUsage> userApplicationUsages = new TreeMap<String, UserApplicationAPIUsage>();
-            while (result.next()) {
-                int subId = result.getInt("SUBSCRIPTION_ID");
-                String userId = result.getString("USER_ID");
-                String application = result.getString("APPNAME");
-                int appId = result.getInt("APPLICATION_ID");
-                String subStatus = result.getString("SUB_STATUS");
-                String subsCreateState = result.getString("SUBS_CREATE_STATE");
-                String key = userId + "::" + application;
-                UserApplicationAPIUsage usage = userApplicationUsages.get(key);
-                if (usage == null) {
-                    usage = new UserApplicationAPIUsage();
-                    usage.setUserId(userId);
-                    usage.setApplicationName(application);
-                    usage.setAppId(appId);
-                    userApplicationUsages.put(key, usage);
-                }
-                APIIdentifier apiId = new APIIdentifier(result.getString("API_PROVIDER"), result.getString
-                        ("API_NAME"), result.getString("API_VERSION"));
-                SubscribedAPI apiSubscription = new SubscribedAPI(new Subscriber(userId), apiId);
-                apiSubscription.setSubStatus(subStatus);
-                apiSubscription.setSubCreatedStatus(subsCreateState);
-                apiSubscription.setUUID(result.getString("SUB_UUID"));
-                apiSubscription.setTier(new Tier(result.getString("SUB_TIER_ID")));
-                Application applicationObj = new Application(result.getString("APP_UUID"));
-                apiSubscription.setApplication(applicationObj);
-                usage.addApiSubscriptions(apiSubscription);
-            }
-            return userApplicationUsages.values().toArray(new UserApplicationAPIUsage[userApplicationUsages.size()]);
+            return getAPIUsagesInBatches(providerName, null, false);
         } catch (SQLException e) {
             handleException("Failed to find API Usage for :" + providerName, e);
             return null;
-        } finally {
-            APIMgtDBUtil.closeAllConnections(ps, connection, result);
         }
     }
 
@@ -2830,54 +2797,11 @@ public class ApiMgtDAO {
     public UserApplicationAPIUsage[] getAllAPIUsageByProviderAndApiId(String providerName, APIIdentifier identifier)
             throws APIManagementException {
 
-        Connection connection = null;
-        PreparedStatement ps = null;
-        ResultSet result = null;
-
         try {
-            String sqlQuery = SQLConstants.GET_APP_API_USAGE_BY_PROVIDER_AND_ID_SQL;
-            connection = APIMgtDBUtil.getConnection();
-
-            ps = connection.prepareStatement(sqlQuery);
-            ps.setString(1, APIUtil.replaceEmailDomainBack(providerName));
-            ps.setString(2, identifier.getApiName());
-            ps.setString(3, identifier.getVersion());
-            result = ps.executeQuery();
-
-            Map<String, UserApplicationAPIUsage> userApplicationUsages = new TreeMap<String, UserApplicationAPIUsage>();
-            while (result.next()) {
-                int subId = result.getInt("SUBSCRIPTION_ID");
-                String userId = result.getString("USER_ID");
-                String application = result.getString("APPNAME");
-                int appId = result.getInt("APPLICATION_ID");
-                String subStatus = result.getString("SUB_STATUS");
-                String subsCreateState = result.getString("SUBS_CREATE_STATE");
-                String key = userId + "::" + application;
-                UserApplicationAPIUsage usage = userApplicationUsages.get(key);
-                if (usage == null) {
-                    usage = new UserApplicationAPIUsage();
-                    usage.setUserId(userId);
-                    usage.setApplicationName(application);
-                    usage.setAppId(appId);
-                    userApplicationUsages.put(key, usage);
-                }
-                APIIdentifier apiId = new APIIdentifier(result.getString("API_PROVIDER"), result.getString
-                        ("API_NAME"), result.getString("API_VERSION"));
-                SubscribedAPI apiSubscription = new SubscribedAPI(new Subscriber(userId), apiId);
-                apiSubscription.setSubStatus(subStatus);
-                apiSubscription.setSubCreatedStatus(subsCreateState);
-                apiSubscription.setUUID(result.getString("SUB_UUID"));
-                apiSubscription.setTier(new Tier(result.getString("SUB_TIER_ID")));
-                Application applicationObj = new Application(result.getString("APP_UUID"));
-                apiSubscription.setApplication(applicationObj);
-                usage.addApiSubscriptions(apiSubscription);
-            }
-            return userApplicationUsages.values().toArray(new UserApplicationAPIUsage[userApplicationUsages.size()]);
+            return getAPIUsagesInBatches(providerName, identifier, false);
         } catch (SQLException e) {
             handleException("Failed to find API Usage for :" + providerName, e);
             return null;
-        } finally {
-            APIMgtDBUtil.closeAllConnections(ps, connection, result);
         }
     }
 
@@ -2889,48 +2813,134 @@ public class ApiMgtDAO {
      */
     public UserApplicationAPIUsage[] getAllAPIProductUsageByProvider(String providerName) throws APIManagementException {
 
+        try {
+            return getAPIUsagesInBatches(providerName, null, true);
+        } catch (SQLException e) {
+            handleException("Failed to find API Product Usage for :" + providerName, e);
+        }
+
+        return new UserApplicationAPIUsage[]{};
+    }
+
+    /**
+     * @param providerName Name of the provider
+     * @param identifier   APIProductIdentifier which contains API Product name and version
+     * @return UserApplicationAPIUsage of given provider
+     * @throws org.wso2.carbon.apimgt.api.APIManagementException if failed to get
+     *                                                           UserApplicationAPIUsage for given provider
+     */
+    public UserApplicationAPIUsage[] getAllAPIProductUsageByProviderAndProductId(String providerName,
+                                                                                  APIProductIdentifier identifier)
+            throws APIManagementException {
+
+        try {
+            return getAPIUsagesInBatches(providerName, identifier, true);
+        } catch (SQLException e) {
+            handleException("Failed to find API Product Usage for :" + providerName, e);
+        }
+
+        return new UserApplicationAPIUsage[]{};
+    }
+
+    /**
+     * Loads the subscriptions of the APIs of a provider, grouped by the subscribed user and application. The
+     * subscriptions are read in batches of {@link #API_USAGE_BATCH_SIZE} ordered by the subscription ID, so that the
+     * result set of a provider with a large number of subscriptions is not held open and buffered at once.
+     *
+     * @param providerName Name of the provider
+     * @param identifier   identifier of the API to filter the subscriptions, or null to load all the APIs
+     * @param apiProducts  whether the subscribed APIs are API Products
+     * @return UserApplicationAPIUsage of given provider, ordered by the user and application name
+     * @throws SQLException if failed to read the subscriptions
+     */
+    private UserApplicationAPIUsage[] getAPIUsagesInBatches(String providerName, Identifier identifier,
+                                                            boolean apiProducts) throws SQLException {
+
+        String sqlQuery = (identifier == null ? SQLConstants.GET_APP_API_USAGE_BY_PROVIDER_BATCH_SQL :
+                SQLConstants.GET_APP_API_USAGE_BY_PROVIDER_AND_ID_BATCH_SQL) +
+                SQLConstantManagerFactory.getSQlString("GET_SUBSCRIPTIONS_KEYSET_PAGINATION_SQL");
+        Map<String, UserApplicationAPIUsage> userApplicationUsages = new TreeMap<String, UserApplicationAPIUsage>();
+        try (Connection connection = APIMgtDBUtil.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sqlQuery)) {
+            int lastSubscriptionId = 0;
+            int batchCount;
+            do {
+                int paramIndex = 0;
+                ps.setString(++paramIndex, APIUtil.replaceEmailDomainBack(providerName));
+                if (identifier != null) {
+                    ps.setString(++paramIndex, identifier.getName());
+                    ps.setString(++paramIndex, identifier.getVersion());
+                }
+                ps.setInt(++paramIndex, lastSubscriptionId);
+                ps.setInt(++paramIndex, API_USAGE_BATCH_SIZE);
+                batchCount = 0;
+                try (ResultSet result = ps.executeQuery()) {
+                    while (result.next()) {
+                        lastSubscriptionId = result.getInt("SUBSCRIPTION_ID");
+                        batchCount++;
+                        addAPIUsage(userApplicationUsages, result, apiProducts);
+                    }
+                }
+            } while (batchCount == API_USAGE_BATCH_SIZE);
+        }
+        return userApplicationUsages.values().toArray(new UserApplicationAPIUsage[userApplicationUsages.size()]);
+    }
+
+    private void addAPIUsage(Map<String, UserApplicationAPIUsage> userApplicationUsages, ResultSet result,
+                             boolean apiProducts) throws SQLException {
+
+        String userId = result.getString("USER_ID");
+        String application = result.getString("APPNAME");
+        String key = userId + "::" + application;
+        UserApplicationAPIUsage usage = userApplicationUsages.get(key);
+        if (usage == null) {
+            usage = new UserApplicationAPIUsage();
+            usage.setUserId(userId);
+            usage.setApplicationName(application);
+            usage.setAppId(result.getInt("APPLICATION_ID"));
+            userApplicationUsages.put(key, usage);
+        }
+        SubscribedAPI apiSubscription;
+        if (apiProducts) {
+            APIProductIdentifier apiProductId = new APIProductIdentifier(result.getString("API_PROVIDER"),
+                    result.getString("API_NAME"), result.getString("API_VERSION"));
+            apiSubscription = new SubscribedAPI(new Subscriber(userId), apiProductId);
+        } else {
+            APIIdentifier apiId = new APIIdentifier(result.getString("API_PROVIDER"), result.getString("API_NAME"),
+                    result.getString("API_VERSION"));
+            apiSubscription = new SubscribedAPI(new Subscriber(userId), apiId);
+        }
+        apiSubscription.setSubStatus(result.getString("SUB_STATUS"));
+        apiSubscription.setSubCreatedStatus(result.getString("SUBS_CREATE_STATE"));
+        apiSubscription.setUUID(result.getString("SUB_UUID"));
+        apiSubscription.setTier(new Tier(result.getString("SUB_TIER_ID")));
+        apiSubscription.setApplication(new Application(result.getString("APP_UUID")));
+        usage.addApiSubscriptions(apiSubscription);
+    }
+
+    /**
+     * Returns the number of subscriptions of an API or API Product, which are not rejected.
+     *
+     * @param identifier Identifier of the API or API Product
+     * @return number of subscriptions of the API or API Product
+     * @throws APIManagementException if failed to count the subscriptions
+     */
+    public int getAPIUsageCount(Identifier identifier) throws APIManagementException {
+
         try (Connection connection = APIMgtDBUtil.getConnection();
-             PreparedStatement ps =
-                     connection.prepareStatement(SQLConstants.GET_APP_API_USAGE_BY_PROVIDER_SQL)) {
-            ps.setString(1, APIUtil.replaceEmailDomainBack(providerName));
+             PreparedStatement ps = connection.prepareStatement(SQLConstants.GET_API_USAGE_COUNT_SQL)) {
+            ps.setString(1, APIUtil.replaceEmailDomainBack(identifier.getProviderName()));
+            ps.setString(2, identifier.getName());
+            ps.setString(3, identifier.getVersion());
             try (ResultSet result = ps.executeQuery()) {
-                Map<String, UserApplicationAPIUsage> userApplicationUsages = new TreeMap<String,
-                        UserApplicationAPIUsage>();
-                while (result.next()) {
-                    int subId = result.getInt("SUBSCRIPTION_ID");
-                    String userId = result.getString("USER_ID");
-                    String application = result.getString("APPNAME");
-                    int appId = result.getInt("APPLICATION_ID");
-                    String subStatus = result.getString("SUB_STATUS");
-                    String subsCreateState = result.getString("SUBS_CREATE_STATE");
-                    String key = userId + "::" + application;
-                    UserApplicationAPIUsage usage = userApplicationUsages.get(key);
-                    if (usage == null) {
-                        usage = new UserApplicationAPIUsage();
-                        usage.setUserId(userId);
-                        usage.setApplicationName(application);
-                        usage.setAppId(appId);
-                        userApplicationUsages.put(key, usage);
-                    }
-                    APIProductIdentifier apiProductId = new APIProductIdentifier(result.getString("API_PROVIDER"),
-                            result.getString
-                                    ("API_NAME"), result.getString("API_VERSION"));
-                    SubscribedAPI apiSubscription = new SubscribedAPI(new Subscriber(userId), apiProductId);
-                    apiSubscription.setSubStatus(subStatus);
-                    apiSubscription.setSubCreatedStatus(subsCreateState);
-                    apiSubscription.setUUID(result.getString("SUB_UUID"));
-                    apiSubscription.setTier(new Tier(result.getString("SUB_TIER_ID")));
-                    Application applicationObj = new Application(result.getString("APP_UUID"));
-                    apiSubscription.setApplication(applicationObj);
-                    usage.addApiSubscriptions(apiSubscription);
+                if (result.next()) {
+                    return result.getInt("SUB_COUNT");
                 }
-                return userApplicationUsages.values().toArray(new UserApplicationAPIUsage[userApplicationUsages.size()]);
             }
         } catch (SQLException e) {
-            handleException("Failed to find API Product Usage for :" + providerName, e);
+            handleException("Failed to count the subscriptions of :" + identifier, e);
         }
-
-        return new UserApplicationAPIUsage[]{};
+        return 0;
     }
 
     /**
@@ -287,6 +287,11 @@ public class SQLConstantOracle extends SQLConstants{
                 "AND PARENT_COMMENT_ID IS NULL " +
                 "ORDER BY AM_API_COMMENTS.CREATED_TIME DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
 
+    public static final String GET_SUBSCRIPTIONS_OFFSET_PAGINATION_SQL =
+            " ORDER BY SUBS.SUBSCRIPTION_ID ASC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+
+    public static final String GET_SUBSCRIPTIONS_KEYSET_PAGINATION_SQL =
+            " AND SUBS.SUBSCRIPTION_ID > ? ORDER BY SUBS.SUBSCRIPTION_ID ASC FETCH FIRST ? ROWS ONLY";
 }
 
 
@@ -267,4 +267,10 @@ public class SQLConstantPostgreSQL extends SQLConstants{
                 "AND API.API_ID = AM_API_COMMENTS.API_ID " +
                 "AND PARENT_COMMENT_ID IS NULL " +
                 "ORDER BY AM_API_COMMENTS.CREATED_TIME DESC OFFSET ? LIMIT ?";
+
+    public static final String GET_SUBSCRIPTIONS_OFFSET_PAGINATION_SQL =
+            " ORDER BY SUBS.SUBSCRIPTION_ID ASC OFFSET ? LIMIT ?";
+
+    public static final String GET_SUBSCRIPTIONS_KEYSET_PAGINATION_SQL =
+            " AND SUBS.SUBSCRIPTION_ID > ? ORDER BY SUBS.SUBSCRIPTION_ID ASC LIMIT ?";
 }
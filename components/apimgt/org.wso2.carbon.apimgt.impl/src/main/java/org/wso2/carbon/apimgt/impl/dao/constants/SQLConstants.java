@@ -822,12 +822,11 @@ public class SQLConstants {
                     "   AND API.API_ID = SUBS.API_ID" +
                     "   AND SUBS.SUBS_CREATE_STATE = '" + APIConstants.SubscriptionCreatedStatus.SUBSCRIBE + "'";
 
-    public static final String GET_APP_API_USAGE_BY_PROVIDER_SQL =
+    public static final String GET_APP_API_USAGE_BY_PROVIDER_BATCH_SQL =
             " SELECT " +
             "   SUBS.SUBSCRIPTION_ID AS SUBSCRIPTION_ID, " +
             "   SUBS.APPLICATION_ID AS APPLICATION_ID, " +
             "   SUBS.SUB_STATUS AS SUB_STATUS, " +
-            "   SUBS.TIER_ID AS TIER_ID, " +
             "   API.API_PROVIDER AS API_PROVIDER, " +
             "   API.API_NAME AS API_NAME, " +
             "   API.API_VERSION AS API_VERSION, " +
@@ -847,40 +846,25 @@ public class SQLConstants {
             "   AND APP.SUBSCRIBER_ID = SUB.SUBSCRIBER_ID " +
             "   AND API.API_PROVIDER = ? " +
             "   AND API.API_ID = SUBS.API_ID " +
-            "   AND SUBS.SUB_STATUS != '" + APIConstants.SubscriptionStatus.REJECTED + "'" +
-            " ORDER BY " +
-            "   APP.NAME";
+            "   AND SUBS.SUB_STATUS != '" + APIConstants.SubscriptionStatus.REJECTED + "'";
+
+    public static final String GET_APP_API_USAGE_BY_PROVIDER_AND_ID_BATCH_SQL =
+            GET_APP_API_USAGE_BY_PROVIDER_BATCH_SQL +
+            "   AND API.API_NAME = ? " +
+            "   AND API.API_VERSION = ? ";
 
-    public static final String GET_APP_API_USAGE_BY_PROVIDER_AND_ID_SQL =
+    public static final String GET_API_USAGE_COUNT_SQL =
             " SELECT " +
-            "   SUBS.SUBSCRIPTION_ID AS SUBSCRIPTION_ID, " +
-            "   SUBS.APPLICATION_ID AS APPLICATION_ID, " +
-            "   SUBS.SUB_STATUS AS SUB_STATUS, " +
-            "   SUBS.TIER_ID AS TIER_ID, " +
-            "   API.API_PROVIDER AS API_PROVIDER, " +
-            "   API.API_NAME AS API_NAME, " +
-            "   API.API_VERSION AS API_VERSION, " +
-            "   SUB.USER_ID AS USER_ID, " +
-            "   APP.NAME AS APPNAME, " +
-            "   SUBS.UUID AS SUB_UUID, " +
-            "   SUBS.TIER_ID AS SUB_TIER_ID, " +
-            "   APP.UUID AS APP_UUID, " +
-            "   SUBS.SUBS_CREATE_STATE AS SUBS_CREATE_STATE " +
+            "   COUNT(SUBS.SUBSCRIPTION_ID) AS SUB_COUNT " +
             " FROM " +
             "   AM_SUBSCRIPTION SUBS, " +
-            "   AM_APPLICATION APP, " +
-            "   AM_SUBSCRIBER SUB, " +
             "   AM_API API " +
             " WHERE " +
-            "   SUBS.APPLICATION_ID = APP.APPLICATION_ID " +
-            "   AND APP.SUBSCRIBER_ID = SUB.SUBSCRIBER_ID " +
-            "   AND API.API_PROVIDER = ? " +
-            "   AND API.API_ID = SUBS.API_ID " +
+            "   API.API_PROVIDER = ? " +
             "   AND API.API_NAME = ? " +
             "   AND API.API_VERSION = ? " +
-            "   AND SUBS.SUB_STATUS != '" + APIConstants.SubscriptionStatus.REJECTED + "'" +
-            " ORDER BY " +
-            "   APP.NAME";
+            "   AND API.API_ID = SUBS.API_ID " +
+            "   AND SUBS.SUB_STATUS != '" + APIConstants.SubscriptionStatus.REJECTED + "'";
 
     public static final String GET_SUBSCRIPTIONS_OF_API_SQL =
             " SELECT " +
@@ -246,6 +246,11 @@ public class SQLConstantsDB2 extends SQLConstants{
                 "AND PARENT_COMMENT_ID IS NULL " +
                 "ORDER BY AM_API_COMMENTS.CREATED_TIME DESC LIMIT ? , ?";
 
+    public static final String GET_SUBSCRIPTIONS_OFFSET_PAGINATION_SQL =
+            " ORDER BY SUBS.SUBSCRIPTION_ID ASC LIMIT ? , ?";
+
+    public static final String GET_SUBSCRIPTIONS_KEYSET_PAGINATION_SQL =
+            " AND SUBS.SUBSCRIPTION_ID > ? ORDER BY SUBS.SUBSCRIPTION_ID ASC LIMIT ?";
 }
 
 
@@ -291,4 +291,10 @@ public class SQLConstantsH2MySQL extends SQLConstants{
                 "AND API.API_ID = AM_API_COMMENTS.API_ID " +
                 "AND PARENT_COMMENT_ID IS NULL " +
                 "ORDER BY AM_API_COMMENTS.CREATED_TIME DESC LIMIT ?, ?";
+
+    public static final String GET_SUBSCRIPTIONS_OFFSET_PAGINATION_SQL =
+            " ORDER BY SUBS.SUBSCRIPTION_ID ASC LIMIT ?, ?";
+
+    public static final String GET_SUBSCRIPTIONS_KEYSET_PAGINATION_SQL =
+            " AND SUBS.SUBSCRIPTION_ID > ? ORDER BY SUBS.SUBSCRIPTION_ID ASC LIMIT ?";
 }
@@ -289,6 +289,12 @@ public class SQLConstantsMSSQL extends SQLConstants{
                 "AND API.API_ID = AM_API_COMMENTS.API_ID " +
                 "AND PARENT_COMMENT_ID IS NULL " +
                 "ORDER BY AM_API_COMMENTS.CREATED_TIME DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+
+    public static final String GET_SUBSCRIPTIONS_OFFSET_PAGINATION_SQL =
+            " ORDER BY SUBS.SUBSCRIPTION_ID ASC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+
+    public static final String GET_SUBSCRIPTIONS_KEYSET_PAGINATION_SQL =
+            " AND SUBS.SUBSCRIPTION_ID > ? ORDER BY SUBS.SUBSCRIPTION_ID ASC OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
 }
 
 
@@ -6,9 +6,9 @@ import io.apicurio.datamodels.Library;
 import io.apicurio.datamodels.asyncapi.models.AaiDocument;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
@@ -67,17 +67,17 @@ public class AsyncApiParserUtil {
             HttpClient httpClient = APIUtil.getHttpClient(urlObj.getPort(), urlObj.getProtocol());
             HttpGet httpGet = new HttpGet(url);
 
-            HttpResponse response = httpClient.execute(httpGet);
-
-            if (HttpStatus.SC_OK == response.getStatusLine().getStatusCode()) {
-                ObjectMapper yamlReader = new ObjectMapper(new YAMLFactory());
-                Object obj = yamlReader.readValue(urlObj, Object.class);
-                ObjectMapper jsonWriter = new ObjectMapper();
-                String json = jsonWriter.writeValueAsString(obj);
-                validationResponse = validateAsyncAPISpecification(json, returnJSONContent);
-            } else {
-                validationResponse.setValid(false);
-                validationResponse.getErrorItems().add(ExceptionCodes.ASYNCAPI_URL_NO_200);
+            try (CloseableHttpResponse response = (CloseableHttpResponse) httpClient.execute(httpGet)) {
+                if (HttpStatus.SC_OK == response.getStatusLine().getStatusCode()) {
+                    ObjectMapper yamlReader = new ObjectMapper(new YAMLFactory());
+                    Object obj = yamlReader.readValue(urlObj, Object.class);
+                    ObjectMapper jsonWriter = new ObjectMapper();
+                    String json = jsonWriter.writeValueAsString(obj);
+                    validationResponse = validateAsyncAPISpecification(json, returnJSONContent);
+                } else {
+                    validationResponse.setValid(false);
+                    validationResponse.getErrorItems().add(ExceptionCodes.ASYNCAPI_URL_NO_200);
+                }
             }
         } catch (IOException e) {
             ErrorHandler errorHandler = ExceptionCodes.ASYNCAPI_URL_MALFORMED;
@@ -63,9 +63,9 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.util.EntityUtils;
 import org.json.JSONArray;
@@ -917,14 +917,14 @@ public class OASParserUtil {
             HttpClient httpClient = APIUtil.getHttpClient(urlObj.getPort(), urlObj.getProtocol());
             HttpGet httpGet = new HttpGet(url);
 
-            HttpResponse response = httpClient.execute(httpGet);
-
-            if (HttpStatus.SC_OK == response.getStatusLine().getStatusCode()) {
-                String responseStr = EntityUtils.toString(response.getEntity(), "UTF-8");
-                validationResponse = validateAPIDefinition(responseStr, returnJsonContent);
-            } else {
-                validationResponse.setValid(false);
-                validationResponse.getErrorItems().add(ExceptionCodes.OPENAPI_URL_NO_200);
+            try (CloseableHttpResponse response = (CloseableHttpResponse) httpClient.execute(httpGet)) {
+                if (HttpStatus.SC_OK == response.getStatusLine().getStatusCode()) {
+                    String responseStr = EntityUtils.toString(response.getEntity(), "UTF-8");
+                    validationResponse = validateAPIDefinition(responseStr, returnJsonContent);
+                } else {
+                    validationResponse.setValid(false);
+                    validationResponse.getErrorItems().add(ExceptionCodes.OPENAPI_URL_NO_200);
+                }
             }
         } catch (IOException e) {
             ErrorHandler errorHandler = ExceptionCodes.OPENAPI_URL_MALFORMED;
@@ -120,6 +120,9 @@ public class EventHubConfigurationDto {
         private String type = "Binary";
         private String receiverUrlGroup = "tcp://localhost:9611";
         private String authUrlGroup = "ssl://localhost:9711";
+        private boolean asyncPublishingEnabled = false;
+        private int asyncQueueSize = 10000;
+        private int asyncBatchSize = 200;
 
         public String getType() {
 
@@ -150,6 +153,36 @@ public class EventHubConfigurationDto {
 
             this.authUrlGroup = authUrlGroup;
         }
+
+        public boolean isAsyncPublishingEnabled() {
+
+            return asyncPublishingEnabled;
+        }
+
+        public void setAsyncPublishingEnabled(boolean asyncPublishingEnabled) {
+
+            this.asyncPublishingEnabled = asyncPublishingEnabled;
+        }
+
+        public int getAsyncQueueSize() {
+
+            return asyncQueueSize;
+        }
+
+        public void setAsyncQueueSize(int asyncQueueSize) {
+
+            this.asyncQueueSize = asyncQueueSize;
+        }
+
+        public int getAsyncBatchSize() {
+
+            return asyncBatchSize;
+        }
+
+        public void setAsyncBatchSize(int asyncBatchSize) {
+
+            this.asyncBatchSize = asyncBatchSize;
+        }
     }
 
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.impl.dto;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.utils.APIUtil;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Parsed tenant-conf.json of a tenant. The values read on the request paths are resolved once when the snapshot is
+ * built, and a new snapshot with a higher version is built whenever the tenant-conf.json of the tenant changes.
+ */
+public final class TenantConfigSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long version;
+    private final JSONObject config;
+    private final boolean perTenantServiceProviderEnabled;
+    private final boolean defaultApplicationCreationDisabled;
+    private final Boolean anonymousModeEnabled;
+    private final boolean recommendationEnabled;
+    private final JSONObject defaultRoles;
+    private final JSONObject restAPIScopesConfig;
+    private final JSONObject restAPIRoleMappingsConfig;
+    private final Map<String, String> restAPIScopes;
+    private final Map<String, String> restAPIScopesWithoutRoleMappings;
+
+    public TenantConfigSnapshot(JSONObject config, long version) {
+
+        this.version = version;
+        this.config = config;
+        this.perTenantServiceProviderEnabled =
+                getBoolean(config.get(APIConstants.ENABLE_PER_TENANT_SERVICE_PROVIDER_CREATION), false);
+        this.defaultApplicationCreationDisabled =
+                getBoolean(config.get(APIConstants.DISABLE_DEFAULT_APPLICATION_CREATION), false);
+        Object anonymousMode = config.get(APIConstants.API_TENANT_CONF_ENABLE_ANONYMOUS_MODE);
+        this.anonymousModeEnabled = anonymousMode != null ? getBoolean(anonymousMode, false) : null;
+        this.recommendationEnabled =
+                getBoolean(config.get(APIConstants.API_TENANT_CONF_ENABLE_RECOMMENDATION_KEY), false);
+        this.defaultRoles = (JSONObject) config.get(APIConstants.API_TENANT_CONF_DEFAULT_ROLES);
+        this.restAPIScopesConfig = (JSONObject) config.get(APIConstants.REST_API_SCOPES_CONFIG);
+        this.restAPIRoleMappingsConfig = (JSONObject) config.get(APIConstants.REST_API_ROLE_MAPPINGS_CONFIG);
+        if (restAPIScopesConfig != null) {
+            this.restAPIScopes = Collections.unmodifiableMap(
+                    APIUtil.getRESTAPIScopesFromConfig(restAPIScopesConfig, restAPIRoleMappingsConfig));
+            this.restAPIScopesWithoutRoleMappings = Collections.unmodifiableMap(
+                    APIUtil.getRESTAPIScopesFromConfig(restAPIScopesConfig, null));
+        } else {
+            this.restAPIScopes = null;
+            this.restAPIScopesWithoutRoleMappings = null;
+        }
+    }
+
+    /**
+     * Returns the version of the snapshot, which increases whenever the tenant-conf.json of the tenant changes.
+     *
+     * @return version of the snapshot
+     */
+    public long getVersion() {
+
+        return version;
+    }
+
+    /**
+     * Returns the parsed tenant-conf.json. The returned object is a copy, so modifying it does not affect the snapshot
+     * shared by the other readers.
+     *
+     * @return copy of the parsed tenant-conf.json
+     */
+    public JSONObject getConfig() {
+
+        return copy(config);
+    }
+
+    public boolean isPerTenantServiceProviderEnabled() {
+
+        return perTenantServiceProviderEnabled;
+    }
+
+    public boolean isDefaultApplicationCreationDisabled() {
+
+        return defaultApplicationCreationDisabled;
+    }
+
+    /**
+     * Returns whether the anonymous mode of the DevPortal is enabled for the tenant.
+     *
+     * @return whether the anonymous mode is enabled, or null if the tenant does not configure it
+     */
+    public Boolean getAnonymousModeEnabled() {
+
+        return anonymousModeEnabled;
+    }
+
+    public boolean isRecommendationEnabled() {
+
+        return recommendationEnabled;
+    }
+
+    public JSONObject getDefaultRoles() {
+
+        return copy(defaultRoles);
+    }
+
+    public JSONObject getRESTAPIScopesConfig() {
+
+        return copy(restAPIScopesConfig);
+    }
+
+    public JSONObject getRESTAPIRoleMappingsConfig() {
+
+        return copy(restAPIRoleMappingsConfig);
+    }
+
+    /**
+     * Returns the roles of the REST API scopes, with the role mappings of the tenant applied.
+     *
+     * @return unmodifiable map of scope names and comma separated roles, or null if the tenant has no REST API scopes
+     */
+    public Map<String, String> getRESTAPIScopes() {
+
+        return restAPIScopes;
+    }
+
+    /**
+     * Returns the roles of the REST API scopes as defined in the tenant-conf.json, without applying role mappings.
+     *
+     * @return unmodifiable map of scope names and comma separated roles, or null if the tenant has no REST API scopes
+     */
+    public Map<String, String> getRESTAPIScopesWithoutRoleMappings() {
+
+        return restAPIScopesWithoutRoleMappings;
+    }
+
+    private static JSONObject copy(JSONObject jsonObject) {
+
+        if (jsonObject == null) {
+            return null;
+        }
+        JSONObject copy = new JSONObject();
+        for (Object entryObj : jsonObject.entrySet()) {
+            Map.Entry entry = (Map.Entry) entryObj;
+            copy.put(entry.getKey(), copyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+
+        if (value instanceof JSONObject) {
+            return copy((JSONObject) value);
+        }
+        if (value instanceof JSONArray) {
+            JSONArray copy = new JSONArray();
+            for (Object element : (JSONArray) value) {
+                copy.add(copyValue(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private static boolean getBoolean(Object value, boolean defaultValue) {
+
+        if (value == null) {
+            return defaultValue;
+        }
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString());
+    }
+}
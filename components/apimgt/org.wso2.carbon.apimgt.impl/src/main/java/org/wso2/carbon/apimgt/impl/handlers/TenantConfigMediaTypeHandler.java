@@ -17,16 +17,16 @@
 
 package org.wso2.carbon.apimgt.impl.handlers;
 
-import org.wso2.carbon.apimgt.impl.APIConstants;
-import org.wso2.carbon.apimgt.impl.caching.CacheProvider;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.registry.core.jdbc.handlers.Handler;
 import org.wso2.carbon.registry.core.jdbc.handlers.RequestContext;
 
-import javax.cache.Cache;
-import javax.cache.Caching;
-
+/**
+ * Invalidates the cached tenant-conf.json of a tenant when it is updated or deleted. The handler runs before the
+ * registry writes the change, hence a config read concurrently with the write may still be cached until the tenant
+ * config cache entry expires. See {@link org.wso2.carbon.apimgt.impl.utils.TenantConfigSnapshotCache}.
+ */
 public class TenantConfigMediaTypeHandler extends Handler {
 
     public void put(RequestContext requestContext) {
@@ -38,14 +38,7 @@ public class TenantConfigMediaTypeHandler extends Handler {
     }
 
     private void clearConfigCache() {
-        Cache tenantConfigCache = CacheProvider.getTenantConfigCache();
         int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
-        String cacheName = tenantId + "_" + APIConstants.TENANT_CONFIG_CACHE_NAME;
-        if (tenantConfigCache.containsKey(cacheName)) {
-            tenantConfigCache.remove(cacheName);
-        }
-        Caching.getCacheManager(APIConstants.API_MANAGER_CACHE_MANAGER)
-                .getCache(APIConstants.REST_API_SCOPE_CACHE)
-                .put(APIUtil.getTenantDomainFromTenantId(tenantId), null);
+        APIUtil.invalidateTenantConfig(tenantId);
     }
 }
@@ -62,6 +62,7 @@ import org.wso2.carbon.apimgt.impl.keymgt.KeyManagerConfigurationServiceImpl;
 import org.wso2.carbon.apimgt.impl.notifier.ApisNotifier;
 import org.wso2.carbon.apimgt.impl.notifier.ApplicationNotifier;
 import org.wso2.carbon.apimgt.impl.notifier.ApplicationRegistrationNotifier;
+import org.wso2.carbon.apimgt.impl.notifier.AsyncEventHubPublisher;
 import org.wso2.carbon.apimgt.impl.notifier.CertificateNotifier;
 import org.wso2.carbon.apimgt.impl.notifier.DeployAPIInGatewayNotifier;
 import org.wso2.carbon.apimgt.impl.notifier.GoogleAnalyticsNotifier;
@@ -79,6 +80,7 @@ import org.wso2.carbon.apimgt.impl.recommendationmgt.RecommendationEnvironment;
 import org.wso2.carbon.apimgt.impl.utils.APIMgtDBUtil;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.apimgt.impl.utils.GatewayArtifactsMgtDBUtil;
+import org.wso2.carbon.apimgt.impl.utils.HttpClientRegistry;
 import org.wso2.carbon.base.MultitenantConstants;
 import org.wso2.carbon.base.ServerConfiguration;
 import org.wso2.carbon.context.CarbonContext;
@@ -230,6 +232,7 @@ public class APIManagerComponent {
             GatewayArtifactsMgtDBUtil.initialize();
             configureEventPublisherProperties();
             configureNotificationEventPublisher();
+            configureAsyncEventHubPublisher();
             // Load initially available api contexts at the server startup. This Cache is only use by the products other than the api-manager
             /* TODO: Load Config values from apimgt.core*/
             boolean apiManagementEnabled = APIUtil.isAPIManagementEnabled();
@@ -317,8 +320,15 @@ public class APIManagerComponent {
         }
 
         registration.unregister();
+        AsyncEventHubPublisher asyncEventHubPublisher =
+                ServiceReferenceHolder.getInstance().getAsyncEventHubPublisher();
+        if (asyncEventHubPublisher != null) {
+            ServiceReferenceHolder.getInstance().setAsyncEventHubPublisher(null);
+            asyncEventHubPublisher.shutdown();
+        }
         APIManagerFactory.getInstance().clearAll();
         org.wso2.carbon.apimgt.impl.utils.AuthorizationManager.getInstance().destroy();
+        HttpClientRegistry.getInstance().shutdown();
     }
 
     @Reference(
@@ -943,6 +953,35 @@ public class APIManagerComponent {
             log.info("api-manager.xml not loaded. Wso2Event Publisher will not be enabled.");
         }
     }
+
+    /**
+     * Method to enable asynchronous, batched publishing of event hub notifications when configured.
+     */
+    private void configureAsyncEventHubPublisher() {
+
+        if (ServiceReferenceHolder.getInstance().getAPIManagerConfigurationService() == null) {
+            return;
+        }
+        EventHubConfigurationDto eventHubConfigurationDto = ServiceReferenceHolder.getInstance()
+                .getAPIManagerConfigurationService().getAPIManagerConfiguration().getEventHubConfigurationDto();
+        if (eventHubConfigurationDto == null || !eventHubConfigurationDto.isEnabled()
+                || eventHubConfigurationDto.getEventHubPublisherConfiguration() == null) {
+            return;
+        }
+        EventHubConfigurationDto.EventHubPublisherConfiguration eventHubPublisherConfiguration =
+                eventHubConfigurationDto.getEventHubPublisherConfiguration();
+        if (eventHubPublisherConfiguration.isAsyncPublishingEnabled()) {
+            AsyncEventHubPublisher asyncEventHubPublisher =
+                    new AsyncEventHubPublisher(APIUtil::publishEventsToEventHub,
+                            eventHubPublisherConfiguration.getAsyncQueueSize(),
+                            eventHubPublisherConfiguration.getAsyncBatchSize());
+            ServiceReferenceHolder.getInstance().setAsyncEventHubPublisher(asyncEventHubPublisher);
+            log.info("Asynchronous event hub publishing enabled with queue size "
+                    + eventHubPublisherConfiguration.getAsyncQueueSize() + " and batch size "
+                    + eventHubPublisherConfiguration.getAsyncBatchSize());
+        }
+    }
+
     @Reference(
             name = "artifactGenerator.service",
             service = GatewayArtifactGenerator.class,
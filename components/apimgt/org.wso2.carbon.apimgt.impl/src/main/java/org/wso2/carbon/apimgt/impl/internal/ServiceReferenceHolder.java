@@ -23,6 +23,7 @@ import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.ArtifactSaver;
 import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.GatewayArtifactGenerator;
 import org.wso2.carbon.apimgt.impl.importexport.ImportExportAPI;
 import org.wso2.carbon.apimgt.impl.keymgt.KeyManagerConfigurationService;
+import org.wso2.carbon.apimgt.impl.notifier.AsyncEventHubPublisher;
 import org.wso2.carbon.apimgt.impl.notifier.Notifier;
 import org.wso2.carbon.apimgt.impl.recommendationmgt.AccessTokenGenerator;
 import org.wso2.carbon.event.output.adapter.core.OutputEventAdapterService;
@@ -60,6 +61,7 @@ public class ServiceReferenceHolder {
     private Map<String, List<Notifier>> notifiersMap = new HashMap<>();
     private ImportExportAPI importExportService;
     private Map<String, GatewayArtifactGenerator> gatewayArtifactGeneratorMap = new HashMap<>();
+    private AsyncEventHubPublisher asyncEventHubPublisher;
 
     private ServiceReferenceHolder() {
 
@@ -276,4 +278,14 @@ public class ServiceReferenceHolder {
 
         this.listenerTrustStore = listenerTrustStore;
     }
+
+    public AsyncEventHubPublisher getAsyncEventHubPublisher() {
+
+        return asyncEventHubPublisher;
+    }
+
+    public void setAsyncEventHubPublisher(AsyncEventHubPublisher asyncEventHubPublisher) {
+
+        this.asyncEventHubPublisher = asyncEventHubPublisher;
+    }
 }
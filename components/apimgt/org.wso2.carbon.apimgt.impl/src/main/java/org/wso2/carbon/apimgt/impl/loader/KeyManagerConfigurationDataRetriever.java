@@ -82,6 +82,7 @@ public class KeyManagerConfigurationDataRetriever extends TimerTask {
                                 }
                                 retry = false;
                             } else {
+                                EntityUtils.consumeQuietly(httpResponse.getEntity());
                                 retry = true;
                                 retryCount++;
                             }
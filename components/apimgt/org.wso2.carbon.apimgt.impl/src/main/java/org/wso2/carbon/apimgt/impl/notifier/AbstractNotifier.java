@@ -29,9 +29,11 @@ import org.wso2.carbon.apimgt.impl.utils.APIUtil;
  */
 public abstract class AbstractNotifier implements Notifier {
 
+    private static final Gson gson = new Gson();
+
     protected void publishEventToEventHub(Event event) {
 
-        byte[] bytesEncoded = Base64.encodeBase64(new Gson().toJson(event).getBytes());
+        byte[] bytesEncoded = Base64.encodeBase64(gson.toJson(event).getBytes());
         Object[] objects = new Object[]{event.getType(), event.getTimeStamp(), new String(bytesEncoded)};
         org.wso2.carbon.databridge.commons.Event payload = new org.wso2.carbon.databridge.commons.Event(
                 APIConstants.NOTIFICATION_STREAM_ID, System.currentTimeMillis(),
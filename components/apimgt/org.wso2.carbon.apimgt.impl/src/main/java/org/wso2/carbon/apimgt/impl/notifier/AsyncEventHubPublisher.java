@@ -0,0 +1,255 @@
+/*
+ *  Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.notifier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes event hub notifications asynchronously through a bounded queue.
+ * <p>
+ * Events are drained by a single dispatcher thread in the order they were submitted, so the relative order of the
+ * events of a tenant is preserved. Consecutive events are handed over to the {@link EventHubEventSink} as a batch,
+ * which lets the sink start a single tenant flow for many events. When the queue is full, {@link #publish} waits
+ * for the dispatcher to catch up for at most the enqueue timeout, and then publishes the event synchronously on the
+ * calling thread, so a stalled dispatcher never blocks the publishers indefinitely. An event published synchronously
+ * may be delivered ahead of the events still in the queue. Callers which need their events to be delivered before
+ * proceeding can call {@link #flush(long, TimeUnit)}.
+ */
+public class AsyncEventHubPublisher {
+
+    private static final Log log = LogFactory.getLog(AsyncEventHubPublisher.class);
+    private static final long POLL_INTERVAL_MILLIS = 500;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30000;
+    private static final long DEFAULT_ENQUEUE_TIMEOUT_MILLIS = 5000;
+
+    private final EventHubEventSink sink;
+    private final BlockingQueue<QueuedEvent> queue;
+    private final int batchSize;
+    private final long enqueueTimeoutNanos;
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+    private final Condition notFull = enqueueLock.newCondition();
+    private final Object publishedMonitor = new Object();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+    private volatile long lastEnqueuedSequence;
+    private long lastPublishedSequence;
+
+    public AsyncEventHubPublisher(EventHubEventSink sink, int queueSize, int batchSize) {
+
+        this(sink, queueSize, batchSize, DEFAULT_ENQUEUE_TIMEOUT_MILLIS);
+    }
+
+    public AsyncEventHubPublisher(EventHubEventSink sink, int queueSize, int batchSize, long enqueueTimeoutMillis) {
+
+        if (queueSize <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Queue size and batch size should be positive. queueSize: "
+                    + queueSize + ", batchSize: " + batchSize);
+        }
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.enqueueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMillis);
+        this.dispatcher = new Thread(this::dispatch, "EventHubAsyncPublisher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queue an event to be published. While the queue is full, waits for at most the enqueue timeout without holding
+     * the enqueue lock, and publishes the event synchronously on the calling thread if the queue is still full. Once
+     * the publisher is shut down, events are published synchronously on the calling thread.
+     *
+     * @param dynamicProperties dynamic properties of the output adapter, may be null
+     * @param event             event to publish
+     */
+    public void publish(Map dynamicProperties, Event event) {
+
+        long remaining = enqueueTimeoutNanos;
+        enqueueLock.lock();
+        try {
+            while (running) {
+                long sequence = lastEnqueuedSequence + 1;
+                if (queue.offer(new QueuedEvent(sequence, dynamicProperties, event))) {
+                    lastEnqueuedSequence = sequence;
+                    return;
+                }
+                if (remaining <= 0) {
+                    log.warn("Event hub publisher queue is full. Publishing the event synchronously.");
+                    break;
+                }
+                // Releases the enqueue lock while waiting, so that the other publishers and shutdown are not blocked
+                remaining = notFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while queueing event hub event. Publishing it synchronously.");
+        } finally {
+            enqueueLock.unlock();
+        }
+        sink.publish(dynamicProperties, Collections.singletonList(event));
+    }
+
+    /**
+     * Wait until every event queued before this call has been handed over to the sink.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return true if all the events were published within the timeout, false otherwise
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long target = lastEnqueuedSequence;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (publishedMonitor) {
+            while (lastPublishedSequence < target) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(publishedMonitor, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of events waiting to be published
+     */
+    public int getPendingEventCount() {
+
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting new events and publish the events which are already queued.
+     */
+    public void shutdown() {
+
+        enqueueLock.lock();
+        try {
+            running = false;
+            notFull.signalAll();
+        } finally {
+            enqueueLock.unlock();
+        }
+        try {
+            dispatcher.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dispatcher.isAlive()) {
+            log.warn("Event hub publisher did not stop within " + SHUTDOWN_TIMEOUT_MILLIS + "ms. "
+                    + queue.size() + " events may not be published.");
+        } else if (!queue.isEmpty()) {
+            List<QueuedEvent> remaining = new ArrayList<>(queue.size());
+            queue.drainTo(remaining);
+            deliver(remaining);
+        }
+    }
+
+    private void dispatch() {
+
+        List<QueuedEvent> batch = new ArrayList<>(batchSize);
+        // The dispatcher only stops once the publisher is shut down, as the publishers rely on it to drain the queue
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedEvent first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                signalNotFull();
+                deliver(batch);
+            } catch (InterruptedException e) {
+                log.warn("Event hub publisher interrupted. Continuing to publish the queued events.");
+            } catch (Throwable e) {
+                log.error("Unexpected error in the event hub publisher. Continuing to publish the queued events.",
+                        e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void signalNotFull() {
+
+        enqueueLock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            enqueueLock.unlock();
+        }
+    }
+
+    private void deliver(List<QueuedEvent> batch) {
+
+        int start = 0;
+        try {
+            while (start < batch.size()) {
+                Map dynamicProperties = batch.get(start).dynamicProperties;
+                List<Event> events = new ArrayList<>();
+                int end = start;
+                while (end < batch.size() && Objects.equals(dynamicProperties, batch.get(end).dynamicProperties)) {
+                    events.add(batch.get(end).event);
+                    end++;
+                }
+                try {
+                    sink.publish(dynamicProperties, events);
+                } catch (Throwable e) {
+                    log.error("Error while publishing " + events.size() + " events to the event hub", e);
+                }
+                start = end;
+            }
+        } finally {
+            synchronized (publishedMonitor) {
+                lastPublishedSequence = batch.get(batch.size() - 1).sequence;
+                publishedMonitor.notifyAll();
+            }
+        }
+    }
+
+    private static final class QueuedEvent {
+
+        private final long sequence;
+        private final Map dynamicProperties;
+        private final Event event;
+
+        private QueuedEvent(long sequence, Map dynamicProperties, Event event) {
+
+            this.sequence = sequence;
+            this.dynamicProperties = dynamicProperties;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ *  Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.notifier;
+
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destination of the events drained by {@link AsyncEventHubPublisher}. The default implementation delivers the
+ * events to the event hub output adapter, while tests can plug an in-memory implementation.
+ */
+public interface EventHubEventSink {
+
+    /**
+     * Publish a batch of events which share the same dynamic properties, in the given order.
+     *
+     * @param dynamicProperties dynamic properties of the output adapter, may be null
+     * @param events            events to publish
+     */
+    void publish(Map dynamicProperties, List<Event> events);
+}
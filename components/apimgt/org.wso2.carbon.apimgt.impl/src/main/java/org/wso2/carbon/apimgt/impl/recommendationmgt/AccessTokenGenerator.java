@@ -141,6 +141,7 @@ public class AccessTokenGenerator {
             urlParameters.add(new BasicNameValuePair(APIConstants.TOKEN_KEY, accessToken));
             request.setEntity(new UrlEncodedFormEntity(urlParameters));
             HttpResponse httpResponse = httpClient.execute(request);
+            EntityUtils.consume(httpResponse.getEntity());
             if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
                 if (log.isDebugEnabled()) {
                     log.debug("Successfully revoked the token");
@@ -207,6 +208,7 @@ public class AccessTokenGenerator {
                 accessTokenInfo.setValidityPeriod(validityPeriod);
                 return accessTokenInfo;
             } else {
+                EntityUtils.consume(httpResponse.getEntity());
                 log.error("Error occurred when generating a new Access token. Server responded with "
                         + httpResponse.getStatusLine().getStatusCode());
             }
@@ -425,7 +425,9 @@ public class RecommenderDetailsExtractor implements RecommenderEventPublisher {
                     log.debug("Recommendations received for user " + userName + " is " + contentString);
                 }
                 return contentString;
-            } else if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED &&
+            }
+            EntityUtils.consume(httpResponse.getEntity());
+            if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED &&
                     accessTokenGenerator != null){
                 log.warn("Error getting recommendations from server. Invalid credentials used");
                 accessTokenGenerator.removeInvalidToken(new String[]{APIConstants.OAUTH2_DEFAULT_SCOPE});
@@ -148,6 +148,7 @@ public class APIMWSDLReader {
             wsdlValidationResponse.setWsdlArchiveInfo(wsdlArchiveInfo);
             wsdlValidationResponse.setWsdlInfo(processor.getWsdlInfo());
             wsdlValidationResponse.setWsdlProcessor(processor);
+            wsdlValidationResponse.setExtractedArchivePath(extractedLocation);
         }
         return wsdlValidationResponse;
     }
@@ -163,7 +164,9 @@ public class APIMWSDLReader {
         try {
             byte[] wsdlContent = APIUtil.toByteArray(inputStream);
             WSDLProcessor processor = getWSDLProcessor(wsdlContent);
-            return getWsdlValidationResponse(processor);
+            WSDLValidationResponse wsdlValidationResponse = getWsdlValidationResponse(processor);
+            wsdlValidationResponse.setWsdlContent(wsdlContent);
+            return wsdlValidationResponse;
         } catch (APIManagementException e) {
             return handleExceptionDuringValidation(e);
         } catch (IOException e) {
@@ -330,6 +333,28 @@ public class APIMWSDLReader {
         return processor;
     }
 
+    /**
+     * Returns a WSDL11SOAPOperationExtractor for a WSDL already read by the processor {@code processor}, without
+     * reading and parsing the WSDL again. Only WSDL 1.1 is supported.
+     *
+     * @param processor WSDL processor which is already initialized
+     * @return WSDL11SOAPOperationExtractor for the WSDL read by the processor
+     * @throws APIManagementException If the WSDL is not a WSDL 1.1
+     */
+    public static WSDL11SOAPOperationExtractor getWSDLSOAPOperationExtractor(WSDLProcessor processor)
+            throws APIManagementException {
+        if (processor instanceof WSDL11SOAPOperationExtractor) {
+            return (WSDL11SOAPOperationExtractor) processor;
+        }
+        if (!(processor instanceof WSDL11ProcessorImpl)) {
+            throw new APIManagementException("SOAP operations can only be extracted from WSDL 1.1 documents",
+                    ExceptionCodes.CANNOT_PROCESS_WSDL_CONTENT);
+        }
+        WSDL11SOAPOperationExtractor extractor = new WSDL11SOAPOperationExtractor();
+        extractor.init((WSDL11ProcessorImpl) processor);
+        return extractor;
+    }
+
     /**
 	 * Read the wsdl and clean the actual service endpoint instead of that set
 	 * the gateway endpoint.
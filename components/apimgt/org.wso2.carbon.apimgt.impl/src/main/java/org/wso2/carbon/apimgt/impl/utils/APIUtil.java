@@ -62,19 +62,13 @@ import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.socket.ConnectionSocketFactory;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.SSLContexts;
-import org.apache.http.conn.ssl.SSLSocketFactory;
-import org.apache.http.conn.ssl.X509HostnameVerifier;
+import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.DefaultProxyRoutePlanner;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
@@ -160,6 +154,7 @@ import org.wso2.carbon.apimgt.impl.dto.ConditionDto;
 import org.wso2.carbon.apimgt.impl.dto.JwtTokenInfoDTO;
 import org.wso2.carbon.apimgt.impl.dto.SubscribedApiDTO;
 import org.wso2.carbon.apimgt.impl.dto.SubscriptionPolicyDTO;
+import org.wso2.carbon.apimgt.impl.dto.TenantConfigSnapshot;
 import org.wso2.carbon.apimgt.impl.dto.ThrottleProperties;
 import org.wso2.carbon.apimgt.impl.dto.UserRegistrationConfigDTO;
 import org.wso2.carbon.apimgt.impl.dto.WorkflowDTO;
@@ -168,6 +163,7 @@ import org.wso2.carbon.apimgt.impl.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.impl.kmclient.ApacheFeignHttpClient;
 import org.wso2.carbon.apimgt.impl.kmclient.model.OpenIDConnectDiscoveryClient;
 import org.wso2.carbon.apimgt.impl.kmclient.model.OpenIdConnectConfiguration;
+import org.wso2.carbon.apimgt.impl.notifier.AsyncEventHubPublisher;
 import org.wso2.carbon.apimgt.impl.notifier.Notifier;
 import org.wso2.carbon.apimgt.impl.notifier.events.APIPolicyEvent;
 import org.wso2.carbon.apimgt.impl.notifier.events.ApplicationPolicyEvent;
@@ -189,6 +185,7 @@ import org.wso2.carbon.core.util.CryptoException;
 import org.wso2.carbon.core.util.CryptoUtil;
 import org.wso2.carbon.core.util.PermissionUpdateUtil;
 import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.event.output.adapter.core.OutputEventAdapterService;
 import org.wso2.carbon.governance.api.common.dataobjects.GovernanceArtifact;
 import org.wso2.carbon.governance.api.endpoints.EndpointManager;
 import org.wso2.carbon.governance.api.endpoints.dataobjects.Endpoint;
@@ -265,7 +262,6 @@ import java.net.UnknownHostException;
 import java.nio.charset.Charset;
 import java.rmi.RemoteException;
 import java.security.InvalidKeyException;
-import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.MessageDigest;
@@ -307,7 +303,6 @@ import javax.cache.Cache;
 import javax.cache.CacheConfiguration;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
-import javax.net.ssl.SSLContext;
 import javax.security.cert.CertificateEncodingException;
 import javax.security.cert.X509Certificate;
 import javax.xml.XMLConstants;
@@ -377,6 +372,8 @@ public final class APIUtil {
     private static String hostAddress = null;
     private static final int timeoutInSeconds = 15;
     private static final int retries = 2;
+    private static final TenantConfigSnapshotCache tenantConfigSnapshotCache =
+            new TenantConfigSnapshotCache(CacheProvider::getTenantConfigCache, APIUtil::readTenantConfig);
 
     /**
      * To initialize the publisherRoleCache configurations, based on configurations.
@@ -4115,7 +4112,13 @@ public final class APIUtil {
      */
     private static Optional<Byte[]> migrateTenantConfScopes(int tenantId) throws APIManagementException {
 
-        JSONObject tenantConf = getTenantConfig(tenantId);
+        // The tenant config is modified below, hence a copy is parsed instead of using the shared snapshot
+        JSONObject tenantConf;
+        try {
+            tenantConf = (JSONObject) new JSONParser().parse(readTenantConfig(tenantId));
+        } catch (ParseException e) {
+            throw new APIManagementException("Error while parsing tenant config of tenant: " + tenantId, e);
+        }
         JSONObject scopesConfigTenant = getRESTAPIScopesFromTenantConfig(tenantConf);
         JSONObject scopeConfigLocal = getRESTAPIScopesConfigFromFileSystem();
         JSONObject roleMappingConfigTenant = getRESTAPIScopeRoleMappingsFromTenantConfig(tenantConf);
@@ -7001,66 +7004,6 @@ public final class APIUtil {
         return getHttpClient(port, protocol);
     }
 
-    /**
-     * Return a PoolingHttpClientConnectionManager instance
-     *
-     * @param protocol- service endpoint protocol. It can be http/https
-     * @return PoolManager
-     */
-    private static PoolingHttpClientConnectionManager getPoolingHttpClientConnectionManager(String protocol)
-            throws APIManagementException {
-
-        PoolingHttpClientConnectionManager poolManager;
-        if (APIConstants.HTTPS_PROTOCOL.equals(protocol)) {
-            SSLConnectionSocketFactory socketFactory = createSocketFactory();
-            org.apache.http.config.Registry<ConnectionSocketFactory> socketFactoryRegistry =
-                    RegistryBuilder.<ConnectionSocketFactory>create()
-                            .register(APIConstants.HTTPS_PROTOCOL, socketFactory).build();
-            poolManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
-        } else {
-            poolManager = new PoolingHttpClientConnectionManager();
-        } return poolManager;
-    }
-
-    private static SSLConnectionSocketFactory createSocketFactory() throws APIManagementException {
-        SSLContext sslContext;
-
-        String keyStorePath = CarbonUtils.getServerConfiguration()
-                .getFirstProperty(APIConstants.TRUST_STORE_LOCATION);
-        String keyStorePassword = CarbonUtils.getServerConfiguration()
-                .getFirstProperty(APIConstants.TRUST_STORE_PASSWORD);
-        try {
-            KeyStore trustStore = KeyStore.getInstance("JKS");
-            trustStore.load(new FileInputStream(keyStorePath), keyStorePassword.toCharArray());
-            sslContext = SSLContexts.custom().loadTrustMaterial(trustStore).build();
-
-            X509HostnameVerifier hostnameVerifier;
-            String hostnameVerifierOption = System.getProperty(HOST_NAME_VERIFIER);
-
-            if (ALLOW_ALL.equalsIgnoreCase(hostnameVerifierOption)) {
-                hostnameVerifier = SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER;
-            } else if (STRICT.equalsIgnoreCase(hostnameVerifierOption)) {
-                hostnameVerifier = SSLSocketFactory.STRICT_HOSTNAME_VERIFIER;
-            } else {
-                hostnameVerifier = SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER;
-            }
-
-            return new SSLConnectionSocketFactory(sslContext, hostnameVerifier);
-        } catch (KeyStoreException e) {
-            handleException("Failed to read from Key Store", e);
-        } catch (IOException e) {
-            handleException("Key Store not found in " + keyStorePath, e);
-        } catch (CertificateException e) {
-            handleException("Failed to read Certificate", e);
-        } catch (NoSuchAlgorithmException e) {
-            handleException("Failed to load Key Store from " + keyStorePath, e);
-        } catch (KeyManagementException e) {
-            handleException("Failed to load key from" + keyStorePath, e);
-        }
-
-        return null;
-    }
-
     /**
      * Return a http client instance
      *
@@ -7085,17 +7028,21 @@ public final class APIUtil {
         String proxyPassword = configuration.getFirstProperty(APIConstants.PROXY_PASSWORD);
         String nonProxyHosts = configuration.getFirstProperty(APIConstants.NON_PROXY_HOSTS);
 
-        PoolingHttpClientConnectionManager pool = null;
+        HttpClientConnectionManager pool = null;
         try {
-            pool = getPoolingHttpClientConnectionManager(protocol);
+            pool = HttpClientRegistry.getInstance().getConnectionManager(protocol,
+                    CarbonUtils.getServerConfiguration().getFirstProperty(APIConstants.TRUST_STORE_LOCATION),
+                    CarbonUtils.getServerConfiguration().getFirstProperty(APIConstants.TRUST_STORE_PASSWORD),
+                    System.getProperty(HOST_NAME_VERIFIER), Integer.parseInt(maxTotal),
+                    Integer.parseInt(defaultMaxPerRoute));
         } catch (APIManagementException e) {
             log.error("Error while getting http client connection manager", e);
         }
-        pool.setMaxTotal(Integer.parseInt(maxTotal));
-        pool.setDefaultMaxPerRoute(Integer.parseInt(defaultMaxPerRoute));
 
-        RequestConfig params = RequestConfig.custom().build();
+        RequestConfig params = RequestConfig.custom()
+                .setConnectionRequestTimeout(HttpClientRegistry.getInstance().getConnectionRequestTimeout()).build();
         HttpClientBuilder clientBuilder = HttpClients.custom().setConnectionManager(pool)
+                .setKeepAliveStrategy(HttpClientRegistry.getInstance().getKeepAliveStrategy())
                 .setDefaultRequestConfig(params);
 
         if (Boolean.parseBoolean(proxyEnabled)) {
@@ -7192,14 +7139,9 @@ public final class APIUtil {
      */
     public static JSONObject getTenantRESTAPIScopesConfig(String tenantDomain) throws APIManagementException {
 
-        JSONObject restAPIConfigJSON = null;
-        JSONObject tenantConfJson = getTenantConfig(tenantDomain);
-        if (tenantConfJson != null) {
-            restAPIConfigJSON = getRESTAPIScopesFromTenantConfig(tenantConfJson);
-            if (restAPIConfigJSON == null) {
-                throw new APIManagementException("RESTAPIScopes config does not exist for tenant "
-                        + tenantDomain);
-            }
+        JSONObject restAPIConfigJSON = getTenantConfigSnapshot(tenantDomain).getRESTAPIScopesConfig();
+        if (restAPIConfigJSON == null) {
+            throw new APIManagementException("RESTAPIScopes config does not exist for tenant " + tenantDomain);
         }
         return restAPIConfigJSON;
     }
@@ -7211,14 +7153,10 @@ public final class APIUtil {
      */
     public static JSONObject getTenantRESTAPIScopeRoleMappingsConfig(String tenantDomain) throws APIManagementException {
 
-        JSONObject restAPIConfigJSON = null;
-        JSONObject tenantConfJson = getTenantConfig(tenantDomain);
-        if (tenantConfJson != null) {
-            restAPIConfigJSON = getRESTAPIScopeRoleMappingsFromTenantConfig(tenantConfJson);
-            if (restAPIConfigJSON == null) {
-                if (log.isDebugEnabled()) {
-                    log.debug("No REST API role mappings are defined for the tenant " + tenantDomain);
-                }
+        JSONObject restAPIConfigJSON = getTenantConfigSnapshot(tenantDomain).getRESTAPIRoleMappingsConfig();
+        if (restAPIConfigJSON == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("No REST API role mappings are defined for the tenant " + tenantDomain);
             }
         }
         return restAPIConfigJSON;
@@ -7255,35 +7193,58 @@ public final class APIUtil {
      */
     private static JSONObject getTenantConfig(int tenantId) throws APIManagementException {
 
+        return getTenantConfigSnapshot(tenantId).getConfig();
+    }
+
+    /**
+     * Returns the parsed tenant-conf.json of the given tenant, with typed accessors for the configurations read on
+     * the request paths.
+     *
+     * @param tenantDomain tenant domain
+     * @return snapshot of the tenant-conf.json of the tenant
+     * @throws APIManagementException when tenant-conf.json is not available in registry
+     */
+    public static TenantConfigSnapshot getTenantConfigSnapshot(String tenantDomain) throws APIManagementException {
+
+        return getTenantConfigSnapshot(getTenantIdFromTenantDomain(tenantDomain));
+    }
+
+    private static TenantConfigSnapshot getTenantConfigSnapshot(int tenantId) throws APIManagementException {
+
+        return tenantConfigSnapshotCache.getSnapshot(tenantId);
+    }
+
+    /**
+     * Removes the cached tenant-conf.json of the given tenant, so that it is read from the registry again.
+     *
+     * @param tenantId tenant ID
+     */
+    public static void invalidateTenantConfig(int tenantId) {
+
+        tenantConfigSnapshotCache.invalidate(tenantId);
+    }
+
+    private static String readTenantConfig(int tenantId) throws APIManagementException {
+
         try {
-            Cache tenantConfigCache = CacheProvider.getTenantConfigCache();
-            String cacheName = tenantId + "_" + APIConstants.TENANT_CONFIG_CACHE_NAME;
-            if (tenantConfigCache.containsKey(cacheName)) {
-                return (JSONObject) tenantConfigCache.get(cacheName);
+            if (tenantId != MultitenantConstants.SUPER_TENANT_ID) {
+                loadTenantRegistry(tenantId);
+            }
+            RegistryService registryService = ServiceReferenceHolder.getInstance().getRegistryService();
+            UserRegistry registry = registryService.getConfigSystemRegistry(tenantId);
+            Resource resource;
+            if (registry.resourceExists(APIConstants.API_TENANT_CONF_LOCATION)) {
+                resource = registry.get(APIConstants.API_TENANT_CONF_LOCATION);
             } else {
-                if (tenantId != MultitenantConstants.SUPER_TENANT_ID) {
-                    loadTenantRegistry(tenantId);
-                }
-                RegistryService registryService = ServiceReferenceHolder.getInstance().getRegistryService();
-                UserRegistry registry = registryService.getConfigSystemRegistry(tenantId);
-                Resource resource;
+                loadTenantConf(tenantId);
                 if (registry.resourceExists(APIConstants.API_TENANT_CONF_LOCATION)) {
                     resource = registry.get(APIConstants.API_TENANT_CONF_LOCATION);
                 } else {
-                    loadTenantConf(tenantId);
-                    if (registry.resourceExists(APIConstants.API_TENANT_CONF_LOCATION)) {
-                        resource = registry.get(APIConstants.API_TENANT_CONF_LOCATION);
-                    } else {
-                        throw new APIManagementException("Failed to add tenant-conf.json to tenant: " + tenantId);
-                    }
+                    throw new APIManagementException("Failed to add tenant-conf.json to tenant: " + tenantId);
                 }
-                String content = new String((byte[]) resource.getContent(), Charset.defaultCharset());
-                JSONParser parser = new JSONParser();
-                JSONObject tenantConfig = (JSONObject) parser.parse(content);
-                tenantConfigCache.put(cacheName, tenantConfig);
-                return tenantConfig;
             }
-        } catch (RegistryException | ParseException e) {
+            return new String((byte[]) resource.getContent(), Charset.defaultCharset());
+        } catch (RegistryException e) {
             throw new APIManagementException("Error while getting tenant config from registry for tenant: "
                     + tenantId, e);
         }
@@ -7300,33 +7261,23 @@ public final class APIUtil {
     }
 
     /**
-     * This method gets the RESTAPIScopes configuration from REST_API_SCOPE_CACHE if available, if not from
-     * tenant-conf.json in registry.
+     * This method gets the RESTAPIScopes configuration from the tenant-conf.json snapshot of the tenant.
      *
      * @param tenantDomain tenant domain name
      * @return Map of scopes which contains scope names and associated role list
      */
-    @SuppressWarnings("unchecked")
     public static Map<String, String> getRESTAPIScopesForTenant(String tenantDomain) {
 
-        Map<String, String> restAPIScopes;
-        restAPIScopes = (Map) Caching.getCacheManager(APIConstants.API_MANAGER_CACHE_MANAGER)
-                .getCache(APIConstants.REST_API_SCOPE_CACHE)
-                .get(tenantDomain);
-        if (restAPIScopes == null) {
-            try {
-                restAPIScopes = APIUtil.getRESTAPIScopesFromConfig(APIUtil.getTenantRESTAPIScopesConfig(tenantDomain),
-                        APIUtil.getTenantRESTAPIScopeRoleMappingsConfig(tenantDomain));
-                //call load tenant config for rest API.
-                //then put cache
-                Caching.getCacheManager(APIConstants.API_MANAGER_CACHE_MANAGER)
-                        .getCache(APIConstants.REST_API_SCOPE_CACHE)
-                        .put(tenantDomain, restAPIScopes);
-            } catch (APIManagementException e) {
-                log.error("Error while getting REST API scopes for tenant: " + tenantDomain, e);
+        try {
+            TenantConfigSnapshot tenantConfigSnapshot = getTenantConfigSnapshot(tenantDomain);
+            if (tenantConfigSnapshot.getRESTAPIScopes() == null) {
+                throw new APIManagementException("RESTAPIScopes config does not exist for tenant " + tenantDomain);
             }
+            return tenantConfigSnapshot.getRESTAPIScopes();
+        } catch (APIManagementException e) {
+            log.error("Error while getting REST API scopes for tenant: " + tenantDomain, e);
         }
-        return restAPIScopes;
+        return null;
     }
 
     /**
@@ -7337,10 +7288,14 @@ public final class APIUtil {
      * @return RESTAPIScopes configuration without substituting role mappings
      * @throws APIManagementException error while getting RESTAPIScopes configuration
      */
-    @SuppressWarnings("unchecked")
     public static Map<String, String> getRESTAPIScopesForTenantWithoutRoleMappings(String tenantDomain)
             throws APIManagementException{
-        return APIUtil.getRESTAPIScopesFromConfig(APIUtil.getTenantRESTAPIScopesConfig(tenantDomain), null);
+        Map<String, String> restAPIScopes =
+                getTenantConfigSnapshot(tenantDomain).getRESTAPIScopesWithoutRoleMappings();
+        if (restAPIScopes == null) {
+            throw new APIManagementException("RESTAPIScopes config does not exist for tenant " + tenantDomain);
+        }
+        return restAPIScopes;
     }
 
     /**
@@ -7350,36 +7305,13 @@ public final class APIUtil {
      */
     public static JSONObject getTenantDefaultRoles(String tenantDomain) throws APIManagementException {
 
-        JSONObject apiTenantConfig;
-        JSONObject defaultRolesConfigJSON = null;
-        try {
-            String content = new APIMRegistryServiceImpl().getConfigRegistryResourceContent(tenantDomain,
-                    APIConstants.API_TENANT_CONF_LOCATION);
-
-            if (content != null) {
-                JSONParser parser = new JSONParser();
-                apiTenantConfig = (JSONObject) parser.parse(content);
-                if (apiTenantConfig != null) {
-                    Object value = apiTenantConfig.get(APIConstants.API_TENANT_CONF_DEFAULT_ROLES);
-                    if (value != null) {
-                        defaultRolesConfigJSON = (JSONObject) value;
-                    } else {
-                        //Config might not exist for migrated environments from previous release
-                        if (log.isDebugEnabled()) {
-                            log.debug(APIConstants.API_TENANT_CONF_DEFAULT_ROLES + " config does not exist for tenant "
-                                    + tenantDomain);
-                        }
-                    }
-                }
+        JSONObject defaultRolesConfigJSON = getTenantConfigSnapshot(tenantDomain).getDefaultRoles();
+        if (defaultRolesConfigJSON == null) {
+            //Config might not exist for migrated environments from previous release
+            if (log.isDebugEnabled()) {
+                log.debug(APIConstants.API_TENANT_CONF_DEFAULT_ROLES + " config does not exist for tenant "
+                        + tenantDomain);
             }
-        } catch (UserStoreException e) {
-            handleException("Error while retrieving user realm for tenant " + tenantDomain, e);
-        } catch (RegistryException e) {
-            handleException("Error while retrieving tenant configuration file for tenant " + tenantDomain, e);
-        } catch (ParseException e) {
-            handleException(
-                    "Error while parsing tenant configuration file while retrieving default roles for tenant "
-                            + tenantDomain, e);
         }
         return defaultRolesConfigJSON;
     }
@@ -9506,6 +9438,7 @@ public final class APIUtil {
                 response = httpClient.execute(httpPost);
                 HttpEntity entity = response.getEntity();
                 if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                    EntityUtils.consume(entity);
                     String error = "Error while invoking SP rest api :  " + response.getStatusLine().getStatusCode()
                             + " " + response.getStatusLine().getReasonPhrase();
                     log.error(error);
@@ -10775,11 +10708,7 @@ public final class APIUtil {
     public static boolean isPerTenantServiceProviderEnabled(String tenantDomain) throws APIManagementException,
             RegistryException {
 
-        JSONObject tenantConfig = getTenantConfig(tenantDomain);
-        if (tenantConfig.containsKey(APIConstants.ENABLE_PER_TENANT_SERVICE_PROVIDER_CREATION)) {
-            return (boolean) tenantConfig.get(APIConstants.ENABLE_PER_TENANT_SERVICE_PROVIDER_CREATION);
-        }
-        return false;
+        return getTenantConfigSnapshot(tenantDomain).isPerTenantServiceProviderEnabled();
     }
 
     public static String getTenantAdminUserName(String tenantDomain) throws APIManagementException {
@@ -10807,10 +10736,7 @@ public final class APIUtil {
 
         boolean state = false;
         try {
-            JSONObject tenantConfig = getTenantConfig(tenantId);
-            if (tenantConfig.containsKey(APIConstants.DISABLE_DEFAULT_APPLICATION_CREATION)) {
-                state = (boolean) tenantConfig.get(APIConstants.DISABLE_DEFAULT_APPLICATION_CREATION);
-            }
+            state = getTenantConfigSnapshot(tenantId).isDefaultApplicationCreationDisabled();
         } catch (APIManagementException e) {
             log.error("Error while reading tenant-config.json for tenant " + tenantId, e);
             state = false;
@@ -10864,13 +10790,8 @@ public final class APIUtil {
 
     public static boolean isTenantDevportalAnonymous(String tenantDomain) throws APIManagementException {
 
-        JSONObject tenantConfig = getTenantConfig(tenantDomain);
-        if (tenantConfig.containsKey(APIConstants.ENABLE_ANONYMOUS_MODE)) {
-            Boolean anonymousEnabled = (boolean) tenantConfig.get(APIConstants.ENABLE_ANONYMOUS_MODE);
-            return anonymousEnabled;
-        } else {
-            return true;
-        }
+        Boolean anonymousEnabled = getTenantConfigSnapshot(tenantDomain).getAnonymousModeEnabled();
+        return anonymousEnabled == null || anonymousEnabled;
     }
 
     public static Map<String, EndpointSecurity> setEndpointSecurityForAPIProduct(API api) throws APIManagementException {
@@ -10934,9 +10855,7 @@ public final class APIUtil {
                 return true;
             } else {
                 try {
-                    org.json.simple.JSONObject tenantConfig = getTenantConfig(tenantDomain);
-                    Object value = tenantConfig.get(APIConstants.API_TENANT_CONF_ENABLE_RECOMMENDATION_KEY);
-                    return Boolean.parseBoolean(value.toString());
+                    return getTenantConfigSnapshot(tenantDomain).isRecommendationEnabled();
                 } catch (APIManagementException e) {
                     log.debug("Error while retrieving Recommendation config from registry", e);
                 }
@@ -10983,14 +10902,35 @@ public final class APIUtil {
 
     public static void publishEventToEventHub(Map dynamicProperties, Event event) {
 
+        AsyncEventHubPublisher asyncEventHubPublisher =
+                ServiceReferenceHolder.getInstance().getAsyncEventHubPublisher();
+        if (asyncEventHubPublisher != null) {
+            asyncEventHubPublisher.publish(dynamicProperties, event);
+        } else {
+            publishEventsToEventHub(dynamicProperties, Collections.singletonList(event));
+        }
+    }
+
+    /**
+     * Publish the given events to the event hub synchronously, within a single tenant flow.
+     *
+     * @param dynamicProperties dynamic properties of the output adapter
+     * @param events            events to publish, in order
+     */
+    public static void publishEventsToEventHub(Map dynamicProperties, List<Event> events) {
+
         boolean tenantFlowStarted = false;
         try {
             PrivilegedCarbonContext.startTenantFlow();
             PrivilegedCarbonContext.getThreadLocalCarbonContext()
                     .setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME, true);
             tenantFlowStarted = true;
-            ServiceReferenceHolder.getInstance().getOutputEventAdapterService()
-                    .publish(APIConstants.EVENT_HUB_NOTIFICATION_EVENT_PUBLISHER, dynamicProperties, event);
+            OutputEventAdapterService outputEventAdapterService =
+                    ServiceReferenceHolder.getInstance().getOutputEventAdapterService();
+            for (Event event : events) {
+                outputEventAdapterService
+                        .publish(APIConstants.EVENT_HUB_NOTIFICATION_EVENT_PUBLISHER, dynamicProperties, event);
+            }
         } finally {
             if (tenantFlowStarted) {
                 PrivilegedCarbonContext.endTenantFlow();
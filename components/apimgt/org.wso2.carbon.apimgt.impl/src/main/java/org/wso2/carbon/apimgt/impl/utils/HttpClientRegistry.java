@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLContexts;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.conn.ssl.X509HostnameVerifier;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process wide registry of the HTTP connection pools used by the clients returned from
+ * {@link APIUtil#getHttpClient(int, String)}. A pool is kept per protocol, TLS profile and pool size, so that
+ * connections to the same endpoint are reused across calls instead of opening a new pool, and loading the trust store,
+ * on every call. Connections to different endpoints are bounded by the per route limit of the pool.
+ * <p>
+ * Clients built on a pool cannot shut it down when they are closed. Connections which have been idle for longer than
+ * the idle timeout, configured in seconds with the system property 'httpclient.idleConnectionTimeout', are closed by
+ * a background task, which also replaces the pools when the trust store file changes. The pools can be replaced
+ * explicitly with {@link #reload()}, e.g. after a certificate is added to the trust store. A replaced pool is shut
+ * down once its connections are released, or after a grace period if a caller never releases them.
+ * <p>
+ * Since the pools are shared, a caller waits for a connection to be released when the pool is exhausted. The wait
+ * is bounded by the connection request timeout, configured in seconds with the system property
+ * 'httpclient.connectionRequestTimeout'.
+ */
+public class HttpClientRegistry {
+
+    public static final String IDLE_CONNECTION_TIMEOUT_PROPERTY = "httpclient.idleConnectionTimeout";
+    public static final String CONNECTION_REQUEST_TIMEOUT_PROPERTY = "httpclient.connectionRequestTimeout";
+    private static final long DEFAULT_IDLE_CONNECTION_TIMEOUT_SECONDS = 30;
+    private static final long DEFAULT_CONNECTION_REQUEST_TIMEOUT_SECONDS = 30;
+    private static final long RETIRED_POOL_GRACE_PERIOD_SECONDS = 300;
+    private static final long EVICTION_INTERVAL_SECONDS = 5;
+    private static final Log log = LogFactory.getLog(HttpClientRegistry.class);
+    private static final HttpClientRegistry instance = new HttpClientRegistry(
+            Long.getLong(IDLE_CONNECTION_TIMEOUT_PROPERTY, DEFAULT_IDLE_CONNECTION_TIMEOUT_SECONDS),
+            Long.getLong(CONNECTION_REQUEST_TIMEOUT_PROPERTY, DEFAULT_CONNECTION_REQUEST_TIMEOUT_SECONDS),
+            RETIRED_POOL_GRACE_PERIOD_SECONDS);
+
+    private final long idleConnectionTimeoutMillis;
+    private final int connectionRequestTimeoutMillis;
+    private final long retiredPoolGracePeriodMillis;
+    private final ConcurrentMap<PoolKey, PoolEntry> pools = new ConcurrentHashMap<>();
+    private final List<RetiredPool> retiredPools = new ArrayList<>();
+    private final ConnectionKeepAliveStrategy keepAliveStrategy;
+    private ScheduledExecutorService evictor;
+
+    HttpClientRegistry(long idleConnectionTimeoutSeconds) {
+
+        this(idleConnectionTimeoutSeconds, DEFAULT_CONNECTION_REQUEST_TIMEOUT_SECONDS,
+                RETIRED_POOL_GRACE_PERIOD_SECONDS);
+    }
+
+    HttpClientRegistry(long idleConnectionTimeoutSeconds, long connectionRequestTimeoutSeconds,
+                       long retiredPoolGracePeriodSeconds) {
+
+        this.idleConnectionTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(1, idleConnectionTimeoutSeconds));
+        this.connectionRequestTimeoutMillis = (int) Math.min(Integer.MAX_VALUE,
+                TimeUnit.SECONDS.toMillis(Math.max(1, connectionRequestTimeoutSeconds)));
+        this.retiredPoolGracePeriodMillis = TimeUnit.SECONDS.toMillis(Math.max(0, retiredPoolGracePeriodSeconds));
+        this.keepAliveStrategy = new KeepAliveStrategy(idleConnectionTimeoutMillis);
+    }
+
+    public static HttpClientRegistry getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Returns a connection manager backed by the shared pool of the given protocol and TLS profile. Shutting down the
+     * returned connection manager does not close the pool.
+     *
+     * @param protocol            endpoint protocol, http or https
+     * @param trustStorePath      path of the trust store used to verify the server certificates
+     * @param trustStorePassword  password of the trust store
+     * @param hostnameVerifier    hostname verifier option, {@link APIUtil#STRICT}, {@link APIUtil#ALLOW_ALL} or
+     *                            null for the browser compatible verifier
+     * @param maxTotal            maximum number of connections of the pool
+     * @param defaultMaxPerRoute  maximum number of connections per route of the pool
+     * @return connection manager
+     * @throws APIManagementException if the trust store cannot be loaded
+     */
+    public HttpClientConnectionManager getConnectionManager(String protocol, String trustStorePath,
+                                                            String trustStorePassword, String hostnameVerifier,
+                                                            int maxTotal, int defaultMaxPerRoute)
+            throws APIManagementException {
+
+        boolean secure = APIConstants.HTTPS_PROTOCOL.equals(protocol);
+        PoolKey poolKey = secure
+                ? new PoolKey(protocol, trustStorePath, trustStorePassword, hostnameVerifier, maxTotal,
+                defaultMaxPerRoute)
+                : new PoolKey(protocol, null, null, null, maxTotal, defaultMaxPerRoute);
+        PoolEntry poolEntry = pools.get(poolKey);
+        if (poolEntry == null) {
+            synchronized (this) {
+                poolEntry = pools.get(poolKey);
+                if (poolEntry == null) {
+                    poolEntry = createPool(poolKey, secure);
+                    pools.put(poolKey, poolEntry);
+                    startEvictor();
+                }
+            }
+        }
+        return new SharedConnectionManager(poolEntry.connectionManager);
+    }
+
+    /**
+     * Returns the keep-alive strategy of the clients, which keeps connections alive for the duration advertised by
+     * the server, but not longer than the idle timeout.
+     *
+     * @return keep-alive strategy
+     */
+    public ConnectionKeepAliveStrategy getKeepAliveStrategy() {
+
+        return keepAliveStrategy;
+    }
+
+    /**
+     * Returns how long a client waits for a connection from an exhausted pool, before failing with a
+     * {@link org.apache.http.conn.ConnectionPoolTimeoutException}.
+     *
+     * @return connection request timeout in milliseconds
+     */
+    public int getConnectionRequestTimeout() {
+
+        return connectionRequestTimeoutMillis;
+    }
+
+    /**
+     * Replaces the pools, so that new connections use the current trust store. Connections in use are closed once
+     * they are released.
+     */
+    public synchronized void reload() {
+
+        long retiredTime = System.currentTimeMillis();
+        for (PoolEntry poolEntry : pools.values()) {
+            retiredPools.add(new RetiredPool(poolEntry.connectionManager, retiredTime));
+        }
+        pools.clear();
+        closeRetiredPools();
+        if (log.isDebugEnabled()) {
+            log.debug("Reloaded HTTP client connection pools");
+        }
+    }
+
+    /**
+     * Closes the pools and stops the idle connection eviction.
+     */
+    public synchronized void shutdown() {
+
+        reload();
+        for (RetiredPool retiredPool : retiredPools) {
+            retiredPool.connectionManager.shutdown();
+        }
+        retiredPools.clear();
+        if (evictor != null) {
+            evictor.shutdownNow();
+            evictor = null;
+        }
+    }
+
+    private PoolEntry createPool(PoolKey poolKey, boolean secure) throws APIManagementException {
+
+        PoolingHttpClientConnectionManager connectionManager;
+        long trustStoreLastModified = 0;
+        if (secure) {
+            SSLConnectionSocketFactory socketFactory = createSocketFactory(poolKey);
+            org.apache.http.config.Registry<ConnectionSocketFactory> socketFactoryRegistry =
+                    RegistryBuilder.<ConnectionSocketFactory>create()
+                            .register(APIConstants.HTTPS_PROTOCOL, socketFactory).build();
+            connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+            trustStoreLastModified = new File(poolKey.trustStorePath).lastModified();
+        } else {
+            connectionManager = new PoolingHttpClientConnectionManager();
+        }
+        connectionManager.setMaxTotal(poolKey.maxTotal);
+        connectionManager.setDefaultMaxPerRoute(poolKey.defaultMaxPerRoute);
+        if (log.isDebugEnabled()) {
+            log.debug("Created HTTP client connection pool for " + poolKey.protocol + " with max total "
+                    + poolKey.maxTotal + " and max per route " + poolKey.defaultMaxPerRoute);
+        }
+        return new PoolEntry(connectionManager, trustStoreLastModified);
+    }
+
+    private static SSLConnectionSocketFactory createSocketFactory(PoolKey poolKey) throws APIManagementException {
+
+        try (InputStream inputStream = new FileInputStream(poolKey.trustStorePath)) {
+            KeyStore trustStore = KeyStore.getInstance("JKS");
+            trustStore.load(inputStream, poolKey.trustStorePassword.toCharArray());
+            X509HostnameVerifier hostnameVerifier;
+            if (APIUtil.ALLOW_ALL.equalsIgnoreCase(poolKey.hostnameVerifier)) {
+                hostnameVerifier = SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER;
+            } else if (APIUtil.STRICT.equalsIgnoreCase(poolKey.hostnameVerifier)) {
+                hostnameVerifier = SSLSocketFactory.STRICT_HOSTNAME_VERIFIER;
+            } else {
+                hostnameVerifier = SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER;
+            }
+            return new SSLConnectionSocketFactory(SSLContexts.custom().loadTrustMaterial(trustStore).build(),
+                    hostnameVerifier);
+        } catch (IOException e) {
+            throw new APIManagementException("Key Store not found in " + poolKey.trustStorePath, e);
+        } catch (GeneralSecurityException e) {
+            throw new APIManagementException("Failed to load Key Store from " + poolKey.trustStorePath, e);
+        }
+    }
+
+    private synchronized void startEvictor() {
+
+        if (evictor != null) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "HttpClientConnectionEvictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictConnections, EVICTION_INTERVAL_SECONDS, EVICTION_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Closes the expired and idle connections of the pools, and replaces the pools if the trust store has changed.
+     */
+    synchronized void evictConnections() {
+
+        try {
+            for (Map.Entry<PoolKey, PoolEntry> entry : pools.entrySet()) {
+                PoolEntry poolEntry = entry.getValue();
+                String trustStorePath = entry.getKey().trustStorePath;
+                if (trustStorePath != null
+                        && new File(trustStorePath).lastModified() != poolEntry.trustStoreLastModified) {
+                    log.info("Trust store " + trustStorePath + " has changed. Reloading HTTP client connection pools");
+                    reload();
+                    return;
+                }
+                poolEntry.connectionManager.closeExpiredConnections();
+                poolEntry.connectionManager.closeIdleConnections(idleConnectionTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            closeRetiredPools();
+        } catch (RuntimeException e) {
+            log.error("Error while evicting idle HTTP client connections", e);
+        }
+    }
+
+    /**
+     * Shuts down the replaced pools which have no leased connections, or which have been replaced for longer than the
+     * grace period, in which case the connections still leased are closed.
+     */
+    private void closeRetiredPools() {
+
+        long currentTime = System.currentTimeMillis();
+        for (Iterator<RetiredPool> iterator = retiredPools.iterator(); iterator.hasNext(); ) {
+            RetiredPool retiredPool = iterator.next();
+            PoolingHttpClientConnectionManager connectionManager = retiredPool.connectionManager;
+            connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+            int leased = connectionManager.getTotalStats().getLeased();
+            if (leased == 0 || currentTime - retiredPool.retiredTime >= retiredPoolGracePeriodMillis) {
+                if (leased > 0) {
+                    log.warn("Shutting down replaced HTTP client connection pool with " + leased
+                            + " connections which have not been released");
+                }
+                connectionManager.shutdown();
+                iterator.remove();
+            }
+        }
+    }
+
+    int getRetiredPoolCount() {
+
+        return retiredPools.size();
+    }
+
+    /**
+     * Key of a pool.
+     */
+    private static class PoolKey {
+
+        private final String protocol;
+        private final String trustStorePath;
+        private final String trustStorePassword;
+        private final String hostnameVerifier;
+        private final int maxTotal;
+        private final int defaultMaxPerRoute;
+
+        PoolKey(String protocol, String trustStorePath, String trustStorePassword, String hostnameVerifier,
+                int maxTotal, int defaultMaxPerRoute) {
+
+            this.protocol = protocol;
+            this.trustStorePath = trustStorePath;
+            this.trustStorePassword = trustStorePassword;
+            this.hostnameVerifier = hostnameVerifier;
+            this.maxTotal = maxTotal;
+            this.defaultMaxPerRoute = defaultMaxPerRoute;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PoolKey poolKey = (PoolKey) o;
+            return Objects.equals(protocol, poolKey.protocol) && Objects.equals(trustStorePath, poolKey.trustStorePath)
+                    && Objects.equals(trustStorePassword, poolKey.trustStorePassword)
+                    && Objects.equals(hostnameVerifier, poolKey.hostnameVerifier) && maxTotal == poolKey.maxTotal
+                    && defaultMaxPerRoute == poolKey.defaultMaxPerRoute;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(protocol, trustStorePath, hostnameVerifier, maxTotal, defaultMaxPerRoute);
+        }
+    }
+
+    /**
+     * A pool and the modification time of the trust store it was created with.
+     */
+    private static class PoolEntry {
+
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final long trustStoreLastModified;
+
+        PoolEntry(PoolingHttpClientConnectionManager connectionManager, long trustStoreLastModified) {
+
+            this.connectionManager = connectionManager;
+            this.trustStoreLastModified = trustStoreLastModified;
+        }
+    }
+
+    /**
+     * A replaced pool and the time it was replaced.
+     */
+    private static class RetiredPool {
+
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final long retiredTime;
+
+        RetiredPool(PoolingHttpClientConnectionManager connectionManager, long retiredTime) {
+
+            this.connectionManager = connectionManager;
+            this.retiredTime = retiredTime;
+        }
+    }
+
+    /**
+     * Connection manager handed to a client, which delegates to a shared pool and ignores the shutdown done when the
+     * client is closed.
+     */
+    private static class SharedConnectionManager implements HttpClientConnectionManager {
+
+        private final HttpClientConnectionManager pool;
+
+        SharedConnectionManager(HttpClientConnectionManager pool) {
+
+            this.pool = pool;
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+
+            return pool.requestConnection(route, state);
+        }
+
+        @Override
+        public void releaseConnection(HttpClientConnection conn, Object newState, long validDuration,
+                                      TimeUnit timeUnit) {
+
+            pool.releaseConnection(conn, newState, validDuration, timeUnit);
+        }
+
+        @Override
+        public void connect(HttpClientConnection conn, HttpRoute route, int connectTimeout, HttpContext context)
+                throws IOException {
+
+            pool.connect(conn, route, connectTimeout, context);
+        }
+
+        @Override
+        public void upgrade(HttpClientConnection conn, HttpRoute route, HttpContext context) throws IOException {
+
+            pool.upgrade(conn, route, context);
+        }
+
+        @Override
+        public void routeComplete(HttpClientConnection conn, HttpRoute route, HttpContext context)
+                throws IOException {
+
+            pool.routeComplete(conn, route, context);
+        }
+
+        @Override
+        public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+
+            pool.closeIdleConnections(idleTime, timeUnit);
+        }
+
+        @Override
+        public void closeExpiredConnections() {
+
+            pool.closeExpiredConnections();
+        }
+
+        @Override
+        public void shutdown() {
+
+            // The pool is shared with other clients and is closed by the registry
+        }
+    }
+
+    /**
+     * Keeps connections alive for the duration advertised by the server, capped at the idle timeout.
+     */
+    private static class KeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+        private final long maxKeepAliveMillis;
+
+        KeepAliveStrategy(long maxKeepAliveMillis) {
+
+            this.maxKeepAliveMillis = maxKeepAliveMillis;
+        }
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+
+            long keepAliveMillis = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAliveMillis > 0 ? Math.min(keepAliveMillis, maxKeepAliveMillis) : maxKeepAliveMillis;
+        }
+    }
+}
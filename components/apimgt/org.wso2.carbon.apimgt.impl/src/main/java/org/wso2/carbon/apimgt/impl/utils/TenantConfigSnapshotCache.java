@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.impl.utils;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.dto.TenantConfigSnapshot;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.cache.Cache;
+
+/**
+ * Keeps the parsed tenant-conf.json of each tenant in the tenant config cache as a {@link TenantConfigSnapshot}. The
+ * tenant-conf.json is read and parsed once per change, and the snapshot is swapped when the registry resource
+ * changes. A snapshot read before an invalidation completes is returned to its reader but not cached.
+ * <p>
+ * The registry handler invalidates the snapshot before the registry commits the change, as registry handlers run
+ * before the write. A reader which reads the old resource after the invalidation but before the commit caches the
+ * old config, which is then served until the next change or until the entry expires from the tenant config cache.
+ */
+public class TenantConfigSnapshotCache {
+
+    private final Supplier<Cache> cacheSupplier;
+    private final TenantConfigReader tenantConfigReader;
+    private final Map<Integer, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public TenantConfigSnapshotCache(Supplier<Cache> cacheSupplier, TenantConfigReader tenantConfigReader) {
+
+        this.cacheSupplier = cacheSupplier;
+        this.tenantConfigReader = tenantConfigReader;
+    }
+
+    /**
+     * Returns the snapshot of the tenant-conf.json of the given tenant.
+     *
+     * @param tenantId tenant ID
+     * @return snapshot of the tenant-conf.json
+     * @throws APIManagementException if the tenant-conf.json could not be read or parsed
+     */
+    @SuppressWarnings("unchecked")
+    public TenantConfigSnapshot getSnapshot(int tenantId) throws APIManagementException {
+
+        Cache tenantConfigCache = cacheSupplier.get();
+        String cacheKey = getCacheKey(tenantId);
+        Object cachedSnapshot = tenantConfigCache.get(cacheKey);
+        if (cachedSnapshot instanceof TenantConfigSnapshot) {
+            return (TenantConfigSnapshot) cachedSnapshot;
+        }
+        AtomicLong version = getVersion(tenantId);
+        long snapshotVersion = version.get();
+        String content = tenantConfigReader.read(tenantId);
+        TenantConfigSnapshot snapshot;
+        try {
+            snapshot = new TenantConfigSnapshot((JSONObject) new JSONParser().parse(content), snapshotVersion);
+        } catch (ParseException | ClassCastException e) {
+            throw new APIManagementException("Error while parsing tenant config of tenant: " + tenantId, e);
+        }
+        // The snapshot is still returned to the caller if the tenant-conf.json changed while it was being read
+        synchronized (version) {
+            if (snapshotVersion == version.get()) {
+                tenantConfigCache.put(cacheKey, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Removes the snapshot of the given tenant, when its tenant-conf.json changes.
+     *
+     * @param tenantId tenant ID
+     */
+    public void invalidate(int tenantId) {
+
+        AtomicLong version = getVersion(tenantId);
+        synchronized (version) {
+            version.incrementAndGet();
+            cacheSupplier.get().remove(getCacheKey(tenantId));
+        }
+    }
+
+    private AtomicLong getVersion(int tenantId) {
+
+        return versions.computeIfAbsent(tenantId, key -> new AtomicLong());
+    }
+
+    private static String getCacheKey(int tenantId) {
+
+        return tenantId + "_" + APIConstants.TENANT_CONFIG_CACHE_NAME;
+    }
+
+    /**
+     * Reads the content of the tenant-conf.json of a tenant.
+     */
+    public interface TenantConfigReader {
+
+        String read(int tenantId) throws APIManagementException;
+    }
+}
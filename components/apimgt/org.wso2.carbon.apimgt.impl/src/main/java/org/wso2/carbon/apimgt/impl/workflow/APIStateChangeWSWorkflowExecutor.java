@@ -193,6 +193,7 @@ public class APIStateChangeWSWorkflowExecutor extends WorkflowExecutor {
                 httpPost.setEntity(requestEntity);
                 try {
                     HttpResponse response = httpClient.execute(httpPost);
+                    EntityUtils.consume(response.getEntity());
                     if (response.getStatusLine().getStatusCode() != HttpStatus.SC_CREATED) {
                         String error = "Error while starting the process:  " + response.getStatusLine().getStatusCode()
                                 + " " + response.getStatusLine().getReasonPhrase();
@@ -338,6 +339,7 @@ public class APIStateChangeWSWorkflowExecutor extends WorkflowExecutor {
                     httpDelete = new HttpDelete(serviceEndpoint + RUNTIME_INSTANCE_RESOURCE_PATH + "/" + processId);
                     httpDelete.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
                     response = httpClient.execute(httpDelete);
+                    EntityUtils.consume(response.getEntity());
                     if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NO_CONTENT) {
                         errorMsg = "Error while deleting process instance details for " + workflowExtRef + " code: "
                                 + response.getStatusLine().getStatusCode();
@@ -353,6 +355,7 @@ public class APIStateChangeWSWorkflowExecutor extends WorkflowExecutor {
                 }
                 
             } else {
+                EntityUtils.consume(entity);
                 errorMsg = "Error while getting process instance details for " + workflowExtRef + " code: "
                         + response.getStatusLine().getStatusCode();
                 log.error(errorMsg);
@@ -525,6 +528,7 @@ public class APIStateChangeWSWorkflowExecutor extends WorkflowExecutor {
                     clientSecret = (String) obj.get(PayloadConstants.VARIABLE_CLIENTSECRET);
 
                 } else {
+                    EntityUtils.consume(entity);
                     String error = "Error while starting the process:  " + response.getStatusLine().getStatusCode()
                             + " " + response.getStatusLine().getReasonPhrase();
                     log.error(error);
@@ -192,6 +192,28 @@ public class WSDL11ProcessorImpl extends AbstractWSDLProcessor {
         return !hasError;
     }
 
+    /**
+     * Initializes the processor with the WSDL definitions already read by another WSDL 1.1 processor, without reading
+     * and parsing the WSDL again. The definitions are shared with the other processor.
+     *
+     * @param processor WSDL 1.1 processor which is already initialized
+     * @return true if the other processor read the WSDL without errors
+     */
+    public boolean init(WSDL11ProcessorImpl processor) {
+        setMode(processor.getMode());
+        wsdlDefinition = processor.wsdlDefinition;
+        wsdlArchiveExtractedPath = processor.wsdlArchiveExtractedPath;
+        pathToDefinitionMap = processor.pathToDefinitionMap;
+        if (processor.hasError()) {
+            setError(processor.getError());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Initialized an instance of " + this.getClass().getSimpleName() + " with the WSDL read by "
+                    + processor.getClass().getSimpleName());
+        }
+        return !hasError;
+    }
+
     @Override
     public WSDLInfo getWsdlInfo() throws APIMgtWSDLException {
         WSDLInfo wsdlInfo = new WSDLInfo();
@@ -149,6 +149,11 @@ public class WSDL11SOAPOperationExtractor extends WSDL11ProcessorImpl {
         return initModels();
     }
 
+    @Override
+    public boolean init(WSDL11ProcessorImpl processor) {
+        return super.init(processor) && initModels();
+    }
+
     /**
      * Initiallize SOAP to REST Operations
      *
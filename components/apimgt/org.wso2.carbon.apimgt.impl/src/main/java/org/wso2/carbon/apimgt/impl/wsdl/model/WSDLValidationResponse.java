@@ -30,6 +30,9 @@ public class WSDLValidationResponse {
     private WSDLArchiveInfo wsdlArchiveInfo;
     private WSDLProcessor wsdlProcessor;
     private ErrorHandler error;
+    private String contentHash;
+    private byte[] wsdlContent;
+    private String extractedArchivePath;
 
     public WSDLInfo getWsdlInfo() {
         return wsdlInfo;
@@ -70,4 +73,40 @@ public class WSDLValidationResponse {
     public WSDLProcessor getWsdlProcessor() {
         return wsdlProcessor;
     }
+
+    /**
+     * Returns the SHA-256 hash of the validated WSDL file or the files of the validated WSDL archive. The hash is
+     * computed from the WSDL content or the extracted archive only when the SOAP operation mapping is first needed.
+     *
+     * @return hex encoded hash of the WSDL content, or null if it has not been computed yet
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * @return content of the validated WSDL file, or null if the WSDL was read from an archive or a URL
+     */
+    public byte[] getWsdlContent() {
+        return wsdlContent;
+    }
+
+    public void setWsdlContent(byte[] wsdlContent) {
+        this.wsdlContent = wsdlContent;
+    }
+
+    /**
+     * @return path of the extracted WSDL archive, or null if the WSDL was read from a file or a URL
+     */
+    public String getExtractedArchivePath() {
+        return extractedArchivePath;
+    }
+
+    public void setExtractedArchivePath(String extractedArchivePath) {
+        this.extractedArchivePath = extractedArchivePath;
+    }
 }
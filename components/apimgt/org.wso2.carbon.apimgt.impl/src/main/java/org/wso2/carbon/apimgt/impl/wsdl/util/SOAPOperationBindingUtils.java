@@ -49,6 +49,7 @@ import org.wso2.carbon.apimgt.impl.wsdl.exceptions.APIMgtWSDLException;
 import org.wso2.carbon.apimgt.impl.wsdl.model.WSDLInfo;
 import org.wso2.carbon.apimgt.impl.wsdl.model.WSDLOperationParam;
 import org.wso2.carbon.apimgt.impl.wsdl.model.WSDLSOAPOperation;
+import org.wso2.carbon.apimgt.impl.wsdl.model.WSDLValidationResponse;
 import org.wso2.carbon.apimgt.impl.utils.APIMWSDLReader;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
@@ -91,29 +92,96 @@ public class SOAPOperationBindingUtils {
     }
 
     /**
-     * Gets soap operations to rest resources mapping for a wsdl byte content
+     * Gets soap operations to rest resources mapping for a wsdl byte content. The mapping is cached by the hash of
+     * the content, hence the same WSDL is parsed only once.
      *
      * @param wsdlContent WSDL byte content
      * @return swagger json string with the soap operation mapping
      * @throws APIManagementException if an error occurs when generating swagger
      */
     public static String getSoapOperationMapping(byte [] wsdlContent) throws APIManagementException {
-        WSDL11SOAPOperationExtractor processor = APIMWSDLReader.getWSDLSOAPOperationExtractor(wsdlContent);
-        WSDLInfo wsdlInfo = processor.getWsdlInfo();
-        return getGeneratedSwaggerFromWSDL(wsdlInfo);
+        String contentHash = SOAPOperationMappingCache.getHash(wsdlContent);
+        String swaggerStr = SOAPOperationMappingCache.getInstance().getMapping(contentHash);
+        if (swaggerStr == null) {
+            WSDL11SOAPOperationExtractor processor = APIMWSDLReader.getWSDLSOAPOperationExtractor(wsdlContent);
+            swaggerStr = getGeneratedSwaggerFromWSDL(processor.getWsdlInfo());
+            SOAPOperationMappingCache.getInstance().addMapping(contentHash, swaggerStr);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Found the soap operation mapping of the WSDL with hash: " + contentHash + " in the cache");
+        }
+        return swaggerStr;
     }
 
     /**
-     * Gets soap operations to rest resources mapping for a wsdl archive path
+     * Gets soap operations to rest resources mapping for a wsdl archive path. The mapping is cached by the hash of
+     * the files of the archive, hence the same WSDL archive is parsed only once.
      *
      * @param path Path of the extracted WSDL archive
      * @return swagger json string with the soap operation mapping
      * @throws APIManagementException if an error occurs when generating swagger
      */
     public static String getSoapOperationMapping(String path) throws APIManagementException {
-        WSDL11SOAPOperationExtractor processor = APIMWSDLReader.getWSDLSOAPOperationExtractor(path);
-        WSDLInfo wsdlInfo = processor.getWsdlInfo();
-        return getGeneratedSwaggerFromWSDL(wsdlInfo);
+        String contentHash = SOAPOperationMappingCache.getArchiveHash(path);
+        String swaggerStr = SOAPOperationMappingCache.getInstance().getMapping(contentHash);
+        if (swaggerStr == null) {
+            WSDL11SOAPOperationExtractor processor = APIMWSDLReader.getWSDLSOAPOperationExtractor(path);
+            swaggerStr = getGeneratedSwaggerFromWSDL(processor.getWsdlInfo());
+            SOAPOperationMappingCache.getInstance().addMapping(contentHash, swaggerStr);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Found the soap operation mapping of the WSDL archive with hash: " + contentHash
+                    + " in the cache");
+        }
+        return swaggerStr;
+    }
+
+    /**
+     * Gets soap operations to rest resources mapping for a validated WSDL. The WSDL read during the validation is
+     * used, hence the WSDL file, archive or URL is not read and parsed again. The mapping is cached by the hash of
+     * the validated WSDL file or archive, which is computed here rather than during the validation, so that only the
+     * validations which need the mapping pay for hashing the WSDL.
+     *
+     * @param validationResponse validation response of a valid WSDL
+     * @return swagger json string with the soap operation mapping
+     * @throws APIManagementException if an error occurs when generating swagger
+     */
+    public static String getSoapOperationMapping(WSDLValidationResponse validationResponse)
+            throws APIManagementException {
+        String contentHash = getContentHash(validationResponse);
+        String swaggerStr = null;
+        if (contentHash != null) {
+            swaggerStr = SOAPOperationMappingCache.getInstance().getMapping(contentHash);
+        }
+        if (swaggerStr == null) {
+            WSDL11SOAPOperationExtractor processor =
+                    APIMWSDLReader.getWSDLSOAPOperationExtractor(validationResponse.getWsdlProcessor());
+            swaggerStr = getGeneratedSwaggerFromWSDL(processor.getWsdlInfo());
+            if (contentHash != null) {
+                SOAPOperationMappingCache.getInstance().addMapping(contentHash, swaggerStr);
+            }
+        } else if (log.isDebugEnabled()) {
+            log.debug("Found the soap operation mapping of the WSDL with hash: " + contentHash + " in the cache");
+        }
+        return swaggerStr;
+    }
+
+    /**
+     * Gets the hash of the WSDL file or archive of a validation response, computing it on the first call.
+     *
+     * @param validationResponse validation response of a valid WSDL
+     * @return hex encoded hash of the WSDL content, or null if the WSDL was read from a URL
+     * @throws APIMgtWSDLException if the files of the WSDL archive could not be read
+     */
+    private static String getContentHash(WSDLValidationResponse validationResponse) throws APIMgtWSDLException {
+        String contentHash = validationResponse.getContentHash();
+        if (contentHash == null) {
+            if (validationResponse.getWsdlContent() != null) {
+                contentHash = SOAPOperationMappingCache.getHash(validationResponse.getWsdlContent());
+            } else if (validationResponse.getExtractedArchivePath() != null) {
+                contentHash = SOAPOperationMappingCache.getArchiveHash(validationResponse.getExtractedArchivePath());
+            }
+            validationResponse.setContentHash(contentHash);
+        }
+        return contentHash;
     }
 
     /**
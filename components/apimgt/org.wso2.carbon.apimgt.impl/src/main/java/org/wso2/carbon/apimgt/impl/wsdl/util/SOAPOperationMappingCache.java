@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.impl.wsdl.util;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.wso2.carbon.apimgt.impl.utils.LRUCache;
+import org.wso2.carbon.apimgt.impl.wsdl.exceptions.APIMgtWSDLException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of the SOAP operation to REST resource mappings generated from WSDLs. Mappings are keyed by the
+ * SHA-256 hash of the WSDL file, or of all the files of an extracted WSDL archive, hence a changed WSDL or imported
+ * schema never returns a stale mapping. The cached mappings are swagger strings, which cannot be modified by the
+ * callers.
+ */
+public class SOAPOperationMappingCache {
+
+    /**
+     * System property to configure the maximum number of cached SOAP operation mappings.
+     */
+    public static final String SOAP_OPERATION_MAPPING_CACHE_SIZE_PROPERTY = "soapOperationMappingCacheSize";
+    private static final int DEFAULT_SOAP_OPERATION_MAPPING_CACHE_SIZE = 100;
+
+    private static final SOAPOperationMappingCache instance = new SOAPOperationMappingCache(
+            Integer.getInteger(SOAP_OPERATION_MAPPING_CACHE_SIZE_PROPERTY, DEFAULT_SOAP_OPERATION_MAPPING_CACHE_SIZE));
+
+    private final Map<String, String> mappings;
+
+    SOAPOperationMappingCache(int maxEntries) {
+
+        mappings = new LRUCache<>(maxEntries);
+    }
+
+    public static SOAPOperationMappingCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * @param wsdlContent content of a single WSDL file
+     * @return hex encoded SHA-256 hash of the WSDL content
+     */
+    public static String getHash(byte[] wsdlContent) {
+
+        return DigestUtils.sha256Hex(wsdlContent);
+    }
+
+    /**
+     * Returns the hash of the WSDLs, schemas and other files of an extracted WSDL archive. The relative path of each
+     * file is hashed with its content, so that moving an imported schema changes the hash.
+     *
+     * @param path path of the extracted WSDL archive
+     * @return hex encoded SHA-256 hash of the files of the WSDL archive
+     * @throws APIMgtWSDLException if the files of the WSDL archive could not be read
+     */
+    public static String getArchiveHash(String path) throws APIMgtWSDLException {
+
+        File folder = new File(path);
+        List<File> files = new ArrayList<>(FileUtils.listFiles(folder, null, true));
+        Collections.sort(files);
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        try {
+            for (File file : files) {
+                byte[] content = FileUtils.readFileToByteArray(file);
+                String entry = folder.toURI().relativize(file.toURI()).getPath() + '\0' + content.length + '\0';
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+                digest.update(content);
+            }
+        } catch (IOException e) {
+            throw new APIMgtWSDLException("Error while reading the WSDL archive at " + path, e);
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * @param contentHash hash of the WSDL file or archive
+     * @return swagger of the SOAP operation mapping, or null if the mapping of the WSDL is not cached
+     */
+    public String getMapping(String contentHash) {
+
+        return mappings.get(contentHash);
+    }
+
+    public void addMapping(String contentHash, String swagger) {
+
+        mappings.put(contentHash, swagger);
+    }
+}
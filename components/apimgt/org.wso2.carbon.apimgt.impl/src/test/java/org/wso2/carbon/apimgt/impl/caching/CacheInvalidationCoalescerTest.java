@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.caching;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class CacheInvalidationCoalescerTest {
+
+    private static final long WINDOW_MILLIS = 200;
+
+    @Test
+    public void testKeysWithinWindowAreInvalidatedTogether() throws Exception {
+
+        List<Set<String>> invalidations = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CacheInvalidationCoalescer<String> coalescer = new CacheInvalidationCoalescer<>(WINDOW_MILLIS, keys -> {
+            invalidations.add(keys);
+            invalidated.countDown();
+        });
+        coalescer.invalidate(Arrays.asList("token1", "token2"));
+        coalescer.invalidate(Arrays.asList("token2", "token3"));
+        coalescer.invalidate(Collections.singletonList("token1"));
+
+        Assert.assertTrue(invalidated.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, invalidations.size());
+        Assert.assertEquals(3, invalidations.get(0).size());
+        Assert.assertTrue(invalidations.get(0).containsAll(Arrays.asList("token1", "token2", "token3")));
+    }
+
+    @Test
+    public void testNoStaleEntrySurvivesWindow() throws Exception {
+
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        CacheInvalidationCoalescer<String> coalescer =
+                new CacheInvalidationCoalescer<>(WINDOW_MILLIS, keys -> cache.keySet().removeAll(keys));
+        long submittedTime = System.currentTimeMillis();
+        for (int i = 0; i < 100; i += 2) {
+            coalescer.invalidate(Collections.singletonList("key" + i));
+        }
+        // Entries are still served within the window
+        Assert.assertTrue(cache.containsKey("key0"));
+
+        while (cache.containsKey("key98") && System.currentTimeMillis() - submittedTime < 5000) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue("Stale entries were served beyond the coalescing window",
+                System.currentTimeMillis() - submittedTime < WINDOW_MILLIS + 1000);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i % 2 != 0, cache.containsKey("key" + i));
+        }
+
+        // Keys submitted after a flush are invalidated within their own window
+        coalescer.invalidate(Collections.singletonList("key1"));
+        Thread.sleep(WINDOW_MILLIS + 1000);
+        Assert.assertFalse(cache.containsKey("key1"));
+    }
+
+    @Test
+    public void testZeroWindowInvalidatesSynchronously() {
+
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        cache.put("username", "validationInfo");
+        CacheInvalidationCoalescer<String> coalescer =
+                new CacheInvalidationCoalescer<>(0, keys -> cache.keySet().removeAll(keys));
+        coalescer.invalidate(Collections.singletonList("username"));
+        Assert.assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    public void testFlushInvalidatesPendingKeys() {
+
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        cache.put("resource", "resourceInfo");
+        CacheInvalidationCoalescer<String> coalescer =
+                new CacheInvalidationCoalescer<>(60000, keys -> cache.keySet().removeAll(keys));
+        coalescer.invalidate(Collections.singletonList("resource"));
+        Assert.assertTrue(cache.containsKey("resource"));
+        coalescer.flush();
+        Assert.assertTrue(cache.isEmpty());
+    }
+}
@@ -22,6 +22,8 @@ import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.impl.builder.StAXOMBuilder;
 import org.apache.commons.dbcp.BasicDataSource;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -74,6 +76,7 @@ import org.wso2.carbon.apimgt.impl.dto.APIKeyInfoDTO;
 import org.wso2.carbon.apimgt.impl.dto.ApplicationRegistrationWorkflowDTO;
 import org.wso2.carbon.apimgt.impl.dto.TierPermissionDTO;
 import org.wso2.carbon.apimgt.impl.factory.KeyManagerHolder;
+import org.wso2.carbon.apimgt.impl.factory.SQLConstantManagerFactory;
 import org.wso2.carbon.apimgt.impl.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.impl.notifier.Notifier;
 import org.wso2.carbon.apimgt.impl.utils.APIMgtDBUtil;
@@ -115,6 +118,7 @@ import static org.junit.Assert.assertTrue;
 @PrepareForTest( {KeyManagerHolder.class})
 public class APIMgtDAOTest {
 
+    private static final Log log = LogFactory.getLog(APIMgtDAOTest.class);
     public static ApiMgtDAO apiMgtDAO;
     private KeyManager keyManager;
 
@@ -134,6 +138,7 @@ public class APIMgtDAOTest {
         PowerMockito.mockStatic(KeyManagerHolder.class);
         keyManager = Mockito.mock(KeyManager.class);
         APIMgtDBUtil.initialize();
+        SQLConstantManagerFactory.initializeSQLConstantManager();
         apiMgtDAO = ApiMgtDAO.getInstance();
         IdentityTenantUtil.setRealmService(new TestRealmService());
         String identityConfigPath = System.getProperty("IdentityConfigurationPath");
@@ -1434,6 +1439,195 @@ public class APIMgtDAOTest {
         assertEquals(2,graphqlComplexityInfo.getList().size());
     }
 
+    @Test
+    public void testPaginatedSubscriptionsOfLargeApplication() throws Exception {
+
+        int subscriptionCount = 10000;
+        int pageSize = 25;
+        String provider = "testPaginatedSubscriptions";
+        Subscriber subscriber = new Subscriber(provider);
+        subscriber.setTenantId(-1234);
+        subscriber.setEmail("abc@wso2.com");
+        subscriber.setSubscribedDate(new Date(System.currentTimeMillis()));
+        apiMgtDAO.addSubscriber(subscriber, null);
+        Policy applicationPolicy = getApplicationPolicy(provider);
+        applicationPolicy.setTenantId(-1234);
+        apiMgtDAO.addApplicationPolicy((ApplicationPolicy) applicationPolicy);
+        Application application = new Application(provider, subscriber);
+        application.setTier(provider);
+        application.setId(apiMgtDAO.addApplication(application, provider));
+        addSubscriptions(provider, application.getId(), subscriptionCount);
+        try {
+            assertEquals(subscriptionCount, (int) apiMgtDAO.getSubscriptionCount(subscriber, provider, null));
+
+            // Every subscription is read once, in order, when walking the pages by the offset
+            List<String> apiNames = new ArrayList<>();
+            int lastSubscriptionId = 0;
+            int pages = 0;
+            Set<SubscribedAPI> page;
+            do {
+                page = apiMgtDAO.getPaginatedSubscribedAPIs(subscriber, provider, pages * pageSize,
+                        (pages + 1) * pageSize, null);
+                for (SubscribedAPI subscribedAPI : page) {
+                    assertTrue(subscribedAPI.getSubscriptionId() > lastSubscriptionId);
+                    lastSubscriptionId = subscribedAPI.getSubscriptionId();
+                    apiNames.add(subscribedAPI.getApiId().getApiName());
+                }
+                pages++;
+            } while (page.size() == pageSize);
+            assertEquals(subscriptionCount, apiNames.size());
+            assertEquals(subscriptionCount / pageSize + 1, pages);
+            List<String> expectedApiNames = new ArrayList<>();
+            for (int i = 0; i < subscriptionCount; i++) {
+                expectedApiNames.add(getPaginationAPIName(i));
+            }
+            assertEquals(expectedApiNames, apiNames);
+
+            // A page read by offset matches the same page of all the subscriptions of the application
+            int offset = subscriptionCount / 2;
+            long start = System.nanoTime();
+            Set<SubscribedAPI> allSubscriptions = apiMgtDAO.getSubscribedAPIs(subscriber, provider, null);
+            Set<String> slicedApiNames = new HashSet<>();
+            for (SubscribedAPI subscribedAPI : allSubscriptions) {
+                String apiName = subscribedAPI.getApiId().getApiName();
+                int index = Integer.parseInt(apiName.substring("PaginationAPI".length()));
+                if (index >= offset && index < offset + pageSize) {
+                    slicedApiNames.add(apiName);
+                }
+            }
+            long inMemoryNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            Set<SubscribedAPI> offsetPage = apiMgtDAO.getPaginatedSubscribedAPIs(subscriber, provider, offset,
+                    offset + pageSize, null);
+            long offsetNanos = System.nanoTime() - start;
+            assertEquals(allSubscriptions.size(), subscriptionCount);
+            assertEquals(pageSize, offsetPage.size());
+            Set<String> offsetPageApiNames = new HashSet<>();
+            for (SubscribedAPI subscribedAPI : offsetPage) {
+                offsetPageApiNames.add(subscribedAPI.getApiId().getApiName());
+            }
+            assertEquals(slicedApiNames, offsetPageApiNames);
+            assertTrue(apiMgtDAO.getPaginatedSubscribedAPIs(subscriber, provider, subscriptionCount,
+                    subscriptionCount + pageSize, null).isEmpty());
+            log.info("Page of " + pageSize + " out of " + subscriptionCount + " subscriptions - in memory: "
+                    + inMemoryNanos / 1000000 + " ms, offset: " + offsetNanos / 1000000 + " ms");
+        } finally {
+            deletePaginationSubscriptions(provider, application.getId());
+        }
+    }
+
+    @Test
+    public void testAPIUsageOfProviderWithManySubscriptions() throws Exception {
+
+        int subscriptionCount = 2500;
+        String provider = "testAPIUsageOfProvider";
+        Subscriber subscriber = new Subscriber(provider);
+        subscriber.setTenantId(-1234);
+        subscriber.setEmail("abc@wso2.com");
+        subscriber.setSubscribedDate(new Date(System.currentTimeMillis()));
+        apiMgtDAO.addSubscriber(subscriber, null);
+        Policy applicationPolicy = getApplicationPolicy(provider);
+        applicationPolicy.setTenantId(-1234);
+        apiMgtDAO.addApplicationPolicy((ApplicationPolicy) applicationPolicy);
+        Application application = new Application(provider, subscriber);
+        application.setTier(provider);
+        application.setId(apiMgtDAO.addApplication(application, provider));
+        addSubscriptions(provider, application.getId(), subscriptionCount);
+        try {
+            // The subscriptions of all the batches are grouped under the same user and application
+            UserApplicationAPIUsage[] usages = apiMgtDAO.getAllAPIUsageByProvider(provider);
+            assertEquals(1, usages.length);
+            assertEquals(provider, usages[0].getUserId());
+            assertEquals(provider, usages[0].getApplicationName());
+            assertEquals(application.getId(), usages[0].getAppId());
+            List<String> apiNames = new ArrayList<>();
+            for (SubscribedAPI subscribedAPI : usages[0].getApiSubscriptions()) {
+                apiNames.add(subscribedAPI.getApiId().getApiName());
+            }
+            List<String> expectedApiNames = new ArrayList<>();
+            for (int i = 0; i < subscriptionCount; i++) {
+                expectedApiNames.add(getPaginationAPIName(i));
+            }
+            assertEquals(expectedApiNames, apiNames);
+            assertEquals(subscriptionCount, apiMgtDAO.getAllAPIProductUsageByProvider(provider)[0]
+                    .getApiSubscriptions().length);
+
+            APIIdentifier apiIdentifier = new APIIdentifier(provider, getPaginationAPIName(1234), "1.0.0");
+            usages = apiMgtDAO.getAllAPIUsageByProviderAndApiId(provider, apiIdentifier);
+            assertEquals(1, usages.length);
+            assertEquals(1, usages[0].getApiSubscriptions().length);
+            assertEquals(apiIdentifier, usages[0].getApiSubscriptions()[0].getApiId());
+            assertEquals(1, apiMgtDAO.getAPIUsageCount(apiIdentifier));
+            assertEquals(0, apiMgtDAO.getAPIUsageCount(new APIIdentifier(provider, "NoSuchAPI", "1.0.0")));
+
+            // Rejected subscriptions are neither loaded nor counted
+            try (Connection conn = APIMgtDBUtil.getConnection();
+                 PreparedStatement ps = conn.prepareStatement("UPDATE AM_SUBSCRIPTION SET SUB_STATUS = ? WHERE "
+                         + "API_ID = (SELECT API_ID FROM AM_API WHERE API_PROVIDER = ? AND API_NAME = ?)")) {
+                ps.setString(1, APIConstants.SubscriptionStatus.REJECTED);
+                ps.setString(2, provider);
+                ps.setString(3, apiIdentifier.getApiName());
+                ps.executeUpdate();
+            }
+            assertEquals(0, apiMgtDAO.getAPIUsageCount(apiIdentifier));
+            assertEquals(0, apiMgtDAO.getAllAPIUsageByProviderAndApiId(provider, apiIdentifier).length);
+            assertEquals(subscriptionCount - 1, apiMgtDAO.getAllAPIUsageByProvider(provider)[0]
+                    .getApiSubscriptions().length);
+        } finally {
+            deletePaginationSubscriptions(provider, application.getId());
+        }
+    }
+
+    private static String getPaginationAPIName(int index) {
+
+        return String.format("PaginationAPI%05d", index);
+    }
+
+    private void addSubscriptions(String provider, int applicationId, int count) throws SQLException {
+
+        try (Connection conn = APIMgtDBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO AM_API (API_UUID, API_PROVIDER, API_NAME, "
+                    + "API_VERSION, CONTEXT, API_TYPE) VALUES (?,?,?,?,?,?)")) {
+                for (int i = 0; i < count; i++) {
+                    ps.setString(1, UUID.randomUUID().toString());
+                    ps.setString(2, provider);
+                    ps.setString(3, getPaginationAPIName(i));
+                    ps.setString(4, "1.0.0");
+                    ps.setString(5, "/" + getPaginationAPIName(i));
+                    ps.setString(6, "HTTP");
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO AM_SUBSCRIPTION (TIER_ID, API_ID, "
+                    + "APPLICATION_ID, SUB_STATUS, SUBS_CREATE_STATE, UUID) SELECT 'Gold', API_ID, ?, 'UNBLOCKED', "
+                    + "'SUBSCRIBE', CONCAT('SUB-', API_UUID) FROM AM_API WHERE API_PROVIDER = ? ORDER BY API_NAME")) {
+                ps.setInt(1, applicationId);
+                ps.setString(2, provider);
+                ps.executeUpdate();
+            }
+            conn.commit();
+        }
+    }
+
+    private void deletePaginationSubscriptions(String provider, int applicationId) throws SQLException {
+
+        try (Connection conn = APIMgtDBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps =
+                         conn.prepareStatement("DELETE FROM AM_SUBSCRIPTION WHERE APPLICATION_ID = ?")) {
+                ps.setInt(1, applicationId);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM AM_API WHERE API_PROVIDER = ?")) {
+                ps.setString(1, provider);
+                ps.executeUpdate();
+            }
+            conn.commit();
+        }
+    }
+
     private GraphqlComplexityInfo getGraphqlComplexityInfoDetails() {
         GraphqlComplexityInfo graphqlComplexityInfo = new GraphqlComplexityInfo();
 
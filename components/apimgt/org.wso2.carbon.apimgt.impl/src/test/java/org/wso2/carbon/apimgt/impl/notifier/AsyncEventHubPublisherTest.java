@@ -0,0 +1,235 @@
+/*
+ *  Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.notifier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncEventHubPublisherTest {
+
+    private static final Log log = LogFactory.getLog(AsyncEventHubPublisherTest.class);
+    private static final String STREAM_ID = "org.wso2.apimgt.notification.stream:1.0.0";
+
+    @Test
+    public void testEventsArePublishedInOrderPerTenant() throws Exception {
+
+        InMemorySink sink = new InMemorySink();
+        AsyncEventHubPublisher publisher = new AsyncEventHubPublisher(sink, 1000, 100);
+        int tenants = 4;
+        int eventsPerTenant = 25000;
+        List<Thread> producers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int tenant = 0; tenant < tenants; tenant++) {
+            String tenantDomain = "tenant" + tenant + ".com";
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < eventsPerTenant; i++) {
+                    publisher.publish(null, createEvent(tenantDomain, i));
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        Assert.assertTrue(publisher.flush(30, TimeUnit.SECONDS));
+        long elapsedNanos = System.nanoTime() - start;
+        publisher.shutdown();
+
+        Assert.assertEquals(tenants * eventsPerTenant, sink.events.size());
+        Map<Object, Integer> lastSequence = new HashMap<>();
+        for (Event event : sink.events) {
+            Object tenantDomain = event.getPayloadData()[0];
+            int sequence = (Integer) event.getPayloadData()[1];
+            Integer previous = lastSequence.get(tenantDomain);
+            Assert.assertEquals(previous == null ? 0 : previous + 1, sequence);
+            lastSequence.put(tenantDomain, sequence);
+        }
+        Assert.assertTrue(sink.batches > 0 && sink.batches <= sink.events.size());
+        log.info("Published " + sink.events.size() + " events in " + sink.batches + " batches at "
+                + (sink.events.size() * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1)) + " events/s");
+    }
+
+    @Test
+    public void testFlushWaitsForQueuedEvents() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        InMemorySink sink = new InMemorySink(release);
+        AsyncEventHubPublisher publisher = new AsyncEventHubPublisher(sink, 10, 10);
+        publisher.publish(null, createEvent("carbon.super", 0));
+        publisher.publish(null, createEvent("carbon.super", 1));
+        Assert.assertFalse(publisher.flush(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        Assert.assertTrue(publisher.flush(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, sink.events.size());
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testPublishBlocksWhenQueueIsFull() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        InMemorySink sink = new InMemorySink(release);
+        AsyncEventHubPublisher publisher = new AsyncEventHubPublisher(sink, 1, 1);
+        CountDownLatch published = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 4; i++) {
+                publisher.publish(null, createEvent("carbon.super", i));
+            }
+            published.countDown();
+        });
+        producer.start();
+        Assert.assertFalse(published.await(300, TimeUnit.MILLISECONDS));
+        release.countDown();
+        Assert.assertTrue(published.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(publisher.flush(10, TimeUnit.SECONDS));
+        Assert.assertEquals(4, sink.events.size());
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testPublishFallsBackToSynchronousWhenQueueStaysFull() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        DispatcherBlockingSink sink = new DispatcherBlockingSink(release);
+        AsyncEventHubPublisher publisher = new AsyncEventHubPublisher(sink, 1, 1, 100);
+        publisher.publish(null, createEvent("carbon.super", 0));
+        Assert.assertTrue(sink.dispatcherBlocked.await(10, TimeUnit.SECONDS));
+        publisher.publish(null, createEvent("carbon.super", 1));
+        // The queue is full and the dispatcher is stalled, so the event is published on this thread
+        publisher.publish(null, createEvent("carbon.super", 2));
+        Assert.assertEquals(1, sink.events.size());
+        Assert.assertEquals(2, sink.events.get(0).getPayloadData()[1]);
+        release.countDown();
+        Assert.assertTrue(publisher.flush(10, TimeUnit.SECONDS));
+        Assert.assertEquals(3, sink.events.size());
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testDispatcherSurvivesErrors() throws Exception {
+
+        InMemorySink sink = new InMemorySink() {
+            @Override
+            public void publish(Map dynamicProperties, List<Event> batch) {
+
+                if (Integer.valueOf(0).equals(batch.get(0).getPayloadData()[1])) {
+                    throw new AssertionError("Failed to publish");
+                }
+                super.publish(dynamicProperties, batch);
+            }
+        };
+        AsyncEventHubPublisher publisher = new AsyncEventHubPublisher(sink, 10, 1);
+        for (int i = 0; i < 3; i++) {
+            publisher.publish(null, createEvent("carbon.super", i));
+        }
+        Assert.assertTrue(publisher.flush(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, sink.events.size());
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testShutdownPublishesQueuedEvents() {
+
+        InMemorySink sink = new InMemorySink();
+        AsyncEventHubPublisher publisher = new AsyncEventHubPublisher(sink, 100, 10);
+        Map<String, String> dynamicProperties = Collections.singletonMap("key", "value");
+        for (int i = 0; i < 50; i++) {
+            publisher.publish(i % 2 == 0 ? null : dynamicProperties, createEvent("carbon.super", i));
+        }
+        publisher.shutdown();
+        Assert.assertEquals(50, sink.events.size());
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals(i, sink.events.get(i).getPayloadData()[1]);
+        }
+        publisher.publish(null, createEvent("carbon.super", 50));
+        Assert.assertEquals(51, sink.events.size());
+    }
+
+    private static Event createEvent(String tenantDomain, int sequence) {
+
+        return new Event(STREAM_ID, System.currentTimeMillis(), null, null, new Object[]{tenantDomain, sequence});
+    }
+
+    private static class DispatcherBlockingSink implements EventHubEventSink {
+
+        private final List<Event> events = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch release;
+        private final CountDownLatch dispatcherBlocked = new CountDownLatch(1);
+
+        DispatcherBlockingSink(CountDownLatch release) {
+
+            this.release = release;
+        }
+
+        @Override
+        public void publish(Map dynamicProperties, List<Event> batch) {
+
+            if ("EventHubAsyncPublisher".equals(Thread.currentThread().getName())) {
+                dispatcherBlocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.addAll(batch);
+        }
+    }
+
+    private static class InMemorySink implements EventHubEventSink {
+
+        private final List<Event> events = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch release;
+        private volatile int batches;
+
+        InMemorySink() {
+
+            this(new CountDownLatch(0));
+        }
+
+        InMemorySink(CountDownLatch release) {
+
+            this.release = release;
+        }
+
+        @Override
+        public void publish(Map dynamicProperties, List<Event> batch) {
+
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches++;
+            events.addAll(batch);
+        }
+    }
+}
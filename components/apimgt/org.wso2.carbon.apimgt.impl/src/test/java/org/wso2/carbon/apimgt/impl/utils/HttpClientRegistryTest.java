@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.utils;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+public class HttpClientRegistryTest {
+
+    private static final Log log = LogFactory.getLog(HttpClientRegistryTest.class);
+    private static final String PASSWORD = "wso2carbon";
+    private static final int REQUESTS = 20;
+
+    private HttpsServer server;
+    private String trustStorePath;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpClientRegistry registry;
+
+    @Before
+    public void setUp() throws Exception {
+
+        trustStorePath = new File(Thread.currentThread().getContextClassLoader()
+                .getResource("security/client-truststore.jks").toURI()).getAbsolutePath();
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream("wso2carbon.jks")) {
+            keyStore.load(inputStream, PASSWORD.toCharArray());
+        }
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, PASSWORD.toCharArray());
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+
+        server = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        server.start();
+        registry = new HttpClientRegistry(30);
+    }
+
+    @After
+    public void tearDown() {
+
+        registry.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testClientsShareConnections() throws Exception {
+
+        for (int i = 0; i < REQUESTS; i++) {
+            // Callers close the client after each call, which must not close the shared pool
+            try (CloseableHttpClient httpClient = createClient()) {
+                Assert.assertEquals("ok", execute(httpClient));
+            }
+        }
+        Assert.assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void testPoolIsSharedPerTlsProfile() throws Exception {
+
+        HttpClientConnectionManager first = getConnectionManager(APIConstants.HTTPS_PROTOCOL, null);
+        HttpClientConnectionManager second = getConnectionManager(APIConstants.HTTPS_PROTOCOL, null);
+        try (CloseableHttpClient firstClient = HttpClients.custom().setConnectionManager(first).build();
+             CloseableHttpClient secondClient = HttpClients.custom().setConnectionManager(second).build();
+             CloseableHttpClient strictClient = HttpClients.custom()
+                     .setConnectionManager(getConnectionManager(APIConstants.HTTPS_PROTOCOL, APIUtil.STRICT))
+                     .build()) {
+            execute(firstClient);
+            execute(secondClient);
+            Assert.assertEquals(1, clientPorts.size());
+            execute(strictClient);
+            Assert.assertEquals(2, clientPorts.size());
+        }
+    }
+
+    @Test
+    public void testPoolIsSharedPerPoolSize() throws Exception {
+
+        HttpClientConnectionManager connectionManager = registry.getConnectionManager(APIConstants.HTTPS_PROTOCOL,
+                trustStorePath, PASSWORD, null, 1, 1);
+        try (CloseableHttpClient defaultClient = createClient();
+             CloseableHttpClient smallPoolClient = HttpClients.custom().setConnectionManager(connectionManager)
+                     .build()) {
+            execute(defaultClient);
+            execute(smallPoolClient);
+            // The caller asking for a pool of one connection does not share the pool of the default size
+            Assert.assertEquals(2, clientPorts.size());
+        }
+    }
+
+    @Test
+    public void testReloadOpensNewConnections() throws Exception {
+
+        try (CloseableHttpClient httpClient = createClient()) {
+            execute(httpClient);
+        }
+        registry.reload();
+        try (CloseableHttpClient httpClient = createClient()) {
+            execute(httpClient);
+        }
+        Assert.assertEquals(2, clientPorts.size());
+    }
+
+    @Test
+    public void testRetiredPoolIsShutDownAfterGracePeriod() throws Exception {
+
+        try (CloseableHttpClient httpClient = createClient()) {
+            // The response is not consumed, so its connection stays leased
+            httpClient.execute(createRequest());
+            registry.reload();
+            Assert.assertEquals(1, registry.getRetiredPoolCount());
+        }
+        registry.shutdown();
+        registry = new HttpClientRegistry(30, 30, 0);
+        try (CloseableHttpClient httpClient = createClient()) {
+            httpClient.execute(createRequest());
+            registry.reload();
+            Assert.assertEquals(0, registry.getRetiredPoolCount());
+        }
+    }
+
+    @Test(expected = ConnectionPoolTimeoutException.class)
+    public void testExhaustedPoolTimesOut() throws Exception {
+
+        registry.shutdown();
+        registry = new HttpClientRegistry(30, 1, 0);
+        HttpClientConnectionManager connectionManager = registry.getConnectionManager(APIConstants.HTTPS_PROTOCOL,
+                trustStorePath, PASSWORD, null, 1, 1);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(registry.getConnectionRequestTimeout()).build();
+        try (CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig).build()) {
+            httpClient.execute(createRequest());
+            httpClient.execute(createRequest());
+        }
+    }
+
+    @Test
+    public void testSharedPoolIsFasterThanPoolPerCall() throws Exception {
+
+        // Warm up both paths
+        long perCallNanos = executePerCallPools(REQUESTS);
+        long sharedNanos = executeSharedPool(REQUESTS);
+        perCallNanos = executePerCallPools(REQUESTS);
+        sharedNanos = executeSharedPool(REQUESTS);
+        log.info("Average latency of " + REQUESTS + " HTTPS calls: pool per call=" + perCallNanos / REQUESTS / 1000
+                + "us, shared pool=" + sharedNanos / REQUESTS / 1000 + "us");
+        Assert.assertTrue(sharedNanos < perCallNanos);
+    }
+
+    private long executeSharedPool(int requests) throws Exception {
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            try (CloseableHttpClient httpClient = createClient()) {
+                execute(httpClient);
+            }
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Executes the requests the way {@link APIUtil#getHttpClient(int, String)} did before the pools were shared,
+     * loading the trust store and creating a pool for every call.
+     */
+    private long executePerCallPools(int requests) throws Exception {
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            KeyStore trustStore = KeyStore.getInstance("JKS");
+            try (InputStream inputStream = new FileInputStream(trustStorePath)) {
+                trustStore.load(inputStream, PASSWORD.toCharArray());
+            }
+            SSLConnectionSocketFactory socketFactory = new SSLConnectionSocketFactory(
+                    org.apache.http.conn.ssl.SSLContexts.custom().loadTrustMaterial(trustStore).build());
+            PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager(
+                    RegistryBuilder.<ConnectionSocketFactory>create()
+                            .register(APIConstants.HTTPS_PROTOCOL, socketFactory).build());
+            try (CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(pool).build()) {
+                execute(httpClient);
+            }
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private CloseableHttpClient createClient() throws Exception {
+
+        return HttpClients.custom().setConnectionManager(getConnectionManager(APIConstants.HTTPS_PROTOCOL, null))
+                .setKeepAliveStrategy(registry.getKeepAliveStrategy()).build();
+    }
+
+    private HttpClientConnectionManager getConnectionManager(String protocol, String hostnameVerifier)
+            throws Exception {
+
+        return registry.getConnectionManager(protocol, trustStorePath, PASSWORD, hostnameVerifier, 100, 50);
+    }
+
+    private HttpGet createRequest() {
+
+        return new HttpGet("https://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    private String execute(CloseableHttpClient httpClient) throws Exception {
+
+        try (CloseableHttpResponse response = httpClient.execute(createRequest())) {
+            return EntityUtils.toString(response.getEntity());
+        }
+    }
+}
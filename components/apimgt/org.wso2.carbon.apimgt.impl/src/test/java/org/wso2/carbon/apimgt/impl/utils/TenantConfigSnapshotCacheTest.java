@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.impl.utils;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.apimgt.impl.dto.TenantConfigSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.Cache;
+
+public class TenantConfigSnapshotCacheTest {
+
+    private static final Log log = LogFactory.getLog(TenantConfigSnapshotCacheTest.class);
+    private static final int TENANT_ID = 1;
+    private static final String REVISION = "Revision";
+
+    private Map<Object, Object> cacheEntries;
+    private Cache cache;
+    private JSONObject tenantConfig;
+    private volatile String tenantConfigContent;
+    private AtomicInteger reads;
+
+    @Before
+    public void setUp() throws Exception {
+
+        cacheEntries = new ConcurrentHashMap<>();
+        cache = Mockito.mock(Cache.class);
+        Mockito.doAnswer(invocation -> cacheEntries.get(invocation.getArguments()[0])).when(cache)
+                .get(Mockito.any());
+        Mockito.doAnswer(invocation -> cacheEntries.put(invocation.getArguments()[0], invocation.getArguments()[1]))
+                .when(cache).put(Mockito.any(), Mockito.any());
+        Mockito.doAnswer(invocation -> cacheEntries.remove(invocation.getArguments()[0]) != null).when(cache)
+                .remove(Mockito.any());
+        String content = IOUtils.toString(TenantConfigSnapshotCacheTest.class.getResourceAsStream("/tenant-conf.json"),
+                "UTF-8");
+        tenantConfig = (JSONObject) new JSONParser().parse(content);
+        tenantConfigContent = content;
+        reads = new AtomicInteger();
+    }
+
+    @Test
+    public void testSnapshotIsBuiltOnce() throws Exception {
+
+        TenantConfigSnapshotCache snapshotCache = createSnapshotCache();
+        TenantConfigSnapshot snapshot = snapshotCache.getSnapshot(TENANT_ID);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertSame(snapshot, snapshotCache.getSnapshot(TENANT_ID));
+        }
+        Assert.assertEquals(1, reads.get());
+
+        Assert.assertFalse(snapshot.isRecommendationEnabled());
+        Assert.assertFalse(snapshot.isPerTenantServiceProviderEnabled());
+        Assert.assertFalse(snapshot.isDefaultApplicationCreationDisabled());
+        Assert.assertNull(snapshot.getAnonymousModeEnabled());
+        Assert.assertNotNull(snapshot.getDefaultRoles());
+        Assert.assertEquals(APIUtil.getRESTAPIScopesFromConfig(snapshot.getRESTAPIScopesConfig(), null),
+                snapshot.getRESTAPIScopes());
+    }
+
+    @Test
+    public void testRoleMappingsArePrecomputed() throws Exception {
+
+        JSONObject scopes = (JSONObject) tenantConfig.get("RESTAPIScopes");
+        JSONObject roleMappings = new JSONObject();
+        roleMappings.put("admin", "administrator");
+        tenantConfig.put("RoleMappings", roleMappings);
+        tenantConfigContent = tenantConfig.toJSONString();
+        TenantConfigSnapshot snapshot = createSnapshotCache().getSnapshot(TENANT_ID);
+
+        Assert.assertEquals(APIUtil.getRESTAPIScopesFromConfig(scopes, roleMappings), snapshot.getRESTAPIScopes());
+        Assert.assertEquals(APIUtil.getRESTAPIScopesFromConfig(scopes, null),
+                snapshot.getRESTAPIScopesWithoutRoleMappings());
+        Assert.assertNotEquals(snapshot.getRESTAPIScopes(), snapshot.getRESTAPIScopesWithoutRoleMappings());
+        try {
+            snapshot.getRESTAPIScopes().put("apim:api_view", "everyone");
+            Assert.fail("Expected the REST API scopes of the snapshot to be unmodifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReturnedConfigsAreCopies() throws Exception {
+
+        TenantConfigSnapshot snapshot = createSnapshotCache().getSnapshot(TENANT_ID);
+        Map<String, String> scopes = snapshot.getRESTAPIScopes();
+
+        JSONObject config = snapshot.getConfig();
+        config.put(REVISION, 1L);
+        ((JSONObject) config.get("RESTAPIScopes")).clear();
+        snapshot.getDefaultRoles().clear();
+        snapshot.getRESTAPIScopesConfig().clear();
+
+        Assert.assertNull(snapshot.getConfig().get(REVISION));
+        Assert.assertFalse(((JSONObject) snapshot.getConfig().get("RESTAPIScopes")).isEmpty());
+        Assert.assertFalse(snapshot.getDefaultRoles().isEmpty());
+        Assert.assertEquals(APIUtil.getRESTAPIScopesFromConfig(snapshot.getRESTAPIScopesConfig(), null), scopes);
+    }
+
+    @Test
+    public void testSnapshotIsSwappedOnUpdate() throws Exception {
+
+        TenantConfigSnapshotCache snapshotCache = createSnapshotCache();
+        TenantConfigSnapshot snapshot = snapshotCache.getSnapshot(TENANT_ID);
+        updateTenantConfig(snapshotCache, 1);
+        TenantConfigSnapshot updatedSnapshot = snapshotCache.getSnapshot(TENANT_ID);
+
+        Assert.assertTrue(updatedSnapshot.getVersion() > snapshot.getVersion());
+        Assert.assertEquals(1L, updatedSnapshot.getConfig().get(REVISION));
+        Assert.assertNull(snapshot.getConfig().get(REVISION));
+        Assert.assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void testSnapshotReadDuringUpdateIsNotCached() throws Exception {
+
+        TenantConfigSnapshotCache[] snapshotCache = new TenantConfigSnapshotCache[1];
+        String oldContent = tenantConfigContent;
+        snapshotCache[0] = new TenantConfigSnapshotCache(() -> cache, tenantId -> {
+            // The tenant config is updated after the old content was read
+            tenantConfig.put(REVISION, 1L);
+            tenantConfigContent = tenantConfig.toJSONString();
+            snapshotCache[0].invalidate(tenantId);
+            return oldContent;
+        });
+
+        Assert.assertNull(snapshotCache[0].getSnapshot(TENANT_ID).getConfig().get(REVISION));
+        Assert.assertTrue(cacheEntries.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentReadersDuringUpdates() throws Exception {
+
+        TenantConfigSnapshotCache snapshotCache = createSnapshotCache();
+        AtomicBoolean updating = new AtomicBoolean(true);
+        AtomicInteger publishedRevision = new AtomicInteger();
+        CountDownLatch readersStarted = new CountDownLatch(8);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                readers.add(executorService.submit(() -> {
+                    readersStarted.countDown();
+                    int snapshotReads = 0;
+                    long lastVersion = -1;
+                    while (updating.get()) {
+                        int revision = publishedRevision.get();
+                        TenantConfigSnapshot snapshot = snapshotCache.getSnapshot(TENANT_ID);
+                        Object snapshotRevision = snapshot.getConfig().get(REVISION);
+                        // A reader never sees a config older than the last completed update
+                        Assert.assertTrue(revision == 0 || (snapshotRevision != null
+                                && ((Long) snapshotRevision).intValue() >= revision));
+                        Assert.assertTrue(snapshot.getVersion() >= lastVersion);
+                        Assert.assertNotNull(snapshot.getRESTAPIScopes());
+                        lastVersion = snapshot.getVersion();
+                        snapshotReads++;
+                    }
+                    return snapshotReads;
+                }));
+            }
+            Assert.assertTrue(readersStarted.await(10, TimeUnit.SECONDS));
+            for (int revision = 1; revision <= 200; revision++) {
+                updateTenantConfig(snapshotCache, revision);
+                publishedRevision.set(revision);
+                Thread.sleep(1);
+            }
+            updating.set(false);
+            for (Future<Integer> reader : readers) {
+                Assert.assertTrue(reader.get(10, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            updating.set(false);
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(200L, snapshotCache.getSnapshot(TENANT_ID).getConfig().get(REVISION));
+    }
+
+    @Test
+    public void testAccessorCost() throws Exception {
+
+        TenantConfigSnapshotCache snapshotCache = createSnapshotCache();
+        int iterations = 100000;
+        boolean recommendationEnabled = false;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            recommendationEnabled |= snapshotCache.getSnapshot(TENANT_ID).isRecommendationEnabled();
+        }
+        long snapshotNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            JSONObject parsedConfig = (JSONObject) new JSONParser().parse(tenantConfigContent);
+            recommendationEnabled |= Boolean.parseBoolean(parsedConfig.get("EnableRecommendation").toString());
+        }
+        long parseNanos = System.nanoTime() - start;
+        Assert.assertFalse(recommendationEnabled);
+        Assert.assertEquals(1, reads.get());
+        log.info("Tenant config accessor call: " + snapshotNanos / iterations + " ns, parsing tenant-conf.json: "
+                + parseNanos / 1000 + " ns");
+    }
+
+    private TenantConfigSnapshotCache createSnapshotCache() {
+
+        return new TenantConfigSnapshotCache(() -> cache, tenantId -> {
+            reads.incrementAndGet();
+            return tenantConfigContent;
+        });
+    }
+
+    private void updateTenantConfig(TenantConfigSnapshotCache snapshotCache, long revision) {
+
+        synchronized (this) {
+            tenantConfig.put(REVISION, revision);
+            tenantConfigContent = tenantConfig.toJSONString();
+        }
+        snapshotCache.invalidate(TENANT_ID);
+    }
+}
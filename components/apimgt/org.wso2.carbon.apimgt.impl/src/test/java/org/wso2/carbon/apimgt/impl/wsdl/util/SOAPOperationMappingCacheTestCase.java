@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.impl.wsdl.util;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.carbon.apimgt.impl.utils.APIMWSDLReader;
+import org.wso2.carbon.apimgt.impl.wsdl.WSDLProcessor;
+import org.wso2.carbon.apimgt.impl.wsdl.model.WSDLValidationResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class SOAPOperationMappingCacheTestCase {
+
+    private static final Log log = LogFactory.getLog(SOAPOperationMappingCacheTestCase.class);
+    private static final int LARGE_WSDL_OPERATION_COUNT = 1000;
+    private static final int LARGE_WSDL_SCHEMA_FILE_COUNT = 50;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testMappingIsCachedByContentHash() throws Exception {
+
+        byte[] wsdlContent = IOUtils.toByteArray(getClass().getResourceAsStream("/wsdls/phoneverify.wsdl"));
+        String mapping = SOAPOperationBindingUtils.getSoapOperationMapping(wsdlContent);
+        Assert.assertSame(mapping, SOAPOperationBindingUtils.getSoapOperationMapping(wsdlContent.clone()));
+
+        byte[] changedContent = (new String(wsdlContent, StandardCharsets.UTF_8) + "<!-- changed -->")
+                .getBytes(StandardCharsets.UTF_8);
+        String changedMapping = SOAPOperationBindingUtils.getSoapOperationMapping(changedContent);
+        Assert.assertNotSame(mapping, changedMapping);
+        assertSameOperations(mapping, changedMapping);
+    }
+
+    @Test
+    public void testMappingOfValidatedWSDL() throws Exception {
+
+        String wsdlUrl = getClass().getResource("/wsdls/simpleCustomerService.wsdl").toExternalForm();
+        byte[] wsdlContent = IOUtils.toByteArray(getClass().getResourceAsStream("/wsdls/simpleCustomerService.wsdl"));
+        WSDLValidationResponse validationResponse =
+                APIMWSDLReader.validateWSDLFile(new ByteArrayInputStream(wsdlContent));
+        Assert.assertTrue(validationResponse.isValid());
+        // The WSDL is hashed only when its mapping is needed
+        Assert.assertNull(validationResponse.getContentHash());
+
+        String mapping = SOAPOperationBindingUtils.getSoapOperationMapping(validationResponse);
+        Assert.assertEquals(SOAPOperationMappingCache.getHash(wsdlContent), validationResponse.getContentHash());
+        assertSameOperations(SOAPOperationBindingUtils.getSoapOperationMappingForUrl(wsdlUrl), mapping);
+        Assert.assertSame(mapping, SOAPOperationBindingUtils.getSoapOperationMapping(wsdlContent));
+    }
+
+    @Test
+    public void testArchiveHash() throws Exception {
+
+        File archive = createWSDLArchive("archive", 10);
+        String hash = SOAPOperationMappingCache.getArchiveHash(archive.getPath());
+        Assert.assertEquals(hash, SOAPOperationMappingCache.getArchiveHash(createWSDLArchive("copy", 10).getPath()));
+
+        Files.write(new File(archive, "schemas/types-0.xsd").toPath(), "<changed/>".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNotEquals(hash, SOAPOperationMappingCache.getArchiveHash(archive.getPath()));
+    }
+
+    @Test
+    public void testLargeWSDLArchive() throws Exception {
+
+        String path = createWSDLArchive("large", LARGE_WSDL_OPERATION_COUNT).getAbsolutePath();
+
+        resetPeakHeapUsage();
+        long start = System.nanoTime();
+        WSDLProcessor validatedProcessor = APIMWSDLReader.getWSDLProcessor(path);
+        long validationNanos = System.nanoTime() - start;
+        long validationHeap = getPeakHeapUsage();
+        Assert.assertFalse(validatedProcessor.hasError());
+
+        // Extracting the operations by reading and parsing the archive again
+        resetPeakHeapUsage();
+        start = System.nanoTime();
+        int reparsedOperations = APIMWSDLReader.getWSDLSOAPOperationExtractor(path).getWsdlInfo()
+                .getSoapBindingOperations().size();
+        long reparseNanos = System.nanoTime() - start;
+        long reparseHeap = getPeakHeapUsage();
+
+        // Extracting the operations from the WSDL read during the validation
+        resetPeakHeapUsage();
+        start = System.nanoTime();
+        int sharedOperations = APIMWSDLReader.getWSDLSOAPOperationExtractor(validatedProcessor).getWsdlInfo()
+                .getSoapBindingOperations().size();
+        long sharedNanos = System.nanoTime() - start;
+        long sharedHeap = getPeakHeapUsage();
+        Assert.assertEquals(LARGE_WSDL_OPERATION_COUNT, reparsedOperations);
+        Assert.assertEquals(reparsedOperations, sharedOperations);
+
+        WSDLValidationResponse validationResponse = new WSDLValidationResponse();
+        validationResponse.setValid(true);
+        validationResponse.setWsdlProcessor(validatedProcessor);
+        validationResponse.setExtractedArchivePath(path);
+        String mapping = SOAPOperationBindingUtils.getSoapOperationMapping(validationResponse);
+        Assert.assertEquals(SOAPOperationMappingCache.getArchiveHash(path), validationResponse.getContentHash());
+        Assert.assertEquals(LARGE_WSDL_OPERATION_COUNT, new SwaggerParser().parse(mapping).getPaths().size());
+
+        // The mapping of the same archive is served from the cache
+        start = System.nanoTime();
+        String cachedMapping = SOAPOperationBindingUtils.getSoapOperationMapping(path);
+        long cachedNanos = System.nanoTime() - start;
+        Assert.assertSame(mapping, cachedMapping);
+        Assert.assertTrue(cachedNanos < reparseNanos);
+
+        log.info("WSDL archive with " + LARGE_WSDL_OPERATION_COUNT + " operations - validation: "
+                + validationNanos / 1000000 + " ms, " + validationHeap / (1024 * 1024) + " MB peak heap; "
+                + "operation extraction after parsing again: " + reparseNanos / 1000000 + " ms, "
+                + reparseHeap / (1024 * 1024) + " MB peak heap; operation extraction from the validated WSDL: "
+                + sharedNanos / 1000000 + " ms, " + sharedHeap / (1024 * 1024) + " MB peak heap; cached mapping: "
+                + cachedNanos / 1000000 + " ms");
+    }
+
+    private static void assertSameOperations(String expectedMapping, String actualMapping) {
+
+        Swagger expected = new SwaggerParser().parse(expectedMapping);
+        Swagger actual = new SwaggerParser().parse(actualMapping);
+        Assert.assertEquals(expected.getPaths().keySet(), actual.getPaths().keySet());
+        Assert.assertEquals(expected.getDefinitions().keySet(), actual.getDefinitions().keySet());
+    }
+
+    private static void resetPeakHeapUsage() {
+
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long getPeakHeapUsage() {
+
+        long peakHeapUsage = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peakHeapUsage += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peakHeapUsage;
+    }
+
+    /**
+     * Creates an extracted WSDL archive with a document/literal WSDL of the given number of operations, and schema
+     * files which are shipped along with the WSDL.
+     */
+    private File createWSDLArchive(String name, int operationCount) throws Exception {
+
+        File archive = temporaryFolder.newFolder(name);
+        StringBuilder types = new StringBuilder();
+        StringBuilder messages = new StringBuilder();
+        StringBuilder portTypeOperations = new StringBuilder();
+        StringBuilder bindingOperations = new StringBuilder();
+        for (int i = 0; i < operationCount; i++) {
+            String operation = String.format("Process%04d", i);
+            types.append("<xsd:element name=\"").append(operation).append("\"><xsd:complexType><xsd:sequence>")
+                    .append("<xsd:element name=\"id\" type=\"xsd:string\"/>")
+                    .append("<xsd:element name=\"amount\" type=\"xsd:double\"/>")
+                    .append("<xsd:element name=\"items\" type=\"tns:Item\" maxOccurs=\"unbounded\"/>")
+                    .append("</xsd:sequence></xsd:complexType></xsd:element>")
+                    .append("<xsd:element name=\"").append(operation).append("Response\"><xsd:complexType>")
+                    .append("<xsd:sequence><xsd:element name=\"status\" type=\"xsd:string\"/></xsd:sequence>")
+                    .append("</xsd:complexType></xsd:element>");
+            messages.append("<wsdl:message name=\"").append(operation).append("Request\">")
+                    .append("<wsdl:part name=\"parameters\" element=\"tns:").append(operation).append("\"/>")
+                    .append("</wsdl:message><wsdl:message name=\"").append(operation).append("Response\">")
+                    .append("<wsdl:part name=\"parameters\" element=\"tns:").append(operation).append("Response\"/>")
+                    .append("</wsdl:message>");
+            portTypeOperations.append("<wsdl:operation name=\"").append(operation).append("\">")
+                    .append("<wsdl:input message=\"tns:").append(operation).append("Request\"/>")
+                    .append("<wsdl:output message=\"tns:").append(operation).append("Response\"/>")
+                    .append("</wsdl:operation>");
+            bindingOperations.append("<wsdl:operation name=\"").append(operation).append("\">")
+                    .append("<soap:operation soapAction=\"urn:").append(operation).append("\"/>")
+                    .append("<wsdl:input><soap:body use=\"literal\"/></wsdl:input>")
+                    .append("<wsdl:output><soap:body use=\"literal\"/></wsdl:output></wsdl:operation>");
+        }
+        String wsdl = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<wsdl:definitions xmlns:wsdl=\"http://schemas.xmlsoap.org/wsdl/\" "
+                + "xmlns:soap=\"http://schemas.xmlsoap.org/wsdl/soap/\" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" "
+                + "xmlns:tns=\"http://large.example.com/\" targetNamespace=\"http://large.example.com/\" "
+                + "name=\"LargeService\">"
+                + "<wsdl:types><xsd:schema targetNamespace=\"http://large.example.com/\" "
+                + "elementFormDefault=\"qualified\">" + types
+                + "<xsd:complexType name=\"Item\"><xsd:sequence><xsd:element name=\"code\" type=\"xsd:string\"/>"
+                + "<xsd:element name=\"quantity\" type=\"xsd:int\"/></xsd:sequence></xsd:complexType>"
+                + "</xsd:schema></wsdl:types>" + messages
+                + "<wsdl:portType name=\"LargePortType\">" + portTypeOperations + "</wsdl:portType>"
+                + "<wsdl:binding name=\"LargeBinding\" type=\"tns:LargePortType\">"
+                + "<soap:binding transport=\"http://schemas.xmlsoap.org/soap/http\" style=\"document\"/>"
+                + bindingOperations + "</wsdl:binding>"
+                + "<wsdl:service name=\"LargeService\"><wsdl:port name=\"LargePort\" binding=\"tns:LargeBinding\">"
+                + "<soap:address location=\"http://localhost:8080/large\"/></wsdl:port></wsdl:service>"
+                + "</wsdl:definitions>";
+        Files.write(new File(archive, "LargeService.wsdl").toPath(), wsdl.getBytes(StandardCharsets.UTF_8));
+        File schemas = new File(archive, "schemas");
+        Assert.assertTrue(schemas.mkdirs());
+        for (int i = 0; i < LARGE_WSDL_SCHEMA_FILE_COUNT; i++) {
+            String schema = "<xsd:schema xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" "
+                    + "targetNamespace=\"http://large.example.com/types/" + i + "\">" + types + "</xsd:schema>";
+            Files.write(new File(schemas, "types-" + i + ".xsd").toPath(), schema.getBytes(StandardCharsets.UTF_8));
+        }
+        return archive;
+    }
+}
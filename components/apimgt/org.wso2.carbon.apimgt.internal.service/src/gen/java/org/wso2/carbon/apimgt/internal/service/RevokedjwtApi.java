@@ -44,7 +44,7 @@ RevokedjwtApiService delegate = new RevokedjwtApiServiceImpl();
     @ApiResponses(value = { 
         @ApiResponse(code = 200, message = "An array of revoke JWTs", response = RevokedJWTListDTO.class, responseContainer = "List"),
         @ApiResponse(code = 200, message = "Unexpected error", response = ErrorDTO.class) })
-    public Response revokedjwtGet() throws APIManagementException{
-        return delegate.revokedjwtGet(securityContext);
+    public Response revokedjwtGet( @ApiParam(value = "**Search condition**.  Only the JWTs revoked at or after this timestamp (in milliseconds) are returned. ")  @QueryParam("since") Long since) throws APIManagementException{
+        return delegate.revokedjwtGet(since, securityContext);
     }
 }
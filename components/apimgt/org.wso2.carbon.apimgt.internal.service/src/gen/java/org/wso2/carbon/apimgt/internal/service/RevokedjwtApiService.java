@@ -21,5 +21,5 @@ import javax.ws.rs.core.SecurityContext;
 
 
 public interface RevokedjwtApiService {
-      public Response revokedjwtGet(MessageContext messageContext) throws APIManagementException;
+      public Response revokedjwtGet(Long since, MessageContext messageContext) throws APIManagementException;
 }
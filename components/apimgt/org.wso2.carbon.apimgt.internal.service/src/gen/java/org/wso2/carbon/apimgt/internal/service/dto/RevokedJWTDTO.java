@@ -18,6 +18,7 @@ public class RevokedJWTDTO   {
   
     private String jwtSignature = null;
     private Long expiryTime = null;
+    private Long timeCreated = null;
 
   /**
    * signature of the JWT token.
@@ -55,6 +56,24 @@ public class RevokedJWTDTO   {
     this.expiryTime = expiryTime;
   }
 
+  /**
+   * timestamp in milliseconds at which the JWT was revoked.
+   **/
+  public RevokedJWTDTO timeCreated(Long timeCreated) {
+    this.timeCreated = timeCreated;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "timestamp in milliseconds at which the JWT was revoked.")
+  @JsonProperty("time_created")
+  public Long getTimeCreated() {
+    return timeCreated;
+  }
+  public void setTimeCreated(Long timeCreated) {
+    this.timeCreated = timeCreated;
+  }
+
 
   @Override
   public boolean equals(java.lang.Object o) {
@@ -66,12 +85,13 @@ public class RevokedJWTDTO   {
     }
     RevokedJWTDTO revokedJWT = (RevokedJWTDTO) o;
     return Objects.equals(jwtSignature, revokedJWT.jwtSignature) &&
-        Objects.equals(expiryTime, revokedJWT.expiryTime);
+        Objects.equals(expiryTime, revokedJWT.expiryTime) &&
+        Objects.equals(timeCreated, revokedJWT.timeCreated);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(jwtSignature, expiryTime);
+    return Objects.hash(jwtSignature, expiryTime, timeCreated);
   }
 
   @Override
@@ -81,6 +101,7 @@ public class RevokedJWTDTO   {
     
     sb.append("    jwtSignature: ").append(toIndentedString(jwtSignature)).append("\n");
     sb.append("    expiryTime: ").append(toIndentedString(expiryTime)).append("\n");
+    sb.append("    timeCreated: ").append(toIndentedString(timeCreated)).append("\n");
     sb.append("}");
     return sb.toString();
   }
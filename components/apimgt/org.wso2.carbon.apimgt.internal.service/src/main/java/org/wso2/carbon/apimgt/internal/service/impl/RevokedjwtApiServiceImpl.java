@@ -10,7 +10,7 @@ import javax.ws.rs.core.Response;
 public class RevokedjwtApiServiceImpl implements RevokedjwtApiService {
 
     @Override
-    public Response revokedjwtGet(MessageContext messageContext) throws APIManagementException {
-        return Response.ok().entity(BlockConditionDBUtil.getRevokedJWTs()).build();
+    public Response revokedjwtGet(Long since, MessageContext messageContext) throws APIManagementException {
+        return Response.ok().entity(BlockConditionDBUtil.getRevokedJWTs(since)).build();
     }
 }
@@ -40,6 +40,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -298,21 +299,46 @@ public final class BlockConditionDBUtil {
      */
     public static RevokedJWTListDTO getRevokedJWTs() {
 
+        return getRevokedJWTs(null);
+    }
+
+    /**
+     * Fetches the revoked JWTs which are not yet expired from DB. When a watermark is given, only the JWTs revoked
+     * at or after it are returned, so that callers can fetch revocations incrementally.
+     *
+     * @param since timestamp in milliseconds from which the revocations should be fetched, or null to fetch all
+     * @return list fo revoked JWTs
+     */
+    public static RevokedJWTListDTO getRevokedJWTs(Long since) {
+
         Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         RevokedJWTListDTO revokedJWTListDTO = new RevokedJWTListDTO();
-        String sqlQuery = "SELECT SIGNATURE,EXPIRY_TIMESTAMP FROM AM_REVOKED_JWT";
+        String sqlQuery = "SELECT SIGNATURE,EXPIRY_TIMESTAMP,TIME_CREATED FROM AM_REVOKED_JWT " +
+                "WHERE EXPIRY_TIMESTAMP >= ?";
+        if (since != null) {
+            sqlQuery = sqlQuery + " AND TIME_CREATED >= ?";
+        }
         try {
             conn = BlockConditionDBUtil.getConnection();
             ps = conn.prepareStatement(sqlQuery);
+            // Expiry timestamps of revoked JWTs are stored in seconds
+            ps.setLong(1, System.currentTimeMillis() / 1000);
+            if (since != null) {
+                ps.setTimestamp(2, new Timestamp(since));
+            }
             rs = ps.executeQuery();
             while (rs.next()) {
                 String signature = rs.getString("SIGNATURE");
                 Long expiryTimestamp = rs.getLong("EXPIRY_TIMESTAMP");
+                Timestamp timeCreated = rs.getTimestamp("TIME_CREATED");
                 RevokedJWTDTO revokedJWTDTO = new RevokedJWTDTO();
                 revokedJWTDTO.setJwtSignature(signature);
                 revokedJWTDTO.setExpiryTime(expiryTimestamp);
+                if (timeCreated != null) {
+                    revokedJWTDTO.setTimeCreated(timeCreated.getTime());
+                }
                 revokedJWTListDTO.add(revokedJWTDTO);
             }
         } catch (SQLException e) {
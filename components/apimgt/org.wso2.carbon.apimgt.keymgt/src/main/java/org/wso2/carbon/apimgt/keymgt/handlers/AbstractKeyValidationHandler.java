@@ -29,6 +29,7 @@ import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.apimgt.keymgt.APIKeyMgtException;
 import org.wso2.carbon.apimgt.keymgt.SubscriptionDataHolder;
 import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataStore;
+import org.wso2.carbon.apimgt.keymgt.model.ValidationVerdictCache;
 import org.wso2.carbon.apimgt.keymgt.model.entity.API;
 import org.wso2.carbon.apimgt.keymgt.model.entity.ApiPolicy;
 import org.wso2.carbon.apimgt.keymgt.model.entity.Application;
@@ -184,11 +185,6 @@ public abstract class AbstractKeyValidationHandler implements KeyValidationHandl
     private boolean validateSubscriptionDetails(String context, String version, String consumerKey, String keyManager,
             APIKeyValidationInfoDTO infoDTO) throws APIManagementException {
         boolean defaultVersionInvoked = false;
-        String apiTenantDomain = MultitenantUtils.getTenantDomainFromRequestURL(context);
-        if (apiTenantDomain == null) {
-            apiTenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
-        }
-        int apiOwnerTenantId = APIUtil.getTenantIdFromTenantDomain(apiTenantDomain);
         // Check if the api version has been prefixed with _default_
         if (version != null && version.startsWith(APIConstants.DEFAULT_VERSION_PREFIX)) {
             defaultVersionInvoked = true;
@@ -206,7 +202,6 @@ public abstract class AbstractKeyValidationHandler implements KeyValidationHandl
         if (apiTenantDomain == null) {
             apiTenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
         }
-        int tenantId = APIUtil.getTenantIdFromTenantDomain(apiTenantDomain);
         API api = null;
         ApplicationKeyMapping key = null;
         Application app = null;
@@ -214,8 +209,22 @@ public abstract class AbstractKeyValidationHandler implements KeyValidationHandl
         
         SubscriptionDataStore datastore = SubscriptionDataHolder.getInstance()
                 .getTenantSubscriptionStore(apiTenantDomain);
+        ValidationVerdictCache verdictCache = null;
+        long verdictCacheGeneration = 0;
         //TODO add a check to see whether datastore is initialized an load data using rest api if it is not loaded
         if (datastore != null) {
+            verdictCache = datastore.getValidationVerdictCache();
+            if (verdictCache != null) {
+                APIKeyValidationInfoDTO verdict = verdictCache.getVerdict(consumerKey, keyManager, context, version);
+                if (verdict != null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Validation verdict found in cache for " + context + ":" + version);
+                    }
+                    applyVerdict(verdict, infoDTO);
+                    return infoDTO;
+                }
+                verdictCacheGeneration = verdictCache.getGeneration();
+            }
             api = datastore.getApiByContextAndVersion(context, version);
             if (api != null) {
                 key = datastore.getKeyMappingByKeyAndKeyManager(consumerKey, keyManager);
@@ -254,7 +263,16 @@ public abstract class AbstractKeyValidationHandler implements KeyValidationHandl
         }
         
         if (api != null && app != null && key != null && sub != null) {
-            validate(infoDTO, apiTenantDomain, tenantId, datastore, api, key, app, sub, keyManager);
+            int tenantId = APIUtil.getTenantIdFromTenantDomain(apiTenantDomain);
+            APIKeyValidationInfoDTO verdict = validate(new APIKeyValidationInfoDTO(), apiTenantDomain, tenantId,
+                    datastore, api, key, app, sub, keyManager);
+            if (verdictCache != null) {
+                verdictCache.addVerdict(consumerKey, keyManager, context, version, verdict,
+                        new ValidationVerdictCache.VerdictDependencies(api.getApiId(), api.getContext(),
+                                api.getApiVersion(), app.getId(), consumerKey, keyManager, app.getPolicy(),
+                                sub.getPolicyId(), api.getApiTier()), verdictCacheGeneration);
+            }
+            applyVerdict(verdict, infoDTO);
         } else if (!infoDTO.isAuthorized() && infoDTO.getValidationStatus() == 0) {
             //Scenario where validation failed and message is not set
             infoDTO.setValidationStatus(APIConstants.KeyValidationStatus.API_AUTH_RESOURCE_FORBIDDEN);
@@ -263,6 +281,47 @@ public abstract class AbstractKeyValidationHandler implements KeyValidationHandl
         return infoDTO;
     }
 
+    /**
+     * Copies the properties set by a validation verdict into the validation info of the request.
+     *
+     * @param verdict  validation verdict
+     * @param infoDTO  validation info of the request
+     */
+    private static void applyVerdict(APIKeyValidationInfoDTO verdict, APIKeyValidationInfoDTO infoDTO) {
+
+        if (!verdict.isAuthorized()) {
+            infoDTO.setValidationStatus(verdict.getValidationStatus());
+            if (verdict.getType() != null) {
+                infoDTO.setType(verdict.getType());
+            }
+            infoDTO.setAuthorized(false);
+            return;
+        }
+        infoDTO.setTier(verdict.getTier());
+        infoDTO.setSubscriber(verdict.getSubscriber());
+        infoDTO.setApplicationId(verdict.getApplicationId());
+        infoDTO.setApiName(verdict.getApiName());
+        infoDTO.setApiVersion(verdict.getApiVersion());
+        infoDTO.setApiPublisher(verdict.getApiPublisher());
+        infoDTO.setApplicationName(verdict.getApplicationName());
+        infoDTO.setApplicationTier(verdict.getApplicationTier());
+        infoDTO.setApplicationUUID(verdict.getApplicationUUID());
+        infoDTO.setAppAttributes(verdict.getAppAttributes());
+        infoDTO.setType(verdict.getType());
+        infoDTO.setContentAware(verdict.isContentAware());
+        infoDTO.setSpikeArrestLimit(verdict.getSpikeArrestLimit());
+        infoDTO.setSpikeArrestUnit(verdict.getSpikeArrestUnit());
+        infoDTO.setStopOnQuotaReach(verdict.isStopOnQuotaReach());
+        infoDTO.setSubscriberTenantDomain(verdict.getSubscriberTenantDomain());
+        infoDTO.setGraphQLMaxDepth(verdict.getGraphQLMaxDepth());
+        infoDTO.setGraphQLMaxComplexity(verdict.getGraphQLMaxComplexity());
+        if (verdict.getApiTier() != null) {
+            infoDTO.setApiTier(verdict.getApiTier());
+        }
+        infoDTO.setThrottlingDataList(new ArrayList<>(verdict.getThrottlingDataList()));
+        infoDTO.setAuthorized(true);
+    }
+
 
     private APIKeyValidationInfoDTO validate(APIKeyValidationInfoDTO infoDTO, String apiTenantDomain, int tenantId,
             SubscriptionDataStore datastore, API api, ApplicationKeyMapping key, Application app, Subscription sub,
@@ -163,5 +163,17 @@ public interface SubscriptionDataStore {
     Subscription getSubscriptionsByUUIds(String apiUUID, String applicationUUID);
 
     Subscription getSubscriptionBySubscriptionUUID(String subscriptionUUID);
+
+    /**
+     * Gets the cache of the subscription validation verdicts derived from this store. The verdicts are invalidated
+     * whenever an entity they were derived from is updated or removed. Stores which do not cache verdicts need not
+     * implement this, and the verdicts are then derived on every validation.
+     *
+     * @return Validation verdict cache of the store, or null if the store does not cache verdicts
+     */
+    default ValidationVerdictCache getValidationVerdictCache() {
+
+        return null;
+    }
 }
 
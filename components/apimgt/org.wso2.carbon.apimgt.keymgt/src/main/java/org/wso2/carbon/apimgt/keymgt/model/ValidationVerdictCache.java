@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.keymgt.model;
+
+import org.wso2.carbon.apimgt.impl.dto.APIKeyValidationInfoDTO;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Cache of the subscription validation verdicts of a tenant, keyed by the consumer key, key manager, context and
+ * version of the request. Each verdict records the API, application, key mapping and policies it was derived from, so
+ * that the events updating the subscription data store invalidate exactly the verdicts depending on the updated
+ * entity.
+ */
+public class ValidationVerdictCache {
+
+    /**
+     * System property to configure the maximum number of validation verdicts cached per tenant.
+     */
+    public static final String VERDICT_CACHE_SIZE_PROPERTY = "subscriptionValidationVerdictCacheSize";
+    private static final int DEFAULT_VERDICT_CACHE_SIZE = 10000;
+
+    private final Map<VerdictKey, Verdict> verdicts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxEntries;
+
+    public ValidationVerdictCache() {
+
+        this(Integer.getInteger(VERDICT_CACHE_SIZE_PROPERTY, DEFAULT_VERDICT_CACHE_SIZE));
+    }
+
+    public ValidationVerdictCache(int maxEntries) {
+
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached verdict of the given request.
+     *
+     * @param consumerKey consumer key of the request
+     * @param keyManager  key manager of the consumer key
+     * @param context     context of the API
+     * @param version     version of the API
+     * @return the cached verdict, or null if the request has no cached verdict
+     */
+    public APIKeyValidationInfoDTO getVerdict(String consumerKey, String keyManager, String context, String version) {
+
+        Verdict verdict = verdicts.get(new VerdictKey(consumerKey, keyManager, context, version));
+        return verdict != null ? verdict.validationInfo : null;
+    }
+
+    /**
+     * Returns the current generation of the cache, which changes whenever verdicts are invalidated. A verdict should
+     * be derived after reading the generation and cached with it, so that a verdict derived from data which was
+     * updated in the meantime is not cached.
+     *
+     * @return current generation of the cache
+     */
+    public long getGeneration() {
+
+        return generation.get();
+    }
+
+    /**
+     * Caches the verdict of the given request, unless verdicts were invalidated since the given generation. The data
+     * store must update its entities before invalidating the verdicts depending on them, so that a verdict derived
+     * from the old entities is either invalidated or rejected here.
+     *
+     * @param consumerKey    consumer key of the request
+     * @param keyManager     key manager of the consumer key
+     * @param context        context of the API
+     * @param version        version of the API
+     * @param validationInfo verdict of the request
+     * @param dependencies   entities the verdict was derived from
+     * @param generation     generation of the cache before the verdict was derived
+     */
+    public void addVerdict(String consumerKey, String keyManager, String context, String version,
+                           APIKeyValidationInfoDTO validationInfo, VerdictDependencies dependencies,
+                           long generation) {
+
+        if (verdicts.size() >= maxEntries) {
+            Iterator<VerdictKey> iterator = verdicts.keySet().iterator();
+            while (verdicts.size() >= maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        VerdictKey key = new VerdictKey(consumerKey, keyManager, context, version);
+        verdicts.put(key, new Verdict(validationInfo, dependencies));
+        // Drop the verdict if it was invalidated while being derived or added
+        if (this.generation.get() != generation) {
+            verdicts.remove(key);
+        }
+    }
+
+    public void invalidateApi(int apiId, String context, String version) {
+
+        invalidate(verdict -> verdict.dependencies.apiId == apiId
+                || (Objects.equals(verdict.dependencies.context, context)
+                && Objects.equals(verdict.dependencies.version, version)));
+    }
+
+    public void invalidateApplication(int applicationId) {
+
+        invalidate(verdict -> verdict.dependencies.applicationId == applicationId);
+    }
+
+    public void invalidateSubscription(int applicationId, int apiId) {
+
+        invalidate(verdict -> verdict.dependencies.applicationId == applicationId
+                && verdict.dependencies.apiId == apiId);
+    }
+
+    public void invalidateKeyMapping(String consumerKey, String keyManager) {
+
+        invalidate(verdict -> Objects.equals(verdict.dependencies.consumerKey, consumerKey)
+                && Objects.equals(verdict.dependencies.keyManager, keyManager));
+    }
+
+    public void invalidateApplicationPolicy(String policyName) {
+
+        invalidate(verdict -> Objects.equals(verdict.dependencies.applicationPolicy, policyName));
+    }
+
+    public void invalidateSubscriptionPolicy(String policyName) {
+
+        invalidate(verdict -> Objects.equals(verdict.dependencies.subscriptionPolicy, policyName));
+    }
+
+    public void invalidateApiPolicy(String policyName) {
+
+        invalidate(verdict -> Objects.equals(verdict.dependencies.apiPolicy, policyName));
+    }
+
+    public void invalidateAll() {
+
+        generation.incrementAndGet();
+        verdicts.clear();
+    }
+
+    public int size() {
+
+        return verdicts.size();
+    }
+
+    private void invalidate(Predicate<Verdict> predicate) {
+
+        // Called after the data store has been updated. The generation is changed before removing the verdicts, so
+        // that a verdict being derived concurrently from the old data is not cached after the removal
+        generation.incrementAndGet();
+        verdicts.values().removeIf(predicate);
+    }
+
+    /**
+     * Entities a verdict was derived from.
+     */
+    public static class VerdictDependencies {
+
+        private final int apiId;
+        private final String context;
+        private final String version;
+        private final int applicationId;
+        private final String consumerKey;
+        private final String keyManager;
+        private final String applicationPolicy;
+        private final String subscriptionPolicy;
+        private final String apiPolicy;
+
+        public VerdictDependencies(int apiId, String context, String version, int applicationId, String consumerKey,
+                                   String keyManager, String applicationPolicy, String subscriptionPolicy,
+                                   String apiPolicy) {
+
+            this.apiId = apiId;
+            this.context = context;
+            this.version = version;
+            this.applicationId = applicationId;
+            this.consumerKey = consumerKey;
+            this.keyManager = keyManager;
+            this.applicationPolicy = applicationPolicy;
+            this.subscriptionPolicy = subscriptionPolicy;
+            this.apiPolicy = apiPolicy;
+        }
+    }
+
+    private static class Verdict {
+
+        private final APIKeyValidationInfoDTO validationInfo;
+        private final VerdictDependencies dependencies;
+
+        Verdict(APIKeyValidationInfoDTO validationInfo, VerdictDependencies dependencies) {
+
+            this.validationInfo = validationInfo;
+            this.dependencies = dependencies;
+        }
+    }
+
+    private static class VerdictKey {
+
+        private final String consumerKey;
+        private final String keyManager;
+        private final String context;
+        private final String version;
+
+        VerdictKey(String consumerKey, String keyManager, String context, String version) {
+
+            this.consumerKey = consumerKey;
+            this.keyManager = keyManager;
+            this.context = context;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof VerdictKey)) {
+                return false;
+            }
+            VerdictKey that = (VerdictKey) o;
+            return Objects.equals(consumerKey, that.consumerKey) && Objects.equals(keyManager, that.keyManager)
+                    && Objects.equals(context, that.context) && Objects.equals(version, that.version);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(consumerKey, keyManager, context, version);
+        }
+    }
+}
@@ -463,6 +463,8 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
                 }
             } while (retry);
             if (HttpStatus.SC_OK != httpResponse.getStatusLine().getStatusCode()) {
+                // Release the connection back to the shared pool
+                EntityUtils.consumeQuietly(httpResponse.getEntity());
                 log.error("Could not retrieve subscriptions for tenantDomain : " + tenantDomain);
                 throw new DataLoadingException("Error while retrieving subscription from " + path);
             }
@@ -28,6 +28,7 @@ import org.wso2.carbon.apimgt.impl.caching.CacheInvalidationServiceImpl;
 import org.wso2.carbon.apimgt.impl.notifier.events.DeployAPIInGatewayEvent;
 import org.wso2.carbon.apimgt.keymgt.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataStore;
+import org.wso2.carbon.apimgt.keymgt.model.ValidationVerdictCache;
 import org.wso2.carbon.apimgt.keymgt.model.entity.API;
 import org.wso2.carbon.apimgt.keymgt.model.entity.ApiPolicy;
 import org.wso2.carbon.apimgt.keymgt.model.entity.Application;
@@ -70,6 +71,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     private Map<String, ApplicationPolicy> appPolicyMap;
     private Map<String, Subscription> subscriptionMap;
     private Map<String, Scope> scopesMap;
+    private ValidationVerdictCache validationVerdictCache;
     private boolean apisInitialized;
     private boolean applicationsInitialized;
     private boolean subscriptionsInitialized;
@@ -103,6 +105,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         this.subscriptionMap = new ConcurrentHashMap<>();
         this.scopesMap = new ConcurrentHashMap<>();
         this.apiNameVersionMap = new ConcurrentHashMap<>();
+        this.validationVerdictCache = new ValidationVerdictCache();
         initializeLoadingTasks();
     }
 
@@ -516,7 +519,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                 Subscription updatedSubscription = subscriptionMap.get(subscription.getCacheKey());
                 log.debug("Updated Subscription From map :" + updatedSubscription.toString());
             }
-
+            invalidateSubscriptionVerdicts(subscription);
         }
     }
 
@@ -524,6 +527,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     public void removeSubscription(Subscription subscription) {
 
         subscriptionMap.remove(subscription.getCacheKey());
+        invalidateSubscriptionVerdicts(subscription);
     }
 
     @Override
@@ -533,6 +537,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         apiByUUIDMap.put(api.getUuid(), api);
         apiNameVersionMap.put(key, api);
         apiMap.put(api.getCacheKey(), api);
+        validationVerdictCache.invalidateApi(api.getApiId(), api.getContext(), api.getApiVersion());
     }
 
     @Override
@@ -545,6 +550,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                 String key = newAPI.getApiName().concat(":").concat(newAPI.getApiVersion());
                 apiNameVersionMap.put(key, newAPI);
                 apiByUUIDMap.put(newAPI.getUuid(), newAPI);
+                validationVerdictCache.invalidateApi(newAPI.getApiId(), api.getContext(), api.getApiVersion());
             }
         } catch (DataLoadingException e) {
             log.error("Exception while loading api for " + api.getContext() + " " + api.getApiVersion(), e);
@@ -559,6 +565,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         apiByUUIDMap.remove(api.getUuid());
         apiNameVersionMap.remove(key);
         apiMap.remove(api.getCacheKey());
+        validationVerdictCache.invalidateApi(api.getApiId(), api.getContext(), api.getApiVersion());
     }
 
     @Override
@@ -566,12 +573,16 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
         applicationKeyMappingMap.remove(applicationKeyMapping.getCacheKey());
         applicationKeyMappingMap.put(applicationKeyMapping.getCacheKey(), applicationKeyMapping);
+        validationVerdictCache.invalidateKeyMapping(applicationKeyMapping.getConsumerKey(),
+                applicationKeyMapping.getKeyManager());
     }
 
     @Override
     public void removeApplicationKeyMapping(ApplicationKeyMapping applicationKeyMapping) {
 
         applicationKeyMappingMap.remove(applicationKeyMapping.getCacheKey());
+        validationVerdictCache.invalidateKeyMapping(applicationKeyMapping.getConsumerKey(),
+                applicationKeyMapping.getKeyManager());
     }
 
     @Override
@@ -579,6 +590,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
         subscriptionPolicyMap.remove(subscriptionPolicy.getCacheKey());
         subscriptionPolicyMap.put(subscriptionPolicy.getCacheKey(), subscriptionPolicy);
+        validationVerdictCache.invalidateSubscriptionPolicy(subscriptionPolicy.getName());
     }
 
     @Override
@@ -586,18 +598,21 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
         appPolicyMap.remove(applicationPolicy.getCacheKey());
         appPolicyMap.put(applicationPolicy.getCacheKey(), applicationPolicy);
+        validationVerdictCache.invalidateApplicationPolicy(applicationPolicy.getName());
     }
 
     @Override
     public void removeApplicationPolicy(ApplicationPolicy applicationPolicy) {
 
         appPolicyMap.remove(applicationPolicy.getCacheKey());
+        validationVerdictCache.invalidateApplicationPolicy(applicationPolicy.getName());
     }
 
     @Override
     public void removeSubscriptionPolicy(SubscriptionPolicy subscriptionPolicy) {
 
         subscriptionPolicyMap.remove(subscriptionPolicy.getCacheKey());
+        validationVerdictCache.invalidateSubscriptionPolicy(subscriptionPolicy.getName());
     }
 
     @Override
@@ -605,6 +620,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
         applicationMap.remove(application.getId());
         applicationMap.put(application.getId(), application);
+        validationVerdictCache.invalidateApplication(application.getId());
     }
 
     @Override
@@ -613,6 +629,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         applicationMap.remove(application.getId());
         subscriptionMap.values().removeIf(subscription ->
                 subscription != null && application.getUUID().equals(subscription.getApplicationUUID()));
+        validationVerdictCache.invalidateApplication(application.getId());
     }
 
     @Override
@@ -622,6 +639,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
             ApiPolicy policy = new SubscriptionDataLoaderImpl().getAPIPolicy(apiPolicy.getName(), tenantDomain);
             apiPolicyMap.remove(apiPolicy.getCacheKey());
             apiPolicyMap.put(apiPolicy.getCacheKey(), policy);
+            validationVerdictCache.invalidateApiPolicy(apiPolicy.getName());
         } catch (DataLoadingException e) {
             log.error("Exception while loading api policy for " + apiPolicy.getName() + " for domain " + tenantDomain,
                     e);
@@ -632,6 +650,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     public void removeApiPolicy(ApiPolicy apiPolicy) {
 
         apiPolicyMap.remove(apiPolicy.getCacheKey());
+        validationVerdictCache.invalidateApiPolicy(apiPolicy.getName());
     }
 
     @Override
@@ -677,6 +696,21 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         return null;
     }
 
+    @Override
+    public ValidationVerdictCache getValidationVerdictCache() {
+
+        return validationVerdictCache;
+    }
+
+    private void invalidateSubscriptionVerdicts(Subscription subscription) {
+
+        if (subscription.getAppId() != null && subscription.getApiId() != null) {
+            validationVerdictCache.invalidateSubscription(subscription.getAppId(), subscription.getApiId());
+        } else {
+            validationVerdictCache.invalidateAll();
+        }
+    }
+
     @Override
     public void addOrUpdateScope(Scope scope) {
 
@@ -735,7 +769,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     private void clearResourceCache(API api, String tenantDomain) {
 
         if (isAPIResourceValidationEnabled()) {
-            new CacheInvalidationServiceImpl().invalidateResourceCache(api.getContext(), api.getApiVersion(),
+            CacheInvalidationServiceImpl.getInstance().invalidateResourceCache(api.getContext(), api.getApiVersion(),
                     tenantDomain, api.getResources());
         }
     }
@@ -31,13 +31,22 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import org.wso2.carbon.apimgt.api.model.subscription.URLMapping;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.APIKeyValidationInfoDTO;
+import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.apimgt.keymgt.APIKeyMgtException;
 import org.wso2.carbon.apimgt.keymgt.SubscriptionDataHolder;
 import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataStore;
 import org.wso2.carbon.apimgt.keymgt.model.entity.API;
+import org.wso2.carbon.apimgt.keymgt.model.entity.Application;
+import org.wso2.carbon.apimgt.keymgt.model.entity.ApplicationKeyMapping;
+import org.wso2.carbon.apimgt.keymgt.model.entity.ApplicationPolicy;
+import org.wso2.carbon.apimgt.keymgt.model.entity.Subscription;
+import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionPolicy;
+import org.wso2.carbon.apimgt.keymgt.model.impl.SubscriptionDataLoaderImpl;
+import org.wso2.carbon.apimgt.keymgt.model.impl.SubscriptionDataStoreImpl;
 import org.wso2.carbon.apimgt.keymgt.service.TokenValidationContext;
 import org.wso2.carbon.base.MultitenantConstants;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -50,7 +59,8 @@ import static org.wso2.carbon.base.CarbonBaseConstants.CARBON_HOME;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({DefaultKeyValidationHandler.class, TokenValidationContext.class, APIKeyValidationInfoDTO.class,
-        SubscriptionDataStore.class, SubscriptionDataHolder.class, PrivilegedCarbonContext.class})
+        SubscriptionDataStore.class, SubscriptionDataHolder.class, PrivilegedCarbonContext.class,
+        SubscriptionDataStoreImpl.class, APIUtil.class, MultitenantUtils.class})
 
 public class DefaultKeyValidationHandlerTest extends DefaultKeyValidationHandler {
 
@@ -68,6 +78,9 @@ public class DefaultKeyValidationHandlerTest extends DefaultKeyValidationHandler
     private final String SCOPES = "subscriber";
     private final String ACCESS_TOKEN = "ca19a540f544777860e44e75f605d927";
     private final String TIER = "unlimited";
+    private final String CONSUMER_KEY = "consumerKey";
+    private final String KEY_MANAGER = "Resident Key Manager";
+    private final int TENANT_ID = -1234;
     private PrivilegedCarbonContext privilegedCarbonContext;
     private SubscriptionDataHolder subscriptionDataHolder;
     private SubscriptionDataStore tenantSubscriptionStore;
@@ -146,4 +159,150 @@ public class DefaultKeyValidationHandlerTest extends DefaultKeyValidationHandler
         Assert.assertTrue("Scope validation fails for default API " + API_NAME, isScopeValidated_default);
 
     }
+
+    @Test
+    public void testSubscriptionEventInvalidatesVerdict() throws Exception {
+
+        SubscriptionDataStoreImpl dataStore = createDataStore();
+        DefaultKeyValidationHandler handler = new DefaultKeyValidationHandler();
+        APIKeyValidationInfoDTO verdict = handler.validateSubscription(API_CONTEXT, API_VERSION, CONSUMER_KEY,
+                KEY_MANAGER);
+        Assert.assertTrue(verdict.isAuthorized());
+        Assert.assertEquals("Gold", verdict.getTier());
+        Assert.assertEquals(1, dataStore.getValidationVerdictCache().size());
+
+        Subscription blockedSubscription = createSubscription("Gold", APIConstants.SubscriptionStatus.BLOCKED);
+        blockedSubscription.setTimeStamp(System.currentTimeMillis() + 1);
+        dataStore.addOrUpdateSubscription(blockedSubscription);
+        verdict = handler.validateSubscription(API_CONTEXT, API_VERSION, CONSUMER_KEY, KEY_MANAGER);
+        Assert.assertFalse(verdict.isAuthorized());
+        Assert.assertEquals(APIConstants.KeyValidationStatus.API_BLOCKED, verdict.getValidationStatus());
+
+        dataStore.removeSubscription(blockedSubscription);
+        verdict = handler.validateSubscription(API_CONTEXT, API_VERSION, CONSUMER_KEY, KEY_MANAGER);
+        Assert.assertFalse(verdict.isAuthorized());
+    }
+
+    @Test
+    public void testApplicationAndKeyMappingEventsInvalidateVerdict() throws Exception {
+
+        SubscriptionDataStoreImpl dataStore = createDataStore();
+        DefaultKeyValidationHandler handler = new DefaultKeyValidationHandler();
+        APIKeyValidationInfoDTO verdict = handler.validateSubscription(API_CONTEXT, API_VERSION, CONSUMER_KEY,
+                KEY_MANAGER);
+        Assert.assertEquals(TIER, verdict.getApplicationTier());
+
+        dataStore.addOrUpdateApplicationPolicy(createApplicationPolicy("10PerMin"));
+        dataStore.addOrUpdateApplication(createApplication("10PerMin"));
+        verdict = handler.validateSubscription(API_CONTEXT, API_VERSION, CONSUMER_KEY, KEY_MANAGER);
+        Assert.assertTrue(verdict.isAuthorized());
+        Assert.assertEquals("10PerMin", verdict.getApplicationTier());
+
+        dataStore.removeApplicationKeyMapping(createKeyMapping());
+        verdict = handler.validateSubscription(API_CONTEXT, API_VERSION, CONSUMER_KEY, KEY_MANAGER);
+        Assert.assertFalse(verdict.isAuthorized());
+    }
+
+    @Test
+    public void testPolicyEventInvalidatesVerdict() throws Exception {
+
+        SubscriptionDataStoreImpl dataStore = createDataStore();
+        DefaultKeyValidationHandler handler = new DefaultKeyValidationHandler();
+        APIKeyValidationInfoDTO verdict = handler.validateSubscription(API_CONTEXT, API_VERSION, CONSUMER_KEY,
+                KEY_MANAGER);
+        Assert.assertEquals(0, verdict.getSpikeArrestLimit());
+
+        SubscriptionPolicy subscriptionPolicy = createSubscriptionPolicy("Gold");
+        subscriptionPolicy.setRateLimitCount(5);
+        dataStore.addOrUpdateSubscriptionPolicy(subscriptionPolicy);
+        verdict = handler.validateSubscription(API_CONTEXT, API_VERSION, CONSUMER_KEY, KEY_MANAGER);
+        Assert.assertEquals(5, verdict.getSpikeArrestLimit());
+    }
+
+    /**
+     * Creates a data store holding an application subscribed to an API, and returns it as the data store of the
+     * super tenant.
+     */
+    private SubscriptionDataStoreImpl createDataStore() throws Exception {
+
+        // Nothing is loaded from the internal API
+        PowerMockito.whenNew(SubscriptionDataLoaderImpl.class).withNoArguments()
+                .thenReturn(Mockito.mock(SubscriptionDataLoaderImpl.class));
+        PowerMockito.mockStatic(APIUtil.class);
+        PowerMockito.when(APIUtil.getTenantIdFromTenantDomain(TENANT_DOMAIN)).thenReturn(TENANT_ID);
+        PowerMockito.mockStatic(MultitenantUtils.class);
+        PowerMockito.when(MultitenantUtils.getTenantDomain(USER_NAME)).thenReturn(TENANT_DOMAIN);
+
+        SubscriptionDataStoreImpl dataStore = new SubscriptionDataStoreImpl(TENANT_DOMAIN);
+        API api = new API();
+        api.setApiId(1);
+        api.setApiProvider(USER_NAME);
+        api.setApiName(API_NAME);
+        api.setApiVersion(API_VERSION);
+        api.setContext(API_CONTEXT);
+        api.setUuid("api-uuid");
+        dataStore.addOrUpdateAPI(api);
+        dataStore.addOrUpdateApplicationKeyMapping(createKeyMapping());
+        dataStore.addOrUpdateApplicationPolicy(createApplicationPolicy(TIER));
+        dataStore.addOrUpdateApplication(createApplication(TIER));
+        dataStore.addOrUpdateSubscriptionPolicy(createSubscriptionPolicy("Gold"));
+        dataStore.addOrUpdateSubscription(createSubscription("Gold", APIConstants.SubscriptionStatus.UNBLOCKED));
+
+        Mockito.when(SubscriptionDataHolder.getInstance()).thenReturn(subscriptionDataHolder);
+        Mockito.when(subscriptionDataHolder.getTenantSubscriptionStore(eq(TENANT_DOMAIN))).thenReturn(dataStore);
+        return dataStore;
+    }
+
+    private ApplicationKeyMapping createKeyMapping() {
+
+        ApplicationKeyMapping keyMapping = new ApplicationKeyMapping();
+        keyMapping.setApplicationId(1);
+        keyMapping.setConsumerKey(CONSUMER_KEY);
+        keyMapping.setKeyManager(KEY_MANAGER);
+        keyMapping.setKeyType(APIConstants.API_KEY_TYPE_PRODUCTION);
+        return keyMapping;
+    }
+
+    private Application createApplication(String policy) {
+
+        Application application = new Application();
+        application.setId(1);
+        application.setName(APPLICATION_NAME);
+        application.setUUID("application-uuid");
+        application.setSubName(USER_NAME);
+        application.setPolicy(policy);
+        return application;
+    }
+
+    private Subscription createSubscription(String policy, String state) {
+
+        Subscription subscription = new Subscription();
+        subscription.setSubscriptionId("1");
+        subscription.setAppId(1);
+        subscription.setApiId(1);
+        subscription.setPolicyId(policy);
+        subscription.setSubscriptionState(state);
+        subscription.setTimeStamp(System.currentTimeMillis());
+        return subscription;
+    }
+
+    private ApplicationPolicy createApplicationPolicy(String name) {
+
+        ApplicationPolicy applicationPolicy = new ApplicationPolicy();
+        applicationPolicy.setId(1);
+        applicationPolicy.setTenantId(TENANT_ID);
+        applicationPolicy.setTierName(name);
+        applicationPolicy.setQuotaType("requestCount");
+        return applicationPolicy;
+    }
+
+    private SubscriptionPolicy createSubscriptionPolicy(String name) {
+
+        SubscriptionPolicy subscriptionPolicy = new SubscriptionPolicy();
+        subscriptionPolicy.setId(1);
+        subscriptionPolicy.setTenantId(TENANT_ID);
+        subscriptionPolicy.setTierName(name);
+        subscriptionPolicy.setQuotaType("requestCount");
+        return subscriptionPolicy;
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.keymgt.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.impl.dto.APIKeyValidationInfoDTO;
+
+public class ValidationVerdictCacheTest {
+
+    private static final String KEY_MANAGER = "Resident Key Manager";
+
+    private ValidationVerdictCache cache;
+
+    @Before
+    public void setUp() {
+
+        cache = new ValidationVerdictCache(100);
+        // Consumer key 1 of application 1 subscribed to API 1, consumer key 2 of application 2 subscribed to API 2
+        addVerdict(cache, "key1", 1, "/api1", 1, "Unlimited", "Gold", "api1Policy");
+        addVerdict(cache, "key2", 2, "/api2", 2, "10PerMin", "Bronze", "api2Policy");
+    }
+
+    @Test
+    public void testVerdictIsCached() {
+
+        APIKeyValidationInfoDTO verdict = cache.getVerdict("key1", KEY_MANAGER, "/api1", "1.0");
+        Assert.assertNotNull(verdict);
+        Assert.assertTrue(verdict.isAuthorized());
+        Assert.assertNull(cache.getVerdict("key1", KEY_MANAGER, "/api2", "1.0"));
+        Assert.assertNull(cache.getVerdict("key1", "Other Key Manager", "/api1", "1.0"));
+    }
+
+    @Test
+    public void testSubscriptionUpdateInvalidatesVerdict() {
+
+        cache.invalidateSubscription(1, 1);
+        assertInvalidatedOnlyFirstVerdict();
+    }
+
+    @Test
+    public void testApplicationUpdateInvalidatesVerdict() {
+
+        cache.invalidateApplication(1);
+        assertInvalidatedOnlyFirstVerdict();
+    }
+
+    @Test
+    public void testKeyMappingUpdateInvalidatesVerdict() {
+
+        cache.invalidateKeyMapping("key1", KEY_MANAGER);
+        assertInvalidatedOnlyFirstVerdict();
+    }
+
+    @Test
+    public void testApiUpdateInvalidatesVerdict() {
+
+        cache.invalidateApi(1, "/other", "2.0");
+        assertInvalidatedOnlyFirstVerdict();
+        addVerdict(cache, "key1", 1, "/api1", 1, "Unlimited", "Gold", "api1Policy");
+        // An API redeployed with a new id invalidates the verdicts of its context and version
+        cache.invalidateApi(3, "/api1", "1.0");
+        assertInvalidatedOnlyFirstVerdict();
+    }
+
+    @Test
+    public void testPolicyUpdatesInvalidateVerdicts() {
+
+        cache.invalidateApplicationPolicy("Unlimited");
+        assertInvalidatedOnlyFirstVerdict();
+        addVerdict(cache, "key1", 1, "/api1", 1, "Unlimited", "Gold", "api1Policy");
+        cache.invalidateSubscriptionPolicy("Gold");
+        assertInvalidatedOnlyFirstVerdict();
+        addVerdict(cache, "key1", 1, "/api1", 1, "Unlimited", "Gold", "api1Policy");
+        cache.invalidateApiPolicy("api1Policy");
+        assertInvalidatedOnlyFirstVerdict();
+    }
+
+    @Test
+    public void testInvalidateAll() {
+
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testVerdictDerivedBeforeInvalidationIsNotCached() {
+
+        long generation = cache.getGeneration();
+        // The subscription is updated while the verdict is being derived from the old subscription
+        cache.invalidateSubscription(3, 3);
+        cache.addVerdict("key3", KEY_MANAGER, "/api3", "1.0", createVerdict(),
+                new ValidationVerdictCache.VerdictDependencies(3, "/api3", "1.0", 3, "key3", KEY_MANAGER,
+                        "Unlimited", "Gold", null), generation);
+        Assert.assertNull(cache.getVerdict("key3", KEY_MANAGER, "/api3", "1.0"));
+    }
+
+    @Test
+    public void testCacheSizeIsBounded() {
+
+        ValidationVerdictCache boundedCache = new ValidationVerdictCache(10);
+        for (int i = 0; i < 50; i++) {
+            addVerdict(boundedCache, "key" + i, i, "/api" + i, i, "Unlimited", "Gold", null);
+        }
+        Assert.assertTrue(boundedCache.size() <= 10);
+    }
+
+    private void assertInvalidatedOnlyFirstVerdict() {
+
+        Assert.assertNull(cache.getVerdict("key1", KEY_MANAGER, "/api1", "1.0"));
+        Assert.assertNotNull(cache.getVerdict("key2", KEY_MANAGER, "/api2", "1.0"));
+    }
+
+    private static void addVerdict(ValidationVerdictCache cache, String consumerKey, int applicationId,
+                                   String context, int apiId, String applicationPolicy, String subscriptionPolicy,
+                                   String apiPolicy) {
+
+        cache.addVerdict(consumerKey, KEY_MANAGER, context, "1.0", createVerdict(),
+                new ValidationVerdictCache.VerdictDependencies(apiId, context, "1.0", applicationId, consumerKey,
+                        KEY_MANAGER, applicationPolicy, subscriptionPolicy, apiPolicy), cache.getGeneration());
+    }
+
+    private static APIKeyValidationInfoDTO createVerdict() {
+
+        APIKeyValidationInfoDTO verdict = new APIKeyValidationInfoDTO();
+        verdict.setAuthorized(true);
+        return verdict;
+    }
+}
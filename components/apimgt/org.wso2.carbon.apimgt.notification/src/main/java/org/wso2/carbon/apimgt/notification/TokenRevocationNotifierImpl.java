@@ -30,6 +30,7 @@ import org.apache.http.client.HttpClient;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.token.TokenRevocationNotifier;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
@@ -124,6 +125,7 @@ public class TokenRevocationNotifierImpl implements TokenRevocationNotifier {
                 log.error("Sending revoked token to persistent storage failed. HTTP error code : " + etcdResponse
                         .getStatusLine().getStatusCode());
             }
+            EntityUtils.consume(etcdResponse.getEntity());
         } catch (IOException e) {
             log.error("Error while sending revoked token to the persistent storage :", e);
         }
@@ -97,7 +97,6 @@ import org.wso2.carbon.apimgt.api.model.ResourcePath;
 import org.wso2.carbon.apimgt.api.model.SOAPToRestSequence;
 import org.wso2.carbon.apimgt.api.model.Scope;
 import org.wso2.carbon.apimgt.api.model.ServiceEntry;
-import org.wso2.carbon.apimgt.api.model.SubscribedAPI;
 import org.wso2.carbon.apimgt.api.model.SwaggerData;
 import org.wso2.carbon.apimgt.api.model.Tier;
 import org.wso2.carbon.apimgt.api.model.URITemplate;
@@ -1544,9 +1543,7 @@ public class ApisApiServiceImpl implements ApisApiService {
 
             API api = apiProvider.getAPIbyUUID(apiId, tenantDomain);
             //check if the API has subscriptions
-            //Todo : need to optimize this check. This method seems too costly to check if subscription exists
-            List<SubscribedAPI> apiUsages = apiProvider.getAPIUsageByAPIId(api.getId());
-            if (apiUsages != null && apiUsages.size() > 0) {
+            if (apiProvider.getAPIUsageCount(api.getId()) > 0) {
                 RestApiUtil.handleConflict("Cannot remove the API " + apiId + " as active subscriptions exist", log);
             }
 
@@ -3408,12 +3405,7 @@ public class ApisApiServiceImpl implements ApisApiService {
             if (isSoapAPI) {
                 createdApi = importSOAPAPI(fileInputStream, fileDetail, url, apiToAdd);
             } else if (isSoapToRestConvertedAPI) {
-                String wsdlArchiveExtractedPath = null;
-                if (validationResponse.getWsdlArchiveInfo() != null) {
-                    wsdlArchiveExtractedPath = validationResponse.getWsdlArchiveInfo().getLocation()
-                            + File.separator + APIConstants.API_WSDL_EXTRACTED_DIRECTORY;
-                }
-                createdApi = importSOAPToRESTAPI(fileInputStream, fileDetail, url, wsdlArchiveExtractedPath, apiToAdd);
+                createdApi = importSOAPToRESTAPI(validationResponse, apiToAdd);
             } else {
                 RestApiUtil.handleBadRequest("Invalid implementationType parameter", log);
             }
@@ -3526,41 +3518,27 @@ public class ApisApiServiceImpl implements ApisApiService {
     }
 
     /**
-     * Import an API from WSDL as a SOAP-to-REST API
+     * Import an API from WSDL as a SOAP-to-REST API. The SOAP operations are extracted from the WSDL read during the
+     * validation, without reading the WSDL file, archive or URL again.
      *
-     * @param fileInputStream file data as input stream
-     * @param fileDetail file details
-     * @param url URL of the WSDL
+     * @param validationResponse validation response of the WSDL
      * @param apiToAdd API object to be added to the system (which is not added yet)
      * @return API added api
      */
-    private API importSOAPToRESTAPI(InputStream fileInputStream, Attachment fileDetail, String url,
-            String wsdlArchiveExtractedPath, API apiToAdd) throws APIManagementException {
+    private API importSOAPToRESTAPI(WSDLValidationResponse validationResponse, API apiToAdd)
+            throws APIManagementException {
         try {
             APIProvider apiProvider = RestApiCommonUtil.getLoggedInUserProvider();
             String tenantDomain = RestApiCommonUtil.getLoggedInUserTenantDomain();
             //adding the api
             API createdApi = apiProvider.addAPI(apiToAdd);
 
-            String swaggerStr = "";
-            if (StringUtils.isNotBlank(url)) {
-                swaggerStr = SOAPOperationBindingUtils.getSoapOperationMappingForUrl(url);
-            } else if (fileInputStream != null) {
-                String filename = fileDetail.getContentDisposition().getFilename();
-                if (filename.endsWith(".zip")) {
-                    swaggerStr = SOAPOperationBindingUtils.getSoapOperationMapping(wsdlArchiveExtractedPath);;
-                } else if (filename.endsWith(".wsdl")) {
-                    byte[] wsdlContent = APIUtil.toByteArray(fileInputStream);
-                    swaggerStr = SOAPOperationBindingUtils.getSoapOperationMapping(wsdlContent);
-                } else {
-                    throw new APIManagementException(ExceptionCodes.UNSUPPORTED_WSDL_FILE_EXTENSION);
-                }
-            }
+            String swaggerStr = SOAPOperationBindingUtils.getSoapOperationMapping(validationResponse);
             String updatedSwagger = updateSwagger(createdApi.getUUID(), swaggerStr);
             return PublisherCommonUtils
                     .updateAPIBySettingGenerateSequencesFromSwagger(updatedSwagger, createdApi, apiProvider,
                             tenantDomain);
-        } catch (FaultGatewaysException | IOException e) {
+        } catch (FaultGatewaysException e) {
             throw new APIManagementException("Error while importing WSDL to create a SOAP-to-REST API", e);
         }
     }
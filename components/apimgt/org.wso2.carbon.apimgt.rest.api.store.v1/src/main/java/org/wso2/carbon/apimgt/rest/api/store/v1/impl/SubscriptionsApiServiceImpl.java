@@ -141,12 +141,17 @@ public class SubscriptionsApiServiceImpl implements SubscriptionsApiService {
                     RestApiUtil.handleAuthorizationFailure(RestApiConstants.RESOURCE_APPLICATION, applicationId, log);
                 }
 
-                subscriptions = apiConsumer
-                        .getPaginatedSubscribedAPIs(subscriber, application.getName(), offset, limit, groupId);
+                // The page is read and counted in the database, so the subscriptions of the application are not
+                // loaded to be paginated here
+                int subscriptionCount = apiConsumer.getSubscriptionCount(subscriber, application.getName(), groupId);
+                subscriptions = apiConsumer.getPaginatedSubscribedAPIs(subscriber, application.getName(), offset,
+                        offset + limit, groupId);
                 subscribedAPIList.addAll(subscriptions);
 
                 subscriptionListDTO = SubscriptionMappingUtil.fromSubscriptionListToDTO(subscribedAPIList, tenantDomain,
-                        limit, offset);
+                        limit, 0);
+                SubscriptionMappingUtil.setApplicationPaginationParams(subscriptionListDTO, applicationId, limit,
+                        offset, subscriptionCount);
                 return Response.ok().entity(subscriptionListDTO).build();
 
             } else {
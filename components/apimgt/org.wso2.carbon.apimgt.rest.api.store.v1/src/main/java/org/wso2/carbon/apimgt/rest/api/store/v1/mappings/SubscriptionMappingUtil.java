@@ -216,4 +216,42 @@ public class SubscriptionMappingUtil {
         pagination.setTotal(size);
         subscriptionListDTO.setPagination(pagination);
     }
+
+    /**
+     * Sets pagination urls for a SubscriptionListDTO object of an application given pagination parameters
+     *
+     * @param subscriptionListDTO a SubscriptionListDTO object
+     * @param applicationId       uuid of the application
+     * @param limit               max number of objects returned
+     * @param offset              starting index
+     * @param size                total number of subscriptions of the application
+     */
+    public static void setApplicationPaginationParams(SubscriptionListDTO subscriptionListDTO, String applicationId,
+                                                      int limit, int offset, int size) {
+
+        String paginatedPrevious = "";
+        String paginatedNext = "";
+
+        Map<String, Integer> paginatedParams = RestApiCommonUtil.getPaginationParams(offset, limit, size);
+
+        if (paginatedParams.get(RestApiConstants.PAGINATION_PREVIOUS_OFFSET) != null) {
+            paginatedPrevious = RestApiCommonUtil.getSubscriptionPaginatedURLForApplicationId(
+                    paginatedParams.get(RestApiConstants.PAGINATION_PREVIOUS_OFFSET),
+                    paginatedParams.get(RestApiConstants.PAGINATION_PREVIOUS_LIMIT), applicationId);
+        }
+
+        if (paginatedParams.get(RestApiConstants.PAGINATION_NEXT_OFFSET) != null) {
+            paginatedNext = RestApiCommonUtil.getSubscriptionPaginatedURLForApplicationId(
+                    paginatedParams.get(RestApiConstants.PAGINATION_NEXT_OFFSET),
+                    paginatedParams.get(RestApiConstants.PAGINATION_NEXT_LIMIT), applicationId);
+        }
+
+        PaginationDTO pagination = new PaginationDTO();
+        pagination.setOffset(offset);
+        pagination.setLimit(limit);
+        pagination.setNext(paginatedNext);
+        pagination.setPrevious(paginatedPrevious);
+        pagination.setTotal(size);
+        subscriptionListDTO.setPagination(pagination);
+    }
 }
@@ -30,6 +30,7 @@ import org.wso2.carbon.apimgt.impl.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.apimgt.rest.api.common.RestApiConstants;
 import org.wso2.carbon.apimgt.rest.api.util.authenticators.WebAppAuthenticator;
+import org.wso2.carbon.apimgt.rest.api.util.utils.ResourceScopeIndex;
 import org.wso2.carbon.apimgt.rest.api.util.utils.RestApiUtil;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.oauth2.OAuth2TokenValidationService;
@@ -41,7 +42,6 @@ import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.utils.CarbonUtils;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
-import org.wso2.uri.template.URITemplateException;
 
 import java.util.*;
 import javax.cache.Cache;
@@ -175,9 +175,9 @@ public class WebAppAuthenticatorImpl implements WebAppAuthenticator {
 
         String version = (String) message.get(RestApiConstants.API_VERSION);
 
-        //get all the URI templates of the REST API from the base path
-        Set<URITemplate> uriTemplates = RestApiUtil.getURITemplatesForBasePath(basePath + version);
-        if (uriTemplates.isEmpty()) {
+        //get the resource scope index of the REST API from the base path
+        ResourceScopeIndex resourceScopeIndex = RestApiUtil.getResourceScopeIndexForBasePath(basePath + version);
+        if (resourceScopeIndex == null) {
             if (log.isDebugEnabled()) {
                 log.debug("No matching scopes found for request with path: " + basePath
                         + ". Skipping scope validation.");
@@ -185,53 +185,12 @@ public class WebAppAuthenticatorImpl implements WebAppAuthenticator {
             return true;
         }
 
-        for (Object template : uriTemplates.toArray()) {
-            org.wso2.uri.template.URITemplate templateToValidate = null;
-            Map<String, String> var = new HashMap<String, String>();
-            //check scopes with what we have
-            String templateString = ((URITemplate) template).getUriTemplate();
-            try {
-                templateToValidate = new org.wso2.uri.template.URITemplate(templateString);
-            } catch (URITemplateException e) {
-                log.error("Error while creating URI Template object to validate request. Template pattern: " +
-                        templateString, e);
-            }
-            if (templateToValidate != null && templateToValidate.matches(resource, var) && scopes != null
-                    && verb != null && verb.equalsIgnoreCase(((URITemplate) template).getHTTPVerb())) {
-                for (String scope : scopes) {
-                    Scope scp = ((URITemplate) template).getScope();
-                    if (scp != null) {
-                        if (scope.equalsIgnoreCase(scp.getKey())) {
-                            //we found scopes matches
-                            if (log.isDebugEnabled()) {
-                                log.debug("Scope validation successful for access token: " +
-                                        tokenInfo.getAccessToken() + " with scope: " + scp.getKey() +
-                                        " for resource path: " + path + " and verb " + verb);
-                            }
-                            return true;
-                        }
-                    } else if (!((URITemplate) template).retrieveAllScopes().isEmpty()) {
-                        List<Scope> scopesList = ((URITemplate) template).retrieveAllScopes();
-                        for (Scope scpObj : scopesList) {
-                            if (scope.equalsIgnoreCase(scpObj.getKey())) {
-                                //we found scopes matches
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Scope validation successful for access token: " +
-                                            tokenInfo.getAccessToken() + " with scope: " + scpObj.getKey() +
-                                            " for resource path: " + path + " and verb " + verb);
-                                }
-                                return true;
-                            }
-                        }
-                    } else {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Scope not defined in swagger for matching resource " + resource + " and verb "
-                                    + verb + " . So consider as anonymous permission and let request to continue.");
-                        }
-                        return true;
-                    }
-                }
+        if (resourceScopeIndex.isAllowed(resource, verb, scopes)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Scope validation successful for access token: " + tokenInfo.getAccessToken()
+                        + " for resource path: " + path + " and verb " + verb);
             }
+            return true;
         }
         return false;
     }
@@ -24,7 +24,7 @@ import org.apache.cxf.jaxrs.model.ClassResourceInfo;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.phase.AbstractPhaseInterceptor;
 import org.apache.cxf.phase.Phase;
-import org.wso2.carbon.apimgt.rest.api.util.utils.EntitlementServiceClient;
+import org.wso2.carbon.apimgt.rest.api.util.utils.EntitlementDecisionCache;
 import org.wso2.carbon.apimgt.rest.api.util.utils.RestApiUtil;
 
 //import org.wso2.carbon.identity.entitlement.proxy.PEPProxy;
@@ -76,8 +76,7 @@ public class XACMLAuthenticationInterceptor extends AbstractPhaseInterceptor {
     private boolean isUserPermitted(String userName, String resource, String httpMethod, String[] arr) {
         try {
             String status;
-            EntitlementServiceClient client = new EntitlementServiceClient();
-            status = client.validateAction(userName, resource, httpMethod, arr);
+            status = EntitlementDecisionCache.getInstance().getDecision(userName, resource, httpMethod, arr);
             //TODO this permit need to be replaced with XACML constant for permitted.
             if(status.equalsIgnoreCase("Permit")){
                 return true;
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.rest.api.util.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
+import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the decisions of the XACML PDP. Decisions are cached for a short period against the subject, resource,
+ * action and environment of the request, so that repeated requests of a user are authorized without a call to the
+ * PDP. Concurrent requests for the same decision share a single PDP call, and the entitlement service clients are
+ * pooled so that a client is not initialized for every request.
+ */
+public class EntitlementDecisionCache {
+
+    private static final Log log = LogFactory.getLog(EntitlementDecisionCache.class);
+
+    /**
+     * System property to configure the time in seconds for which a decision of the PDP is cached.
+     */
+    public static final String DECISION_CACHE_EXPIRY_TIME_PROPERTY = "xacmlDecisionCacheExpiryTime";
+    /**
+     * System property to configure the maximum number of cached decisions.
+     */
+    public static final String DECISION_CACHE_SIZE_PROPERTY = "xacmlDecisionCacheSize";
+    /**
+     * System property to configure the maximum number of idle entitlement service clients kept for reuse.
+     */
+    public static final String CLIENT_POOL_SIZE_PROPERTY = "xacmlEntitlementClientPoolSize";
+
+    private static final long DEFAULT_DECISION_CACHE_EXPIRY_TIME = 30;
+    private static final int DEFAULT_DECISION_CACHE_SIZE = 10000;
+    private static final int DEFAULT_CLIENT_POOL_SIZE = 8;
+
+    private static volatile EntitlementDecisionCache instance;
+
+    private final Callable<EntitlementServiceClient> clientFactory;
+    private final long expiryMillis;
+    private final int maxEntries;
+    private final BlockingQueue<EntitlementServiceClient> clientPool;
+    private final ConcurrentMap<DecisionKey, Decision> decisions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DecisionKey, CompletableFuture<String>> inFlightDecisions =
+            new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    EntitlementDecisionCache(Callable<EntitlementServiceClient> clientFactory, long expiryMillis, int maxEntries,
+                             int poolSize) {
+
+        this.clientFactory = clientFactory;
+        this.expiryMillis = expiryMillis;
+        this.maxEntries = maxEntries;
+        this.clientPool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    public static EntitlementDecisionCache getInstance() {
+
+        if (instance == null) {
+            synchronized (EntitlementDecisionCache.class) {
+                if (instance == null) {
+                    long expiryTime = Long.getLong(DECISION_CACHE_EXPIRY_TIME_PROPERTY,
+                            DEFAULT_DECISION_CACHE_EXPIRY_TIME);
+                    instance = new EntitlementDecisionCache(EntitlementServiceClient::new,
+                            TimeUnit.SECONDS.toMillis(expiryTime),
+                            Integer.getInteger(DECISION_CACHE_SIZE_PROPERTY, DEFAULT_DECISION_CACHE_SIZE),
+                            Integer.getInteger(CLIENT_POOL_SIZE_PROPERTY, DEFAULT_CLIENT_POOL_SIZE));
+                    registerInvalidator();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the decision of the PDP for the given request, from the cache if a decision for the same request has
+     * not expired yet.
+     *
+     * @param subject     subject to be checked with PDP
+     * @param resource    resource name to be checked with PDP
+     * @param action      action to be checked with PDP
+     * @param environment environment to be checked with PDP
+     * @return decision of the PDP
+     * @throws APIManagementException if the PDP could not evaluate the request
+     */
+    public String getDecision(String subject, String resource, String action, String[] environment)
+            throws APIManagementException {
+
+        DecisionKey key = new DecisionKey(subject, resource, action, environment);
+        Decision decision = decisions.get(key);
+        if (decision != null && !decision.isExpired()) {
+            if (log.isDebugEnabled()) {
+                log.debug("XACML decision found in cache for " + action + " " + resource + " of " + subject);
+            }
+            return decision.value;
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> inFlightDecision = inFlightDecisions.putIfAbsent(key, future);
+        if (inFlightDecision != null) {
+            return awaitDecision(inFlightDecision);
+        }
+        try {
+            long invalidationCount = invalidations.get();
+            String value = requestDecision(key);
+            // A decision requested before an invalidation may be stale, hence it is only returned to the caller
+            if (invalidationCount == invalidations.get()) {
+                putDecision(key, value);
+            }
+            future.complete(value);
+            return value;
+        } catch (APIManagementException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightDecisions.remove(key, future);
+        }
+    }
+
+    /**
+     * Removes the cached decisions of the given subject, e.g. when the roles of the user change.
+     *
+     * @param subject subject of which the decisions should be removed
+     */
+    public void invalidate(String subject) {
+
+        if (subject == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        decisions.keySet().removeIf(key -> key.subject != null && (subject.equals(key.subject)
+                || subject.equals(MultitenantUtils.getTenantAwareUsername(key.subject))));
+    }
+
+    /**
+     * Removes all cached decisions, e.g. when the XACML policies or the roles change.
+     */
+    public void invalidateAll() {
+
+        invalidations.incrementAndGet();
+        decisions.clear();
+    }
+
+    private String requestDecision(DecisionKey key) throws APIManagementException {
+
+        EntitlementServiceClient client = borrowClient();
+        String decision;
+        try {
+            decision = client.getDecision(key.subject, key.resource, key.action, key.getEnvironment());
+        } catch (Exception e) {
+            // The session of the client may be broken, hence it is not returned to the pool
+            throw new APIManagementException("Error while evaluating XACML request for " + key.action + " "
+                    + key.resource, e);
+        }
+        clientPool.offer(client);
+        return decision;
+    }
+
+    private EntitlementServiceClient borrowClient() throws APIManagementException {
+
+        EntitlementServiceClient client = clientPool.poll();
+        if (client != null) {
+            return client;
+        }
+        try {
+            return clientFactory.call();
+        } catch (Exception e) {
+            throw new APIManagementException("Error while initiating entitlement service client", e);
+        }
+    }
+
+    private void putDecision(DecisionKey key, String value) {
+
+        if (decisions.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            decisions.values().removeIf(decision -> decision.expiryTime <= now);
+            Iterator<DecisionKey> iterator = decisions.keySet().iterator();
+            while (decisions.size() >= maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        decisions.put(key, new Decision(value, System.currentTimeMillis() + expiryMillis));
+    }
+
+    private static String awaitDecision(CompletableFuture<String> inFlightDecision) throws APIManagementException {
+
+        try {
+            return inFlightDecision.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIManagementException("Interrupted while waiting for XACML decision", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof APIManagementException) {
+                throw (APIManagementException) cause;
+            }
+            throw new APIManagementException("Error while evaluating XACML request", cause);
+        }
+    }
+
+    /**
+     * Registers the listener which invalidates the cached decisions upon role changes, when running in an OSGi
+     * container. This module has no service component, hence the listener is registered with its own bundle.
+     */
+    private static void registerInvalidator() {
+
+        Bundle bundle = FrameworkUtil.getBundle(EntitlementDecisionCache.class);
+        BundleContext bundleContext = bundle != null ? bundle.getBundleContext() : null;
+        if (bundleContext == null) {
+            return;
+        }
+        bundleContext.registerService(UserOperationEventListener.class.getName(),
+                new EntitlementDecisionCacheInvalidator(), null);
+        if (log.isDebugEnabled()) {
+            log.debug("Registered user operation listener to invalidate cached XACML decisions");
+        }
+    }
+
+    int size() {
+
+        return decisions.size();
+    }
+
+    /**
+     * A decision of the PDP and the time at which it expires.
+     */
+    private static class Decision {
+
+        private final String value;
+        private final long expiryTime;
+
+        Decision(String value, long expiryTime) {
+
+            this.value = value;
+            this.expiryTime = expiryTime;
+        }
+
+        boolean isExpired() {
+
+            return expiryTime <= System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Attributes of a XACML request.
+     */
+    private static class DecisionKey {
+
+        private final String subject;
+        private final String resource;
+        private final String action;
+        private final String[] environment;
+        private final int hashCode;
+
+        DecisionKey(String subject, String resource, String action, String[] environment) {
+
+            this.subject = subject;
+            this.resource = resource;
+            this.action = action;
+            this.environment = environment != null ? environment.clone() : null;
+            this.hashCode = Objects.hash(subject, resource, action) * 31 + Arrays.hashCode(environment);
+        }
+
+        String[] getEnvironment() {
+
+            return environment != null ? environment.clone() : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey that = (DecisionKey) o;
+            return Objects.equals(subject, that.subject) && Objects.equals(resource, that.resource)
+                    && Objects.equals(action, that.action) && Arrays.equals(environment, that.environment);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.rest.api.util.utils;
+
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.common.AbstractUserOperationEventListener;
+
+/**
+ * This listener removes the cached XACML decisions of a user when the user is deleted or the roles of the user
+ * change, since the decisions of the PDP may depend on the roles of the user.
+ */
+public class EntitlementDecisionCacheInvalidator extends AbstractUserOperationEventListener {
+
+    private static final int EXECUTION_ORDER_ID = 1900;
+
+    @Override
+    public int getExecutionOrderId() {
+
+        return EXECUTION_ORDER_ID;
+    }
+
+    @Override
+    public boolean doPostDeleteUser(String userName, UserStoreManager userStoreManager) throws UserStoreException {
+
+        EntitlementDecisionCache.getInstance().invalidate(userName);
+        return true;
+    }
+
+    @Override
+    public boolean doPostUpdateRoleListOfUser(String userName, String[] deletedRoles, String[] newRoles,
+                                              UserStoreManager userStoreManager) throws UserStoreException {
+
+        EntitlementDecisionCache.getInstance().invalidate(userName);
+        return true;
+    }
+
+    @Override
+    public boolean doPostUpdateUserListOfRole(String roleName, String[] deletedUsers, String[] newUsers,
+                                              UserStoreManager userStoreManager) throws UserStoreException {
+
+        invalidate(deletedUsers);
+        invalidate(newUsers);
+        return true;
+    }
+
+    @Override
+    public boolean doPostDeleteRole(String roleName, UserStoreManager userStoreManager) throws UserStoreException {
+
+        EntitlementDecisionCache.getInstance().invalidateAll();
+        return true;
+    }
+
+    @Override
+    public boolean doPostUpdateRoleName(String roleName, String newRoleName, UserStoreManager userStoreManager)
+            throws UserStoreException {
+
+        EntitlementDecisionCache.getInstance().invalidateAll();
+        return true;
+    }
+
+    private static void invalidate(String[] userNames) {
+
+        if (userNames == null) {
+            return;
+        }
+        for (String userName : userNames) {
+            EntitlementDecisionCache.getInstance().invalidate(userName);
+        }
+    }
+}
@@ -38,6 +38,10 @@ public class EntitlementServiceClient {
     EntitlementServiceStub entitlementServiceStub;
     private static final Log logger = LogFactory.getLog(EntitlementServiceClient.class);
 
+    EntitlementServiceClient(EntitlementServiceStub entitlementServiceStub) {
+        this.entitlementServiceStub = entitlementServiceStub;
+    }
+
     /**
      * This method will initiate entitlement service client which calls PDP
      *
@@ -82,11 +86,7 @@ public class EntitlementServiceClient {
     public String validateAction(String subject, String resource, String action, String[] environment) {
         String decision = "DENY";
         try {
-            decision = entitlementServiceStub.getDecisionByAttributes(subject, resource, action, environment);
-            System.out.println("\nXACML Decision is received : " + decision);
-            String authCookie = (String) entitlementServiceStub._getServiceClient().getServiceContext()
-                    .getProperty(HTTPConstants.COOKIE_STRING);
-            System.out.println("\nCookie is received for subsequent communication :  " + authCookie);
+            decision = getDecision(subject, resource, action, environment);
         } catch (RemoteException e) {
             logger.error("Error while connecting PDP ", e);
         } catch (EntitlementServiceException e) {
@@ -94,4 +94,25 @@ public class EntitlementServiceClient {
         }
         return decision;
     }
-}
\ No newline at end of file
+
+    /**
+     * @param subject     subject to be check with PDP
+     * @param resource    resource name to be checked with PDP
+     * @param action      action to be check with PDP
+     * @param environment environment to be check with PDP
+     * @return decision of the PDP
+     * @throws RemoteException            if the PDP cannot be reached
+     * @throws EntitlementServiceException if the PDP fails to evaluate the request
+     */
+    public String getDecision(String subject, String resource, String action, String[] environment)
+            throws RemoteException, EntitlementServiceException {
+        if (entitlementServiceStub == null) {
+            throw new RemoteException("Entitlement service client is not initialized");
+        }
+        String decision = entitlementServiceStub.getDecisionByAttributes(subject, resource, action, environment);
+        if (logger.isDebugEnabled()) {
+            logger.debug("XACML Decision is received : " + decision);
+        }
+        return decision;
+    }
+}
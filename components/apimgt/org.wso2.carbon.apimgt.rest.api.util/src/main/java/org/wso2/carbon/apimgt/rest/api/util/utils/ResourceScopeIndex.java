@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.rest.api.util.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.api.model.Scope;
+import org.wso2.carbon.apimgt.api.model.URITemplate;
+import org.wso2.uri.template.URITemplateException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the resources of a REST API, used to find the scopes required to invoke a resource without evaluating
+ * every URI template of the API. The URI templates are compiled once, grouped by HTTP verb, and placed in a trie keyed
+ * by the literal path segments preceding their first variable. A request is only matched against the templates
+ * found along its path in the trie.
+ */
+public class ResourceScopeIndex {
+
+    private static final Log log = LogFactory.getLog(ResourceScopeIndex.class);
+    private static final String PATH_SEPARATOR = "/";
+
+    private final Map<String, Node> verbIndex = new HashMap<>();
+
+    /**
+     * Builds the index of the given resources.
+     *
+     * @param uriTemplates URI templates of the REST API
+     */
+    public ResourceScopeIndex(Set<URITemplate> uriTemplates) {
+
+        for (URITemplate uriTemplate : uriTemplates) {
+            String templateString = uriTemplate.getUriTemplate();
+            if (uriTemplate.getHTTPVerb() == null || templateString == null) {
+                continue;
+            }
+            org.wso2.uri.template.URITemplate compiledTemplate;
+            try {
+                compiledTemplate = new org.wso2.uri.template.URITemplate(templateString);
+            } catch (URITemplateException e) {
+                log.error("Error while creating URI Template object to validate request. Template pattern: " +
+                        templateString, e);
+                continue;
+            }
+            Node node = verbIndex.computeIfAbsent(uriTemplate.getHTTPVerb().toUpperCase(Locale.ENGLISH),
+                    verb -> new Node());
+            for (String segment : getLiteralPrefix(templateString)) {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+            node.resources.add(new Resource(compiledTemplate, getScopeKeys(uriTemplate)));
+        }
+    }
+
+    /**
+     * Checks whether a request with the given scopes is allowed to invoke the resource. A request is allowed if a
+     * matching resource requires one of the scopes, or if a matching resource requires no scope and the request has
+     * at least one scope.
+     *
+     * @param resource resource path of the request, relative to the base path of the REST API
+     * @param verb     HTTP verb of the request
+     * @param scopes   scopes of the request
+     * @return true if a matching resource allows the request, false otherwise
+     */
+    public boolean isAllowed(String resource, String verb, String[] scopes) {
+
+        if (scopes == null || verb == null) {
+            return false;
+        }
+        Node node = verbIndex.get(verb.toUpperCase(Locale.ENGLISH));
+        if (node == null) {
+            return false;
+        }
+        Set<String> requestScopes = new HashSet<>();
+        for (String scope : scopes) {
+            requestScopes.add(scope.toLowerCase(Locale.ENGLISH));
+        }
+        int pathEnd = resource.indexOf('?');
+        String[] segments = (pathEnd < 0 ? resource : resource.substring(0, pathEnd)).split(PATH_SEPARATOR);
+        int index = 0;
+        while (node != null) {
+            for (Resource candidate : node.resources) {
+                if (candidate.matches(resource) && candidate.isAllowed(requestScopes)) {
+                    return true;
+                }
+            }
+            index = nextSegment(segments, index);
+            node = index < segments.length ? node.children.get(segments[index].toLowerCase(Locale.ENGLISH)) : null;
+            index++;
+        }
+        return false;
+    }
+
+    private static int nextSegment(String[] segments, int index) {
+
+        while (index < segments.length && segments[index].isEmpty()) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the path segments of the template preceding its first variable. Segments are compared case
+     * insensitively, so that the trie never excludes a template which would match the request.
+     */
+    private static List<String> getLiteralPrefix(String templateString) {
+
+        List<String> literalPrefix = new ArrayList<>();
+        int pathEnd = templateString.indexOf('?');
+        String path = pathEnd < 0 ? templateString : templateString.substring(0, pathEnd);
+        String[] segments = path.split(PATH_SEPARATOR);
+        // The last segment may be followed by further characters of the request, e.g. a query string
+        for (int i = 0; i < segments.length - 1; i++) {
+            String segment = segments[i];
+            if (segment.contains("{") || segment.contains("*")) {
+                break;
+            }
+            if (!segment.isEmpty()) {
+                literalPrefix.add(segment.toLowerCase(Locale.ENGLISH));
+            }
+        }
+        return literalPrefix;
+    }
+
+    /**
+     * Returns the keys of the scopes required by the template, in lower case. The scope of the template takes
+     * precedence over the scope list, as in the scope validation of the REST APIs.
+     */
+    private static Set<String> getScopeKeys(URITemplate uriTemplate) {
+
+        Set<String> scopeKeys = new HashSet<>();
+        Scope scope = uriTemplate.getScope();
+        if (scope != null) {
+            scopeKeys.add(scope.getKey().toLowerCase(Locale.ENGLISH));
+        } else {
+            for (Scope templateScope : uriTemplate.retrieveAllScopes()) {
+                scopeKeys.add(templateScope.getKey().toLowerCase(Locale.ENGLISH));
+            }
+        }
+        return scopeKeys.isEmpty() ? Collections.emptySet() : scopeKeys;
+    }
+
+    /**
+     * Node of the trie, holding the resources of which the literal prefix ends at the node.
+     */
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Resource> resources = new ArrayList<>();
+    }
+
+    /**
+     * A compiled URI template and the scopes it requires.
+     */
+    private static class Resource {
+
+        private final org.wso2.uri.template.URITemplate template;
+        private final Set<String> scopeKeys;
+
+        Resource(org.wso2.uri.template.URITemplate template, Set<String> scopeKeys) {
+
+            this.template = template;
+            this.scopeKeys = scopeKeys;
+        }
+
+        boolean matches(String resource) {
+
+            return template.matches(resource, new HashMap<>());
+        }
+
+        boolean isAllowed(Set<String> requestScopes) {
+
+            if (scopeKeys.isEmpty()) {
+                // Scope not defined for the resource. Consider as anonymous permission.
+                return !requestScopes.isEmpty();
+            }
+            for (String requestScope : requestScopes) {
+                if (scopeKeys.contains(requestScope)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
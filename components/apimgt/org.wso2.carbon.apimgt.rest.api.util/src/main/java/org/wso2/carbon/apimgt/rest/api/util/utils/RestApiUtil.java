@@ -82,6 +82,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.validation.ConstraintViolation;
@@ -96,6 +97,7 @@ public class RestApiUtil {
     private static Set<URITemplate> serviceCatalogAPIResourceMappings;
     private static Dictionary<org.wso2.uri.template.URITemplate, List<String>> uriToHttpMethodsMap;
     private static Dictionary<org.wso2.uri.template.URITemplate, List<String>> ETagSkipListURIToHttpMethodsMap;
+    private static final Map<String, ResourceScopeIndex> resourceScopeIndexes = new ConcurrentHashMap<>();
 
     public static <T> ErrorDTO getConstraintViolationErrorDTO(Set<ConstraintViolation<T>> violations) {
         ErrorDTO errorDTO = new ErrorDTO();
@@ -1339,6 +1341,26 @@ public class RestApiUtil {
         return uriTemplates;
     }
 
+    /**
+     * This method is used to get the resource scope index of the relevant REST API using the given base path. The
+     * index is built once per REST API.
+     *
+     * @param basePath Base path of the REST API
+     * @return Resource scope index of the REST API, or null if no URI templates are found for the base path
+     */
+    public static ResourceScopeIndex getResourceScopeIndexForBasePath(String basePath) {
+        ResourceScopeIndex resourceScopeIndex = resourceScopeIndexes.get(basePath);
+        if (resourceScopeIndex == null) {
+            Set<URITemplate> uriTemplates = getURITemplatesForBasePath(basePath);
+            if (uriTemplates == null || uriTemplates.isEmpty()) {
+                return null;
+            }
+            resourceScopeIndex = new ResourceScopeIndex(uriTemplates);
+            resourceScopeIndexes.put(basePath, resourceScopeIndex);
+        }
+        return resourceScopeIndex;
+    }
+
     /**
      * This method is used to get the scope list from the yaml file
      *
@@ -1377,10 +1399,9 @@ public class RestApiUtil {
      */
     public static boolean isDevPortalAnonymousEnabled(String tenantDomain) {
         try {
-            org.json.simple.JSONObject tenantConfig = APIUtil.getTenantConfig(tenantDomain);
-            Object value = tenantConfig.get(APIConstants.API_TENANT_CONF_ENABLE_ANONYMOUS_MODE);
-            if (value != null) {
-                return Boolean.parseBoolean(value.toString());
+            Boolean anonymousModeEnabled = APIUtil.getTenantConfigSnapshot(tenantDomain).getAnonymousModeEnabled();
+            if (anonymousModeEnabled != null) {
+                return anonymousModeEnabled;
             } else {
                 return APIUtil.isDevPortalAnonymous();
             }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.rest.api.util.utils;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.identity.entitlement.stub.EntitlementServiceStub;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EntitlementDecisionCacheTest {
+
+    private static final String PERMIT = "Permit";
+    private static final String DENY = "Deny";
+
+    private EntitlementServiceStub entitlementServiceStub;
+    private AtomicInteger createdClients;
+
+    @Before
+    public void setUp() {
+
+        entitlementServiceStub = Mockito.mock(EntitlementServiceStub.class);
+        createdClients = new AtomicInteger();
+    }
+
+    @Test
+    public void testDecisionIsCached() throws Exception {
+
+        mockDecision("admin", "/apis", "GET", PERMIT);
+        mockDecision("admin", "/apis", "POST", DENY);
+        EntitlementDecisionCache cache = createCache(60000, 100);
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(PERMIT, cache.getDecision("admin", "/apis", "GET", null));
+        }
+        Assert.assertEquals(DENY, cache.getDecision("admin", "/apis", "POST", null));
+        Mockito.verify(entitlementServiceStub, Mockito.times(1))
+                .getDecisionByAttributes("admin", "/apis", "GET", null);
+        Mockito.verify(entitlementServiceStub, Mockito.times(1))
+                .getDecisionByAttributes("admin", "/apis", "POST", null);
+        // Sequential requests reuse the same entitlement service client
+        Assert.assertEquals(1, createdClients.get());
+    }
+
+    @Test
+    public void testDecisionExpires() throws Exception {
+
+        mockDecision("admin", "/apis", "GET", PERMIT);
+        EntitlementDecisionCache cache = createCache(50, 100);
+
+        cache.getDecision("admin", "/apis", "GET", null);
+        Thread.sleep(100);
+        cache.getDecision("admin", "/apis", "GET", null);
+        Mockito.verify(entitlementServiceStub, Mockito.times(2))
+                .getDecisionByAttributes("admin", "/apis", "GET", null);
+    }
+
+    @Test
+    public void testConcurrentRequestsShareDecision() throws Exception {
+
+        CountDownLatch pdpCalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(entitlementServiceStub.getDecisionByAttributes("admin", "/apis", "GET", null))
+                .thenAnswer(invocation -> {
+                    pdpCalled.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return PERMIT;
+                });
+        EntitlementDecisionCache cache = createCache(60000, 100);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> decisions = new ArrayList<>();
+            decisions.add(executorService.submit(() -> cache.getDecision("admin", "/apis", "GET", null)));
+            Assert.assertTrue(pdpCalled.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                decisions.add(executorService.submit(() -> cache.getDecision("admin", "/apis", "GET", null)));
+            }
+            // Give the remaining requests time to find the in-flight decision
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> decision : decisions) {
+                Assert.assertEquals(PERMIT, decision.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Mockito.verify(entitlementServiceStub, Mockito.times(1))
+                .getDecisionByAttributes("admin", "/apis", "GET", null);
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws Exception {
+
+        Mockito.when(entitlementServiceStub.getDecisionByAttributes("admin", "/apis", "GET", null))
+                .thenThrow(new RemoteException("PDP unavailable")).thenReturn(PERMIT);
+        EntitlementDecisionCache cache = createCache(60000, 100);
+
+        try {
+            cache.getDecision("admin", "/apis", "GET", null);
+            Assert.fail("Expected the PDP failure to be reported");
+        } catch (APIManagementException e) {
+            Assert.assertTrue(e.getCause() instanceof RemoteException);
+        }
+        Assert.assertEquals(PERMIT, cache.getDecision("admin", "/apis", "GET", null));
+        // The client which failed is discarded
+        Assert.assertEquals(2, createdClients.get());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+
+        mockDecision("admin@wso2.com", "/apis", "GET", PERMIT);
+        mockDecision("subscriber", "/apis", "GET", DENY);
+        EntitlementDecisionCache cache = createCache(60000, 100);
+
+        cache.getDecision("admin@wso2.com", "/apis", "GET", null);
+        cache.getDecision("subscriber", "/apis", "GET", null);
+        cache.invalidate("admin");
+        Assert.assertEquals(1, cache.size());
+        cache.getDecision("admin@wso2.com", "/apis", "GET", null);
+        cache.getDecision("subscriber", "/apis", "GET", null);
+        Mockito.verify(entitlementServiceStub, Mockito.times(2))
+                .getDecisionByAttributes("admin@wso2.com", "/apis", "GET", null);
+        Mockito.verify(entitlementServiceStub, Mockito.times(1))
+                .getDecisionByAttributes("subscriber", "/apis", "GET", null);
+
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCacheSizeIsBounded() throws Exception {
+
+        Mockito.when(entitlementServiceStub.getDecisionByAttributes(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.any(String[].class))).thenReturn(PERMIT);
+        EntitlementDecisionCache cache = createCache(60000, 10);
+
+        for (int i = 0; i < 50; i++) {
+            cache.getDecision("user" + i, "/apis", "GET", new String[]{"environment"});
+        }
+        Assert.assertTrue(cache.size() <= 10);
+    }
+
+    private void mockDecision(String subject, String resource, String action, String decision) throws Exception {
+
+        Mockito.when(entitlementServiceStub.getDecisionByAttributes(subject, resource, action, null))
+                .thenReturn(decision);
+    }
+
+    private EntitlementDecisionCache createCache(long expiryMillis, int maxEntries) {
+
+        return new EntitlementDecisionCache(() -> {
+            createdClients.incrementAndGet();
+            return new EntitlementServiceClient(entitlementServiceStub);
+        }, expiryMillis, maxEntries, 4);
+    }
+}
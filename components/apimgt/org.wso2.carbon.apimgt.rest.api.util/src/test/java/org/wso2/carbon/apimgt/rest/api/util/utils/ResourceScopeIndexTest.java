@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.rest.api.util.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.api.APIDefinition;
+import org.wso2.carbon.apimgt.api.model.Scope;
+import org.wso2.carbon.apimgt.api.model.URITemplate;
+import org.wso2.carbon.apimgt.impl.definitions.OASParserUtil;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ResourceScopeIndexTest {
+
+    private static final Log log = LogFactory.getLog(ResourceScopeIndexTest.class);
+    private static final String[] BUNDLED_DEFINITIONS = {"/service-catalog-api.yaml", "/publisher-api.json",
+            "/store-api.json", "/admin-api.json"};
+    private static final String[] REST_API_DEFINITIONS = {
+            "../org.wso2.carbon.apimgt.rest.api.publisher.v1/src/main/resources/publisher-api.yaml",
+            "../org.wso2.carbon.apimgt.rest.api.store.v1/src/main/resources/devportal-api.yaml",
+            "../org.wso2.carbon.apimgt.rest.api.admin.v1/src/main/resources/admin-api.yaml"};
+    private static final String[] VERBS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS"};
+
+    @Test
+    public void testDecisionsMatchLinearScan() throws Exception {
+
+        List<String> definitions = new ArrayList<>();
+        for (String definition : BUNDLED_DEFINITIONS) {
+            definitions.add(IOUtils.toString(ResourceScopeIndexTest.class.getResourceAsStream(definition), "UTF-8"));
+        }
+        for (String definition : REST_API_DEFINITIONS) {
+            File definitionFile = new File(definition);
+            if (definitionFile.exists()) {
+                definitions.add(FileUtils.readFileToString(definitionFile, "UTF-8"));
+            }
+        }
+        int decisions = 0;
+        for (String definition : definitions) {
+            APIDefinition oasParser = OASParserUtil.getOASParser(definition);
+            Set<URITemplate> uriTemplates = oasParser.getURITemplates(definition);
+            Assert.assertFalse(uriTemplates.isEmpty());
+            ResourceScopeIndex resourceScopeIndex = new ResourceScopeIndex(uriTemplates);
+            Map<URITemplate, org.wso2.uri.template.URITemplate> compiledTemplates = new HashMap<>();
+            for (URITemplate uriTemplate : uriTemplates) {
+                compiledTemplates.put(uriTemplate, new org.wso2.uri.template.URITemplate(uriTemplate.getUriTemplate()));
+            }
+            for (Map.Entry<String, Set<String>> resource : getResources(uriTemplates).entrySet()) {
+                for (String verb : VERBS) {
+                    for (String[] scopes : getScopeCombinations(resource.getValue())) {
+                        Assert.assertEquals("Decision mismatch for " + verb + " " + resource.getKey(),
+                                isAllowedByLinearScan(compiledTemplates, resource.getKey(), verb, scopes),
+                                resourceScopeIndex.isAllowed(resource.getKey(), verb, scopes));
+                        decisions++;
+                    }
+                }
+            }
+        }
+        log.info("Compared " + decisions + " scope validation decisions of " + definitions.size()
+                + " REST API definitions");
+    }
+
+    @Test
+    public void testScopeMatching() {
+
+        Set<URITemplate> uriTemplates = new HashSet<>();
+        uriTemplates.add(createTemplate("/apis", "GET", "apim:api_view"));
+        uriTemplates.add(createTemplate("/apis/{apiId}", "GET", "apim:api_view"));
+        uriTemplates.add(createTemplate("/apis/{apiId}", "DELETE", "apim:api_delete"));
+        uriTemplates.add(createTemplate("/apis/{apiId}/documents/{documentId}", "PUT", "apim:document_manage"));
+        uriTemplates.add(createTemplate("/settings", "GET", null));
+        ResourceScopeIndex resourceScopeIndex = new ResourceScopeIndex(uriTemplates);
+
+        Assert.assertTrue(resourceScopeIndex.isAllowed("/apis?limit=10", "GET", new String[]{"APIM:API_VIEW"}));
+        Assert.assertTrue(resourceScopeIndex.isAllowed("/apis/123", "get", new String[]{"apim:api_view"}));
+        Assert.assertFalse(resourceScopeIndex.isAllowed("/apis/123", "DELETE", new String[]{"apim:api_view"}));
+        Assert.assertTrue(resourceScopeIndex.isAllowed("/apis/123/documents/456", "PUT",
+                new String[]{"openid", "apim:document_manage"}));
+        Assert.assertFalse(resourceScopeIndex.isAllowed("/applications", "GET", new String[]{"apim:api_view"}));
+        Assert.assertFalse(resourceScopeIndex.isAllowed("/apis", "GET", null));
+        // Resources without scopes can be invoked with any scope
+        Assert.assertTrue(resourceScopeIndex.isAllowed("/settings", "GET", new String[]{"openid"}));
+        Assert.assertFalse(resourceScopeIndex.isAllowed("/settings", "GET", new String[0]));
+    }
+
+    /**
+     * Scope validation of the REST APIs before the resource scope index was introduced, with the URI templates
+     * compiled upfront.
+     */
+    private static boolean isAllowedByLinearScan(Map<URITemplate, org.wso2.uri.template.URITemplate> uriTemplates,
+                                                 String resource, String verb, String[] scopes) {
+
+        for (Map.Entry<URITemplate, org.wso2.uri.template.URITemplate> entry : uriTemplates.entrySet()) {
+            URITemplate template = entry.getKey();
+            org.wso2.uri.template.URITemplate templateToValidate = entry.getValue();
+            if (templateToValidate.matches(resource, new HashMap<>()) && scopes != null && verb != null
+                    && verb.equalsIgnoreCase(template.getHTTPVerb())) {
+                for (String scope : scopes) {
+                    Scope scp = template.getScope();
+                    if (scp != null) {
+                        if (scope.equalsIgnoreCase(scp.getKey())) {
+                            return true;
+                        }
+                    } else if (!template.retrieveAllScopes().isEmpty()) {
+                        for (Scope scpObj : template.retrieveAllScopes()) {
+                            if (scope.equalsIgnoreCase(scpObj.getKey())) {
+                                return true;
+                            }
+                        }
+                    } else {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns request paths for each resource, with and without a query string, and a few paths matching no
+     * resource, together with the scopes of the resource.
+     */
+    private static Map<String, Set<String>> getResources(Set<URITemplate> uriTemplates) {
+
+        Map<String, Set<String>> resources = new HashMap<>();
+        for (URITemplate uriTemplate : uriTemplates) {
+            Set<String> scopeKeys = new HashSet<>();
+            if (uriTemplate.getScope() != null) {
+                scopeKeys.add(uriTemplate.getScope().getKey());
+            }
+            for (Scope scope : uriTemplate.retrieveAllScopes()) {
+                scopeKeys.add(scope.getKey());
+            }
+            String resource = uriTemplate.getUriTemplate().replaceAll("\\{[^}]*}", "a1b2-c3");
+            for (String path : new String[]{resource, resource + "?limit=10&offset=0", resource + "/unknown",
+                    resource.toUpperCase()}) {
+                resources.computeIfAbsent(path, key -> new HashSet<>()).addAll(scopeKeys);
+            }
+        }
+        resources.put("/", new HashSet<>());
+        resources.put("/unknown/resource", new HashSet<>());
+        return resources;
+    }
+
+    private static List<String[]> getScopeCombinations(Set<String> scopeKeys) {
+
+        List<String[]> scopeCombinations = new ArrayList<>();
+        for (String scopeKey : scopeKeys) {
+            scopeCombinations.add(new String[]{scopeKey});
+            scopeCombinations.add(new String[]{"openid", scopeKey.toUpperCase()});
+        }
+        scopeCombinations.add(new String[]{"openid"});
+        scopeCombinations.add(new String[0]);
+        scopeCombinations.add(null);
+        return scopeCombinations;
+    }
+
+    private static URITemplate createTemplate(String template, String verb, String scopeKey) {
+
+        URITemplate uriTemplate = new URITemplate();
+        uriTemplate.setUriTemplate(template);
+        uriTemplate.setHTTPVerb(verb);
+        if (scopeKey != null) {
+            Scope scope = new Scope();
+            scope.setKey(scopeKey);
+            scope.setName(scopeKey);
+            uriTemplate.setScope(scope);
+            uriTemplate.setScopes(scope);
+        }
+        return uriTemplate;
+    }
+}
@@ -21,7 +21,6 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.apimgt.api.model.policy.PolicyConstants;
 import org.wso2.carbon.apimgt.impl.APIConstants;
-import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
 import org.wso2.carbon.apimgt.impl.notifier.events.APIPolicyEvent;
 import org.wso2.carbon.apimgt.impl.notifier.events.ApplicationPolicyEvent;
 import org.wso2.carbon.apimgt.impl.notifier.events.GlobalPolicyEvent;
@@ -42,14 +41,20 @@ import org.wso2.carbon.apimgt.throttle.policy.deployer.exception.ThrottlePolicyD
 import org.wso2.carbon.apimgt.throttle.policy.deployer.internal.ServiceReferenceHolder;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.event.processor.core.EventProcessorService;
-import org.wso2.carbon.event.processor.core.ExecutionPlanConfiguration;
 import org.wso2.carbon.event.processor.core.exception.ExecutionPlanConfigurationException;
 import org.wso2.carbon.event.processor.core.exception.ExecutionPlanDependencyValidationException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * An Utility class for policy deploy operations.
@@ -58,6 +63,17 @@ public class PolicyUtil {
 
     private static final Log log = LogFactory.getLog(PolicyUtil.class);
 
+    /**
+     * System property to configure the number of threads generating execution plans when deploying all policies.
+     */
+    public static final String DEPLOYER_THREAD_POOL_SIZE_PROPERTY = "throttlePolicyDeployerThreadPoolSize";
+    /**
+     * System property to configure the number of execution plans deployed within a single tenant flow.
+     */
+    public static final String DEPLOYER_BATCH_SIZE_PROPERTY = "throttlePolicyDeployerBatchSize";
+    private static final int DEFAULT_DEPLOYER_THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_DEPLOYER_BATCH_SIZE = 100;
+
     /**
      * Deploy the given throttle policy in the Traffic Manager.
      *
@@ -68,55 +84,23 @@ public class PolicyUtil {
 
         EventProcessorService eventProcessorService =
                 ServiceReferenceHolder.getInstance().getEventProcessorService();
-        ThrottlePolicyTemplateBuilder policyTemplateBuilder = new ThrottlePolicyTemplateBuilder();
-
-        Map<String, String> policiesToDeploy = new HashMap<>();
         List<String> policiesToUndeploy = new ArrayList<>();
 
         try {
             PrivilegedCarbonContext.startTenantFlow();
             PrivilegedCarbonContext.getThreadLocalCarbonContext()
                     .setTenantDomain(APIConstants.SUPER_TENANT_DOMAIN, true);
-            String policyFile;
-            String policyString;
-            if (Policy.PolicyType.SUBSCRIPTION.equals(policy.getType()) && policy instanceof SubscriptionPolicy) {
-                // Add Subscription policy
-                policyFile = String.join(APIConstants.DELEM_UNDERSCORE,
-                        policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_SUB, policy.getName());
-                policyString = policyTemplateBuilder.getThrottlePolicyForSubscriptionLevel((SubscriptionPolicy) policy);
-                policiesToDeploy.put(policyFile, policyString);
-            } else if (Policy.PolicyType.APPLICATION.equals(policy.getType()) && policy instanceof ApplicationPolicy) {
-                // Add Application policy
-                policyFile = String.join(APIConstants.DELEM_UNDERSCORE,
-                        policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_APP, policy.getName());
-                policyString = policyTemplateBuilder.getThrottlePolicyForAppLevel((ApplicationPolicy) policy);
-                policiesToDeploy.put(policyFile, policyString);
-            } else if (Policy.PolicyType.API.equals(policy.getType()) && policy instanceof ApiPolicy) {
-                // Add API policy
-                policiesToDeploy = policyTemplateBuilder.getThrottlePolicyForAPILevel((ApiPolicy) policy);
-                String defaultPolicy = policyTemplateBuilder.getThrottlePolicyForAPILevelDefault((ApiPolicy) policy);
-                policyFile = String.join(APIConstants.DELEM_UNDERSCORE,
-                        policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_RESOURCE, policy.getName());
-                String defaultPolicyName = policyFile + APIConstants.THROTTLE_POLICY_DEFAULT;
-                policiesToDeploy.put(defaultPolicyName, defaultPolicy);
-                if (policyEvent instanceof APIPolicyEvent) {
-                    List<Integer> deletedConditionGroupIds =
-                            ((APIPolicyEvent) policyEvent).getDeletedConditionGroupIds();
-                    // Undeploy removed condition groups
-                    if (deletedConditionGroupIds != null) {
-                        for (int conditionGroupId : deletedConditionGroupIds) {
-                            policiesToUndeploy
-                                    .add(policyFile + APIConstants.THROTTLE_POLICY_CONDITION + conditionGroupId);
-                        }
+            Map<String, String> policiesToDeploy = getExecutionPlans(policy, new ThrottlePolicyTemplateBuilder());
+            if (Policy.PolicyType.API.equals(policy.getType()) && policyEvent instanceof APIPolicyEvent) {
+                List<Integer> deletedConditionGroupIds = ((APIPolicyEvent) policyEvent).getDeletedConditionGroupIds();
+                // Undeploy removed condition groups
+                if (deletedConditionGroupIds != null) {
+                    String policyFile = String.join(APIConstants.DELEM_UNDERSCORE,
+                            policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_RESOURCE, policy.getName());
+                    for (int conditionGroupId : deletedConditionGroupIds) {
+                        policiesToUndeploy.add(policyFile + APIConstants.THROTTLE_POLICY_CONDITION + conditionGroupId);
                     }
                 }
-            } else if (Policy.PolicyType.GLOBAL.equals(policy.getType()) && policy instanceof GlobalPolicy) {
-                // Add Global policy
-                GlobalPolicy globalPolicy = (GlobalPolicy) policy;
-                policyFile = String.join(APIConstants.DELEM_UNDERSCORE,
-                        PolicyConstants.POLICY_LEVEL_GLOBAL, policy.getName());
-                policyString = policyTemplateBuilder.getThrottlePolicyForGlobalLevel(globalPolicy);
-                policiesToDeploy.put(policyFile, policyString);
             }
 
             // Undeploy removed policies
@@ -148,14 +132,17 @@ public class PolicyUtil {
     }
 
     /**
-     * Deploy all the throttle policies retrieved from the database in the Traffic Manager.
+     * Deploy all the throttle policies retrieved from the database in the Traffic Manager. The execution plans of the
+     * policies are generated in parallel and compared with the active execution plans, so that only the execution
+     * plans which changed are deployed, and the active execution plans of removed policies are undeployed. The active
+     * execution plans of policies whose execution plans could not be generated are kept.
      */
     public static void deployAllPolicies() {
-        // Undeploy all existing policies
-        undeployAllPolicies();
+
         PolicyRetriever policyRetriever = new PolicyRetriever();
+        List<Policy> policies = new ArrayList<>();
         try {
-            // Deploy all the policies retrieved from the database
+            // Retrieve all the policies from the database
             SubscriptionPolicyList subscriptionPolicies = policyRetriever.getAllSubscriptionPolicies();
             for (SubscriptionPolicy subscriptionPolicy : subscriptionPolicies.getList()) {
                 if (!(APIConstants.UNLIMITED_TIER.equalsIgnoreCase(subscriptionPolicy.getName())
@@ -163,65 +150,248 @@ public class PolicyUtil {
                         equalsIgnoreCase(subscriptionPolicy.getName())
                         || APIConstants.DEFAULT_SUB_POLICY_ASYNC_WH_UNLIMITED.
                         equalsIgnoreCase(subscriptionPolicy.getName()))) {
-                    deployPolicy(subscriptionPolicy, null);
+                    policies.add(subscriptionPolicy);
                 }
             }
             ApplicationPolicyList applicationPolicies = policyRetriever.getAllApplicationPolicies();
             for (ApplicationPolicy applicationPolicy : applicationPolicies.getList()) {
                 if (!APIConstants.UNLIMITED_TIER.equalsIgnoreCase(applicationPolicy.getName())) {
-                    deployPolicy(applicationPolicy, null);
+                    policies.add(applicationPolicy);
                 }
             }
             ApiPolicyList apiPolicies = policyRetriever.getAllApiPolicies();
             for (ApiPolicy apiPolicy : apiPolicies.getList()) {
                 if (!APIConstants.UNLIMITED_TIER.equalsIgnoreCase(apiPolicy.getName())) {
-                    deployPolicy(apiPolicy, null);
+                    policies.add(apiPolicy);
                 }
             }
             GlobalPolicyList globalPolicies = policyRetriever.getAllGlobalPolicies();
-            for (GlobalPolicy globalPolicy : globalPolicies.getList()) {
-                deployPolicy(globalPolicy, null);
-            }
+            policies.addAll(globalPolicies.getList());
         } catch (ThrottlePolicyDeployerException e) {
+            // Keep the active execution plans rather than undeploying the policies which could not be retrieved
             log.error("Error in retrieving throttle policies", e);
+            return;
         }
+        deployExecutionPlans(generateExecutionPlans(policies));
     }
 
     /**
-     * Undeploy all the throttle policies in the Traffic Manager except the excluded ones.
+     * Execution plans generated for the policies retrieved from the database.
      */
-    private static void undeployAllPolicies() {
+    private static class GeneratedExecutionPlans {
+
+        private final Map<String, String> executionPlans = new LinkedHashMap<>();
+        private final Set<String> failedPlanNamePrefixes = new HashSet<>();
+        private boolean interrupted;
+    }
 
-        APIManagerConfiguration apiManagerConfiguration =
-                ServiceReferenceHolder.getInstance().getAPIMConfiguration();
+    /**
+     * Generate the execution plans of the given policies in parallel.
+     *
+     * @param policies policies to generate the execution plans for
+     * @return execution plans keyed by the execution plan name, with the execution plan name prefixes of the policies
+     * which failed
+     */
+    private static GeneratedExecutionPlans generateExecutionPlans(List<Policy> policies) {
+
+        ThrottlePolicyTemplateBuilder policyTemplateBuilder = new ThrottlePolicyTemplateBuilder();
+        GeneratedExecutionPlans generatedExecutionPlans = new GeneratedExecutionPlans();
+        ExecutorService executorService = Executors.newFixedThreadPool(
+                Math.max(1, Integer.getInteger(DEPLOYER_THREAD_POOL_SIZE_PROPERTY, DEFAULT_DEPLOYER_THREAD_POOL_SIZE)),
+                new ExecutionPlanGeneratorThreadFactory());
+        try {
+            List<Future<Map<String, String>>> futures = new ArrayList<>();
+            for (Policy policy : policies) {
+                futures.add(executorService.submit(() -> getExecutionPlans(policy, policyTemplateBuilder)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    generatedExecutionPlans.executionPlans.putAll(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    log.error("Error in creating execution plan of policy " + policies.get(i).getName(),
+                            e.getCause());
+                    generatedExecutionPlans.failedPlanNamePrefixes.add(getExecutionPlanNamePrefix(policies.get(i)));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while creating execution plans", e);
+            generatedExecutionPlans.interrupted = true;
+        } finally {
+            executorService.shutdownNow();
+        }
+        return generatedExecutionPlans;
+    }
+
+    /**
+     * Deploy the given execution plans in the Traffic Manager in batches. Active execution plans which are identical
+     * to the given ones are left as they are, and active execution plans which are not given are undeployed except the
+     * excluded ones and the ones of the policies which failed. Nothing is undeployed if the generation of the
+     * execution plans was interrupted, as the given execution plans are incomplete.
+     *
+     * @param generatedExecutionPlans execution plans keyed by the execution plan name
+     */
+    private static void deployExecutionPlans(GeneratedExecutionPlans generatedExecutionPlans) {
+
+        Map<String, String> executionPlans = generatedExecutionPlans.executionPlans;
         EventProcessorService eventProcessorService =
                 ServiceReferenceHolder.getInstance().getEventProcessorService();
+        Set<String> activePlanNames;
         try {
             PrivilegedCarbonContext.startTenantFlow();
             PrivilegedCarbonContext.getThreadLocalCarbonContext()
                     .setTenantDomain(APIConstants.SUPER_TENANT_DOMAIN, true);
-            Map<String, ExecutionPlanConfiguration> executionPlanConfigurationMap =
-                    eventProcessorService.getAllActiveExecutionConfigurations();
-            // Undeploy all the policies except the skip ones provided
-            for (Map.Entry<String, ExecutionPlanConfiguration> pair : executionPlanConfigurationMap.entrySet()) {
-                String policyPlanName = pair.getKey();
-                boolean skiped = false;
-                for (String skipPolicyName :
-                        apiManagerConfiguration.getThrottleProperties().getSkipRedeployingPolicies()) {
-                    if (skipPolicyName.equalsIgnoreCase(policyPlanName)) {
-                        skiped = true;
-                        break;
+            activePlanNames = new HashSet<>(eventProcessorService.getAllActiveExecutionConfigurations().keySet());
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+
+        // Undeploy the execution plans of removed policies
+        List<String> policiesToUndeploy = new ArrayList<>();
+        String[] skipPolicyNames = ServiceReferenceHolder.getInstance().getAPIMConfiguration().getThrottleProperties()
+                .getSkipRedeployingPolicies();
+        if (generatedExecutionPlans.interrupted) {
+            log.warn("Execution plan generation was interrupted. Keeping the active execution plans of the policies "
+                    + "which were not generated");
+        } else {
+            for (String policyPlanName : activePlanNames) {
+                if (!executionPlans.containsKey(policyPlanName) && !isSkipped(policyPlanName, skipPolicyNames)
+                        && !isFailed(policyPlanName, generatedExecutionPlans.failedPlanNamePrefixes)) {
+                    policiesToUndeploy.add(policyPlanName);
+                }
+            }
+            undeployPolicies(policiesToUndeploy);
+        }
+
+        int batchSize = Math.max(1, Integer.getInteger(DEPLOYER_BATCH_SIZE_PROPERTY, DEFAULT_DEPLOYER_BATCH_SIZE));
+        List<Map.Entry<String, String>> planEntries = new ArrayList<>(executionPlans.entrySet());
+        int deployed = 0;
+        int updated = 0;
+        for (int batchStart = 0; batchStart < planEntries.size(); batchStart += batchSize) {
+            List<Map.Entry<String, String>> batch =
+                    planEntries.subList(batchStart, Math.min(batchStart + batchSize, planEntries.size()));
+            try {
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext.getThreadLocalCarbonContext()
+                        .setTenantDomain(APIConstants.SUPER_TENANT_DOMAIN, true);
+                for (Map.Entry<String, String> pair : batch) {
+                    String policyPlanName = pair.getKey();
+                    String flowString = pair.getValue();
+                    try {
+                        if (!activePlanNames.contains(policyPlanName)) {
+                            // Deploy new policies
+                            eventProcessorService.deployExecutionPlan(flowString);
+                            deployed++;
+                        } else if (!isSameExecutionPlan(flowString,
+                                eventProcessorService.getActiveExecutionPlan(policyPlanName))) {
+                            // Update changed policies
+                            eventProcessorService.editActiveExecutionPlan(flowString, policyPlanName);
+                            updated++;
+                        }
+                    } catch (ExecutionPlanConfigurationException | ExecutionPlanDependencyValidationException e) {
+                        log.error("Error in deploying execution plan " + policyPlanName, e);
                     }
                 }
-                if (!skiped) {
-                    eventProcessorService.undeployActiveExecutionPlan(policyPlanName);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+        }
+        log.info("Deployed " + deployed + ", updated " + updated + " and undeployed " + policiesToUndeploy.size()
+                + " of " + executionPlans.size() + " throttle policy execution plans");
+    }
+
+    /**
+     * Generate the execution plans of the given policy.
+     *
+     * @param policy                policy object
+     * @param policyTemplateBuilder template builder to generate the execution plans with
+     * @return execution plans keyed by the execution plan name
+     * @throws APITemplateException if failed to generate the execution plans
+     */
+    private static Map<String, String> getExecutionPlans(Policy policy,
+                                                         ThrottlePolicyTemplateBuilder policyTemplateBuilder)
+            throws APITemplateException {
+
+        Map<String, String> policiesToDeploy = new HashMap<>();
+        String policyFile;
+        String policyString;
+        if (Policy.PolicyType.SUBSCRIPTION.equals(policy.getType()) && policy instanceof SubscriptionPolicy) {
+            // Add Subscription policy
+            policyFile = String.join(APIConstants.DELEM_UNDERSCORE,
+                    policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_SUB, policy.getName());
+            policyString = policyTemplateBuilder.getThrottlePolicyForSubscriptionLevel((SubscriptionPolicy) policy);
+            policiesToDeploy.put(policyFile, policyString);
+        } else if (Policy.PolicyType.APPLICATION.equals(policy.getType()) && policy instanceof ApplicationPolicy) {
+            // Add Application policy
+            policyFile = String.join(APIConstants.DELEM_UNDERSCORE,
+                    policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_APP, policy.getName());
+            policyString = policyTemplateBuilder.getThrottlePolicyForAppLevel((ApplicationPolicy) policy);
+            policiesToDeploy.put(policyFile, policyString);
+        } else if (Policy.PolicyType.API.equals(policy.getType()) && policy instanceof ApiPolicy) {
+            // Add API policy
+            policiesToDeploy.putAll(policyTemplateBuilder.getThrottlePolicyForAPILevel((ApiPolicy) policy));
+            String defaultPolicy = policyTemplateBuilder.getThrottlePolicyForAPILevelDefault((ApiPolicy) policy);
+            policyFile = String.join(APIConstants.DELEM_UNDERSCORE,
+                    policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_RESOURCE, policy.getName());
+            String defaultPolicyName = policyFile + APIConstants.THROTTLE_POLICY_DEFAULT;
+            policiesToDeploy.put(defaultPolicyName, defaultPolicy);
+        } else if (Policy.PolicyType.GLOBAL.equals(policy.getType()) && policy instanceof GlobalPolicy) {
+            // Add Global policy
+            policyFile = String.join(APIConstants.DELEM_UNDERSCORE,
+                    PolicyConstants.POLICY_LEVEL_GLOBAL, policy.getName());
+            policyString = policyTemplateBuilder.getThrottlePolicyForGlobalLevel((GlobalPolicy) policy);
+            policiesToDeploy.put(policyFile, policyString);
+        }
+        return policiesToDeploy;
+    }
+
+    /**
+     * Get the prefix of the names of the execution plans of the given policy.
+     *
+     * @param policy policy object
+     * @return execution plan name prefix
+     */
+    private static String getExecutionPlanNamePrefix(Policy policy) {
+
+        if (Policy.PolicyType.SUBSCRIPTION.equals(policy.getType())) {
+            return String.join(APIConstants.DELEM_UNDERSCORE,
+                    policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_SUB, policy.getName());
+        } else if (Policy.PolicyType.APPLICATION.equals(policy.getType())) {
+            return String.join(APIConstants.DELEM_UNDERSCORE,
+                    policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_APP, policy.getName());
+        } else if (Policy.PolicyType.API.equals(policy.getType())) {
+            return String.join(APIConstants.DELEM_UNDERSCORE,
+                    policy.getTenantDomain(), PolicyConstants.POLICY_LEVEL_RESOURCE, policy.getName());
+        }
+        return String.join(APIConstants.DELEM_UNDERSCORE, PolicyConstants.POLICY_LEVEL_GLOBAL, policy.getName());
+    }
+
+    private static boolean isFailed(String policyPlanName, Set<String> failedPlanNamePrefixes) {
+
+        for (String failedPlanNamePrefix : failedPlanNamePrefixes) {
+            if (policyPlanName.equals(failedPlanNamePrefix)
+                    || policyPlanName.startsWith(failedPlanNamePrefix + APIConstants.DELEM_UNDERSCORE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSameExecutionPlan(String executionPlan, String activeExecutionPlan) {
+
+        return executionPlan.equals(activeExecutionPlan);
+    }
+
+    private static boolean isSkipped(String policyPlanName, String[] skipPolicyNames) {
+
+        if (skipPolicyNames != null) {
+            for (String skipPolicyName : skipPolicyNames) {
+                if (skipPolicyName.equalsIgnoreCase(policyPlanName)) {
+                    return true;
                 }
             }
-        } catch (ExecutionPlanConfigurationException e) {
-            log.error("Error in removing existing throttle policies", e);
-        } finally {
-            PrivilegedCarbonContext.endTenantFlow();
         }
+        return false;
     }
 
     /**
@@ -72,6 +72,7 @@ public class ThrottlePolicyTemplateBuilder {
     private static final String POLICY_VELOCITY_SUB = "throttle_policy_template_sub";
     private static final String POLICY_VELOCITY_ASYNC_SUB = "throttle_policy_template_async_sub";
     private static String velocityLogPath = "not-defined";
+    private static volatile VelocityEngine velocityEngine;
     private final String policyTemplateLocation = "repository" + File.separator + "resources" + File.separator
             + "policy_templates" + File.separator;
 
@@ -87,6 +88,34 @@ public class ThrottlePolicyTemplateBuilder {
         return velocityLogPath;
     }
 
+    /**
+     * Returns the velocity engine shared by all the template builders. Initializing an engine is expensive compared to
+     * merging a template, and an initialized engine can be used by several threads at once.
+     *
+     * @return initialized velocity engine
+     */
+    private static VelocityEngine getVelocityEngine() {
+
+        if (velocityEngine == null) {
+            synchronized (ThrottlePolicyTemplateBuilder.class) {
+                if (velocityEngine == null) {
+                    VelocityEngine engine = new VelocityEngine();
+                    engine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
+                            CommonsLogLogChute.class.getName());
+                    if (!"not-defined".equalsIgnoreCase(getVelocityLogger())) {
+                        engine.setProperty(VelocityEngine.RESOURCE_LOADER, "classpath");
+                        engine.setProperty("classpath.resource.loader.class",
+                                ClasspathResourceLoader.class.getName());
+                    }
+                    engine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, CarbonUtils.getCarbonHome());
+                    engine.init();
+                    velocityEngine = engine;
+                }
+            }
+        }
+        return velocityEngine;
+    }
+
     /**
      * Produces final condition inside a pipeline
      *
@@ -261,15 +290,7 @@ public class ThrottlePolicyTemplateBuilder {
         Map<String, String> policyArray = new HashMap<>();
 
         try {
-            VelocityEngine velocityengine = new VelocityEngine();
-            velocityengine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
-                    CommonsLogLogChute.class.getName());
-            if (!"not-defined".equalsIgnoreCase(getVelocityLogger())) {
-                velocityengine.setProperty(VelocityEngine.RESOURCE_LOADER, "classpath");
-                velocityengine.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
-            }
-            velocityengine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, CarbonUtils.getCarbonHome());
-            velocityengine.init();
+            VelocityEngine velocityengine = getVelocityEngine();
             Template template = velocityengine.getTemplate(getTemplatePathForAPI());
             StringWriter writer;
             VelocityContext context;
@@ -328,15 +349,7 @@ public class ThrottlePolicyTemplateBuilder {
         Set<String> conditionsSet = new HashSet<>();
 
         try {
-            VelocityEngine velocityengine = new VelocityEngine();
-            velocityengine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
-                    CommonsLogLogChute.class.getName());
-            if (!"not-defined".equalsIgnoreCase(getVelocityLogger())) {
-                velocityengine.setProperty(VelocityEngine.RESOURCE_LOADER, "classpath");
-                velocityengine.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
-            }
-            velocityengine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, CarbonUtils.getCarbonHome());
-            velocityengine.init();
+            VelocityEngine velocityengine = getVelocityEngine();
             Template template = velocityengine.getTemplate(getTemplatePathForAPIDefaultPolicy());
             StringWriter writer;
             VelocityContext context;
@@ -396,15 +409,7 @@ public class ThrottlePolicyTemplateBuilder {
             log.debug("Generating policy for global level :" + policy.toString());
         }
         try {
-            VelocityEngine velocityengine = new VelocityEngine();
-            velocityengine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
-                    CommonsLogLogChute.class.getName());
-            if (!"not-defined".equalsIgnoreCase(getVelocityLogger())) {
-                velocityengine.setProperty(VelocityEngine.RESOURCE_LOADER, "classpath");
-                velocityengine.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
-            }
-            velocityengine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, CarbonUtils.getCarbonHome());
-            velocityengine.init();
+            VelocityEngine velocityengine = getVelocityEngine();
 
             Template template = velocityengine.getTemplate(getTemplatePathForGlobal());
 
@@ -439,15 +444,7 @@ public class ThrottlePolicyTemplateBuilder {
         }
 
         try {
-            VelocityEngine velocityengine = new VelocityEngine();
-            velocityengine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
-                    CommonsLogLogChute.class.getName());
-            if (!"not-defined".equalsIgnoreCase(getVelocityLogger())) {
-                velocityengine.setProperty(VelocityEngine.RESOURCE_LOADER, "classpath");
-                velocityengine.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
-            }
-            velocityengine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, CarbonUtils.getCarbonHome());
-            velocityengine.init();
+            VelocityEngine velocityengine = getVelocityEngine();
             Template template = velocityengine.getTemplate(getTemplatePathForApplication());
 
             VelocityContext context = new VelocityContext();
@@ -482,15 +479,7 @@ public class ThrottlePolicyTemplateBuilder {
         }
 
         try {
-            VelocityEngine velocityengine = new VelocityEngine();
-            velocityengine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
-                    CommonsLogLogChute.class.getName());
-            if (!"not-defined".equalsIgnoreCase(getVelocityLogger())) {
-                velocityengine.setProperty(VelocityEngine.RESOURCE_LOADER, "classpath");
-                velocityengine.setProperty("classpath.resource.loader.class", ClasspathResourceLoader.class.getName());
-            }
-            velocityengine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, CarbonUtils.getCarbonHome());
-            velocityengine.init();
+            VelocityEngine velocityengine = getVelocityEngine();
             Template template;
             if (PolicyConstants.EVENT_COUNT_TYPE.equals(policy.getDefaultLimit().getQuotaType())) {
                 template = velocityengine.getTemplate(getTemplatePathForAsyncSubscription());
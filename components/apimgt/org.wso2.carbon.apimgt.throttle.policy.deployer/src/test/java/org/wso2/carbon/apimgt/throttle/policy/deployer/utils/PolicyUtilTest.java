@@ -17,6 +17,7 @@
  */
 package org.wso2.carbon.apimgt.throttle.policy.deployer.utils;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -55,11 +56,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RunWith(PowerMockRunner.class)
 @SuppressStaticInitializationFor("org.wso2.carbon.context.PrivilegedCarbonContext")
 @PrepareForTest({ServiceReferenceHolder.class, PrivilegedCarbonContext.class, PolicyUtil.class})
 public class PolicyUtilTest {
+    private static final Pattern PLAN_NAME_PATTERN = Pattern.compile("@Plan:name\\('([^']*)'\\)");
     private EventProcessorService eventProcessorService;
     private PolicyRetriever policyRetriever;
 
@@ -376,4 +381,162 @@ public class PolicyUtilTest {
         Mockito.verify(eventProcessorService, Mockito.times(5)).deployExecutionPlan(Mockito.anyString());
     }
 
+    @Test
+    public void testDeployAllPoliciesMatchesFullRedeploy() throws Exception {
+
+        mockPolicies();
+        ThrottlePolicyTemplateBuilder templateBuilder = new ThrottlePolicyTemplateBuilder();
+        Map<String, String> expectedPlans = new HashMap<>();
+        String subscriptionPlan = templateBuilder.getThrottlePolicyForSubscriptionLevel(TestUtil.getPolicySubLevel());
+        String applicationPlan = templateBuilder.getThrottlePolicyForAppLevel(TestUtil.getPolicyAppLevel());
+        for (String plan : new String[]{subscriptionPlan, applicationPlan,
+                templateBuilder.getThrottlePolicyForAPILevelDefault(TestUtil.getPolicyAPILevel()),
+                templateBuilder.getThrottlePolicyForGlobalLevel(TestUtil.getPolicyGlobalLevel())}) {
+            expectedPlans.put(getPlanName(plan), plan);
+        }
+        for (String plan : templateBuilder.getThrottlePolicyForAPILevel(TestUtil.getPolicyAPILevel()).values()) {
+            expectedPlans.put(getPlanName(plan), plan);
+        }
+
+        // Active plans left by a previous deployment: an unchanged plan, a changed plan, a plan of a removed policy
+        // and an excluded plan
+        Map<String, String> activePlans = mockActivePlans();
+        activePlans.put(getPlanName(applicationPlan), applicationPlan);
+        activePlans.put(getPlanName(subscriptionPlan), subscriptionPlan.replace("policy1", "policy1 "));
+        activePlans.put("carbon.super_app_removed", "REMOVED_EXECUTION_PLAN");
+        activePlans.put("skipPolicy1", "SKIPPED_EXECUTION_PLAN");
+
+        PolicyUtil.deployAllPolicies();
+
+        Map<String, String> fullRedeployPlans = new HashMap<>(expectedPlans);
+        fullRedeployPlans.put("skipPolicy1", "SKIPPED_EXECUTION_PLAN");
+        Assert.assertEquals(fullRedeployPlans, activePlans);
+        Mockito.verify(eventProcessorService, Mockito.times(1))
+                .editActiveExecutionPlan(subscriptionPlan, getPlanName(subscriptionPlan));
+        Mockito.verify(eventProcessorService, Mockito.never())
+                .editActiveExecutionPlan(Mockito.eq(applicationPlan), Mockito.anyString());
+        Mockito.verify(eventProcessorService, Mockito.never()).deployExecutionPlan(applicationPlan);
+        Mockito.verify(eventProcessorService, Mockito.times(3)).deployExecutionPlan(Mockito.anyString());
+        Mockito.verify(eventProcessorService, Mockito.times(1))
+                .undeployActiveExecutionPlan("carbon.super_app_removed");
+        Mockito.verify(eventProcessorService, Mockito.never()).undeployActiveExecutionPlan("skipPolicy1");
+
+        // A redeployment without any policy change does not touch the active plans
+        PolicyUtil.deployAllPolicies();
+        Assert.assertEquals(fullRedeployPlans, activePlans);
+        Mockito.verify(eventProcessorService, Mockito.times(1))
+                .editActiveExecutionPlan(Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(eventProcessorService, Mockito.times(3)).deployExecutionPlan(Mockito.anyString());
+    }
+
+    @Test
+    public void testDeployAllPoliciesKeepsPlansWhenRetrievalFails() throws Exception {
+
+        Map<String, String> activePlans = mockActivePlans();
+        activePlans.put("carbon.super_app_policy1", "EXECUTION_PLAN");
+        Mockito.when(policyRetriever.getAllSubscriptionPolicies())
+                .thenThrow(new ThrottlePolicyDeployerException("Error while retrieving policies"));
+
+        PolicyUtil.deployAllPolicies();
+
+        Assert.assertEquals(1, activePlans.size());
+        Mockito.verify(eventProcessorService, Mockito.never()).undeployActiveExecutionPlan(Mockito.anyString());
+    }
+
+    @Test
+    public void testDeployAllPoliciesKeepsPlansOfFailedPolicies() throws Exception {
+
+        mockPolicies();
+        SubscriptionPolicy brokenPolicy = TestUtil.getPolicySubLevel();
+        brokenPolicy.setName("broken");
+        // A policy without a default limit fails to render
+        brokenPolicy.setDefaultLimit(null);
+        SubscriptionPolicyList subscriptionPolicyList = new SubscriptionPolicyList();
+        List<SubscriptionPolicy> subscriptionPolicies = new ArrayList<>();
+        subscriptionPolicies.add(TestUtil.getPolicySubLevel());
+        subscriptionPolicies.add(brokenPolicy);
+        subscriptionPolicyList.setList(subscriptionPolicies);
+        Mockito.when(policyRetriever.getAllSubscriptionPolicies()).thenReturn(subscriptionPolicyList);
+
+        Map<String, String> activePlans = mockActivePlans();
+        activePlans.put("carbon.super_sub_broken", "BROKEN_EXECUTION_PLAN");
+        activePlans.put("carbon.super_app_removed", "REMOVED_EXECUTION_PLAN");
+
+        PolicyUtil.deployAllPolicies();
+
+        Assert.assertEquals("BROKEN_EXECUTION_PLAN", activePlans.get("carbon.super_sub_broken"));
+        Assert.assertFalse(activePlans.containsKey("carbon.super_app_removed"));
+        Mockito.verify(eventProcessorService, Mockito.never())
+                .undeployActiveExecutionPlan("carbon.super_sub_broken");
+    }
+
+    private void mockPolicies() throws ThrottlePolicyDeployerException {
+
+        SubscriptionPolicyList subscriptionPolicyList = new SubscriptionPolicyList();
+        List<SubscriptionPolicy> subscriptionPolicies = new ArrayList<>();
+        subscriptionPolicies.add(TestUtil.getPolicySubLevel());
+        subscriptionPolicyList.setList(subscriptionPolicies);
+        Mockito.when(policyRetriever.getAllSubscriptionPolicies()).thenReturn(subscriptionPolicyList);
+
+        ApplicationPolicyList applicationPolicyList = new ApplicationPolicyList();
+        List<ApplicationPolicy> applicationPolicies = new ArrayList<>();
+        applicationPolicies.add(TestUtil.getPolicyAppLevel());
+        applicationPolicyList.setList(applicationPolicies);
+        Mockito.when(policyRetriever.getAllApplicationPolicies()).thenReturn(applicationPolicyList);
+
+        ApiPolicyList apiPolicyList = new ApiPolicyList();
+        List<ApiPolicy> apiPolicies = new ArrayList<>();
+        apiPolicies.add(TestUtil.getPolicyAPILevel());
+        apiPolicyList.setList(apiPolicies);
+        Mockito.when(policyRetriever.getAllApiPolicies()).thenReturn(apiPolicyList);
+
+        GlobalPolicyList globalPolicyList = new GlobalPolicyList();
+        List<GlobalPolicy> globalPolicies = new ArrayList<>();
+        globalPolicies.add(TestUtil.getPolicyGlobalLevel());
+        globalPolicyList.setList(globalPolicies);
+        Mockito.when(policyRetriever.getAllGlobalPolicies()).thenReturn(globalPolicyList);
+    }
+
+    /**
+     * Backs the event processor service with a map of the active execution plans keyed by their names.
+     */
+    private Map<String, String> mockActivePlans() throws Exception {
+
+        Map<String, String> activePlans = new ConcurrentHashMap<>();
+        Mockito.when(eventProcessorService.getAllActiveExecutionConfigurations()).thenAnswer(invocation -> {
+            Map<String, ExecutionPlanConfiguration> configurations = new HashMap<>();
+            for (String planName : activePlans.keySet()) {
+                configurations.put(planName, Mockito.mock(ExecutionPlanConfiguration.class));
+            }
+            return configurations;
+        });
+        Mockito.when(eventProcessorService.getActiveExecutionPlan(Mockito.anyString())).thenAnswer(invocation -> {
+            String plan = activePlans.get((String) invocation.getArguments()[0]);
+            if (plan == null) {
+                throw Mockito.mock(ExecutionPlanConfigurationException.class);
+            }
+            return plan;
+        });
+        Mockito.doAnswer(invocation -> {
+            String plan = (String) invocation.getArguments()[0];
+            activePlans.put(getPlanName(plan), plan);
+            return null;
+        }).when(eventProcessorService).deployExecutionPlan(Mockito.anyString());
+        Mockito.doAnswer(invocation -> {
+            activePlans.put((String) invocation.getArguments()[1], (String) invocation.getArguments()[0]);
+            return null;
+        }).when(eventProcessorService).editActiveExecutionPlan(Mockito.anyString(), Mockito.anyString());
+        Mockito.doAnswer(invocation -> {
+            activePlans.remove((String) invocation.getArguments()[0]);
+            return null;
+        }).when(eventProcessorService).undeployActiveExecutionPlan(Mockito.anyString());
+        return activePlans;
+    }
+
+    private static String getPlanName(String executionPlan) {
+
+        Matcher matcher = PLAN_NAME_PATTERN.matcher(executionPlan);
+        Assert.assertTrue(matcher.find());
+        return matcher.group(1);
+    }
 }
@@ -43,20 +43,32 @@ import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 import org.wso2.siddhi.query.api.expression.Expression;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Time window used by the Async API throttle policies, which counts the events of each throttle key within a batch
+ * and marks the events beyond the maximum event count as throttled.
+ * <p>
+ * The per key counters are kept in a concurrent map and the events of a call are emitted as expired events within the
+ * same call, hence concurrent publishers only share the counters and need not be serialized on a monitor, nor buffered
+ * in per thread shards as in {@link ThrottleStreamProcessor}. The counters are only locked exclusively when the batch
+ * rolls over and they are cleared.
+ */
 public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements SchedulingProcessor, FindableProcessor {
     private long timeInMilliSeconds;
     private final ComplexEventChunk<StreamEvent> expiredEventChunk = new ComplexEventChunk<StreamEvent>(true);
     private Scheduler scheduler;
     private ExecutionPlanContext executionPlanContext;
-    private long expireEventTime = -1;
+    private final ReentrantReadWriteLock windowLock = new ReentrantReadWriteLock();
+    private volatile long expireEventTime = -1;
     private long startTime = -1;
     private long maxEventCount = -1;
-    private final Map<String, AtomicLong> throttledStateMap = new HashMap<>();
+    private final Map<String, AtomicLong> throttledStateMap = new ConcurrentHashMap<>();
 
 
     @Override
@@ -129,57 +141,62 @@ public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements
     protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
                            StreamEventCloner streamEventCloner, ComplexEventPopulater complexEventPopulater) {
 
-        synchronized (this) {
-            long currentTime = executionPlanContext.getTimestampGenerator().currentTime();
-            if (expireEventTime == -1) {
-                if (startTime != -1) {
-                    expireEventTime = addTimeShift(currentTime);
-                } else {
-                    expireEventTime = executionPlanContext.getTimestampGenerator().currentTime() + timeInMilliSeconds;
+        if (isBatchExpired()) {
+            Lock writeLock = windowLock.writeLock();
+            writeLock.lock();
+            try {
+                long currentTime = executionPlanContext.getTimestampGenerator().currentTime();
+                if (expireEventTime == -1) {
+                    if (startTime != -1) {
+                        expireEventTime = addTimeShift(currentTime);
+                    } else {
+                        expireEventTime = currentTime + timeInMilliSeconds;
+                    }
+                    scheduler.notifyAt(expireEventTime);
                 }
-                scheduler.notifyAt(expireEventTime);
-
-            }
 
-            if (currentTime >= expireEventTime) {
-                expireEventTime += timeInMilliSeconds;
-                scheduler.notifyAt(expireEventTime);
-                throttledStateMap.clear();
+                if (currentTime >= expireEventTime) {
+                    expireEventTime += timeInMilliSeconds;
+                    scheduler.notifyAt(expireEventTime);
+                    throttledStateMap.clear();
+                }
+            } finally {
+                writeLock.unlock();
             }
+        }
 
+        ComplexEventChunk<StreamEvent> expiredEvents = new ComplexEventChunk<StreamEvent>(true);
+        Lock readLock = windowLock.readLock();
+        readLock.lock();
+        try {
+            // The counters can not be cleared while the read lock is held, hence the events are counted against the
+            // batch ending at the expire event time read here
+            long currentExpireEventTime = expireEventTime;
             while (streamEventChunk.hasNext()) {
-                String throttleKey;
-                long eventCount;
                 StreamEvent streamEvent = streamEventChunk.next();
                 if (streamEvent.getType() != ComplexEvent.Type.CURRENT) {
                     continue;
                 }
+                boolean isThrottled = false;
                 if (streamEvent.getOutputData()[0] != null) {
-                    throttleKey = streamEvent.getOutputData()[0].toString();
-                    if (throttledStateMap.containsKey(throttleKey)) {
-                        eventCount = throttledStateMap.get(throttleKey).incrementAndGet();
-                        if (eventCount > maxEventCount) {
-                            complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime, true});
-                        } else {
-                            complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime, false});
-                        }
-                    } else {
-                        throttledStateMap.put(throttleKey, new AtomicLong(1));
-                        complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime, false});
-                    }
-                } else {
-                    complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime, false});
+                    String throttleKey = streamEvent.getOutputData()[0].toString();
+                    long eventCount = throttledStateMap.computeIfAbsent(throttleKey, key -> new AtomicLong())
+                            .incrementAndGet();
+                    isThrottled = eventCount > maxEventCount;
                 }
+                complexEventPopulater.populateComplexEvent(streamEvent,
+                        new Object[]{currentExpireEventTime, isThrottled});
                 StreamEvent clonedStreamEvent = streamEventCloner.copyStreamEvent(streamEvent);
                 clonedStreamEvent.setType(StreamEvent.Type.EXPIRED);
-                clonedStreamEvent.setTimestamp(expireEventTime);
-                expiredEventChunk.add(clonedStreamEvent);
-            }
-            expiredEventChunk.reset();
-            if (expiredEventChunk.getFirst() != null) {
-                streamEventChunk.add(expiredEventChunk.getFirst());
+                clonedStreamEvent.setTimestamp(currentExpireEventTime);
+                expiredEvents.add(clonedStreamEvent);
             }
-            expiredEventChunk.clear();
+        } finally {
+            readLock.unlock();
+        }
+        expiredEvents.reset();
+        if (expiredEvents.getFirst() != null) {
+            streamEventChunk.add(expiredEvents.getFirst());
         }
         if (streamEventChunk.getFirst() != null) {
             streamEventChunk.setBatch(true);
@@ -188,6 +205,12 @@ public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements
         }
     }
 
+    private boolean isBatchExpired() {
+        long currentExpireEventTime = expireEventTime;
+        return currentExpireEventTime == -1
+                || executionPlanContext.getTimestampGenerator().currentTime() >= currentExpireEventTime;
+    }
+
     @Override
     public void start() {
         //Do nothing
@@ -200,20 +223,38 @@ public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements
 
     @Override
     public Object[] currentState() {
-        return new Object[]{new Object[]{expiredEventChunk.getFirst(),throttledStateMap}};
+        Lock writeLock = windowLock.writeLock();
+        writeLock.lock();
+        try {
+            return new Object[]{new Object[]{expiredEventChunk.getFirst(), throttledStateMap}};
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     @Override
     public void restoreState(Object[] state) {
-        expiredEventChunk.clear();
-        expiredEventChunk.add((StreamEvent) state[0]);
-        throttledStateMap.clear();
-        throttledStateMap.putAll((Map<? extends String, ? extends AtomicLong>) state[1]);
+        Lock writeLock = windowLock.writeLock();
+        writeLock.lock();
+        try {
+            expiredEventChunk.clear();
+            expiredEventChunk.add((StreamEvent) state[0]);
+            throttledStateMap.clear();
+            throttledStateMap.putAll((Map<? extends String, ? extends AtomicLong>) state[1]);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     @Override
-    public synchronized StreamEvent find(StateEvent matchingEvent, Finder finder) {
-        return finder.find(matchingEvent, expiredEventChunk, streamEventCloner);
+    public StreamEvent find(StateEvent matchingEvent, Finder finder) {
+        Lock writeLock = windowLock.writeLock();
+        writeLock.lock();
+        try {
+            return finder.find(matchingEvent, expiredEventChunk, streamEventCloner);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     @Override
@@ -44,14 +44,30 @@ import org.wso2.siddhi.query.api.expression.Expression;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Time batch window used by the throttle policies. Events of a batch are emitted as expired events once the batch
+ * time elapses.
+ * <p>
+ * Events which arrive within a batch are buffered in shards selected by the processing thread, so that concurrent
+ * publishers do not contend on a single monitor. The shards are only locked exclusively when the batch rolls over,
+ * at which point the events of all the shards are emitted together, hence the output is the same as that of a single
+ * buffer. The number of shards is configured with the system property 'throttleWindowShardCount' and defaults to the
+ * number of available processors.
+ */
 public class ThrottleStreamProcessor extends StreamProcessor implements SchedulingProcessor, FindableProcessor {
 
+    public static final String SHARD_COUNT_PROPERTY = "throttleWindowShardCount";
+
     private long timeInMilliSeconds;
     private ComplexEventChunk<StreamEvent> expiredEventChunk = new ComplexEventChunk<StreamEvent>(true);
+    private List<ComplexEventChunk<StreamEvent>> expiredEventShards;
+    private final ReentrantReadWriteLock windowLock = new ReentrantReadWriteLock();
     private Scheduler scheduler;
     private ExecutionPlanContext executionPlanContext;
-    private long expireEventTime = -1;
+    private volatile long expireEventTime = -1;
     private long startTime = -1;
 
     @Override
@@ -121,6 +137,13 @@ public class ThrottleStreamProcessor extends StreamProcessor implements Scheduli
                                                        + attributeExpressionExecutors.length + " input attributes");
         }
 
+        int shardCount = Math.max(1, Integer.getInteger(SHARD_COUNT_PROPERTY,
+                Runtime.getRuntime().availableProcessors()));
+        expiredEventShards = new ArrayList<ComplexEventChunk<StreamEvent>>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            expiredEventShards.add(new ComplexEventChunk<StreamEvent>(true));
+        }
+
         List<Attribute> attributeList = new ArrayList<Attribute>();
         attributeList.add(new Attribute("expiryTimeStamp", Attribute.Type.LONG));
         return attributeList;
@@ -130,44 +153,60 @@ public class ThrottleStreamProcessor extends StreamProcessor implements Scheduli
     protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
                            StreamEventCloner streamEventCloner, ComplexEventPopulater complexEventPopulater) {
 
-        synchronized (this) {
-            if (expireEventTime == -1) {
-                long currentTime = executionPlanContext.getTimestampGenerator().currentTime();
-                if (startTime != -1) {
-                    expireEventTime = addTimeShift(currentTime);
-                } else {
-                    expireEventTime = executionPlanContext.getTimestampGenerator().currentTime() + timeInMilliSeconds;
+        boolean processed = false;
+        if (!isBatchExpired()) {
+            Lock readLock = windowLock.readLock();
+            readLock.lock();
+            try {
+                // The batch can not roll over while the read lock is held, hence the events are added to the
+                // current batch
+                if (!isBatchExpired()) {
+                    ComplexEventChunk<StreamEvent> shard = expiredEventShards.get(
+                            (int) (Thread.currentThread().getId() % expiredEventShards.size()));
+                    synchronized (shard) {
+                        addExpiredEvents(streamEventChunk, shard, streamEventCloner, complexEventPopulater);
+                    }
+                    processed = true;
                 }
-                scheduler.notifyAt(expireEventTime);
-            }
-            long currentTime = executionPlanContext.getTimestampGenerator().currentTime();
-            boolean sendEvents;
-            if (currentTime >= expireEventTime) {
-                expireEventTime += timeInMilliSeconds;
-                scheduler.notifyAt(expireEventTime);
-                sendEvents = true;
-            } else {
-                sendEvents = false;
+            } finally {
+                readLock.unlock();
             }
-
-            while (streamEventChunk.hasNext()) {
-                StreamEvent streamEvent = streamEventChunk.next();
-                if (streamEvent.getType() != ComplexEvent.Type.CURRENT) {
-                    continue;
+        }
+        if (!processed) {
+            Lock writeLock = windowLock.writeLock();
+            writeLock.lock();
+            try {
+                if (expireEventTime == -1) {
+                    long currentTime = executionPlanContext.getTimestampGenerator().currentTime();
+                    if (startTime != -1) {
+                        expireEventTime = addTimeShift(currentTime);
+                    } else {
+                        expireEventTime = executionPlanContext.getTimestampGenerator().currentTime()
+                                + timeInMilliSeconds;
+                    }
+                    scheduler.notifyAt(expireEventTime);
+                }
+                long currentTime = executionPlanContext.getTimestampGenerator().currentTime();
+                boolean sendEvents;
+                if (currentTime >= expireEventTime) {
+                    expireEventTime += timeInMilliSeconds;
+                    scheduler.notifyAt(expireEventTime);
+                    sendEvents = true;
+                } else {
+                    sendEvents = false;
                 }
 
-                complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime});
-                StreamEvent clonedStreamEvent = streamEventCloner.copyStreamEvent(streamEvent);
-                clonedStreamEvent.setType(StreamEvent.Type.EXPIRED);
-                clonedStreamEvent.setTimestamp(expireEventTime);
-                expiredEventChunk.add(clonedStreamEvent);
-            }
-            if (sendEvents) {
-                expiredEventChunk.reset();
-                if (expiredEventChunk.getFirst() != null) {
-                    streamEventChunk.add(expiredEventChunk.getFirst());
+                mergeShards();
+                addExpiredEvents(streamEventChunk, expiredEventChunk, streamEventCloner, complexEventPopulater);
+                if (sendEvents) {
+                    expiredEventChunk.reset();
+                    if (expiredEventChunk.getFirst() != null) {
+                        streamEventChunk.add(expiredEventChunk.getFirst());
+                    }
+                    expiredEventChunk.clear();
                 }
-                expiredEventChunk.clear();
+            } finally {
+                writeLock.unlock();
             }
         }
         if (streamEventChunk.getFirst() != null) {
@@ -177,6 +216,41 @@ public class ThrottleStreamProcessor extends StreamProcessor implements Scheduli
         }
     }
 
+    private boolean isBatchExpired() {
+        long currentExpireEventTime = expireEventTime;
+        return currentExpireEventTime == -1
+                || executionPlanContext.getTimestampGenerator().currentTime() >= currentExpireEventTime;
+    }
+
+    private void addExpiredEvents(ComplexEventChunk<StreamEvent> streamEventChunk,
+                                  ComplexEventChunk<StreamEvent> expiredEvents, StreamEventCloner streamEventCloner,
+                                  ComplexEventPopulater complexEventPopulater) {
+        while (streamEventChunk.hasNext()) {
+            StreamEvent streamEvent = streamEventChunk.next();
+            if (streamEvent.getType() != ComplexEvent.Type.CURRENT) {
+                continue;
+            }
+
+            complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime});
+            StreamEvent clonedStreamEvent = streamEventCloner.copyStreamEvent(streamEvent);
+            clonedStreamEvent.setType(StreamEvent.Type.EXPIRED);
+            clonedStreamEvent.setTimestamp(expireEventTime);
+            expiredEvents.add(clonedStreamEvent);
+        }
+    }
+
+    /**
+     * Moves the events buffered in the shards to the expired event chunk. Must be called holding the write lock.
+     */
+    private void mergeShards() {
+        for (ComplexEventChunk<StreamEvent> shard : expiredEventShards) {
+            if (shard.getFirst() != null) {
+                expiredEventChunk.add(shard.getFirst());
+                shard.clear();
+            }
+        }
+    }
+
     @Override
     public void start() {
         //Do nothing
@@ -189,18 +263,41 @@ public class ThrottleStreamProcessor extends StreamProcessor implements Scheduli
 
     @Override
     public Object[] currentState() {
-        return new Object[]{expiredEventChunk.getFirst()};
+        Lock writeLock = windowLock.writeLock();
+        writeLock.lock();
+        try {
+            mergeShards();
+            return new Object[]{expiredEventChunk.getFirst()};
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     @Override
     public void restoreState(Object[] state) {
-        expiredEventChunk.clear();
-        expiredEventChunk.add((StreamEvent) state[0]);
+        Lock writeLock = windowLock.writeLock();
+        writeLock.lock();
+        try {
+            for (ComplexEventChunk<StreamEvent> shard : expiredEventShards) {
+                shard.clear();
+            }
+            expiredEventChunk.clear();
+            expiredEventChunk.add((StreamEvent) state[0]);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     @Override
-    public synchronized StreamEvent find(StateEvent matchingEvent, Finder finder) {
-        return finder.find(matchingEvent, expiredEventChunk, streamEventCloner);
+    public StreamEvent find(StateEvent matchingEvent, Finder finder) {
+        Lock writeLock = windowLock.writeLock();
+        writeLock.lock();
+        try {
+            mergeShards();
+            return finder.find(matchingEvent, expiredEventChunk, streamEventCloner);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     @Override
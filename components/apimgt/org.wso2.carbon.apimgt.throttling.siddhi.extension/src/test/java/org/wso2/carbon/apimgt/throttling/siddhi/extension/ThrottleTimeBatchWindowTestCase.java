@@ -29,6 +29,10 @@ import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ThrottleTimeBatchWindowTestCase {
     private static final Log log = LogFactory.getLog(ThrottleTimeBatchWindowTestCase.class);
     private int inEventCount;
@@ -181,4 +185,87 @@ public class ThrottleTimeBatchWindowTestCase {
     }
 
 
+    @Test
+    public void throttleTimeWindowBatchShardedTest() throws InterruptedException {
+
+        int publisherCount = 4;
+        int eventsPerPublisher = 5000;
+        for (int shardCount : new int[]{1, publisherCount}) {
+            System.setProperty(ThrottleStreamProcessor.SHARD_COUNT_PROPERTY, String.valueOf(shardCount));
+            try {
+                SiddhiManager siddhiManager = new SiddhiManager();
+                // Playback mode drives the window by the event timestamps instead of the wall clock
+                String cseEventStream = "@Plan:playback " +
+                        "define stream cseEventStream (symbol string, price float, volume int);";
+                String query = "" +
+                        "@info(name = 'query1') " +
+                        "from cseEventStream#throttler:timeBatch(2 sec) " +
+                        "select symbol, price, volume, expiryTimeStamp " +
+                        "insert all events into outputStream ;";
+                ExecutionPlanRuntime executionPlanRuntime =
+                        siddhiManager.createExecutionPlanRuntime(cseEventStream + query);
+                AtomicInteger currentEvents = new AtomicInteger();
+                AtomicInteger expiredEvents = new AtomicInteger();
+                executionPlanRuntime.addCallback("query1", new QueryCallback() {
+                    @Override
+                    public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                        currentEvents.addAndGet(countPublishedEvents(inEvents));
+                        expiredEvents.addAndGet(countPublishedEvents(removeEvents));
+                    }
+                });
+                InputHandler inputHandler = executionPlanRuntime.getInputHandler("cseEventStream");
+                executionPlanRuntime.start();
+
+                List<Thread> publishers = new ArrayList<Thread>();
+                for (int i = 0; i < publisherCount; i++) {
+                    final String symbol = "SYMBOL" + i;
+                    publishers.add(new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                for (int j = 0; j < eventsPerPublisher; j++) {
+                                    inputHandler.send(1000, new Object[]{symbol, 10f, j});
+                                }
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                    }));
+                }
+                long startTime = System.nanoTime();
+                for (Thread publisher : publishers) {
+                    publisher.start();
+                }
+                for (Thread publisher : publishers) {
+                    publisher.join();
+                }
+                long elapsedNanos = Math.max(1, System.nanoTime() - startTime);
+                log.info("Throttle batch window with " + shardCount + " shard(s) processed "
+                        + (publisherCount * eventsPerPublisher * 1000000000L / elapsedNanos) + " events per second");
+
+                Assert.assertEquals(publisherCount * eventsPerPublisher, currentEvents.get());
+                Assert.assertEquals(0, expiredEvents.get());
+
+                // Moves the event time past the end of the batch, which expires all the published events
+                inputHandler.send(3500, new Object[]{"TICK", 10f, 0});
+                Assert.assertEquals(publisherCount * eventsPerPublisher, currentEvents.get());
+                Assert.assertEquals(publisherCount * eventsPerPublisher, expiredEvents.get());
+                executionPlanRuntime.shutdown();
+            } finally {
+                System.clearProperty(ThrottleStreamProcessor.SHARD_COUNT_PROPERTY);
+            }
+        }
+    }
+
+    private static int countPublishedEvents(Event[] events) {
+        int count = 0;
+        if (events != null) {
+            for (Event event : events) {
+                if (((String) event.getData(0)).startsWith("SYMBOL")) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
 }
@@ -163,4 +163,68 @@ public class ThrottlingTimeLengthWindowTestCase {
 
     }
 
+    @Test
+    public void throttleTimeLengthWindowConcurrentTest() throws InterruptedException {
+
+        int publisherCount = 4;
+        int eventsPerPublisher = 1000;
+        int maxEventCount = 2000;
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        // Playback mode drives the window by the event timestamps instead of the wall clock
+        String requestStream = "@Plan:playback " +
+                "define stream RequestStream (messageID string, isEligible bool, throttleKey string);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from RequestStream#throttler:timeLength(5 sec,0, " + maxEventCount + ") " +
+                "select throttleKey, isThrottled, expiryTimeStamp " +
+                "insert all events into outputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(requestStream + query);
+        AtomicInteger allowedEvents = new AtomicInteger();
+        AtomicInteger throttledEvents = new AtomicInteger();
+        executionPlanRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        if ((Boolean) event.getData(1)) {
+                            throttledEvents.incrementAndGet();
+                        } else {
+                            allowedEvents.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("RequestStream");
+        executionPlanRuntime.start();
+        Thread[] publishers = new Thread[publisherCount];
+        for (int i = 0; i < publisherCount; i++) {
+            publishers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < eventsPerPublisher; j++) {
+                            inputHandler.send(1000, new Object[]{"message123", true, "message123:1234"});
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            publishers[i].start();
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+        Assert.assertEquals(maxEventCount, allowedEvents.get());
+        Assert.assertEquals(publisherCount * eventsPerPublisher - maxEventCount, throttledEvents.get());
+
+        // The counters are cleared once the event time moves past the end of the batch
+        inputHandler.send(7000, new Object[]{"message123", true, "message123:1234"});
+        Assert.assertEquals(maxEventCount + 1, allowedEvents.get());
+        executionPlanRuntime.shutdown();
+    }
 }